@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import cleo.search.util.BackpressurePolicy;
+import cleo.search.util.IngestionPipeline;
+import cleo.search.util.Range;
+
+/**
+ * IndexerPipeline - Indexes elements asynchronously through a bounded pipeline partitioned by element ID.
+ * 
+ * <p>
+ * {@link #index(Element)} returns as soon as the element is accepted by the pipeline, while
+ * {@link #flush()} waits for all accepted elements to be indexed before flushing the wrapped indexer.
+ * If the wrapped indexer is a {@link RangeIndexer}, elements outside its range are rejected up front
+ * and the pipeline reports the same range, so that {@link MultiIndexer} routes elements to it.
+ * 
+ * @since 10/18, 2026
+ * 
+ * @param <E> Element to Index
+ */
+public class IndexerPipeline<E extends Element> extends IngestionPipeline<E> implements RangeIndexer<E> {
+  private final Indexer<E> indexer;
+  private final Range range;
+  
+  public IndexerPipeline(String name, Indexer<E> indexer) {
+    this(name, indexer, DEFAULT_NUM_PARTITIONS, DEFAULT_PARTITION_CAPACITY, DEFAULT_BATCH_SIZE, 0, BackpressurePolicy.BLOCK);
+  }
+  
+  /**
+   * Creates a new IndexerPipeline.
+   * 
+   * @param name              - the name
+   * @param indexer           - the indexer to wrap
+   * @param numPartitions     - the number of partitions (i.e. consumer threads)
+   * @param partitionCapacity - the number of elements buffered by a partition
+   * @param batchSize         - the maximum number of elements taken by a consumer at a time
+   * @param lingerMillis      - the time a consumer waits to fill a batch
+   * @param policy            - the backpressure policy
+   */
+  public IndexerPipeline(String name,
+                         Indexer<E> indexer,
+                         int numPartitions,
+                         int partitionCapacity,
+                         int batchSize,
+                         long lingerMillis,
+                         BackpressurePolicy policy) {
+    super(name, numPartitions, partitionCapacity, batchSize, lingerMillis, policy);
+    this.indexer = indexer;
+    this.range = (indexer instanceof RangeIndexer<?>) ? ((RangeIndexer<E>)indexer).getRange() : null;
+  }
+  
+  public final Indexer<E> getIndexer() {
+    return indexer;
+  }
+  
+  /**
+   * @return the range of the wrapped indexer, or <code>null</code> if it is not a {@link RangeIndexer}.
+   */
+  @Override
+  public final Range getRange() {
+    return range;
+  }
+  
+  @Override
+  protected int getKey(E element) {
+    return element.getElementId();
+  }
+  
+  @Override
+  protected boolean process(E element) throws Exception {
+    return indexer.index(element);
+  }
+  
+  /**
+   * Offers an element to the pipeline.
+   * 
+   * @return <code>true</code> if the element is accepted for indexing, <code>false</code> if it is
+   *         outside the range of the wrapped indexer or dropped.
+   * @throws Exception - NullPointerException is thrown upon a <code>null</code> element.
+   */
+  @Override
+  public boolean index(E element) throws Exception {
+    if(element == null) {
+      throw new NullPointerException("element");
+    }
+    if(range != null && !range.has(element.getElementId())) {
+      return false;
+    }
+    return offer(element);
+  }
+  
+  @Override
+  public void flush() throws IOException {
+    try {
+      awaitCompletion();
+    } catch(InterruptedException e) {
+      throw new InterruptedIOException(getName() + " interrupted while flushing");
+    }
+    indexer.flush();
+  }
+}
@@ -20,17 +20,24 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import cleo.search.util.Range;
+import cleo.search.util.RangeRouter;
+
 /**
  * MultiIndexer
  * 
  * @author jwu
  * @since 03/15, 2011
  * 
+ * <p>
+ * 10/18, 2026 - Routed elements by binary search over the ranges of sub-indexers <br/>
+ * 
  * @param <E> Element to Index
  */
 public class MultiIndexer<E extends Element> implements Indexer<E> {
   private String name = MultiIndexer.class.getSimpleName();
   private final List<Indexer<E>> indexerList = new ArrayList<Indexer<E>>();
+  private final RangeRouter<Indexer<E>> router;
   
   public MultiIndexer(List<Indexer<E>> indexers) {
     if(indexers != null) {
@@ -40,6 +47,8 @@ public class MultiIndexer<E extends Element> implements Indexer<E> {
         }
       }
     }
+    
+    this.router = createRouter(indexerList);
   }
   
   public MultiIndexer(String name, List<Indexer<E>> indexers) {
@@ -66,8 +75,37 @@ public class MultiIndexer<E extends Element> implements Indexer<E> {
     }
   }
   
+  /**
+   * Creates a router if every indexer is a {@link RangeIndexer} with a known range and no two ranges overlap.
+   * 
+   * @return the router, or <code>null</code> if elements must be offered to indexers one by one.
+   */
+  protected static <E extends Element> RangeRouter<Indexer<E>> createRouter(List<Indexer<E>> indexers) {
+    List<Range> ranges = new ArrayList<Range>(indexers.size());
+    for(Indexer<E> indexer : indexers) {
+      if(!(indexer instanceof RangeIndexer<?>)) {
+        return null;
+      }
+      ranges.add(((RangeIndexer<E>)indexer).getRange());
+    }
+    
+    return RangeRouter.create(ranges, indexers);
+  }
+  
+  /**
+   * @return <code>true</code> if elements are routed by the ranges of sub-indexers.
+   */
+  public final boolean isRouted() {
+    return router != null;
+  }
+  
   @Override
   public boolean index(E element) throws Exception {
+    if(router != null) {
+      Indexer<E> indexer = router.find(element.getElementId());
+      return (indexer == null) ? false : indexer.index(element);
+    }
+    
     for(Indexer<E> indexer : indexerList) {
       if(indexer.index(element)) {
         return true;
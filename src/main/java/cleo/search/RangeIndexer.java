@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search;
+
+import cleo.search.util.Range;
+
+/**
+ * RangeIndexer - An indexer which only indexes the elements with IDs in its range.
+ * 
+ * @since 10/18, 2026
+ * 
+ * @param <E> Element
+ */
+public interface RangeIndexer<E extends Element> extends Indexer<E> {
+  
+  /**
+   * @return the range of element IDs indexed by this indexer, or <code>null</code> if the range is unknown.
+   */
+  public Range getRange();
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.connection;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import cleo.search.util.BackpressurePolicy;
+import cleo.search.util.IngestionPipeline;
+
+/**
+ * ConnectionIndexerPipeline - Indexes connections asynchronously through a bounded pipeline partitioned by connection source.
+ * 
+ * <p>
+ * Connections not accepted by the wrapped indexer are filtered out before they enter the pipeline.
+ * {@link #index(Connection)} returns as soon as the connection is accepted by the pipeline, while
+ * {@link #flush()} waits for all accepted connections to be indexed before flushing the wrapped indexer.
+ * The pipeline reports the connection filter of the wrapped indexer, so that {@link MultiConnectionIndexer}
+ * routes connections to it by partition range.
+ * 
+ * @since 10/18, 2026
+ */
+public class ConnectionIndexerPipeline extends IngestionPipeline<Connection> implements FilteredConnectionIndexer {
+  private final ConnectionIndexer indexer;
+  
+  public ConnectionIndexerPipeline(String name, ConnectionIndexer indexer) {
+    this(name, indexer, DEFAULT_NUM_PARTITIONS, DEFAULT_PARTITION_CAPACITY, DEFAULT_BATCH_SIZE, 0, BackpressurePolicy.BLOCK);
+  }
+  
+  /**
+   * Creates a new ConnectionIndexerPipeline.
+   * 
+   * @param name              - the name
+   * @param indexer           - the connection indexer to wrap
+   * @param numPartitions     - the number of partitions (i.e. consumer threads)
+   * @param partitionCapacity - the number of connections buffered by a partition
+   * @param batchSize         - the maximum number of connections taken by a consumer at a time
+   * @param lingerMillis      - the time a consumer waits to fill a batch
+   * @param policy            - the backpressure policy
+   */
+  public ConnectionIndexerPipeline(String name,
+                                   ConnectionIndexer indexer,
+                                   int numPartitions,
+                                   int partitionCapacity,
+                                   int batchSize,
+                                   long lingerMillis,
+                                   BackpressurePolicy policy) {
+    super(name, numPartitions, partitionCapacity, batchSize, lingerMillis, policy);
+    this.indexer = indexer;
+  }
+  
+  public final ConnectionIndexer getIndexer() {
+    return indexer;
+  }
+  
+  /**
+   * @return the connection filter of the wrapped indexer, or <code>null</code> if it is not a {@link FilteredConnectionIndexer}.
+   */
+  @Override
+  public ConnectionFilter getConnectionFilter() {
+    return (indexer instanceof FilteredConnectionIndexer) ? ((FilteredConnectionIndexer)indexer).getConnectionFilter() : null;
+  }
+  
+  @Override
+  protected int getKey(Connection conn) {
+    return conn.source();
+  }
+  
+  @Override
+  protected boolean process(Connection conn) throws Exception {
+    return indexer.index(conn);
+  }
+  
+  /**
+   * Offers a connection to the pipeline.
+   * 
+   * @return <code>true</code> if the connection is accepted for indexing, <code>false</code> if
+   *         it is not acceptable to the wrapped indexer or dropped.
+   * @throws Exception if this operation failed.
+   */
+  @Override
+  public boolean index(Connection conn) throws Exception {
+    return indexer.accept(conn) ? offer(conn) : false;
+  }
+  
+  @Override
+  public void flush() throws IOException {
+    try {
+      awaitCompletion();
+    } catch(InterruptedException e) {
+      throw new InterruptedIOException(getName() + " interrupted while flushing");
+    }
+    indexer.flush();
+  }
+  
+  @Override
+  public boolean accept(Connection conn) {
+    return indexer.accept(conn);
+  }
+  
+  @Override
+  public boolean accept(int source, int target, boolean active) {
+    return indexer.accept(source, target, active);
+  }
+}
@@ -19,17 +19,44 @@ package cleo.search.connection;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import cleo.search.util.DaemonThreadFactory;
+import cleo.search.util.Range;
+import cleo.search.util.RangeRouter;
 
 /**
  * MultiConnectionIndexer
  * 
  * @author jwu
  * @since 12/12, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Routed connections by the partition ranges of sub-indexers and indexed connections
+ *               spanning several partitions in parallel <br/>
  */
 public class MultiConnectionIndexer implements ConnectionIndexer {
   private String name = MultiConnectionIndexer.class.getSimpleName();
   private List<ConnectionIndexer> indexerList = new ArrayList<ConnectionIndexer>();
   
+  /**
+   * Sub-indexers partitioned by connection source, target or either.
+   */
+  private RangeRouter<ConnectionIndexer> sourceRouter;
+  private RangeRouter<ConnectionIndexer> targetRouter;
+  private RangeRouter<ConnectionIndexer> transitiveRouter;
+  
+  /**
+   * Sub-indexers that cannot be routed and must be probed by {@link ConnectionIndexer#accept(Connection)}.
+   */
+  private final List<ConnectionIndexer> unroutedList = new ArrayList<ConnectionIndexer>();
+  
+  private final ExecutorService executor;
+  
   /**
    * Create a new instance of {@link MultiConnectionIndexer}.
    * 
@@ -43,6 +70,56 @@ public class MultiConnectionIndexer implements ConnectionIndexer {
         }
       }
     }
+    
+    initRouters();
+    this.executor = indexerList.size() > 1 ?
+        Executors.newCachedThreadPool(new DaemonThreadFactory()) : null;
+  }
+  
+  private void initRouters() {
+    List<Range> sourceRanges = new ArrayList<Range>();
+    List<Range> targetRanges = new ArrayList<Range>();
+    List<Range> transitiveRanges = new ArrayList<Range>();
+    List<ConnectionIndexer> sourceIndexers = new ArrayList<ConnectionIndexer>();
+    List<ConnectionIndexer> targetIndexers = new ArrayList<ConnectionIndexer>();
+    List<ConnectionIndexer> transitiveIndexers = new ArrayList<ConnectionIndexer>();
+    
+    for(ConnectionIndexer indexer : indexerList) {
+      ConnectionFilter filter = (indexer instanceof FilteredConnectionIndexer) ?
+          ((FilteredConnectionIndexer)indexer).getConnectionFilter() : null;
+      
+      if(filter == null) {
+        unroutedList.add(indexer);
+      } else if(filter.getClass() == SourcePartitionConnectionFilter.class) {
+        sourceRanges.add(((PartitionConnectionFilter)filter).getPartitionRange());
+        sourceIndexers.add(indexer);
+      } else if(filter.getClass() == TargetPartitionConnectionFilter.class) {
+        targetRanges.add(((PartitionConnectionFilter)filter).getPartitionRange());
+        targetIndexers.add(indexer);
+      } else if(filter.getClass() == TransitivePartitionConnectionFilter.class) {
+        transitiveRanges.add(((PartitionConnectionFilter)filter).getPartitionRange());
+        transitiveIndexers.add(indexer);
+      } else {
+        unroutedList.add(indexer);
+      }
+    }
+    
+    sourceRouter = createRouter(sourceRanges, sourceIndexers);
+    targetRouter = createRouter(targetRanges, targetIndexers);
+    transitiveRouter = createRouter(transitiveRanges, transitiveIndexers);
+  }
+  
+  private RangeRouter<ConnectionIndexer> createRouter(List<Range> ranges, List<ConnectionIndexer> indexers) {
+    if(indexers.isEmpty()) {
+      return null;
+    }
+    
+    // Overlapping partitions fall back to probing
+    RangeRouter<ConnectionIndexer> router = RangeRouter.create(ranges, indexers);
+    if(router == null) {
+      unroutedList.addAll(indexers);
+    }
+    return router;
   }
   
   /**
@@ -77,6 +154,53 @@ public class MultiConnectionIndexer implements ConnectionIndexer {
     return indexerList;
   }
   
+  /**
+   * Gets the number of subsidiary connection indexers which cannot be routed by partition range.
+   */
+  public final int getNumUnrouted() {
+    return unroutedList.size();
+  }
+  
+  /**
+   * Collects the sub-indexers accepting a connection.
+   * 
+   * @param conn   - connection to route, <code>null</code> to probe unrouted indexers by source and target only.
+   * @param source - connection source
+   * @param target - connection target
+   * @param active - whether the connection is active or not.
+   * @param result - the list to add sub-indexers to.
+   */
+  protected void route(Connection conn, int source, int target, boolean active, List<ConnectionIndexer> result) {
+    ConnectionIndexer indexer;
+    
+    if(sourceRouter != null && (indexer = sourceRouter.find(source)) != null) {
+      result.add(indexer);
+    }
+    
+    if(targetRouter != null && (indexer = targetRouter.find(target)) != null) {
+      result.add(indexer);
+    }
+    
+    if(transitiveRouter != null) {
+      ConnectionIndexer sourceIndexer = transitiveRouter.find(source);
+      if(sourceIndexer != null) {
+        result.add(sourceIndexer);
+      }
+      
+      indexer = transitiveRouter.find(target);
+      if(indexer != null && indexer != sourceIndexer) {
+        result.add(indexer);
+      }
+    }
+    
+    for(int i = 0, cnt = unroutedList.size(); i < cnt; i++) {
+      indexer = unroutedList.get(i);
+      if(conn == null ? indexer.accept(source, target, active) : indexer.accept(conn)) {
+        result.add(indexer);
+      }
+    }
+  }
+  
   /**
    * Flushes indexes.
    * 
@@ -99,14 +223,49 @@ public class MultiConnectionIndexer implements ConnectionIndexer {
    */
   @Override
   public boolean index(Connection conn) throws Exception {
+    if(conn == null) {
+      return false;
+    }
+    
+    List<ConnectionIndexer> targets = new ArrayList<ConnectionIndexer>(2);
+    route(conn, conn.source(), conn.target(), conn.isActive(), targets);
+    
+    int cnt = targets.size();
+    if(cnt == 0) {
+      return false;
+    } else if(cnt == 1) {
+      return targets.get(0).index(conn);
+    }
+    
+    // Fan out to all but the first partition, which is indexed in the calling thread
+    List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(cnt - 1);
+    for(int i = 1; i < cnt; i++) {
+      futures.add(executor.submit(new IndexTask(targets.get(i), conn)));
+    }
+    
     boolean b = false;
+    Exception error = null;
     
-    for(ConnectionIndexer indexer : indexerList) {
-      if(indexer.accept(conn)) {
-        b = indexer.index(conn) || b;
+    try {
+      b = targets.get(0).index(conn);
+    } catch(Exception e) {
+      error = e;
+    }
+    
+    for(Future<Boolean> f : futures) {
+      try {
+        b = f.get() || b;
+      } catch(ExecutionException e) {
+        if(error == null) {
+          error = (e.getCause() instanceof Exception) ? (Exception)e.getCause() : e;
+        }
       }
     }
     
+    if(error != null) {
+      throw error;
+    }
+    
     return b;
   }
   
@@ -118,13 +277,13 @@ public class MultiConnectionIndexer implements ConnectionIndexer {
    */
   @Override
   public boolean accept(Connection conn) {
-    for(ConnectionIndexer indexer : indexerList) {
-      if(indexer.accept(conn)) {
-        return true;
-      }
+    if(conn == null) {
+      return false;
     }
     
-    return false;
+    List<ConnectionIndexer> targets = new ArrayList<ConnectionIndexer>(2);
+    route(conn, conn.source(), conn.target(), conn.isActive(), targets);
+    return targets.size() > 0;
   }
   
   /**
@@ -137,12 +296,23 @@ public class MultiConnectionIndexer implements ConnectionIndexer {
    */
   @Override
   public boolean accept(int source, int target, boolean active) {
-    for(ConnectionIndexer indexer : indexerList) {
-      if(indexer.accept(source, target, active)) {
-        return true;
-      }
+    List<ConnectionIndexer> targets = new ArrayList<ConnectionIndexer>(2);
+    route(null, source, target, active, targets);
+    return targets.size() > 0;
+  }
+  
+  private static class IndexTask implements Callable<Boolean> {
+    private final ConnectionIndexer indexer;
+    private final Connection conn;
+    
+    IndexTask(ConnectionIndexer indexer, Connection conn) {
+      this.indexer = indexer;
+      this.conn = conn;
     }
     
-    return false;
+    @Override
+    public Boolean call() throws Exception {
+      return indexer.index(conn);
+    }
   }
 }
@@ -23,6 +23,9 @@ import cleo.search.Element;
  * 
  * @author jwu
  * @since 01/12, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Added getPrefixLength <br/>
  */
 public interface BloomFilter<T> {
   
@@ -31,6 +34,11 @@ public interface BloomFilter<T> {
    */
   public int getNumBits();
   
+  /**
+   * @return the number of leading characters of a term used to compute bloom filters.
+   */
+  public int getPrefixLength();
+  
   /**
    * Computes a bloom filter for querying based on a string.
    * 
@@ -0,0 +1,399 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.filter;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import cleo.search.Element;
+import cleo.search.selector.Selector;
+import cleo.search.selector.SelectorContext;
+import cleo.search.selector.SelectorFactory;
+import cleo.search.store.ArrayStoreElement;
+import cleo.search.store.StridedLongArrayPartition;
+
+/**
+ * BloomFilterTuner - Simulates candidate bloom filters on sampled elements and queries to recommend a configuration.
+ * 
+ * <p>
+ * Every query is checked against every sampled element as a full scan would do. For each candidate, the tuner
+ * counts the elements passing the filter and those among them actually selected by the selector, which yields
+ * the filter pass rate (the share of elements to be deserialized) and the false positive ratio (the share of
+ * deserialized elements rejected by the selector).
+ * 
+ * <p>
+ * {@link cleo.search.typeahead.GenericTypeahead} keeps a single 64-bit filter per element and folds wide filters to 64 bits.
+ * When tuning for it, call {@link #setFoldWideFilters(boolean)} so that wide candidates are simulated
+ * and costed as the folded filters actually stored.
+ * 
+ * @since 10/18, 2026
+ */
+public class BloomFilterTuner<E extends Element> {
+  public final static double DEFAULT_TOLERANCE = 0.05;
+  
+  private final SelectorFactory<E> selectorFactory;
+  private final List<String> types = new ArrayList<String>();
+  private final List<BloomFilter<Long>> candidates = new ArrayList<BloomFilter<Long>>();
+  private boolean foldWideFilters = false;
+  
+  /**
+   * Creates a new tuner.
+   * 
+   * @param selectorFactory - the selector factory deciding which elements match a query
+   */
+  public BloomFilterTuner(SelectorFactory<E> selectorFactory) {
+    this.selectorFactory = selectorFactory;
+  }
+  
+  /**
+   * Adds a candidate bloom filter.
+   * 
+   * @param type        - the type name of the candidate, see {@link BloomFilters}
+   * @param bloomFilter - the bloom filter
+   */
+  public void addCandidate(String type, BloomFilter<Long> bloomFilter) {
+    types.add(type);
+    candidates.add(bloomFilter);
+  }
+  
+  /**
+   * Adds candidates of all the {@link BloomFilters#TYPES} for a range of prefix lengths.
+   */
+  public void addCandidates(int minPrefixLength, int maxPrefixLength) {
+    for(int prefixLength = minPrefixLength; prefixLength <= maxPrefixLength; prefixLength++) {
+      for(String type : BloomFilters.TYPES) {
+        addCandidate(type, BloomFilters.createLongBloomFilter(type, prefixLength));
+      }
+    }
+  }
+  
+  public int getNumCandidates() {
+    return candidates.size();
+  }
+  
+  /**
+   * Sets whether wide candidates are simulated as folded to 64 bits, as {@link cleo.search.typeahead.GenericTypeahead} stores them.
+   * 
+   * @param foldWideFilters - <code>true</code> to fold wide filters, <code>false</code> to simulate them at full width
+   */
+  public void setFoldWideFilters(boolean foldWideFilters) {
+    this.foldWideFilters = foldWideFilters;
+  }
+  
+  public boolean getFoldWideFilters() {
+    return foldWideFilters;
+  }
+  
+  private boolean isFullWidth(BloomFilter<Long> bf) {
+    return bf instanceof WideBloomFilter && !foldWideFilters;
+  }
+  
+  /**
+   * Simulates all candidates.
+   * 
+   * @param elements - the sampled elements
+   * @param queries  - the sampled queries
+   * @return the results in the order of candidates.
+   */
+  public List<Result> simulate(List<E> elements, List<String[]> queries) {
+    int numElements = elements.size();
+    int numCandidates = candidates.size();
+    
+    // Compute index filters of all candidates
+    long[][] filters = new long[numCandidates][];
+    long[][] signatures = new long[numCandidates][];
+    Result[] results = new Result[numCandidates];
+    
+    for(int c = 0; c < numCandidates; c++) {
+      BloomFilter<Long> bf = candidates.get(c);
+      int numWords = isFullWidth(bf) ? ((WideBloomFilter)bf).getNumWords() : 1;
+      filters[c] = new long[numElements * numWords];
+      if(bf instanceof PositionalBloomFilter) {
+        signatures[c] = new long[numElements];
+      }
+      
+      for(int i = 0; i < numElements; i++) {
+        E element = elements.get(i);
+        if(numWords > 1) {
+          ((WideBloomFilter)bf).computeIndexWords(element, filters[c], i * numWords);
+        } else if(bf instanceof LongBloomFilter) {
+          filters[c][i] = ((LongBloomFilter)bf).computeIndexBits(element);
+        } else {
+          filters[c][i] = bf.computeIndexFilter(element);
+        }
+        
+        if(signatures[c] != null) {
+          signatures[c][i] = ((PositionalBloomFilter)bf).computeIndexSignature(element);
+        }
+      }
+      
+      // Folded wide filters take 64 bits
+      results[c] = (bf instanceof WideBloomFilter && foldWideFilters) ?
+          new Result(types.get(c), bf.getPrefixLength(), 64, 8) :
+          new Result(types.get(c), bf.getPrefixLength(), bf.getNumBits(), BloomFilters.getBytesPerElement(bf));
+    }
+    
+    boolean[] matches = new boolean[numElements];
+    SelectorContext ctx = new SelectorContext();
+    
+    for(String[] terms : queries) {
+      if(terms == null || terms.length == 0) continue;
+      
+      // Elements actually selected by the query
+      int numMatches = 0;
+      Selector<E> selector = selectorFactory.createSelector(terms);
+      for(int i = 0; i < numElements; i++) {
+        matches[i] = selector.select(elements.get(i), ctx);
+        if(matches[i]) numMatches++;
+        ctx.clear();
+      }
+      
+      for(int c = 0; c < numCandidates; c++) {
+        BloomFilter<Long> bf = candidates.get(c);
+        Result result = results[c];
+        result.numPairs += numElements;
+        result.numMatches += numMatches;
+        
+        if(isFullWidth(bf)) {
+          WideBloomFilter wbf = (WideBloomFilter)bf;
+          int numWords = wbf.getNumWords();
+          long[] words = wbf.computeQueryWords(terms);
+          for(int i = 0; i < numElements; i++) {
+            count(result, matches[i], StridedLongArrayPartition.matches(filters[c], i * numWords, words));
+          }
+        } else {
+          long filter = (bf instanceof LongBloomFilter) ? ((LongBloomFilter)bf).computeQueryBits(terms) : bf.computeQueryFilter(terms);
+          long[] querySignatures = (signatures[c] == null) ? null : ((PositionalBloomFilter)bf).computeQuerySignatures(terms);
+          for(int i = 0; i < numElements; i++) {
+            boolean pass = (filters[c][i] & filter) == filter &&
+                           (querySignatures == null || ((PositionalBloomFilter)bf).matches(signatures[c][i], querySignatures));
+            count(result, matches[i], pass);
+          }
+        }
+      }
+    }
+    
+    List<Result> list = new ArrayList<Result>(numCandidates);
+    for(Result result : results) {
+      list.add(result);
+    }
+    return list;
+  }
+  
+  private static void count(Result result, boolean match, boolean pass) {
+    if(pass) {
+      result.numPasses++;
+    } else if(match) {
+      result.numMisses++;
+    }
+  }
+  
+  /**
+   * Recommends the cheapest candidate in memory among those whose pass rate is within
+   * a tolerance of the lowest pass rate.
+   * 
+   * @param results   - the simulation results
+   * @param tolerance - the relative tolerance of pass rates, e.g. 0.05
+   * @return the recommended result, or <code>null</code> if there are no results.
+   */
+  public static Result recommend(List<Result> results, double tolerance) {
+    double minPassRate = Double.MAX_VALUE;
+    for(Result r : results) {
+      minPassRate = Math.min(minPassRate, r.getPassRate());
+    }
+    
+    Result best = null;
+    for(Result r : results) {
+      if(r.getPassRate() > minPassRate * (1 + tolerance) + 1e-12) {
+        continue;
+      }
+      
+      if(best == null ||
+         r.getBytesPerElement() < best.getBytesPerElement() ||
+         (r.getBytesPerElement() == best.getBytesPerElement() && r.getPassRate() < best.getPassRate())) {
+        best = r;
+      }
+    }
+    
+    return best;
+  }
+  
+  /**
+   * Emits the config properties of a result.
+   * 
+   * @param result       - the result
+   * @param configPrefix - the config property prefix, e.g. <code>cleo.search.generic.typeahead.config</code>
+   */
+  public static Properties toProperties(Result result, String configPrefix) {
+    Properties p = new Properties();
+    p.setProperty(configPrefix + ".filterPrefixLength", Integer.toString(result.getPrefixLength()));
+    p.setProperty(configPrefix + ".filterType", result.getType());
+    return p;
+  }
+  
+  /**
+   * Samples the elements of an element store.
+   * 
+   * @param store      - the element store
+   * @param sampleSize - the maximum number of elements to sample
+   * @param rand       - the random number generator
+   */
+  public static <E extends Element> List<E> sample(ArrayStoreElement<E> store, int sampleSize, Random rand) {
+    int start = store.getIndexStart();
+    int capacity = store.capacity();
+    double rate = Math.min(1.0, (double)sampleSize / Math.max(1, capacity));
+    
+    List<E> list = new ArrayList<E>(Math.min(sampleSize, capacity));
+    for(int i = 0; i < capacity && list.size() < sampleSize; i++) {
+      if(rate < 1.0 && rand.nextDouble() >= rate) continue;
+      
+      E element = store.getElement(start + i);
+      if(element != null && element.getTerms() != null) {
+        list.add(element);
+      }
+    }
+    
+    return list;
+  }
+  
+  /**
+   * Reads a query log with one query per line and terms separated by white spaces.
+   * 
+   * @param file       - the query log file
+   * @param maxQueries - the maximum number of queries to read
+   * @throws IOException
+   */
+  public static List<String[]> readQueries(File file, int maxQueries) throws IOException {
+    List<String[]> list = new ArrayList<String[]>();
+    BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+    
+    try {
+      String line;
+      while(list.size() < maxQueries && (line = reader.readLine()) != null) {
+        line = line.trim().toLowerCase();
+        if(line.length() > 0) {
+          list.add(line.split("\\s+"));
+        }
+      }
+    } finally {
+      reader.close();
+    }
+    
+    return list;
+  }
+  
+  /**
+   * Result - The simulated efficiency of a candidate bloom filter.
+   */
+  public static class Result {
+    private final String type;
+    private final int prefixLength;
+    private final int numBits;
+    private final int bytesPerElement;
+    long numPairs = 0;
+    long numPasses = 0;
+    long numMatches = 0;
+    long numMisses = 0;
+    
+    Result(String type, int prefixLength, int numBits, int bytesPerElement) {
+      this.type = type;
+      this.prefixLength = prefixLength;
+      this.numBits = numBits;
+      this.bytesPerElement = bytesPerElement;
+    }
+    
+    public final String getType() {
+      return type;
+    }
+    
+    public final int getPrefixLength() {
+      return prefixLength;
+    }
+    
+    public final int getNumBits() {
+      return numBits;
+    }
+    
+    public final int getBytesPerElement() {
+      return bytesPerElement;
+    }
+    
+    /**
+     * @return the number of (query, element) pairs checked.
+     */
+    public final long getNumPairs() {
+      return numPairs;
+    }
+    
+    /**
+     * @return the number of pairs passing the filter.
+     */
+    public final long getNumPasses() {
+      return numPasses;
+    }
+    
+    /**
+     * @return the number of pairs selected by the selector.
+     */
+    public final long getNumMatches() {
+      return numMatches;
+    }
+    
+    /**
+     * @return the number of selected pairs rejected by the filter, which is 0 unless the selector
+     *         matches terms beyond the filter prefix semantics.
+     */
+    public final long getNumMisses() {
+      return numMisses;
+    }
+    
+    /**
+     * @return the share of pairs passing the filter.
+     */
+    public final double getPassRate() {
+      return numPairs == 0 ? 0 : (double)numPasses / numPairs;
+    }
+    
+    /**
+     * @return the share of pairs passing the filter which are rejected by the selector.
+     */
+    public final double getFalsePositiveRatio() {
+      long numPassedMatches = numMatches - numMisses;
+      return numPasses == 0 ? 0 : (double)(numPasses - numPassedMatches) / numPasses;
+    }
+    
+    /**
+     * @return the number of bytes to keep filters of a number of elements.
+     */
+    public final long getMemoryCost(int numElements) {
+      return (long)bytesPerElement * numElements;
+    }
+    
+    @Override
+    public String toString() {
+      return String.format("%s prefixLength=%d bits=%d bytesPerElement=%d passRate=%.6f falsePositiveRatio=%.4f misses=%d",
+                           type, prefixLength, numBits, bytesPerElement, getPassRate(), getFalsePositiveRatio(), numMisses);
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.filter;
+
+/**
+ * BloomFilters - Creates 64-bit based bloom filters by type name.
+ * 
+ * @since 10/18, 2026
+ */
+public class BloomFilters {
+  /**
+   * {@link FnvBloomFilterLong}
+   */
+  public final static String TYPE_FNV64 = "fnv64";
+  
+  /**
+   * {@link FnvBloomFilterWide} of 2 words
+   */
+  public final static String TYPE_FNV128 = "fnv128";
+  
+  /**
+   * {@link FnvBloomFilterWide} of 4 words
+   */
+  public final static String TYPE_FNV256 = "fnv256";
+  
+  /**
+   * {@link PositionalBloomFilter} of 4 term slots
+   */
+  public final static String TYPE_POSITIONAL = "positional";
+  
+  public final static String[] TYPES = { TYPE_FNV64, TYPE_FNV128, TYPE_FNV256, TYPE_POSITIONAL };
+  
+  /**
+   * Creates a bloom filter.
+   * 
+   * @param type         - the filter type, <code>null</code> for {@link #TYPE_FNV64}
+   * @param prefixLength - the number of leading characters of a term used to compute bloom filters
+   * @throws IllegalArgumentException if the type is unknown.
+   */
+  public static BloomFilter<Long> createLongBloomFilter(String type, int prefixLength) {
+    if(type == null || TYPE_FNV64.equals(type)) {
+      return new FnvBloomFilterLong(prefixLength);
+    } else if(TYPE_FNV128.equals(type)) {
+      return new FnvBloomFilterWide(prefixLength, 2);
+    } else if(TYPE_FNV256.equals(type)) {
+      return new FnvBloomFilterWide(prefixLength, 4);
+    } else if(TYPE_POSITIONAL.equals(type)) {
+      return new PositionalBloomFilter(prefixLength, 4);
+    }
+    
+    throw new IllegalArgumentException("Unknown bloom filter type: " + type);
+  }
+  
+  /**
+   * @return the number of bytes a bloom filter keeps per element, including positional signatures.
+   */
+  public static int getBytesPerElement(BloomFilter<?> bloomFilter) {
+    int bytes = bloomFilter.getNumBits() >> 3;
+    if(bloomFilter instanceof PositionalBloomFilter) {
+      bytes += 8;
+    }
+    return bytes;
+  }
+}
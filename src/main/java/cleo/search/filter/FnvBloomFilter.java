@@ -24,8 +24,11 @@ import krati.util.Fnv1Hash32;
  * 
  * @author jwu
  * @since 01/14, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Implemented IntBloomFilter to compute filters without boxing <br/>
  */
-public class FnvBloomFilter implements BloomFilter<Integer> {
+public class FnvBloomFilter implements IntBloomFilter {
   public final static int NUM_BITS = 32;
   
   private final int prefixLength;
@@ -39,8 +42,18 @@ public class FnvBloomFilter implements BloomFilter<Integer> {
     return NUM_BITS;
   }
   
+  @Override
+  public final int getPrefixLength() {
+    return prefixLength;
+  }
+  
   @Override
   public Integer computeIndexFilter(Element element) {
+    return computeIndexBits(element);
+  }
+  
+  @Override
+  public int computeIndexBits(Element element) {
     int filter = 0;
     for(String s : element.getTerms()) {
       if(s != null) {
@@ -58,6 +71,11 @@ public class FnvBloomFilter implements BloomFilter<Integer> {
   
   @Override
   public Integer computeQueryFilter(String... values) {
+    return computeQueryBits(values);
+  }
+  
+  @Override
+  public int computeQueryBits(String... values) {
     int filter = 0;
     for(String s : values) {
       if(s != null) {
@@ -24,8 +24,11 @@ import krati.util.Fnv1Hash32;
  * 
  * @author jwu
  * @since 01/21, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Implemented LongBloomFilter to compute filters without boxing <br/>
  */
-public class FnvBloomFilterLong implements BloomFilter<Long> {
+public class FnvBloomFilterLong implements LongBloomFilter {
   public final static int NUM_BITS = 64; 
   
   private final int prefixLength;
@@ -39,8 +42,18 @@ public class FnvBloomFilterLong implements BloomFilter<Long> {
     return NUM_BITS;
   }
   
+  @Override
+  public final int getPrefixLength() {
+    return prefixLength;
+  }
+  
   @Override
   public Long computeIndexFilter(Element element) {
+    return computeIndexBits(element);
+  }
+  
+  @Override
+  public long computeIndexBits(Element element) {
     long filter = 0;
     for(String s : element.getTerms()) {
       if(s != null) {
@@ -58,6 +71,11 @@ public class FnvBloomFilterLong implements BloomFilter<Long> {
   
   @Override
   public Long computeQueryFilter(String... values) {
+    return computeQueryBits(values);
+  }
+  
+  @Override
+  public long computeQueryBits(String... values) {
     long filter = 0;
     for(String s : values) {
       if(s != null) {
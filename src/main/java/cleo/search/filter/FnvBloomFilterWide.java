@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.filter;
+
+import java.util.Arrays;
+
+import cleo.search.Element;
+import krati.util.Fnv1Hash32;
+
+/**
+ * FnvBloomFilterWide - A 128-bit or 256-bit bloom filter based on 32-Bit FNV-1a Hash.
+ * 
+ * @since 10/18, 2026
+ */
+public class FnvBloomFilterWide implements WideBloomFilter {
+  private final int prefixLength;
+  private final int numWords;
+  private final int numBits;
+  
+  /**
+   * Creates a new wide bloom filter.
+   * 
+   * @param prefixLength - the number of leading characters of a term used to compute bloom filters
+   * @param numWords     - the number of 64-bit words per filter, 2 or 4
+   */
+  public FnvBloomFilterWide(int prefixLength, int numWords) {
+    if(numWords != 2 && numWords != 4) {
+      throw new IllegalArgumentException("numWords must be 2 or 4: " + numWords);
+    }
+    
+    this.prefixLength = prefixLength;
+    this.numWords = numWords;
+    this.numBits = numWords << 6;
+  }
+  
+  @Override
+  public final int getNumBits() {
+    return numBits;
+  }
+  
+  @Override
+  public final int getNumWords() {
+    return numWords;
+  }
+  
+  @Override
+  public final int getPrefixLength() {
+    return prefixLength;
+  }
+  
+  @Override
+  public Long computeIndexFilter(Element element) {
+    return computeIndexBits(element);
+  }
+  
+  @Override
+  public Long computeQueryFilter(String value) {
+    return computeQueryBits(value);
+  }
+  
+  @Override
+  public Long computeQueryFilter(String... values) {
+    return computeQueryBits(values);
+  }
+  
+  @Override
+  public long computeIndexBits(Element element) {
+    long[] words = new long[numWords];
+    computeIndexWords(element, words, 0);
+    return fold(words, 0, numWords);
+  }
+  
+  @Override
+  public long computeQueryBits(String... values) {
+    return fold(computeQueryWords(values), 0, numWords);
+  }
+  
+  @Override
+  public void computeIndexWords(Element element, long[] words, int offset) {
+    Arrays.fill(words, offset, offset + numWords, 0);
+    for(String s : element.getTerms()) {
+      if(s != null) {
+        computeBloomFilter(s, prefixLength, numBits, words, offset);
+      }
+    }
+  }
+  
+  @Override
+  public long[] computeQueryWords(String... values) {
+    long[] words = new long[numWords];
+    for(String s : values) {
+      if(s != null) {
+        computeBloomFilter(s, prefixLength, numBits, words, 0);
+      }
+    }
+    return words;
+  }
+  
+  /**
+   * Folds a multi-word filter into 64 bits.
+   */
+  public static final long fold(long[] words, int offset, int numWords) {
+    long filter = 0;
+    for(int i = offset, end = offset + numWords; i < end; i++) {
+      filter |= words[i];
+    }
+    return filter;
+  }
+  
+  public static final void computeBloomFilter(String s, int prefixLength, int numBits, long[] words, int offset) {
+    int cnt = Math.min(prefixLength, s.length());
+    if (cnt <= 0) return;
+    
+    int bitpos = 0;
+    
+    long hash = Fnv1Hash32.FNV_BASIS;
+    for(int i = 0; i < cnt; i++) {
+      char c = s.charAt(i);
+      
+      hash ^= 0xFF & c;
+      hash *= Fnv1Hash32.FNV_PRIME;
+      hash &= Fnv1Hash32.BITS_MASK;
+      
+      hash ^= 0xFF & (c >> 8);
+      hash *= Fnv1Hash32.FNV_PRIME;
+      hash &= Fnv1Hash32.BITS_MASK;
+      
+      bitpos = (int)(hash % numBits);
+      if(bitpos < 0) bitpos += numBits;
+      words[offset + (bitpos >>> 6)] |= 1L << bitpos;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.filter;
+
+import cleo.search.Element;
+
+/**
+ * IntBloomFilter - A {@link BloomFilter} computing 32-bit filters as primitive ints.
+ * 
+ * @since 10/18, 2026
+ */
+public interface IntBloomFilter extends BloomFilter<Integer> {
+  
+  /**
+   * Computes a bloom filter for querying based on a list of strings without boxing.
+   * 
+   * @param values
+   * @return query bloom filter
+   */
+  public int computeQueryBits(String... values);
+  
+  /**
+   * Computes a bloom filter for indexing based on the terms of an Element without boxing.
+   * 
+   * @param element
+   * @return index bloom filter
+   */
+  public int computeIndexBits(Element element);
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.filter;
+
+import cleo.search.Element;
+import krati.util.Fnv1Hash32;
+
+/**
+ * PositionalBloomFilter - A {@link FnvBloomFilterLong} which also keeps a separate signature per term slot.
+ * 
+ * <p>
+ * The 64 bits of a signature are split into 2, 4 or 8 slots. The i-th term of an element is hashed
+ * into slot i, and terms beyond the last slot share the last slot. A query passes the signature check
+ * only if every query term matches all its bits within some single slot, so prefixes scattered over
+ * different terms of an element no longer pass together. Signatures are checked in addition to the
+ * regular 64-bit filter, which stays the same as that of {@link FnvBloomFilterLong}.
+ * 
+ * @since 10/18, 2026
+ */
+public class PositionalBloomFilter extends FnvBloomFilterLong {
+  private final int numSlots;
+  private final int slotBits;
+  private final long slotMask;
+  private final long lowBits;
+  private final long highBits;
+  
+  /**
+   * Creates a new positional bloom filter.
+   * 
+   * @param prefixLength - the number of leading characters of a term used to compute bloom filters
+   * @param numSlots     - the number of term slots, 2, 4 or 8
+   */
+  public PositionalBloomFilter(int prefixLength, int numSlots) {
+    super(prefixLength);
+    if(numSlots != 2 && numSlots != 4 && numSlots != 8) {
+      throw new IllegalArgumentException("numSlots must be 2, 4 or 8: " + numSlots);
+    }
+    
+    this.numSlots = numSlots;
+    this.slotBits = NUM_BITS / numSlots;
+    this.slotMask = (1L << slotBits) - 1;
+    
+    long low = 0;
+    for(int i = 0; i < numSlots; i++) {
+      low |= 1L << (i * slotBits);
+    }
+    this.lowBits = low;
+    this.highBits = low << (slotBits - 1);
+  }
+  
+  public final int getNumSlots() {
+    return numSlots;
+  }
+  
+  /**
+   * Computes the per-slot signature of the terms of an Element.
+   * 
+   * @param element
+   * @return index signature
+   */
+  public long computeIndexSignature(Element element) {
+    long signature = 0;
+    int slot = 0;
+    
+    for(String s : element.getTerms()) {
+      if(s != null) {
+        signature |= computeSlotFilter(s) << (slot * slotBits);
+        if(slot < numSlots - 1) slot++;
+      }
+    }
+    
+    return signature;
+  }
+  
+  /**
+   * Computes one signature per query term with the term filter replicated into every slot.
+   * 
+   * @param values - the query terms
+   * @return the query signatures.
+   */
+  public long[] computeQuerySignatures(String... values) {
+    int cnt = 0;
+    long[] signatures = new long[values.length];
+    for(String s : values) {
+      if(s != null) {
+        long filter = computeSlotFilter(s);
+        if(filter != 0) {
+          signatures[cnt++] = filter * lowBits;
+        }
+      }
+    }
+    
+    if(cnt < signatures.length) {
+      long[] result = new long[cnt];
+      System.arraycopy(signatures, 0, result, 0, cnt);
+      return result;
+    }
+    return signatures;
+  }
+  
+  /**
+   * Checks whether every query signature matches some slot of an index signature.
+   * 
+   * @param signature  - the index signature
+   * @param signatures - the query signatures
+   */
+  public final boolean matches(long signature, long[] signatures) {
+    for(int i = 0; i < signatures.length; i++) {
+      // Bits of the query term missing from each slot, and whether any slot misses none
+      long missing = signatures[i] & ~signature;
+      if(((missing - lowBits) & ~missing & highBits) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+  
+  private long computeSlotFilter(String s) {
+    int prefixLength = getPrefixLength();
+    int cnt = Math.min(prefixLength, s.length());
+    if (cnt <= 0) return 0;
+    
+    long filter = 0;
+    int bitpos = 0;
+    
+    long hash = Fnv1Hash32.FNV_BASIS;
+    for(int i = 0; i < cnt; i++) {
+      char c = s.charAt(i);
+      
+      hash ^= 0xFF & c;
+      hash *= Fnv1Hash32.FNV_PRIME;
+      hash &= Fnv1Hash32.BITS_MASK;
+      
+      hash ^= 0xFF & (c >> 8);
+      hash *= Fnv1Hash32.FNV_PRIME;
+      hash &= Fnv1Hash32.BITS_MASK;
+      
+      bitpos = (int)(hash % slotBits);
+      if(bitpos < 0) bitpos += slotBits;
+      filter |= 1L << bitpos;
+    }
+    
+    return filter & slotMask;
+  }
+}
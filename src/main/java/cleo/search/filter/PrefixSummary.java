@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.filter;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * PrefixSummary - A compact summary of the term prefixes present in a typeahead, answering whether a query
+ * can possibly have any result in it.
+ * 
+ * <p>
+ * Prefixes of one or two characters are kept in bitsets, which are dense enough to never need removal.
+ * Longer prefixes are kept in a counting bloom filter of byte counters, so that prefixes can be removed
+ * when elements change their terms. A saturated counter is never decremented. The summary may report
+ * absent prefixes as present but never the other way round.
+ * </p>
+ * 
+ * <p>
+ * Bits and counters are updated atomically, four byte counters packed per int, so that a prefix added by
+ * one thread is seen by any thread testing it afterwards without locking.
+ * </p>
+ * 
+ * @since 10/18, 2026
+ */
+public class PrefixSummary {
+  /**
+   * The default number of counters of the counting bloom filter.
+   */
+  public final static int DEFAULT_NUM_COUNTERS = 1 << 20;
+  
+  /**
+   * The number of hash functions of the counting bloom filter.
+   */
+  public final static int NUM_HASHES = 3;
+  
+  private final static int PAIR_BITS = 18;
+  
+  private final int maxPrefixLength;
+  private final AtomicLongArray singles = new AtomicLongArray((1 << 16) >> 6);
+  private final AtomicLongArray pairs = new AtomicLongArray((1 << PAIR_BITS) >> 6);
+  private final AtomicIntegerArray counters;
+  private final int counterMask;
+  
+  /**
+   * Creates a new prefix summary.
+   * 
+   * @param maxPrefixLength - the maximum length of prefixes, longer terms are summarized by their leading characters
+   * @param numCounters     - the number of counters of the counting bloom filter, rounded up to a power of two
+   */
+  public PrefixSummary(int maxPrefixLength, int numCounters) {
+    this.maxPrefixLength = maxPrefixLength;
+    int size = Integer.highestOneBit(Math.max(64, numCounters - 1) << 1);
+    this.counters = new AtomicIntegerArray(size >> 2);
+    this.counterMask = size - 1;
+  }
+  
+  public PrefixSummary(int maxPrefixLength) {
+    this(maxPrefixLength, DEFAULT_NUM_COUNTERS);
+  }
+  
+  public final int getMaxPrefixLength() {
+    return maxPrefixLength;
+  }
+  
+  /**
+   * Adds a prefix once.
+   */
+  public void add(String prefix) {
+    add(prefix, 1);
+  }
+  
+  /**
+   * Adds a prefix a number of times, e.g. the number of elements having it.
+   */
+  public void add(String prefix, int count) {
+    int len = prefix.length();
+    if(len == 0 || count <= 0) return;
+    
+    if(len == 1) {
+      set(singles, prefix.charAt(0));
+    } else if(len == 2) {
+      set(singles, prefix.charAt(0));
+      set(pairs, pairIndex(prefix));
+    } else {
+      int h1 = hash(prefix, Math.min(len, maxPrefixLength));
+      int h2 = rehash(h1);
+      for(int i = 0; i < NUM_HASHES; i++) {
+        addCounter((h1 + i * h2) & counterMask, count);
+      }
+    }
+  }
+  
+  /**
+   * Removes a prefix once. Only prefixes of three characters or longer are removed.
+   */
+  public void remove(String prefix) {
+    int len = prefix.length();
+    if(len <= 2) return;
+    
+    int h1 = hash(prefix, Math.min(len, maxPrefixLength));
+    int h2 = rehash(h1);
+    for(int i = 0; i < NUM_HASHES; i++) {
+      addCounter((h1 + i * h2) & counterMask, -1);
+    }
+  }
+  
+  /**
+   * Tests whether a term, clipped to the maximum prefix length, may be a present prefix.
+   */
+  public boolean mightContain(String term) {
+    int len = Math.min(term.length(), maxPrefixLength);
+    if(len == 0) {
+      return true;
+    } else if(len == 1) {
+      return isSet(singles, term.charAt(0));
+    } else if(len == 2) {
+      return isSet(pairs, pairIndex(term));
+    }
+    
+    int h1 = hash(term, len);
+    int h2 = rehash(h1);
+    for(int i = 0; i < NUM_HASHES; i++) {
+      if(getCounter((h1 + i * h2) & counterMask) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+  
+  /**
+   * Tests whether all the query terms may be present prefixes.
+   */
+  public boolean mightContainAll(String... terms) {
+    for(String term : terms) {
+      if(term != null && !mightContain(term)) {
+        return false;
+      }
+    }
+    return true;
+  }
+  
+  /**
+   * Clears this summary.
+   */
+  public void clear() {
+    for(int i = 0, cnt = singles.length(); i < cnt; i++) {
+      singles.set(i, 0);
+    }
+    for(int i = 0, cnt = pairs.length(); i < cnt; i++) {
+      pairs.set(i, 0);
+    }
+    for(int i = 0, cnt = counters.length(); i < cnt; i++) {
+      counters.set(i, 0);
+    }
+  }
+  
+  /**
+   * @return the number of bytes kept by this summary.
+   */
+  public long getSizeInBytes() {
+    return ((singles.length() + pairs.length()) << 3) + (counters.length() << 2);
+  }
+  
+  private static int pairIndex(String s) {
+    int h = (s.charAt(0) << 16) | s.charAt(1);
+    h *= 0x9E3779B1;
+    return h >>> (32 - PAIR_BITS);
+  }
+  
+  private static void set(AtomicLongArray bits, int index) {
+    int i = index >>> 6;
+    long mask = 1L << (index & 63);
+    long word;
+    while(((word = bits.get(i)) & mask) == 0 && !bits.compareAndSet(i, word, word | mask));
+  }
+  
+  private static boolean isSet(AtomicLongArray bits, int index) {
+    return (bits.get(index >>> 6) & (1L << (index & 63))) != 0;
+  }
+  
+  private int getCounter(int index) {
+    return (counters.get(index >>> 2) >>> ((index & 3) << 3)) & 0xFF;
+  }
+  
+  /**
+   * Adds a delta to a byte counter, which saturates at 255 and is never decremented below zero or once saturated.
+   */
+  private void addCounter(int index, int delta) {
+    int i = index >>> 2;
+    int shift = (index & 3) << 3;
+    while(true) {
+      int word = counters.get(i);
+      int c = (word >>> shift) & 0xFF;
+      if(c == 0xFF || (delta < 0 && c == 0)) return;
+      
+      int n = Math.max(0, Math.min(0xFF, c + delta));
+      if(counters.compareAndSet(i, word, (word & ~(0xFF << shift)) | (n << shift))) return;
+    }
+  }
+  
+  private static int hash(String s, int len) {
+    int h = 0x811C9DC5;
+    for(int i = 0; i < len; i++) {
+      h ^= s.charAt(i);
+      h *= 0x01000193;
+    }
+    return h;
+  }
+  
+  private static int rehash(int h) {
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    return h | 1;
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.filter;
+
+import cleo.search.Element;
+
+/**
+ * WideBloomFilter - A bloom filter spanning several 64-bit words per element.
+ * 
+ * <p>
+ * The 64-bit filters computed through {@link LongBloomFilter} are the OR of all words, so a wide filter
+ * can be used wherever a single long per element is stored, only with the false positive rate of 64 bits.
+ * 
+ * @since 10/18, 2026
+ */
+public interface WideBloomFilter extends LongBloomFilter {
+  
+  /**
+   * @return the number of 64-bit words per filter.
+   */
+  public int getNumWords();
+  
+  /**
+   * Computes a multi-word bloom filter for querying based on a list of strings.
+   * 
+   * @param values
+   * @return query bloom filter of {@link #getNumWords()} words
+   */
+  public long[] computeQueryWords(String... values);
+  
+  /**
+   * Computes a multi-word bloom filter for indexing based on the terms of an Element.
+   * 
+   * @param element
+   * @param words   - the array to write the filter to
+   * @param offset  - the offset of the first word in <code>words</code>
+   */
+  public void computeIndexWords(Element element, long[] words, int offset);
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.store;
+
+import java.util.NoSuchElementException;
+
+/**
+ * ArrayPostingCursor - A posting cursor over connections already held in memory.
+ * 
+ * @since 10/18, 2026
+ */
+public class ArrayPostingCursor implements PostingCursor {
+  private final int[] connections;
+  private int index = 0;
+  
+  public ArrayPostingCursor(int[] connections) {
+    this.connections = connections;
+  }
+  
+  @Override
+  public int size() {
+    return connections.length;
+  }
+  
+  @Override
+  public boolean hasNext() {
+    return index < connections.length;
+  }
+  
+  @Override
+  public int next() {
+    if(index >= connections.length) {
+      throw new NoSuchElementException();
+    }
+    return connections[index++];
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.store;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.log4j.Logger;
+
+import cleo.search.util.IntBitmap;
+
+/**
+ * BitmapConnectionsStore - An in-memory connections store which keeps the connections of dense sources
+ * (e.g. one- and two-character prefixes) as compressed bitmaps and the rest as lists of integers.
+ * 
+ * <p>
+ * A source switches to a bitmap when the number of its connections reaches the density threshold of
+ * the element ID range, and switches back to a list when it drops below half the threshold. Bitmaps
+ * only answer membership tests. Connections are always read in the order of the underlying persistent
+ * store, e.g. by score after a refresh, so that early-stopping collectors keep their ranking.
+ *
+ * <p>
+ * The bitmaps are a read-side index only and do not save memory over the underlying store, which keeps
+ * the full list of every dense source because it is the only copy of their score order. A dense source
+ * costs its list in the underlying store plus its bitmap: about 2 bytes per connection, capped at 8KB per
+ * block of 65536 element IDs, or less for runs of consecutive IDs. Compared with {@link MemoryConnectionsStore},
+ * only the on-heap copy of a dense list (4 bytes per connection) is replaced by the bitmap.
+ *
+ * @since 10/18, 2026
+ */
+public class BitmapConnectionsStore<S> implements ConnectionsStore<S> {
+  private final static Logger logger = Logger.getLogger(BitmapConnectionsStore.class);
+  
+  /**
+   * The default density threshold is 1/16, i.e. a source connected to 6.25% of the element ID range.
+   */
+  public final static float DEFAULT_DENSITY_THRESHOLD = 0.0625f;
+  
+  private final ConnectionsStore<S> pcs;
+  private final ConcurrentHashMap<S, int[]> lists;
+  private final ConcurrentHashMap<S, IntBitmap> bitmaps;
+  private final int bitmapThreshold;
+  
+  /**
+   * Creates a new BitmapConnectionsStore with the default density threshold.
+   * 
+   * @param initialCapacity         - the initial number of sources
+   * @param persistConnectionsStore - the underlying persistent connections store
+   * @param elementCapacity         - the size of the element ID range
+   */
+  public BitmapConnectionsStore(int initialCapacity, ConnectionsStore<S> persistConnectionsStore, int elementCapacity) {
+    this(initialCapacity, persistConnectionsStore, elementCapacity, DEFAULT_DENSITY_THRESHOLD);
+  }
+  
+  /**
+   * Creates a new BitmapConnectionsStore.
+   * 
+   * @param initialCapacity         - the initial number of sources
+   * @param persistConnectionsStore - the underlying persistent connections store
+   * @param elementCapacity         - the size of the element ID range
+   * @param densityThreshold        - the fraction of the element ID range for switching a source to a bitmap
+   */
+  public BitmapConnectionsStore(int initialCapacity, ConnectionsStore<S> persistConnectionsStore, int elementCapacity, float densityThreshold) {
+    if(densityThreshold <= 0 || densityThreshold > 1) {
+      throw new IllegalArgumentException("Invalid densityThreshold: " + densityThreshold);
+    }
+    
+    this.pcs = persistConnectionsStore;
+    this.lists = new ConcurrentHashMap<S, int[]>(initialCapacity);
+    this.bitmaps = new ConcurrentHashMap<S, IntBitmap>();
+    this.bitmapThreshold = Math.max(2, (int)(elementCapacity * densityThreshold));
+    this.init();
+  }
+  
+  protected void init() {
+    long startTime = System.currentTimeMillis();
+    
+    Iterator<S> itr = pcs.sourceIterator();
+    while(itr.hasNext()) {
+      S source = itr.next();
+      update(source, pcs.getConnections(source));
+    }
+    
+    long totalTime = System.currentTimeMillis() - startTime;
+    logger.info("init: " + totalTime + " ms, " + bitmaps.size() + " bitmaps, " + lists.size() + " lists");
+  }
+  
+  /**
+   * Caches the connections of a source as a list or a bitmap according to its density.
+   */
+  protected void update(S source, int[] connections) {
+    if(connections == null || connections.length == 0) {
+      lists.remove(source);
+      bitmaps.remove(source);
+      return;
+    }
+    
+    int threshold = bitmaps.containsKey(source) ? (bitmapThreshold >> 1) : bitmapThreshold;
+    if(connections.length >= threshold) {
+      bitmaps.put(source, IntBitmap.valueOf(connections));
+      lists.remove(source);
+    } else {
+      lists.put(source, connections);
+      bitmaps.remove(source);
+    }
+  }
+  
+  /**
+   * @return the minimum number of connections for switching a source to a bitmap.
+   */
+  public int getBitmapThreshold() {
+    return bitmapThreshold;
+  }
+  
+  /**
+   * @return the number of sources kept as bitmaps.
+   */
+  public int getNumBitmaps() {
+    return bitmaps.size();
+  }
+  
+  /**
+   * Gets the connections of a dense source.
+   * 
+   * @return the bitmap of connections, or <code>null</code> if the source is not kept as a bitmap.
+   */
+  public IntBitmap getBitmap(S source) {
+    return bitmaps.get(source);
+  }
+  
+  /**
+   * @return the number of connections of a source without materializing its bitmap.
+   */
+  public int getConnectionCount(S source) {
+    int[] connections = lists.get(source);
+    if(connections != null) return connections.length;
+    
+    IntBitmap bitmap = bitmaps.get(source);
+    return (bitmap == null) ? 0 : bitmap.cardinality();
+  }
+  
+  /**
+   * Gets the connections of a source. The connections of a dense source are read from the underlying store.
+   */
+  @Override
+  public int[] getConnections(S source) {
+    int[] connections = lists.get(source);
+    if(connections != null) return connections;
+    
+    return bitmaps.containsKey(source) ? pcs.getConnections(source) : null;
+  }
+  
+  /**
+   * Opens a cursor over the connections of a source. The connections of a dense source are read from the underlying store.
+   */
+  @Override
+  public PostingCursor openCursor(S source) {
+    int[] connections = lists.get(source);
+    if(connections != null) return new ArrayPostingCursor(connections);
+    
+    return bitmaps.containsKey(source) ? pcs.openCursor(source) : null;
+  }
+  
+  @Override
+  public synchronized void putConnections(S source, int[] connections, long scn) throws Exception {
+    pcs.putConnections(source, connections, scn);
+    update(source, connections);
+  }
+  
+  @Override
+  public synchronized void addConnection(S source, int connection, long scn) throws Exception {
+    pcs.addConnection(source, connection, scn);
+    
+    IntBitmap bitmap = bitmaps.get(source);
+    if(bitmap != null) {
+      bitmaps.put(source, bitmap.add(connection));
+    } else {
+      update(source, pcs.getConnections(source));
+    }
+  }
+  
+  @Override
+  public synchronized void deleteConnections(S source, long scn) throws Exception {
+    pcs.deleteConnections(source, scn);
+    update(source, null);
+  }
+  
+  @Override
+  public synchronized void removeConnection(S source, int connection, long scn) throws Exception {
+    pcs.removeConnection(source, connection, scn);
+    
+    IntBitmap bitmap = bitmaps.get(source);
+    if(bitmap != null && bitmap.cardinality() > (bitmapThreshold >> 1)) {
+      bitmaps.put(source, bitmap.remove(connection));
+    } else {
+      update(source, pcs.getConnections(source));
+    }
+  }
+  
+  @Override
+  public synchronized void persist() throws IOException {
+    pcs.persist();
+  }
+  
+  @Override
+  public synchronized void sync() throws IOException {
+    pcs.sync();
+  }
+  
+  @Override
+  public synchronized void saveHWMark(long endOfPeriod) throws Exception {
+    pcs.saveHWMark(endOfPeriod);
+  }
+  
+  @Override
+  public long getHWMark() {
+    return pcs.getHWMark();
+  }
+  
+  @Override
+  public long getLWMark() {
+    return pcs.getLWMark();
+  }
+  
+  @Override
+  public Iterator<S> sourceIterator() {
+    return pcs.sourceIterator();
+  }
+  
+  @Override
+  public void close() throws IOException {
+    pcs.close();
+  }
+}
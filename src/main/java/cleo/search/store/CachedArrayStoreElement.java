@@ -0,0 +1,613 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.store;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+import krati.array.Array;
+
+import cleo.search.Element;
+import cleo.search.ElementSerializer;
+import cleo.search.util.FrequencySketch;
+
+/**
+ * CachedArrayStoreElement - A bounded in-memory cache of the hot elements of an {@link ArrayStoreElement}.
+ * 
+ * <p>
+ * The cache follows the W-TinyLFU policy. New elements enter a small LRU window taking 1% of the cache
+ * weight. Elements evicted from the window are admitted to the main segmented LRU only if their estimated
+ * access frequency, kept by a {@link FrequencySketch}, is higher than that of the main eviction victim.
+ * The main segment is split into a probation part and a protected part taking 80% of the main weight.
+ * Elements hit in probation are promoted to protected.
+ * </p>
+ * 
+ * <p>
+ * The cache is bounded by the approximate heap size of cached elements, which is estimated as the size
+ * of serialized element bytes plus {@link #ENTRY_OVERHEAD}. Writes go through to the underlying store
+ * and replace or remove cached elements. Elements are cached only upon reads.
+ * </p>
+ * 
+ * <p>
+ * Cache hits are served from a concurrent map without locking. Each hit is recorded in a striped, lossy
+ * read buffer, which is replayed into the sketch and the LRU queues by whichever thread gets the eviction
+ * lock with <code>tryLock</code>, so readers never wait for one another. Writes are serialized among
+ * themselves as in the underlying stores, but go through to the underlying store outside the eviction lock.
+ * </p>
+ * 
+ * @since 10/18, 2026
+ */
+public class CachedArrayStoreElement<E extends Element> implements ArrayStoreElement<E> {
+  /**
+   * The estimated heap bytes per cached element in addition to element bytes.
+   */
+  public final static int ENTRY_OVERHEAD = 96;
+  
+  private final static int WINDOW = 0;
+  private final static int PROBATION = 1;
+  private final static int PROTECTED = 2;
+  
+  private final static int READ_BUFFER_STRIPES = 16;
+  private final static int READ_BUFFER_SIZE = 32;
+  private final static int READ_DRAIN_MASK = 15;
+  
+  private final ArrayStoreElement<E> elementStore;
+  private final long maxWeight;
+  private final long windowMaxWeight;
+  private final long mainMaxWeight;
+  private final long protectedMaxWeight;
+  
+  private final ConcurrentHashMap<Integer, Node<E>> map;
+  private final AtomicReferenceArray<Node<E>> readBuffer;
+  private final AtomicIntegerArray readCounts;
+  
+  // Guarded by evictionLock
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private final FrequencySketch sketch;
+  private final Node<E>[] queues;
+  private final long[] weights = new long[3];
+  
+  // Guarded by writeLock, odd while a write is in progress
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile long writeStamp = 0;
+  
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+  private volatile boolean isClosed = false;
+  
+  /**
+   * Creates a new CachedArrayStoreElement.
+   * 
+   * @param elementStore - the underlying element store
+   * @param maxBytes     - the maximum number of bytes of cached elements
+   */
+  @SuppressWarnings("unchecked")
+  public CachedArrayStoreElement(ArrayStoreElement<E> elementStore, long maxBytes) {
+    this.elementStore = elementStore;
+    this.maxWeight = Math.max(maxBytes, 0);
+    this.windowMaxWeight = Math.max(1, maxWeight / 100);
+    this.mainMaxWeight = maxWeight - windowMaxWeight;
+    this.protectedMaxWeight = mainMaxWeight * 80 / 100;
+    
+    int expectedKeys = (int)Math.min(1 << 24, Math.max(1024, maxWeight / 256));
+    this.sketch = new FrequencySketch(expectedKeys);
+    this.map = new ConcurrentHashMap<Integer, Node<E>>(Math.min(expectedKeys, 1 << 16));
+    this.queues = new Node[] { new Node<E>(WINDOW), new Node<E>(PROBATION), new Node<E>(PROTECTED) };
+    this.readBuffer = new AtomicReferenceArray<Node<E>>(READ_BUFFER_STRIPES * READ_BUFFER_SIZE);
+    this.readCounts = new AtomicIntegerArray(READ_BUFFER_STRIPES);
+  }
+  
+  protected void ensureOpen() throws UnsupportedOperationException {
+    if(isClosed)
+      throw new UnsupportedOperationException("Cannot modify store, already closed!");
+  }
+  
+  @Override
+  public E getElement(int index) {
+    Node<E> node = map.get(index);
+    if(node != null) {
+      E element = node.element;
+      hitCount.incrementAndGet();
+      recordRead(node);
+      return element;
+    }
+    
+    missCount.incrementAndGet();
+    long stamp = writeStamp;
+    
+    byte[] bytes = elementStore.getElementBytes(index);
+    if(bytes == null) {
+      return null;
+    }
+    
+    E element = elementStore.getElementSerializer().deserialize(bytes);
+    evictionLock.lock();
+    try {
+      drainReadBuffer();
+      sketch.increment(index);
+      
+      // Skip caching if the element might be changed by a concurrent write
+      if((stamp & 1) == 0 && stamp == writeStamp && !isClosed && !map.containsKey(index)) {
+        add(index, element, bytes.length + ENTRY_OVERHEAD);
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+    
+    return element;
+  }
+  
+  @Override
+  public byte[] getElementBytes(int index) {
+    return elementStore.getElementBytes(index);
+  }
+  
+  @Override
+  public void setElement(int index, E element, long scn) throws Exception {
+    byte[] bytes = (element == null) ? null : getElementSerializer().serialize(element);
+    writeThrough(index, element, bytes, scn);
+  }
+  
+  @Override
+  public void setElementBytes(int index, byte[] elementBytes, long scn) throws Exception {
+    E element = (elementBytes != null && map.containsKey(index)) ? getElementSerializer().deserialize(elementBytes) : null;
+    writeThrough(index, element, elementBytes, scn);
+  }
+  
+  @Override
+  public void deleteElement(int index, long scn) throws Exception {
+    writeLock.lock();
+    try {
+      ensureOpen();
+      writeStamp++;
+      try {
+        elementStore.deleteElement(index, scn);
+      } finally {
+        invalidate(index);
+        writeStamp++;
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+  
+  /**
+   * Writes element bytes to the underlying store and updates the cached element, if any.
+   * The element is only needed when the index is cached.
+   */
+  private void writeThrough(int index, E element, byte[] bytes, long scn) throws Exception {
+    writeLock.lock();
+    try {
+      ensureOpen();
+      writeStamp++;
+      boolean written = false;
+      try {
+        elementStore.setElementBytes(index, bytes, scn);
+        written = true;
+      } finally {
+        evictionLock.lock();
+        try {
+          Node<E> node = map.get(index);
+          if(node != null) {
+            if(!written || bytes == null || element == null) {
+              remove(node);
+            } else {
+              update(node, element, bytes.length + ENTRY_OVERHEAD);
+            }
+          }
+        } finally {
+          evictionLock.unlock();
+        }
+        writeStamp++;
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+  
+  private void invalidate(int index) {
+    evictionLock.lock();
+    try {
+      Node<E> node = map.get(index);
+      if(node != null) {
+        remove(node);
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+  
+  /**
+   * Records a cache hit in the read buffer stripe of the current thread, and drains the read buffer
+   * every few hits if the eviction lock is free. A full stripe overwrites its oldest hits.
+   */
+  private void recordRead(Node<E> node) {
+    int stripe = (int)Thread.currentThread().getId() & (READ_BUFFER_STRIPES - 1);
+    int count = readCounts.getAndIncrement(stripe);
+    readBuffer.lazySet(stripe * READ_BUFFER_SIZE + (count & (READ_BUFFER_SIZE - 1)), node);
+    
+    if((count & READ_DRAIN_MASK) == READ_DRAIN_MASK && evictionLock.tryLock()) {
+      try {
+        drainReadBuffer();
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+  }
+  
+  /**
+   * Replays buffered hits into the frequency sketch and the LRU queues. Called with the eviction lock held.
+   */
+  private void drainReadBuffer() {
+    for(int i = 0, cnt = readBuffer.length(); i < cnt; i++) {
+      Node<E> node = readBuffer.get(i);
+      if(node != null && readBuffer.compareAndSet(i, node, null)) {
+        sketch.increment(node.index);
+        if(node.prev != null) {
+          onHit(node);
+        }
+      }
+    }
+  }
+  
+  private void onHit(Node<E> node) {
+    if(node.queue == PROBATION) {
+      unlink(node);
+      link(PROTECTED, node);
+      demoteProtected();
+    } else {
+      unlink(node);
+      link(node.queue, node);
+    }
+  }
+  
+  private void add(int index, E element, int weight) {
+    if(weight > maxWeight) {
+      return;
+    }
+    
+    Node<E> node = new Node<E>(WINDOW);
+    node.index = index;
+    node.element = element;
+    node.weight = weight;
+    
+    map.put(index, node);
+    link(WINDOW, node);
+    evictWindow();
+  }
+  
+  private void update(Node<E> node, E element, int weight) {
+    if(weight > maxWeight) {
+      remove(node);
+      return;
+    }
+    
+    int queue = node.queue;
+    unlink(node);
+    node.element = element;
+    node.weight = weight;
+    link(queue, node);
+    
+    demoteProtected();
+    evictWindow();
+    evictMain();
+  }
+  
+  private void remove(Node<E> node) {
+    unlink(node);
+    map.remove(node.index);
+  }
+  
+  private void evict(Node<E> node) {
+    remove(node);
+    evictionCount.incrementAndGet();
+  }
+  
+  /**
+   * Moves the least recently used protected elements to probation while protected is over its weight.
+   */
+  private void demoteProtected() {
+    Node<E> head = queues[PROTECTED];
+    while(weights[PROTECTED] > protectedMaxWeight && head.next != head) {
+      Node<E> node = head.next;
+      unlink(node);
+      link(PROBATION, node);
+    }
+  }
+  
+  /**
+   * Moves the least recently used window elements to the main segment while the window is over its weight.
+   */
+  private void evictWindow() {
+    Node<E> head = queues[WINDOW];
+    while(weights[WINDOW] > windowMaxWeight && head.next != head) {
+      Node<E> candidate = head.next;
+      unlink(candidate);
+      admit(candidate);
+    }
+  }
+  
+  /**
+   * Admits a candidate to the main segment if it is accessed more often than the main eviction victims.
+   */
+  private void admit(Node<E> candidate) {
+    if(candidate.weight > mainMaxWeight) {
+      map.remove(candidate.index);
+      evictionCount.incrementAndGet();
+      return;
+    }
+    
+    int frequency = sketch.frequency(candidate.index);
+    while(weights[PROBATION] + weights[PROTECTED] + candidate.weight > mainMaxWeight) {
+      Node<E> victim = nextVictim();
+      if(frequency <= sketch.frequency(victim.index)) {
+        map.remove(candidate.index);
+        evictionCount.incrementAndGet();
+        return;
+      }
+      evict(victim);
+    }
+    
+    link(PROBATION, candidate);
+  }
+  
+  /**
+   * Evicts main elements while the main segment is over its weight.
+   */
+  private void evictMain() {
+    while(weights[PROBATION] + weights[PROTECTED] > mainMaxWeight) {
+      evict(nextVictim());
+    }
+  }
+  
+  private Node<E> nextVictim() {
+    Node<E> head = queues[PROBATION];
+    return (head.next != head) ? head.next : queues[PROTECTED].next;
+  }
+  
+  private void link(int queue, Node<E> node) {
+    Node<E> head = queues[queue];
+    node.queue = queue;
+    node.prev = head.prev;
+    node.next = head;
+    head.prev.next = node;
+    head.prev = node;
+    weights[queue] += node.weight;
+  }
+  
+  private void unlink(Node<E> node) {
+    node.prev.next = node.next;
+    node.next.prev = node.prev;
+    node.prev = node.next = null;
+    weights[node.queue] -= node.weight;
+  }
+  
+  private void invalidateAll() {
+    for(Node<E> node : map.values()) {
+      node.prev = node.next = null;
+    }
+    map.clear();
+    for(int i = 0; i < queues.length; i++) {
+      queues[i].prev = queues[i].next = queues[i];
+      weights[i] = 0;
+    }
+    for(int i = 0, cnt = readBuffer.length(); i < cnt; i++) {
+      readBuffer.set(i, null);
+    }
+  }
+  
+  /**
+   * @return the number of reads served from the cache.
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+  
+  /**
+   * @return the number of reads served from the underlying store.
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+  
+  /**
+   * @return the number of elements evicted or rejected by admission.
+   */
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+  
+  /**
+   * @return the ratio of reads served from the cache.
+   */
+  public double getHitRate() {
+    long hits = hitCount.get();
+    long requestCount = hits + missCount.get();
+    return requestCount == 0 ? 0 : (double)hits / requestCount;
+  }
+  
+  /**
+   * @return the number of cached elements.
+   */
+  public int getCacheSize() {
+    return map.size();
+  }
+  
+  /**
+   * @return the estimated bytes of cached elements.
+   */
+  public long getCacheWeight() {
+    evictionLock.lock();
+    try {
+      return weights[WINDOW] + weights[PROBATION] + weights[PROTECTED];
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+  
+  /**
+   * @return the maximum bytes of cached elements.
+   */
+  public long getMaxCacheWeight() {
+    return maxWeight;
+  }
+  
+  @Override
+  public long getLWMark() {
+    return elementStore.getLWMark();
+  }
+  
+  @Override
+  public long getHWMark() {
+    return elementStore.getHWMark();
+  }
+  
+  @Override
+  public void saveHWMark(long endOfPeriod) throws Exception {
+    writeLock.lock();
+    try {
+      ensureOpen();
+      elementStore.saveHWMark(endOfPeriod);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+  
+  @Override
+  public void persist() throws IOException {
+    writeLock.lock();
+    try {
+      ensureOpen();
+      elementStore.persist();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+  
+  @Override
+  public void sync() throws IOException {
+    writeLock.lock();
+    try {
+      ensureOpen();
+      elementStore.sync();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+  
+  @Override
+  public void clear() {
+    writeLock.lock();
+    try {
+      ensureOpen();
+      writeStamp++;
+      try {
+        elementStore.clear();
+      } finally {
+        evictionLock.lock();
+        try {
+          invalidateAll();
+          sketch.clear();
+        } finally {
+          evictionLock.unlock();
+        }
+        writeStamp++;
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+  
+  @Override
+  public boolean hasIndex(int index) {
+    return elementStore.hasIndex(index);
+  }
+  
+  @Override
+  public int length() {
+    return elementStore.length();
+  }
+  
+  @Override
+  public int capacity() {
+    return elementStore.capacity();
+  }
+  
+  @Override
+  public int getIndexStart() {
+    return elementStore.getIndexStart();
+  }
+  
+  @Override
+  public ElementSerializer<E> getElementSerializer() {
+    return elementStore.getElementSerializer();
+  }
+  
+  @Override
+  public Array.Type getType() {
+    return elementStore.getType();
+  }
+  
+  @Override
+  public void close() throws IOException {
+    writeLock.lock();
+    try {
+      elementStore.close();
+    } finally {
+      evictionLock.lock();
+      try {
+        isClosed = true;
+        invalidateAll();
+      } finally {
+        evictionLock.unlock();
+      }
+      writeLock.unlock();
+    }
+  }
+  
+  @Override
+  public String toString() {
+    return String.format("%s[size=%d weight=%d/%d hits=%d misses=%d evictions=%d hitRate=%.4f]",
+                         getClass().getSimpleName(), getCacheSize(), getCacheWeight(), maxWeight,
+                         getHitCount(), getMissCount(), getEvictionCount(), getHitRate());
+  }
+  
+  /**
+   * Node - A cached element linked in one of the window, probation and protected queues.
+   * Only the element is read without the eviction lock.
+   */
+  private static class Node<E> {
+    int index;
+    volatile E element;
+    int weight;
+    int queue;
+    Node<E> prev;
+    Node<E> next;
+    
+    Node(int queue) {
+      this.queue = queue;
+      this.prev = this;
+      this.next = this;
+    }
+  }
+}
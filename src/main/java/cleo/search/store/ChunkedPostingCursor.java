@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.store;
+
+import java.util.NoSuchElementException;
+
+/**
+ * ChunkedPostingCursor - A posting cursor decoding connections in fixed-size chunks into one reused buffer.
+ * 
+ * @since 10/18, 2026
+ */
+public abstract class ChunkedPostingCursor implements PostingCursor {
+  /**
+   * The default chunk size is 256.
+   */
+  public final static int DEFAULT_CHUNK_SIZE = 256;
+  
+  private final int size;
+  private final int[] chunk;
+  private int pos = 0;
+  private int limit = 0;
+  
+  protected ChunkedPostingCursor(int size, int chunkSize) {
+    this.size = size;
+    this.chunk = new int[Math.max(1, Math.min(size, chunkSize))];
+  }
+  
+  /**
+   * Decodes the next chunk of connections.
+   * 
+   * @param chunk - the buffer to fill
+   * @return the number of connections decoded, or <code>0</code> if there are no more connections.
+   */
+  protected abstract int fill(int[] chunk);
+  
+  @Override
+  public int size() {
+    return size;
+  }
+  
+  @Override
+  public boolean hasNext() {
+    if(pos < limit) return true;
+    
+    pos = 0;
+    limit = fill(chunk);
+    return limit > 0;
+  }
+  
+  @Override
+  public int next() {
+    if(pos >= limit && !hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return chunk[pos++];
+  }
+}
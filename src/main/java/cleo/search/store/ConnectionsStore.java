@@ -27,6 +27,9 @@ import krati.Persistable;
  * 
  * @author jwu
  * @since 02/05, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Added openCursor for browsing connections without materializing them <br/>
  */
 public interface ConnectionsStore<S> extends Persistable, Closeable {
 
@@ -35,6 +38,14 @@ public interface ConnectionsStore<S> extends Persistable, Closeable {
    */
   public int[] getConnections(S source);
   
+  /**
+   * Opens a cursor over the connections of a source. Connections are decoded lazily
+   * in the same order as {@link #getConnections(Object)}.
+   * 
+   * @return the cursor, or <code>null</code> if the source is not found.
+   */
+  public PostingCursor openCursor(S source);
+  
   /**
    * Set the connections.
    * 
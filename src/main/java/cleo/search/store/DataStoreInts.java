@@ -28,6 +28,9 @@ import krati.Persistable;
  * 
  * @author jwu
  * @since 01/29, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Added openCursor for decoding a list of integers lazily <br/>
  */
 public interface DataStoreInts extends Persistable, Closeable {
 
@@ -37,6 +40,13 @@ public interface DataStoreInts extends Persistable, Closeable {
   
   public int[] get(String key);
   
+  /**
+   * Opens a cursor over the list of integers of a key.
+   * 
+   * @return the cursor, or <code>null</code> if the key is not found.
+   */
+  public PostingCursor openCursor(String key);
+  
   public boolean put(String key, int[] elemIds, long scn) throws Exception;
   
   public boolean delete(String key, long scn) throws Exception;
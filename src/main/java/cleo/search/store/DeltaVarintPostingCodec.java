@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.util.NoSuchElementException;
+
+import cleo.search.util.IntIterator;
+
+/**
+ * DeltaVarintPostingCodec - Encodes each integer as the zigzag varint of its difference from the previous one.
+ * It is most compact for ID-sorted posting lists, but any order is supported.
+ * 
+ * @since 10/18, 2026
+ */
+public class DeltaVarintPostingCodec implements PostingCodec {
+  
+  @Override
+  public int getId() {
+    return 1;
+  }
+  
+  @Override
+  public byte[] encode(int[] values, int offset, int length) {
+    byte[] dat = new byte[PostingCodecs.headerLength(length) + 5 * length];
+    int pos = PostingCodecs.writeHeader(dat, getId(), length);
+    
+    int prev = 0;
+    for(int i = offset, end = offset + length; i < end; i++) {
+      pos = PostingCodecs.writeVarint(dat, pos, PostingCodecs.zigzag(values[i] - prev));
+      prev = values[i];
+    }
+    
+    return PostingCodecs.seal(dat, pos);
+  }
+  
+  @Override
+  public IntIterator iterator(final byte[] dat, final int offset, final int count) {
+    return new IntIterator() {
+      private int pos = offset;
+      private int index = 0;
+      private int prev = 0;
+      
+      @Override
+      public boolean hasNext() {
+        return index < count;
+      }
+      
+      @Override
+      public int next() {
+        if(index >= count) {
+          throw new NoSuchElementException();
+        }
+        
+        int value = 0;
+        for(int shift = 0; ; shift += 7) {
+          byte b = dat[pos++];
+          value |= (b & 0x7F) << shift;
+          if(b >= 0) break;
+        }
+        
+        index++;
+        prev += PostingCodecs.unzigzag(value);
+        return prev;
+      }
+    };
+  }
+}
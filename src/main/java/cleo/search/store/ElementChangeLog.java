@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.log4j.Logger;
+
+import cleo.search.Element;
+import cleo.search.ElementSerializer;
+
+/**
+ * ElementChangeLog - An append-only log of element changes in the order of their SCNs.
+ * 
+ * <p>
+ * The log is a sequence of segment files <code>changes_&lt;id&gt;.log</code> in one directory.
+ * Each record is laid out as <code>[length][scn][element bytes]</code>. A new segment is started
+ * whenever the log is opened or {@link #roll()} is called, so that a partial record left behind
+ * by a crash is never followed by more records. Records become visible to an
+ * {@link ElementChangeLogReader} upon {@link #flush()}.
+ * 
+ * @since 10/18, 2026
+ */
+public class ElementChangeLog<E extends Element> implements Closeable {
+  private final static Logger logger = Logger.getLogger(ElementChangeLog.class);
+  
+  public final static String FILE_PREFIX = "changes_";
+  public final static String FILE_SUFFIX = ".log";
+  
+  private final File dir;
+  private final ElementSerializer<E> elementSerializer;
+  private DataOutputStream out;
+  private long segmentId;
+  private volatile long hwMark = 0;
+  
+  /**
+   * Opens a change log and starts a new segment.
+   * 
+   * @param dir               - the log directory
+   * @param elementSerializer - the element serializer
+   * @throws IOException
+   */
+  public ElementChangeLog(File dir, ElementSerializer<E> elementSerializer) throws IOException {
+    this.dir = dir;
+    this.elementSerializer = elementSerializer;
+    
+    if(!dir.exists() && !dir.mkdirs()) {
+      throw new IOException("Failed to create directory: " + dir.getAbsolutePath());
+    }
+    
+    long[] ids = listSegments(dir);
+    this.segmentId = (ids.length == 0) ? 0 : ids[ids.length - 1] + 1;
+    this.out = open(segmentId);
+  }
+  
+  private DataOutputStream open(long id) throws IOException {
+    File file = getSegmentFile(dir, id);
+    logger.info("open change log segment " + file.getAbsolutePath());
+    return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+  }
+  
+  /**
+   * @return the file of a segment.
+   */
+  public static File getSegmentFile(File dir, long id) {
+    return new File(dir, FILE_PREFIX + id + FILE_SUFFIX);
+  }
+  
+  /**
+   * @return the segment ID of a file name, or <code>-1</code> if it is not a segment file.
+   */
+  public static long parseId(String fileName) {
+    if(fileName.startsWith(FILE_PREFIX) && fileName.endsWith(FILE_SUFFIX)) {
+      try {
+        return Long.parseLong(fileName.substring(FILE_PREFIX.length(), fileName.length() - FILE_SUFFIX.length()));
+      } catch(NumberFormatException e) {}
+    }
+    return -1;
+  }
+  
+  /**
+   * @return the IDs of the segments in a log directory in ascending order.
+   */
+  public static long[] listSegments(File dir) {
+    File[] files = dir.listFiles();
+    if(files == null) {
+      return new long[0];
+    }
+    
+    int cnt = 0;
+    long[] ids = new long[files.length];
+    for(File file : files) {
+      long id = parseId(file.getName());
+      if(id >= 0) {
+        ids[cnt++] = id;
+      }
+    }
+    
+    ids = Arrays.copyOf(ids, cnt);
+    Arrays.sort(ids);
+    return ids;
+  }
+  
+  public final File getDirectory() {
+    return dir;
+  }
+  
+  /**
+   * @return the ID of the segment being appended to.
+   */
+  public synchronized long getSegmentId() {
+    return segmentId;
+  }
+  
+  /**
+   * @return the highest SCN appended to this log since it was opened.
+   */
+  public long getHWMark() {
+    return hwMark;
+  }
+  
+  /**
+   * Appends an element change using the element timestamp as its SCN.
+   * 
+   * @param element - the element
+   * @throws IOException
+   */
+  public synchronized void append(E element) throws IOException {
+    ensureOpen();
+    
+    long scn = element.getTimestamp();
+    byte[] bytes = elementSerializer.serialize(element);
+    out.writeInt(bytes.length);
+    out.writeLong(scn);
+    out.write(bytes);
+    
+    hwMark = Math.max(hwMark, scn);
+  }
+  
+  /**
+   * Makes appended changes visible to readers.
+   * 
+   * @throws IOException
+   */
+  public synchronized void flush() throws IOException {
+    ensureOpen();
+    out.flush();
+  }
+  
+  /**
+   * Closes the current segment and starts a new one.
+   * 
+   * @return the ID of the new segment.
+   * @throws IOException
+   */
+  public synchronized long roll() throws IOException {
+    ensureOpen();
+    out.close();
+    out = open(++segmentId);
+    return segmentId;
+  }
+  
+  /**
+   * Deletes the segments older than a given segment.
+   * 
+   * @param minSegmentId - the ID of the oldest segment to keep
+   * @return the number of segments deleted.
+   */
+  public synchronized int prune(long minSegmentId) {
+    int cnt = 0;
+    for(long id : listSegments(dir)) {
+      if(id < minSegmentId && id != segmentId) {
+        if(getSegmentFile(dir, id).delete()) {
+          cnt++;
+        }
+      }
+    }
+    return cnt;
+  }
+  
+  public synchronized boolean isOpen() {
+    return out != null;
+  }
+  
+  private void ensureOpen() throws IOException {
+    if(out == null) {
+      throw new IOException("Change log closed: " + dir.getAbsolutePath());
+    }
+  }
+  
+  @Override
+  public synchronized void close() throws IOException {
+    if(out != null) {
+      out.close();
+      out = null;
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import cleo.search.Element;
+import cleo.search.ElementSerializer;
+
+/**
+ * ElementChangeLogReader - Tails an {@link ElementChangeLog} from a given segment.
+ * 
+ * <p>
+ * The reader stops at the end of the last flushed record and picks up new records on the next call to
+ * {@link #next()}. It moves on to the next segment only after the current one has been rolled over.
+ * 
+ * @since 10/18, 2026
+ */
+public class ElementChangeLogReader<E extends Element> implements Closeable {
+  private final static int HEADER_SIZE = 12;
+  
+  private final File dir;
+  private final ElementSerializer<E> elementSerializer;
+  private RandomAccessFile raf;
+  private long segmentId;
+  private long position = 0;
+  private long scn = 0;
+  
+  /**
+   * Creates a new reader.
+   * 
+   * @param dir               - the log directory
+   * @param elementSerializer - the element serializer
+   * @param segmentId         - the ID of the segment to start from
+   */
+  public ElementChangeLogReader(File dir, ElementSerializer<E> elementSerializer, long segmentId) {
+    this.dir = dir;
+    this.elementSerializer = elementSerializer;
+    this.segmentId = segmentId;
+  }
+  
+  /**
+   * @return the ID of the segment being read.
+   */
+  public final long getSegmentId() {
+    return segmentId;
+  }
+  
+  /**
+   * @return the position of the next record in the current segment.
+   */
+  public final long getPosition() {
+    return position;
+  }
+  
+  /**
+   * @return the SCN of the last record read.
+   */
+  public final long getSCN() {
+    return scn;
+  }
+  
+  /**
+   * Reads the next element change.
+   * 
+   * @return the next element, or <code>null</code> if there is no more change at the moment.
+   * @throws IOException if the segment to read has been pruned from the log.
+   */
+  public E next() throws IOException {
+    while(true) {
+      if(raf == null) {
+        File file = ElementChangeLog.getSegmentFile(dir, segmentId);
+        if(!file.exists()) {
+          throw new IOException("Change log segment not found: " + file.getAbsolutePath());
+        }
+        raf = new RandomAccessFile(file, "r");
+      }
+      
+      E element = readRecord();
+      if(element != null) {
+        return element;
+      }
+      
+      long nextId = nextSegment();
+      if(nextId < 0) {
+        return null;
+      }
+      
+      // The current segment was closed before the next was created
+      element = readRecord();
+      if(element != null) {
+        return element;
+      }
+      
+      raf.close();
+      raf = null;
+      segmentId = nextId;
+      position = 0;
+    }
+  }
+  
+  private long nextSegment() {
+    long nextId = -1;
+    for(long id : ElementChangeLog.listSegments(dir)) {
+      if(id > segmentId && (nextId < 0 || id < nextId)) {
+        nextId = id;
+      }
+    }
+    return nextId;
+  }
+  
+  private E readRecord() throws IOException {
+    long length = raf.length();
+    if(position + HEADER_SIZE > length) {
+      return null;
+    }
+    
+    raf.seek(position);
+    int size = raf.readInt();
+    long recordScn = raf.readLong();
+    if(position + HEADER_SIZE + size > length) {
+      return null;
+    }
+    
+    byte[] bytes = new byte[size];
+    raf.readFully(bytes);
+    position += HEADER_SIZE + size;
+    scn = recordScn;
+    
+    E element = elementSerializer.deserialize(bytes);
+    element.setTimestamp(recordScn);
+    return element;
+  }
+  
+  @Override
+  public void close() throws IOException {
+    if(raf != null) {
+      raf.close();
+      raf = null;
+    }
+  }
+}
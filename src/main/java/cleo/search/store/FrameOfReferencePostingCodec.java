@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.util.NoSuchElementException;
+
+import cleo.search.util.IntIterator;
+
+/**
+ * FrameOfReferencePostingCodec - Encodes integers in blocks of {@link #BLOCK_SIZE}. Each block stores its minimum
+ * as a varint and the offsets from that minimum bit-packed with the smallest sufficient bit width. It suits
+ * score-sorted posting lists, whose element IDs are not in order but share a narrow range.
+ * 
+ * @since 10/18, 2026
+ */
+public class FrameOfReferencePostingCodec implements PostingCodec {
+  public final static int BLOCK_SIZE = 128;
+  
+  @Override
+  public int getId() {
+    return 2;
+  }
+  
+  @Override
+  public byte[] encode(int[] values, int offset, int length) {
+    int numBlocks = (length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    byte[] dat = new byte[PostingCodecs.headerLength(length) + numBlocks * 6 + (length << 2)];
+    int pos = PostingCodecs.writeHeader(dat, getId(), length);
+    
+    for(int start = offset, end = offset + length; start < end; start += BLOCK_SIZE) {
+      int blockEnd = Math.min(end, start + BLOCK_SIZE);
+      
+      int min = values[start];
+      int max = values[start];
+      for(int i = start + 1; i < blockEnd; i++) {
+        min = Math.min(min, values[i]);
+        max = Math.max(max, values[i]);
+      }
+      
+      long range = ((long)max) - min;
+      int bits = 64 - Long.numberOfLeadingZeros(range);
+      
+      pos = PostingCodecs.writeVarint(dat, pos, PostingCodecs.zigzag(min));
+      dat[pos++] = (byte)bits;
+      
+      // Pack offsets from the least significant bit
+      long acc = 0;
+      int accBits = 0;
+      for(int i = start; i < blockEnd; i++) {
+        acc |= (((long)values[i]) - min) << accBits;
+        accBits += bits;
+        while(accBits >= 8) {
+          dat[pos++] = (byte)acc;
+          acc >>>= 8;
+          accBits -= 8;
+        }
+      }
+      if(accBits > 0) {
+        dat[pos++] = (byte)acc;
+      }
+    }
+    
+    return PostingCodecs.seal(dat, pos);
+  }
+  
+  @Override
+  public IntIterator iterator(final byte[] dat, final int offset, final int count) {
+    return new IntIterator() {
+      private final int[] block = new int[BLOCK_SIZE];
+      private int blockLength = 0;
+      private int blockIndex = 0;
+      private int pos = offset;
+      private int index = 0;
+      
+      @Override
+      public boolean hasNext() {
+        return index < count;
+      }
+      
+      @Override
+      public int next() {
+        if(index >= count) {
+          throw new NoSuchElementException();
+        }
+        
+        if(blockIndex == blockLength) {
+          readBlock();
+        }
+        
+        index++;
+        return block[blockIndex++];
+      }
+      
+      private void readBlock() {
+        blockLength = Math.min(BLOCK_SIZE, count - index);
+        blockIndex = 0;
+        
+        int value = 0;
+        for(int shift = 0; ; shift += 7) {
+          byte b = dat[pos++];
+          value |= (b & 0x7F) << shift;
+          if(b >= 0) break;
+        }
+        long min = PostingCodecs.unzigzag(value);
+        int bits = dat[pos++];
+        long mask = (1L << bits) - 1;
+        
+        long acc = 0;
+        int accBits = 0;
+        for(int i = 0; i < blockLength; i++) {
+          while(accBits < bits) {
+            acc |= (dat[pos++] & 0xFFL) << accBits;
+            accBits += 8;
+          }
+          block[i] = (int)(min + (acc & mask));
+          acc >>>= bits;
+          accBits -= bits;
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.store;
+
+import cleo.search.util.IntIterator;
+
+/**
+ * IteratorPostingCursor - A chunked posting cursor over a sequence of streaming decoders.
+ * 
+ * @since 10/18, 2026
+ */
+public class IteratorPostingCursor extends ChunkedPostingCursor {
+  private final IntIterator[] iters;
+  private int index = 0;
+  
+  /**
+   * Creates a new IteratorPostingCursor.
+   * 
+   * @param size  - the total number of connections
+   * @param iters - the decoders to read in order, <code>null</code> decoders are skipped
+   */
+  public IteratorPostingCursor(int size, IntIterator... iters) {
+    super(size, DEFAULT_CHUNK_SIZE);
+    this.iters = iters;
+  }
+  
+  @Override
+  protected int fill(int[] chunk) {
+    int cnt = 0;
+    while(cnt < chunk.length && index < iters.length) {
+      IntIterator iter = iters[index];
+      if(iter != null && iter.hasNext()) {
+        chunk[cnt++] = iter.next();
+      } else {
+        index++;
+      }
+    }
+    return cnt;
+  }
+}
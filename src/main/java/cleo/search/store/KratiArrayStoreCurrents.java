@@ -19,6 +19,8 @@ package cleo.search.store;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.log4j.Logger;
 
@@ -29,11 +31,16 @@ import krati.core.segment.MemorySegmentFactory;
 import krati.core.segment.SegmentFactory;
 import krati.store.BytesDB;
 
+import cleo.search.util.StripedLocks;
+
 /**
  * KratiArrayStoreCurrents (e.g. CurrentCompaniesStore)
  * 
  * @author jwu
  * @since 01/04, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Replaced synchronized updates with per-index lock striping <br/>
  */
 public class KratiArrayStoreCurrents implements ArrayStoreInts {
   private final File homeDir;
@@ -43,7 +50,8 @@ public class KratiArrayStoreCurrents implements ArrayStoreInts {
   
   private final int batchSize;
   private final int numSyncBatches;
-  private volatile long counter = 0L;
+  private final AtomicLong counter = new AtomicLong();
+  private final StripedLocks locks = new StripedLocks();
   
   final static int NUM_BYTES_IN_INT = 4;
   final static int CURRENT_COMPANY_MASK = Integer.MAX_VALUE; // All 1's for the least significant 31 bits
@@ -215,106 +223,130 @@ public class KratiArrayStoreCurrents implements ArrayStoreInts {
   }
 
   @Override
-  public synchronized void set(int index, int[] elemIds, long scn) throws Exception {
-    assertPositive(elemIds);
-    mainArray.expandCapacity(index);
-    
-    int val = mainArray.get(index);
-    if(val < 0) {
-      int dbIndex = dbIndexDecode(val);
-      if(internalDB.hasIndex(dbIndex)) {
-        if(elemIds == null || elemIds.length == 0) {
-          internalDB.set(dbIndex, null, scn);
-          mainArray.set(index, 0, scn);
-        } else if(elemIds.length == 1) {
-          internalDB.set(dbIndex, null, scn);
-          mainArray.set(index, elemIds[0], scn);
-        } else {
-          internalDB.set(dbIndex, bytes(elemIds), scn);
+  public void set(int index, int[] elemIds, long scn) throws Exception {
+    ReentrantLock l = locks.get(index);
+    l.lock();
+    try {
+      assertPositive(elemIds);
+      expandMain(index);
+      
+      int val = mainArray.get(index);
+      if(val < 0) {
+        int dbIndex = dbIndexDecode(val);
+        if(internalDB.hasIndex(dbIndex)) {
+          if(elemIds == null || elemIds.length == 0) {
+            internalDB.set(dbIndex, null, scn);
+            setMain(index, 0, scn);
+          } else if(elemIds.length == 1) {
+            internalDB.set(dbIndex, null, scn);
+            setMain(index, elemIds[0], scn);
+          } else {
+            internalDB.set(dbIndex, bytes(elemIds), scn);
+          }
+          
+          internalPersist(scn);
+          return;
         }
-        
-        internalPersist(scn);
-        return;
       }
+      
+      if(elemIds == null || elemIds.length == 0) {
+        setMain(index, 0, scn);
+      } else if(elemIds.length == 1) {
+        setMain(index, elemIds[0], scn);
+      } else {
+        int dbIndex = internalDB.add(bytes(elemIds), scn);
+        setMain(index, dbIndexEncode(dbIndex), scn);
+      }
+      
+      internalPersist(scn);
+    } finally {
+      l.unlock();
     }
-    
-    if(elemIds == null || elemIds.length == 0) {
-      mainArray.set(index, 0, scn);
-    } else if(elemIds.length == 1) {
-      mainArray.set(index, elemIds[0], scn);
-    } else {
-      int dbIndex = internalDB.add(bytes(elemIds), scn);
-      mainArray.set(index, dbIndexEncode(dbIndex), scn);
-    }
-    
-    internalPersist(scn);
   }
   
   @Override
-  public synchronized void add(int index, int elemId, long scn) throws Exception {
-    assertPositive(elemId);
-    mainArray.expandCapacity(index);
-    
-    int val = mainArray.get(index);
-    if(val < 0) {
-      int dbIndex = dbIndexDecode(val);
-      if(internalDB.hasIndex(dbIndex)) {
-        addInternal(dbIndex, elemId, scn);
-        internalPersist(scn);
-        return;
+  public void add(int index, int elemId, long scn) throws Exception {
+    ReentrantLock l = locks.get(index);
+    l.lock();
+    try {
+      assertPositive(elemId);
+      expandMain(index);
+      
+      int val = mainArray.get(index);
+      if(val < 0) {
+        int dbIndex = dbIndexDecode(val);
+        if(internalDB.hasIndex(dbIndex)) {
+          addInternal(dbIndex, elemId, scn);
+          internalPersist(scn);
+          return;
+        }
       }
+      
+      if(val <= 0) {
+        setMain(index, elemId, scn);
+      } else if(val != elemId) {
+        int[] elems = { val, elemId };
+        int dbIndex = internalDB.add(bytes(elems), scn);
+        setMain(index, dbIndexEncode(dbIndex), scn);
+      }
+      
+      internalPersist(scn);
+    } finally {
+      l.unlock();
     }
-    
-    if(val <= 0) {
-      mainArray.set(index, elemId, scn);
-    } else if(val != elemId) {
-      int[] elems = { val, elemId };
-      int dbIndex = internalDB.add(bytes(elems), scn);
-      mainArray.set(index, dbIndexEncode(dbIndex), scn);
-    }
-    
-    internalPersist(scn);
   }
   
   @Override
-  public synchronized void remove(int index, int elemId, long scn) throws Exception {
-    if(!mainArray.hasIndex(index)) {
-      return;
-    }
-    
-    int val = mainArray.get(index);
-    if(val < 0) {
-      int dbIndex = dbIndexDecode(val);
-      if(internalDB.hasIndex(dbIndex)) {
-        removeInternal(index, dbIndex, elemId, scn);
-        internalPersist(scn);
+  public void remove(int index, int elemId, long scn) throws Exception {
+    ReentrantLock l = locks.get(index);
+    l.lock();
+    try {
+      if(!mainArray.hasIndex(index)) {
         return;
       }
+      
+      int val = mainArray.get(index);
+      if(val < 0) {
+        int dbIndex = dbIndexDecode(val);
+        if(internalDB.hasIndex(dbIndex)) {
+          removeInternal(index, dbIndex, elemId, scn);
+          internalPersist(scn);
+          return;
+        }
+      }
+      
+      if(val < 0 || val == elemId) {
+        setMain(index, 0, scn);
+      }
+      
+      internalPersist(scn);
+    } finally {
+      l.unlock();
     }
-    
-    if(val < 0 || val == elemId) {
-      mainArray.set(index, 0, scn);
-    }
-    
-    internalPersist(scn);
   }
 
   @Override
   public void delete(int index, long scn) throws Exception {
-    if(!mainArray.hasIndex(index)) {
-      return;
-    }
-    
-    int val = mainArray.get(index);
-    if(val < 0) {
-      int dbIndex = dbIndexDecode(val);
-      if(internalDB.hasIndex(dbIndex)) {
-        internalDB.set(dbIndex, null, scn);
+    ReentrantLock l = locks.get(index);
+    l.lock();
+    try {
+      if(!mainArray.hasIndex(index)) {
+        return;
       }
+      
+      int val = mainArray.get(index);
+      if(val < 0) {
+        int dbIndex = dbIndexDecode(val);
+        if(internalDB.hasIndex(dbIndex)) {
+          internalDB.set(dbIndex, null, scn);
+        }
+      }
+      
+      setMain(index, 0, scn);
+      internalPersist(scn);
+    } finally {
+      l.unlock();
     }
-    
-    mainArray.set(index, 0, scn);
-    internalPersist(scn);
   }
   
   private void addInternal(int dbIndex, int elemId, long scn) throws Exception {
@@ -359,11 +391,11 @@ public class KratiArrayStoreCurrents implements ArrayStoreInts {
     if(pos <= newLen) {
       if(newLen < NUM_BYTES_IN_INT) {
         internalDB.set(dbIndex, null, scn);
-        mainArray.set(index, 0, scn);
+        setMain(index, 0, scn);
       } else if(newLen == NUM_BYTES_IN_INT) {
         bb.position(0);
         internalDB.set(dbIndex, null, scn);
-        mainArray.set(index, bb.getInt(), scn);
+        setMain(index, bb.getInt(), scn);
       } else {
         internalDB.set(dbIndex, dat, 0, newLen, scn);
       }
@@ -381,11 +413,24 @@ public class KratiArrayStoreCurrents implements ArrayStoreInts {
     return bytes;
   }
   
+  /**
+   * Updates the main array. Writes to different indexes may run concurrently under different
+   * lock stripes while the main array itself only supports a single writer at a time.
+   */
+  private synchronized void setMain(int index, int value, long scn) throws Exception {
+    mainArray.set(index, value, scn);
+  }
+  
+  private synchronized void expandMain(int index) throws Exception {
+    mainArray.expandCapacity(index);
+  }
+  
   protected void internalPersist(long scn) throws Exception {
-    counter++;
-    if(counter % batchSize == 0) {
-      mainArray.saveHWMark(scn);
-      persist();
+    if(counter.incrementAndGet() % batchSize == 0) {
+      synchronized(this) {
+        mainArray.saveHWMark(scn);
+        persist();
+      }
     }
   }
 
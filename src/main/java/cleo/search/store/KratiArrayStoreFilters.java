@@ -19,9 +19,13 @@ package cleo.search.store;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import krati.array.Array;
 
+import cleo.search.util.StripedLocks;
+
 /**
  * KratiArrayStoreFilters
  * 
@@ -30,11 +34,13 @@ import krati.array.Array;
  * 
  * <p>
  * 09/18, 2011 - Added readBytes() to support partial reads <br/>
+ * 10/18, 2026 - Replaced synchronized updates with per-index lock striping <br/>
  */
 public class KratiArrayStoreFilters implements ArrayStoreFilters {
   protected final static int NUM_BYTES_IN_INT = 4;
   protected final KratiArrayStore store;
-  private volatile long counter = 0L;
+  protected final StripedLocks locks = new StripedLocks();
+  private final AtomicLong counter = new AtomicLong();
   
   public KratiArrayStoreFilters(KratiArrayStore store) {
     this.store = store;
@@ -95,127 +101,151 @@ public class KratiArrayStoreFilters implements ArrayStoreFilters {
    * @throws Exception
    */
   @Override
-  public synchronized void set(int index, int[][] filterData, long scn) throws Exception {
-    store.expandCapacity(index);
-    
-    if(filterData == null || filterData.length == 0) {
-      store.set(index, null, scn);
+  public void set(int index, int[][] filterData, long scn) throws Exception {
+    ReentrantLock l = locks.get(index);
+    l.lock();
+    try {
+      store.expandCapacity(index);
+      
+      if(filterData == null || filterData.length == 0) {
+        store.set(index, null, scn);
+        internalPersist(scn);
+        return;
+      }
+      
+      // Check input data
+      if(filterData.length != 2 ||
+         (filterData[ArrayStoreFilters.ELEMID_SUBARRAY_INDEX].length !=
+          filterData[ArrayStoreFilters.ELEMID_SUBARRAY_INDEX].length) ) {
+        throw new IllegalArgumentException("Invalid filterData");
+      }
+      
+      byte[] upd = new byte[NUM_BYTES_IN_INT * filterData[0].length * 2];
+      ByteBuffer bb = ByteBuffer.wrap(upd);
+      for (int i = 0, cnt = filterData[0].length; i < cnt; i++) {
+        bb.putInt(filterData[ArrayStoreFilters.ELEMID_SUBARRAY_INDEX][i]);
+        bb.putInt(filterData[ArrayStoreFilters.FILTER_SUBARRAY_INDEX][i]);
+      }
+      
+      // Update store
+      store.set(index, upd, scn);
       internalPersist(scn);
-      return;
-    }
-    
-    // Check input data
-    if(filterData.length != 2 ||
-       (filterData[ArrayStoreFilters.ELEMID_SUBARRAY_INDEX].length !=
-        filterData[ArrayStoreFilters.ELEMID_SUBARRAY_INDEX].length) ) {
-      throw new IllegalArgumentException("Invalid filterData");
-    }
-    
-    byte[] upd = new byte[NUM_BYTES_IN_INT * filterData[0].length * 2];
-    ByteBuffer bb = ByteBuffer.wrap(upd);
-    for (int i = 0, cnt = filterData[0].length; i < cnt; i++) {
-      bb.putInt(filterData[ArrayStoreFilters.ELEMID_SUBARRAY_INDEX][i]);
-      bb.putInt(filterData[ArrayStoreFilters.FILTER_SUBARRAY_INDEX][i]);
+    } finally {
+      l.unlock();
     }
-    
-    // Update store
-    store.set(index, upd, scn);
-    internalPersist(scn);
   }
   
   @Override
-  public synchronized void delete(int index, long scn) throws Exception {
-    if(store.hasIndex(index)) {
-      store.set(index, null, scn);
+  public void delete(int index, long scn) throws Exception {
+    ReentrantLock l = locks.get(index);
+    l.lock();
+    try {
+      if(store.hasIndex(index)) {
+        store.set(index, null, scn);
+      }
+      internalPersist(scn);
+    } finally {
+      l.unlock();
     }
-    internalPersist(scn);
   }
   
   @Override
-  public synchronized void add(int index, int elemId, int elemFilter, long scn) throws Exception {
-    store.expandCapacity(index);
+  public void add(int index, int elemId, int elemFilter, long scn) throws Exception {
+    ReentrantLock l = locks.get(index);
+    l.lock();
+    try {
+      store.expandCapacity(index);
 
-    byte[] upd = null;
-    byte[] dat = store.get(index);
+      byte[] upd = null;
+      byte[] dat = store.get(index);
 
-    if (dat == null) {
-      upd = new byte[NUM_BYTES_IN_INT << 1];
-      ByteBuffer bb = ByteBuffer.wrap(upd);
-      bb.putInt(elemId);
-      bb.putInt(elemFilter);
-    } else {
-      ByteBuffer bb = ByteBuffer.wrap(dat);
-      
-      int cnt = dat.length / NUM_BYTES_IN_INT / 2;
-      for(int i = 0; i < cnt; i++) {
-        int id = bb.getInt();
-        int filter = bb.getInt();
-        if(id == elemId) {
-          if(filter == elemFilter) {
-            internalPersist(scn);
-            return;
-          } else {
-            bb.position(bb.position() - NUM_BYTES_IN_INT);
-            bb.putInt(filter);
-            upd = dat;
+      if (dat == null) {
+        upd = new byte[NUM_BYTES_IN_INT << 1];
+        ByteBuffer bb = ByteBuffer.wrap(upd);
+        bb.putInt(elemId);
+        bb.putInt(elemFilter);
+      } else {
+        ByteBuffer bb = ByteBuffer.wrap(dat);
+        
+        int cnt = dat.length / NUM_BYTES_IN_INT / 2;
+        for(int i = 0; i < cnt; i++) {
+          int id = bb.getInt();
+          int filter = bb.getInt();
+          if(id == elemId) {
+            if(filter == elemFilter) {
+              internalPersist(scn);
+              return;
+            } else {
+              bb.position(bb.position() - NUM_BYTES_IN_INT);
+              bb.putInt(filter);
+              upd = dat;
+            }
           }
         }
+        
+        if(upd == null) {
+          int addBytesCnt = NUM_BYTES_IN_INT << 1;
+          int safeLen = dat.length - (dat.length % addBytesCnt);
+          upd = new byte[safeLen + addBytesCnt];
+          bb = ByteBuffer.wrap(upd);
+          bb.put(dat, 0, safeLen);
+          bb.putInt(elemId);
+          bb.putInt(elemFilter);
+        }
       }
       
-      if(upd == null) {
-        int addBytesCnt = NUM_BYTES_IN_INT << 1;
-        int safeLen = dat.length - (dat.length % addBytesCnt);
-        upd = new byte[safeLen + addBytesCnt];
-        bb = ByteBuffer.wrap(upd);
-        bb.put(dat, 0, safeLen);
-        bb.putInt(elemId);
-        bb.putInt(elemFilter);
-      }
+      // Update store
+      store.set(index, upd, scn);
+      internalPersist(scn);
+    } finally {
+      l.unlock();
     }
-    
-    // Update store
-    store.set(index, upd, scn);
-    internalPersist(scn);
   }
   
   @Override
-  public synchronized void remove(int index, int elemId, long scn) throws Exception {
-    store.expandCapacity(index);
-    
-    byte[] dat = store.get(index);
-    if (dat == null) {
-      internalPersist(scn);
-      return;
-    }
-    
-    ByteBuffer bb = ByteBuffer.wrap(dat);
-    int cnt = dat.length / NUM_BYTES_IN_INT / 2;
-    for(int i = 0; i < cnt; i++) {
-      if(bb.getInt() == elemId) {
-        bb.position(bb.position() - NUM_BYTES_IN_INT);
-        break;
+  public void remove(int index, int elemId, long scn) throws Exception {
+    ReentrantLock l = locks.get(index);
+    l.lock();
+    try {
+      store.expandCapacity(index);
+      
+      byte[] dat = store.get(index);
+      if (dat == null) {
+        internalPersist(scn);
+        return;
       }
       
-      bb.position(bb.position() + NUM_BYTES_IN_INT); // Pass filter
-    }
-    
-    int ind = bb.position() / NUM_BYTES_IN_INT / 2;
-    
-    // Update store regardless to take care of the head/tail corner cases
-    if (ind < cnt) {
-      int delBytesCnt = NUM_BYTES_IN_INT << 1;
+      ByteBuffer bb = ByteBuffer.wrap(dat);
+      int cnt = dat.length / NUM_BYTES_IN_INT / 2;
+      for(int i = 0; i < cnt; i++) {
+        if(bb.getInt() == elemId) {
+          bb.position(bb.position() - NUM_BYTES_IN_INT);
+          break;
+        }
+        
+        bb.position(bb.position() + NUM_BYTES_IN_INT); // Pass filter
+      }
+      
+      int ind = bb.position() / NUM_BYTES_IN_INT / 2;
       
-      // Shift data to the left if found in the middle
-      if (ind < (cnt - 1)) {
-        for (int pos = bb.position(), len = dat.length - delBytesCnt; pos < len; pos++) {
-          dat[pos] = dat[pos + delBytesCnt];
+      // Update store regardless to take care of the head/tail corner cases
+      if (ind < cnt) {
+        int delBytesCnt = NUM_BYTES_IN_INT << 1;
+        
+        // Shift data to the left if found in the middle
+        if (ind < (cnt - 1)) {
+          for (int pos = bb.position(), len = dat.length - delBytesCnt; pos < len; pos++) {
+            dat[pos] = dat[pos + delBytesCnt];
+          }
         }
+        
+        store.set(index, dat, 0, Math.max(0, dat.length - delBytesCnt) /* length */, scn);
       }
       
-      store.set(index, dat, 0, Math.max(0, dat.length - delBytesCnt) /* length */, scn);
+      internalPersist(scn);
+    } finally {
+      l.unlock();
     }
-    
-    internalPersist(scn);
   }
   
   @Override
@@ -229,8 +259,7 @@ public class KratiArrayStoreFilters implements ArrayStoreFilters {
   }
   
   protected final void internalPersist(long scn) throws Exception {
-    counter++;
-    if(counter % store.getUpdateBatchSize() == 0) {
+    if(counter.incrementAndGet() % store.getUpdateBatchSize() == 0) {
       store.saveHWMark(scn);
       store.persist();
     }
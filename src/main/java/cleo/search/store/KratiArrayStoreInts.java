@@ -19,22 +19,53 @@ package cleo.search.store;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import krati.array.Array;
 
+import cleo.search.util.IntIterator;
+import cleo.search.util.StripedLocks;
+
 /**
  * KratiArrayStoreInts
  *
  * @author jwu
  * @since 09/30, 2010
+ * 
+ * <p>
+ * 10/18, 2026 - Added pluggable posting codec, values of the legacy raw format remain readable <br/>
+ * 10/18, 2026 - Replaced synchronized updates with per-index lock striping <br/>
  */
 public class KratiArrayStoreInts implements ArrayStoreInts {
   protected final static int NUM_BYTES_IN_INT = 4;
   protected final KratiArrayStore store;
-  private volatile long counter = 0L;
+  protected final PostingCodec codec;
+  protected final StripedLocks locks = new StripedLocks();
+  private final AtomicLong counter = new AtomicLong();
   
+  /**
+   * Creates a new KratiArrayStoreInts in the legacy raw format, which supports partial reads of raw bytes.
+   */
   public KratiArrayStoreInts(KratiArrayStore store) {
+    this(store, PostingCodecs.RAW);
+  }
+  
+  /**
+   * Creates a new KratiArrayStoreInts. Values of any format can be read,
+   * and updated values are written using the specified codec.
+   */
+  public KratiArrayStoreInts(KratiArrayStore store, PostingCodec codec) {
     this.store = store;
+    this.codec = codec;
+  }
+  
+  /**
+   * @return the codec for writing lists of integers.
+   */
+  public final PostingCodec getCodec() {
+    return codec;
   }
   
   /**
@@ -76,22 +107,51 @@ public class KratiArrayStoreInts implements ArrayStoreInts {
   
   @Override
   public int getCount(int index) {
-    return (store.getLength(index) / NUM_BYTES_IN_INT);
+    int len = store.getLength(index);
+    if(len < 3) return (len / NUM_BYTES_IN_INT);
+    
+    // Read the value header only
+    byte[] head = new byte[Math.min(len, 7)];
+    store.read(index, head);
+    return PostingCodecs.isEncoded(head, len) ? PostingCodecs.count(head) : (len / NUM_BYTES_IN_INT);
   }
   
   @Override
   public int[] get(int index) {
+    return PostingCodecs.decode(store.get(index));
+  }
+  
+  /**
+   * Gets the encoded list of integers at an index.
+   * 
+   * @return the bytes in any format read by {@link PostingCodecs}, or <code>null</code> if there is no data at the index.
+   */
+  public byte[] getBytes(int index) {
+    return store.get(index);
+  }
+  
+  /**
+   * Gets the streaming decoder of the list of integers at an index.
+   * 
+   * @return the iterator of integers, or <code>null</code> if there is no data at the index.
+   */
+  public IntIterator iterator(int index) {
     byte[] dat = store.get(index);
-    if(dat == null) return null;
-    
-    ByteBuffer bb = ByteBuffer.wrap(dat);
-    int cnt = dat.length / 4;
-    int[] result = new int[cnt];
-    for (int i = 0; i < cnt; i++) {
-      result[i] = bb.getInt();
-    }
-    
-    return result;
+    return (dat == null) ? null : PostingCodecs.iterator(dat);
+  }
+  
+  /**
+   * Encodes a list of integers using the codec of this store.
+   */
+  protected byte[] encode(int[] elemIds) {
+    return codec.encode(elemIds, 0, elemIds.length);
+  }
+  
+  /**
+   * @return <code>true</code> if the value can be updated in place in the legacy raw format.
+   */
+  protected boolean isRaw(byte[] dat) {
+    return codec == PostingCodecs.RAW && !PostingCodecs.isEncoded(dat);
   }
   
   /**
@@ -103,66 +163,86 @@ public class KratiArrayStoreInts implements ArrayStoreInts {
    * @throws Exception
    */
   @Override
-  public synchronized void set(int index, int elemIds[], long scn) throws Exception {
-    store.expandCapacity(index);
-    
-    if(elemIds == null || elemIds.length == 0) {
-      store.set(index, null, scn);
+  public void set(int index, int elemIds[], long scn) throws Exception {
+    ReentrantLock l = locks.get(index);
+    l.lock();
+    try {
+      store.expandCapacity(index);
+      
+      if(elemIds == null || elemIds.length == 0) {
+        store.set(index, null, scn);
+        internalPersist(scn);
+        return;
+      }
+      
+      // Update store
+      store.set(index, encode(elemIds), scn);
       internalPersist(scn);
-      return;
+    } finally {
+      l.unlock();
     }
-    
-    byte[] upd = new byte[NUM_BYTES_IN_INT * elemIds.length];
-    ByteBuffer bb = ByteBuffer.wrap(upd);
-    for (int i = 0; i < elemIds.length; i++) {
-      bb.putInt(elemIds[i]);
-    }
-
-    // Update store
-    store.set(index, upd, scn);
-    internalPersist(scn);
   }
   
   @Override
-  public synchronized void delete(int index, long scn) throws Exception {
-    if(store.hasIndex(index)) {
-      store.set(index, null, scn);
+  public void delete(int index, long scn) throws Exception {
+    ReentrantLock l = locks.get(index);
+    l.lock();
+    try {
+      if(store.hasIndex(index)) {
+        store.set(index, null, scn);
+      }
+      internalPersist(scn);
+    } finally {
+      l.unlock();
     }
-    internalPersist(scn);
   }
   
   @Override
-  public synchronized void add(int index, int elemId, long scn) throws Exception {
-    store.expandCapacity(index);
-    
-    byte[] upd = null;
-    byte[] dat = store.get(index);
-    
-    if (dat == null) {
-      upd = new byte[NUM_BYTES_IN_INT];
-      ByteBuffer bb = ByteBuffer.wrap(upd);
-      bb.putInt(elemId);
-    } else {
-      ByteBuffer bb = ByteBuffer.wrap(dat);
+  public void add(int index, int elemId, long scn) throws Exception {
+    ReentrantLock l = locks.get(index);
+    l.lock();
+    try {
+      store.expandCapacity(index);
+      
+      byte[] upd = null;
+      byte[] dat = store.get(index);
       
-      while ((bb.position() + NUM_BYTES_IN_INT) <= dat.length) {
-        int id = bb.getInt();
-        if (id == elemId) {
+      if (dat == null) {
+        upd = encode(new int[] { elemId });
+      } else if (!isRaw(dat)) {
+        if (PostingCodecs.contains(dat, elemId)) {
           internalPersist(scn);
           return;
         }
+        
+        int[] ids = PostingCodecs.decode(dat);
+        ids = Arrays.copyOf(ids, ids.length + 1);
+        ids[ids.length - 1] = elemId;
+        upd = encode(ids);
+      } else {
+        ByteBuffer bb = ByteBuffer.wrap(dat);
+        
+        while ((bb.position() + NUM_BYTES_IN_INT) <= dat.length) {
+          int id = bb.getInt();
+          if (id == elemId) {
+            internalPersist(scn);
+            return;
+          }
+        }
+        
+        int safeLen = dat.length - (dat.length % NUM_BYTES_IN_INT);
+        upd = new byte[safeLen + NUM_BYTES_IN_INT];
+        bb = ByteBuffer.wrap(upd);
+        bb.put(dat, 0, safeLen);
+        bb.putInt(elemId);
       }
       
-      int safeLen = dat.length - (dat.length % NUM_BYTES_IN_INT);
-      upd = new byte[safeLen + NUM_BYTES_IN_INT];
-      bb = ByteBuffer.wrap(upd);
-      bb.put(dat, 0, safeLen);
-      bb.putInt(elemId);
+      // Update store
+      store.set(index, upd, scn);
+      internalPersist(scn);
+    } finally {
+      l.unlock();
     }
-    
-    // Update store
-    store.set(index, upd, scn);
-    internalPersist(scn);
   }
   
   /**
@@ -173,67 +253,97 @@ public class KratiArrayStoreInts implements ArrayStoreInts {
    * @param scn     - the monotonically increasing System Change Number (SCN)
    * @throws Exception
    */
-  public synchronized void add(int index, int[] elemIds, long scn) throws Exception {
-    store.expandCapacity(index);
-    
-    byte[] upd = null;
-    byte[] dat = store.get(index);
-    
-    if (dat == null) {
-      upd = new byte[NUM_BYTES_IN_INT * elemIds.length];
-      ByteBuffer bb = ByteBuffer.wrap(upd);
-      for(int i = 0; i < elemIds.length; i++) {
-        bb.putInt(elemIds[i]);
-      }
-    } else {
-      ByteBuffer bb = ByteBuffer.wrap(dat);
+  public void add(int index, int[] elemIds, long scn) throws Exception {
+    ReentrantLock l = locks.get(index);
+    l.lock();
+    try {
+      store.expandCapacity(index);
+      
+      byte[] upd = null;
+      byte[] dat = store.get(index);
       
-      int safeLen = dat.length - (dat.length % NUM_BYTES_IN_INT);
-      upd = new byte[safeLen + NUM_BYTES_IN_INT * elemIds.length];
-      bb = ByteBuffer.wrap(upd);
-      bb.put(dat, 0, safeLen);
-      for(int i = 0; i < elemIds.length; i++) {
-        bb.putInt(elemIds[i]);
+      if (dat == null) {
+        upd = encode(elemIds);
+      } else if (!isRaw(dat)) {
+        int[] ids = PostingCodecs.decode(dat);
+        int[] all = new int[ids.length + elemIds.length];
+        System.arraycopy(ids, 0, all, 0, ids.length);
+        System.arraycopy(elemIds, 0, all, ids.length, elemIds.length);
+        upd = encode(all);
+      } else {
+        ByteBuffer bb = ByteBuffer.wrap(dat);
+        
+        int safeLen = dat.length - (dat.length % NUM_BYTES_IN_INT);
+        upd = new byte[safeLen + NUM_BYTES_IN_INT * elemIds.length];
+        bb = ByteBuffer.wrap(upd);
+        bb.put(dat, 0, safeLen);
+        for(int i = 0; i < elemIds.length; i++) {
+          bb.putInt(elemIds[i]);
+        }
       }
+      
+      // Update store
+      store.set(index, upd, scn);
+      internalPersist(scn);
+    } finally {
+      l.unlock();
     }
-    
-    // Update store
-    store.set(index, upd, scn);
-    internalPersist(scn);
   }
   
   @Override
-  public synchronized void remove(int index, int elemId, long scn) throws Exception {
-    store.expandCapacity(index);
-    
-    byte[] dat = store.get(index);
-    if (dat == null) {
-      internalPersist(scn);
-      return;
-    }
-    
-    ByteBuffer bb = ByteBuffer.wrap(dat);
-    
-    int pos = 0;
-    boolean foundElem = false;
-    while ((pos + NUM_BYTES_IN_INT) <= dat.length) {
-      if (bb.getInt() == elemId) {
-        foundElem = true;
-        break;
+  public void remove(int index, int elemId, long scn) throws Exception {
+    ReentrantLock l = locks.get(index);
+    l.lock();
+    try {
+      store.expandCapacity(index);
+      
+      byte[] dat = store.get(index);
+      if (dat == null) {
+        internalPersist(scn);
+        return;
       }
-      pos = bb.position();
-    }
-    
-    // Shift data to the left if found in the middle
-    if (pos < (dat.length - NUM_BYTES_IN_INT)) {
-      for (int len = dat.length - NUM_BYTES_IN_INT; pos < len; pos++) {
-        dat[pos] = dat[pos + NUM_BYTES_IN_INT];
+      
+      if (!isRaw(dat)) {
+        int[] ids = PostingCodecs.decode(dat);
+        for (int i = 0; i < ids.length; i++) {
+          if (ids[i] == elemId) {
+            int[] upd = new int[ids.length - 1];
+            System.arraycopy(ids, 0, upd, 0, i);
+            System.arraycopy(ids, i + 1, upd, i, upd.length - i);
+            store.set(index, upd.length == 0 ? null : encode(upd), scn);
+            break;
+          }
+        }
+        internalPersist(scn);
+        return;
       }
-    }
-    
-    // Update store regardless to take care of the head/tail corner cases
-    if (foundElem) {
-      store.set(index, dat, 0, Math.max(0, dat.length - NUM_BYTES_IN_INT) /* length */, scn);
+      
+      ByteBuffer bb = ByteBuffer.wrap(dat);
+      
+      int pos = 0;
+      boolean foundElem = false;
+      while ((pos + NUM_BYTES_IN_INT) <= dat.length) {
+        if (bb.getInt() == elemId) {
+          foundElem = true;
+          break;
+        }
+        pos = bb.position();
+      }
+      
+      // Shift data to the left if found in the middle
+      if (pos < (dat.length - NUM_BYTES_IN_INT)) {
+        for (int len = dat.length - NUM_BYTES_IN_INT; pos < len; pos++) {
+          dat[pos] = dat[pos + NUM_BYTES_IN_INT];
+        }
+      }
+      
+      // Update store regardless to take care of the head/tail corner cases
+      if (foundElem) {
+        store.set(index, dat, 0, Math.max(0, dat.length - NUM_BYTES_IN_INT) /* length */, scn);
+      }
+      internalPersist(scn);
+    } finally {
+      l.unlock();
     }
   }
   
@@ -248,8 +358,7 @@ public class KratiArrayStoreInts implements ArrayStoreInts {
   }
   
   protected void internalPersist(long scn) throws Exception {
-    counter++;
-    if(counter % store.getUpdateBatchSize() == 0) {
+    if(counter.incrementAndGet() % store.getUpdateBatchSize() == 0) {
       store.saveHWMark(scn);
       store.persist();
     }
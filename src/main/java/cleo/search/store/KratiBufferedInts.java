@@ -33,6 +33,10 @@ import krati.io.Serializer;
  * 
  * @author jwu
  * @since 09/12, 2012
+ * 
+ * <p>
+ * 10/18, 2026 - Added constructor for writing lists of integers using a posting codec <br/>
+ * 10/18, 2026 - Added openCursor chaining buffer and extension bytes without copying <br/>
  */
 public class KratiBufferedInts implements DataStoreInts {
   /**
@@ -103,15 +107,27 @@ public class KratiBufferedInts implements DataStoreInts {
    * @throws Exception 
    */
   public KratiBufferedInts(int bufferSize, KratiDataStore store) throws Exception {
+    this(bufferSize, store, PostingCodecs.RAW);
+  }
+  
+  /**
+   * Creates a new KratiBufferedInts.
+   * 
+   * @param bufferSize - the size of elementId buffer
+   * @param store - the underlying store
+   * @param codec - the codec for writing lists of integers
+   * @throws Exception 
+   */
+  public KratiBufferedInts(int bufferSize, KratiDataStore store, PostingCodec codec) throws Exception {
     this.bufferSize = Math.max(bufferSize, MINIMUM_BUFFER_SIZE);
     
     // Initialize buffering
     this.buffer = store;
-    this.bufInts = new KratiDataStoreInts(store);
+    this.bufInts = new KratiDataStoreInts(store, codec);
     
     // Initialize extension
     this.extension = initExtension(new MemorySegmentFactory());
-    this.extInts = new KratiArrayStoreInts(extension);
+    this.extInts = new KratiArrayStoreInts(extension, codec);
     
     // Initialize buffer persist listener
     initPersistableListener();
@@ -283,6 +299,31 @@ public class KratiBufferedInts implements DataStoreInts {
     }
   }
 
+  @Override
+  public PostingCursor openCursor(String key) {
+    int w1 = 0, w2 = 0;
+    byte[] ext = null, buf = null;
+    
+    do {
+      w1 = bufInts.getCount(key);
+      if(w1 >= 0) {
+        int index = getExtensionIndex(key);
+        if (index >= 0) {
+          ext = extInts.getBytes(index);
+        }
+        buf = bufInts.getBytes(key);
+        w2 = (buf == null) ? 0 : PostingCodecs.count(buf);
+      }
+    } while(w1 > w2);
+    
+    if(buf == null) {
+      return (ext == null) ? null : new IteratorPostingCursor(PostingCodecs.count(ext), PostingCodecs.iterator(ext));
+    }
+    
+    int size = PostingCodecs.count(buf) + Math.max(0, PostingCodecs.count(ext));
+    return new IteratorPostingCursor(size, PostingCodecs.iterator(buf), (ext == null) ? null : PostingCodecs.iterator(ext));
+  }
+  
   @Override
   public boolean put(String key, int[] elemIds, long scn) throws Exception {
     if(elemIds == null) {
@@ -24,6 +24,9 @@ import java.util.Iterator;
  * 
  * @author jwu
  * @since 02/04, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Added openCursor <br/>
  */
 public final class KratiDataStoreConnections implements ConnectionsStore<String> {
   /**
@@ -45,6 +48,11 @@ public final class KratiDataStoreConnections implements ConnectionsStore<String>
     return storeInts.get(source);
   }
   
+  @Override
+  public PostingCursor openCursor(String source) {
+    return storeInts.openCursor(source);
+  }
+  
   @Override
   public void putConnections(String source, int[] connections, long scn) throws Exception {
     storeInts.put(source, connections, scn);
@@ -19,12 +19,14 @@ package cleo.search.store;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Iterator;
 
 import krati.io.Serializer;
 import krati.io.serializer.StringSerializerUtf8;
 import krati.util.Bytes;
 
+import cleo.search.util.IntIterator;
 import cleo.search.util.StringIterator;
 
 /**
@@ -32,6 +34,9 @@ import cleo.search.util.StringIterator;
  * 
  * @author jwu
  * @since 02/01, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Added pluggable posting codec, values of the legacy raw format remain readable <br/>
  */
 public class KratiDataStoreInts implements DataStoreInts {
   /**
@@ -44,27 +49,49 @@ public class KratiDataStoreInts implements DataStoreInts {
    */
   private final KratiDataStore store;
   
+  /**
+   * The codec for writing lists of integers.
+   */
+  private final PostingCodec codec;
+  
   /**
    * The internal update operation counter.
    */
   private volatile long counter = 0L;
   
   /**
-   * Creates a new instance of KratiDataStoreInts.
+   * Creates a new instance of KratiDataStoreInts in the legacy raw format.
    * 
    * @param store - the underling KratiDataStore
    */
   public KratiDataStoreInts(KratiDataStore store) {
+    this(store, PostingCodecs.RAW);
+  }
+  
+  /**
+   * Creates a new instance of KratiDataStoreInts. Values of any format can be read,
+   * and updated values are written using the specified codec.
+   * 
+   * @param store - the underling KratiDataStore
+   * @param codec - the codec for writing lists of integers
+   */
+  public KratiDataStoreInts(KratiDataStore store, PostingCodec codec) {
     this.store = store;
+    this.codec = codec;
+  }
+  
+  /**
+   * @return the codec for writing lists of integers.
+   */
+  public final PostingCodec getCodec() {
+    return codec;
   }
   
   public int getCount(String key) {
     if(key == null) return -1;
-
-    byte[] dat = store.get(serializer.serialize(key));
-    if(dat == null) return -1;
     
-    return (dat.length / Bytes.NUM_BYTES_IN_INT);
+    byte[] dat = store.get(serializer.serialize(key));
+    return PostingCodecs.count(dat);
   }
   
   @Override
@@ -72,16 +99,34 @@ public class KratiDataStoreInts implements DataStoreInts {
     if(key == null) return null;
     
     byte[] dat = store.get(serializer.serialize(key));
-    if(dat == null) return null;
-    
-    ByteBuffer bb = ByteBuffer.wrap(dat);
-    int cnt = dat.length / Bytes.NUM_BYTES_IN_INT;
-    int[] result = new int[cnt];
-    for (int i = 0; i < cnt; i++) {
-      result[i] = bb.getInt();
-    }
+    return PostingCodecs.decode(dat);
+  }
+  
+  /**
+   * Gets the encoded list of integers of a key.
+   * 
+   * @return the bytes in any format read by {@link PostingCodecs}, or <code>null</code> if the key is not found.
+   */
+  public byte[] getBytes(String key) {
+    return (key == null) ? null : store.get(serializer.serialize(key));
+  }
+  
+  @Override
+  public PostingCursor openCursor(String key) {
+    byte[] dat = getBytes(key);
+    return (dat == null) ? null : new IteratorPostingCursor(PostingCodecs.count(dat), PostingCodecs.iterator(dat));
+  }
+  
+  /**
+   * Gets the streaming decoder of the list of integers of a key.
+   * 
+   * @return the iterator of integers, or <code>null</code> if the key is not found.
+   */
+  public IntIterator iterator(String key) {
+    if(key == null) return null;
     
-    return result;
+    byte[] dat = store.get(serializer.serialize(key));
+    return (dat == null) ? null : PostingCodecs.iterator(dat);
   }
   
   @Override
@@ -100,14 +145,8 @@ public class KratiDataStoreInts implements DataStoreInts {
       return true;
     }
     
-    byte[] upd = new byte[Bytes.NUM_BYTES_IN_INT * elemIds.length];
-    ByteBuffer bb = ByteBuffer.wrap(upd);
-    for (int i = 0; i < elemIds.length; i++) {
-      bb.putInt(elemIds[i]);
-    }
-    
     // Update store
-    store.put(serializer.serialize(key), upd, scn);
+    store.put(serializer.serialize(key), codec.encode(elemIds, 0, elemIds.length), scn);
     internalPersist(scn);
     return true;
   }
@@ -130,10 +169,8 @@ public class KratiDataStoreInts implements DataStoreInts {
     byte[] updDat = null;
     
     if (rawDat == null) {
-      updDat = new byte[Bytes.NUM_BYTES_IN_INT];
-      ByteBuffer bb = ByteBuffer.wrap(updDat);
-      bb.putInt(elemId);
-    } else {
+      updDat = codec.encode(new int[] { elemId }, 0, 1);
+    } else if (codec == PostingCodecs.RAW && !PostingCodecs.isEncoded(rawDat)) {
       ByteBuffer bb = ByteBuffer.wrap(rawDat);
       
       while ((bb.position() + Bytes.NUM_BYTES_IN_INT) <= rawDat.length) {
@@ -149,6 +186,16 @@ public class KratiDataStoreInts implements DataStoreInts {
       bb = ByteBuffer.wrap(updDat);
       bb.put(rawDat, 0, safeLen);
       bb.putInt(elemId);
+    } else {
+      if (PostingCodecs.contains(rawDat, elemId)) {
+        internalPersist(scn);
+        return;
+      }
+      
+      int[] elemIds = PostingCodecs.decode(rawDat);
+      elemIds = Arrays.copyOf(elemIds, elemIds.length + 1);
+      elemIds[elemIds.length - 1] = elemId;
+      updDat = codec.encode(elemIds, 0, elemIds.length);
     }
     
     // Update store
@@ -168,6 +215,22 @@ public class KratiDataStoreInts implements DataStoreInts {
       return;
     }
     
+    if (PostingCodecs.isEncoded(rawDat)) {
+      int[] elemIds = PostingCodecs.decode(rawDat);
+      for(int i = 0; i < elemIds.length; i++) {
+        if(elemIds[i] == elemId) {
+          int[] updIds = new int[elemIds.length - 1];
+          System.arraycopy(elemIds, 0, updIds, 0, i);
+          System.arraycopy(elemIds, i + 1, updIds, i, updIds.length - i);
+          store.put(rawKey, updIds.length == 0 ? new byte[0] : codec.encode(updIds, 0, updIds.length), scn);
+          break;
+        }
+      }
+      
+      internalPersist(scn);
+      return;
+    }
+    
     int rawCnt = rawDat.length / Bytes.NUM_BYTES_IN_INT;
     ByteBuffer bb = ByteBuffer.wrap(rawDat);
     
@@ -0,0 +1,677 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.log4j.Logger;
+
+import cleo.search.util.DaemonThreadFactory;
+import cleo.search.util.IntHashSet;
+
+/**
+ * LsmConnectionsStore - A log-structured connections store for real-time indexing.
+ * 
+ * <p>
+ * Updates land in a mutable memory segment where adding or removing a connection is an append,
+ * so the cost of an update does not depend on the length of the posting list. Once a memory segment
+ * holds <code>segmentSize</code> updates, it is frozen and written in the background to an immutable
+ * on-disk {@link LsmSegment} with added connections in the descending order of element scores.
+ * Once there are more than <code>maxSegments</code> disk segments, they are merged into the base store
+ * in the background.
+ * 
+ * <p>
+ * Reads consult the memory segment, the frozen segments, the disk segments and the base store from
+ * the newest to the oldest, applying tombstones along the way. Sources without pending updates are
+ * served by the base store directly.
+ * 
+ * @since 10/18, 2026
+ */
+public class LsmConnectionsStore implements ConnectionsStore<String> {
+  public final static int DEFAULT_SEGMENT_SIZE = 100000;
+  public final static int DEFAULT_MAX_SEGMENTS = 8;
+  
+  private final static Logger logger = Logger.getLogger(LsmConnectionsStore.class);
+  private final static MemSegment[] NO_MEM_SEGMENTS = new MemSegment[0];
+  private final static LsmSegment[] NO_SEGMENTS = new LsmSegment[0];
+  
+  private final File homeDir;
+  private final ConnectionsStore<String> baseStore;
+  private final int segmentSize;
+  private final int maxSegments;
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory());
+  private final ReentrantLock mergeLock = new ReentrantLock();
+  private volatile FloatArrayPartition scoreStore = null;
+  private volatile Version version;
+  private volatile long hwMark;
+  private volatile long lwMark;
+  private long nextSegmentId = 0;
+  private boolean isClosed = false;
+  
+  public LsmConnectionsStore(File homeDir, ConnectionsStore<String> baseStore) throws IOException {
+    this(homeDir, baseStore, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_SEGMENTS);
+  }
+  
+  /**
+   * Creates a new LsmConnectionsStore.
+   * 
+   * @param homeDir     - the directory of disk segments
+   * @param baseStore   - the store holding the merged connections
+   * @param segmentSize - the number of updates held by a memory segment before it is frozen
+   * @param maxSegments - the number of disk segments kept before they are merged into the base store
+   * @throws IOException
+   */
+  public LsmConnectionsStore(File homeDir, ConnectionsStore<String> baseStore, int segmentSize, int maxSegments) throws IOException {
+    this.homeDir = homeDir;
+    this.baseStore = baseStore;
+    this.segmentSize = Math.max(1, segmentSize);
+    this.maxSegments = Math.max(1, maxSegments);
+    
+    if(!homeDir.exists() && !homeDir.mkdirs()) {
+      throw new IOException("Failed to create directory: " + homeDir.getAbsolutePath());
+    }
+    
+    // Open the disk segments left by the last run
+    long scn = baseStore.getHWMark();
+    List<LsmSegment> segments = new ArrayList<LsmSegment>();
+    for(File file : homeDir.listFiles()) {
+      long id = LsmSegment.parseId(file.getName());
+      if(id >= 0) {
+        LsmSegment segment = new LsmSegment(homeDir, id);
+        segments.add(segment);
+        scn = Math.max(scn, segment.getSCN());
+        nextSegmentId = Math.max(nextSegmentId, id + 1);
+      }
+    }
+    Collections.sort(segments, new SegmentCmpDsc());
+    
+    this.version = new Version(new MemSegment(), NO_MEM_SEGMENTS, segments.toArray(new LsmSegment[segments.size()]));
+    this.hwMark = scn;
+    this.lwMark = scn;
+    
+    logger.info("opened " + homeDir.getAbsolutePath() + " with " + segments.size() + " segments at scn " + scn);
+  }
+  
+  /**
+   * Sets the element scores to order connections by when they are written to disk.
+   */
+  public void setScoreStore(FloatArrayPartition scoreStore) {
+    this.scoreStore = scoreStore;
+  }
+  
+  public FloatArrayPartition getScoreStore() {
+    return scoreStore;
+  }
+  
+  public final ConnectionsStore<String> getBaseStore() {
+    return baseStore;
+  }
+  
+  public final int getSegmentSize() {
+    return segmentSize;
+  }
+  
+  public final int getMaxSegments() {
+    return maxSegments;
+  }
+  
+  /**
+   * @return the number of frozen memory segments waiting to be written to disk.
+   */
+  public int getNumFrozenSegments() {
+    return version.frozen.length;
+  }
+  
+  /**
+   * @return the number of disk segments not yet merged into the base store.
+   */
+  public int getNumSegments() {
+    return version.segments.length;
+  }
+  
+  protected void ensureOpen() throws UnsupportedOperationException {
+    if(isClosed)
+      throw new UnsupportedOperationException("Cannot modify store, already closed!");
+  }
+  
+  /**
+   * Collects the postings of a source from the newest to the oldest segment, stopping at the first
+   * posting which hides the older ones.
+   */
+  private static List<LsmPosting> collect(String source, Version v) {
+    List<LsmPosting> list = null;
+    
+    LsmPosting p = v.active.postings.get(source);
+    if(p != null) {
+      list = new ArrayList<LsmPosting>(4);
+      list.add(p);
+      if(p.flag != LsmPosting.DELTA) return list;
+    }
+    
+    for(MemSegment m : v.frozen) {
+      p = m.postings.get(source);
+      if(p != null) {
+        if(list == null) list = new ArrayList<LsmPosting>(4);
+        list.add(p);
+        if(p.flag != LsmPosting.DELTA) return list;
+      }
+    }
+    
+    for(LsmSegment s : v.segments) {
+      p = s.get(source);
+      if(p != null) {
+        if(list == null) list = new ArrayList<LsmPosting>(4);
+        list.add(p);
+        if(p.flag != LsmPosting.DELTA) return list;
+      }
+    }
+    
+    return list;
+  }
+  
+  /**
+   * Applies the postings of a source on top of its connections in the base store.
+   * 
+   * @param postings    - the postings from the newest to the oldest
+   * @param source      - the source
+   * @return the connections, or <code>null</code> if the source is not found.
+   */
+  private int[] merge(List<LsmPosting> postings, String source) {
+    // A single replacing posting hides everything else
+    LsmPosting first = postings.get(0);
+    if(first.flag == LsmPosting.REPLACE) {
+      int[] adds = first.canonical()[0];
+      return Arrays.copyOf(adds, adds.length);
+    }
+    
+    boolean exists = false;
+    boolean hidden = false;
+    
+    int cnt = 0;
+    int[] result = new int[16];
+    IntHashSet decided = new IntHashSet();
+    
+    for(LsmPosting p : postings) {
+      int[][] canonical = p.canonical();
+      for(int elemId : canonical[0]) {
+        if(decided.add(elemId)) {
+          if(cnt == result.length) result = Arrays.copyOf(result, cnt << 1);
+          result[cnt++] = elemId;
+        }
+      }
+      for(int elemId : canonical[1]) {
+        decided.add(elemId);
+      }
+      
+      if(p.size() > 0 || p.flag == LsmPosting.REPLACE) {
+        exists = true;
+      }
+      if(p.flag != LsmPosting.DELTA) {
+        hidden = true;
+        break;
+      }
+    }
+    
+    if(!hidden) {
+      int[] connections = baseStore.getConnections(source);
+      if(connections != null) {
+        exists = true;
+        for(int elemId : connections) {
+          if(!decided.contains(elemId)) {
+            if(cnt == result.length) result = Arrays.copyOf(result, cnt << 1);
+            result[cnt++] = elemId;
+          }
+        }
+      }
+    }
+    
+    return exists ? Arrays.copyOf(result, cnt) : null;
+  }
+  
+  @Override
+  public int[] getConnections(String source) {
+    List<LsmPosting> postings = collect(source, version);
+    return (postings == null) ? baseStore.getConnections(source) : merge(postings, source);
+  }
+  
+  @Override
+  public PostingCursor openCursor(String source) {
+    List<LsmPosting> postings = collect(source, version);
+    if(postings == null) {
+      return baseStore.openCursor(source);
+    }
+    
+    int[] connections = merge(postings, source);
+    return (connections == null) ? null : new ArrayPostingCursor(connections);
+  }
+  
+  @Override
+  public synchronized void putConnections(String source, int[] connections, long scn) throws Exception {
+    ensureOpen();
+    int flag = (connections == null) ? LsmPosting.DELETE : LsmPosting.REPLACE;
+    version.active.put(source, LsmPosting.create(flag, connections), scn);
+    updated(scn);
+  }
+  
+  @Override
+  public synchronized void deleteConnections(String source, long scn) throws Exception {
+    putConnections(source, null, scn);
+  }
+  
+  @Override
+  public synchronized void addConnection(String source, int connection, long scn) throws Exception {
+    ensureOpen();
+    version.active.append(source, connection, false, scn);
+    updated(scn);
+  }
+  
+  @Override
+  public synchronized void removeConnection(String source, int connection, long scn) throws Exception {
+    ensureOpen();
+    version.active.append(source, connection, true, scn);
+    updated(scn);
+  }
+  
+  private void updated(long scn) {
+    hwMark = Math.max(hwMark, scn);
+    if(version.active.numUpdates >= segmentSize) {
+      freeze();
+      executor.execute(new Merger());
+    }
+  }
+  
+  /**
+   * Freezes the memory segment and starts a new one.
+   * 
+   * @return <code>true</code> if a memory segment is frozen.
+   */
+  private synchronized boolean freeze() {
+    Version v = version;
+    if(v.active.numUpdates == 0 && v.active.postings.isEmpty()) {
+      return false;
+    }
+    
+    MemSegment[] frozen = new MemSegment[v.frozen.length + 1];
+    frozen[0] = v.active;
+    System.arraycopy(v.frozen, 0, frozen, 1, v.frozen.length);
+    version = new Version(new MemSegment(), frozen, v.segments);
+    return true;
+  }
+  
+  /**
+   * Writes all frozen memory segments to disk, the oldest first.
+   */
+  private void flushFrozen() throws IOException {
+    while(true) {
+      Version v = version;
+      if(v.frozen.length == 0) {
+        return;
+      }
+      
+      MemSegment m = v.frozen[v.frozen.length - 1];
+      long startTime = System.currentTimeMillis();
+      LsmSegment segment = LsmSegment.write(homeDir, nextSegmentId++, m.maxScn, m.postings, scoreStore);
+      
+      synchronized(this) {
+        v = version;
+        LsmSegment[] segments = new LsmSegment[v.segments.length + 1];
+        segments[0] = segment;
+        System.arraycopy(v.segments, 0, segments, 1, v.segments.length);
+        version = new Version(v.active, Arrays.copyOf(v.frozen, v.frozen.length - 1), segments);
+        lwMark = Math.max(lwMark, segment.getSCN());
+      }
+      
+      long totalTime = System.currentTimeMillis() - startTime;
+      logger.info("wrote segment " + segment.getId() + " with " + segment.getNumSources() + " sources: " + totalTime + " ms");
+    }
+  }
+  
+  /**
+   * Merges all disk segments into the base store.
+   */
+  private void mergeSegments() throws Exception {
+    LsmSegment[] segments = version.segments;
+    if(segments.length == 0) {
+      return;
+    }
+    
+    long startTime = System.currentTimeMillis();
+    long scn = 0;
+    Set<String> sources = new HashSet<String>();
+    for(LsmSegment s : segments) {
+      scn = Math.max(scn, s.getSCN());
+      Iterator<String> iter = s.sourceIterator();
+      while(iter.hasNext()) {
+        sources.add(iter.next());
+      }
+    }
+    
+    Version v = new Version(null, NO_MEM_SEGMENTS, segments);
+    FloatArrayPartition scores = scoreStore;
+    for(String source : sources) {
+      int[] connections = merge(collect(source, v), source);
+      if(connections == null) {
+        baseStore.deleteConnections(source, scn);
+      } else {
+        baseStore.putConnections(source, sortByScore(connections, scores), scn);
+      }
+    }
+    baseStore.saveHWMark(scn);
+    baseStore.sync();
+    
+    // Updates in the merged segments are now served by the base store
+    synchronized(this) {
+      v = version;
+      version = new Version(v.active, v.frozen, Arrays.copyOf(v.segments, v.segments.length - segments.length));
+    }
+    
+    for(LsmSegment s : segments) {
+      s.delete();
+    }
+    
+    long totalTime = System.currentTimeMillis() - startTime;
+    logger.info("merged " + segments.length + " segments with " + sources.size() + " sources: " + totalTime + " ms");
+  }
+  
+  /**
+   * Writes frozen memory segments to disk and merges disk segments into the base store when there are too many.
+   */
+  private class Merger implements Runnable {
+    @Override
+    public void run() {
+      mergeLock.lock();
+      try {
+        flushFrozen();
+        if(version.segments.length > maxSegments) {
+          mergeSegments();
+        }
+      } catch(Exception e) {
+        logger.error("failed to merge segments", e);
+      } finally {
+        mergeLock.unlock();
+      }
+    }
+  }
+  
+  /**
+   * Merges all segments into the base store in the calling thread.
+   */
+  public void compact() throws Exception {
+    mergeLock.lock();
+    try {
+      freeze();
+      flushFrozen();
+      mergeSegments();
+    } finally {
+      mergeLock.unlock();
+    }
+  }
+  
+  /**
+   * Sorts connections in the descending order of element scores. Connections with equal scores keep their order.
+   * 
+   * @param connections - the connections
+   * @param scores      - the element scores, <code>null</code> to keep the order of connections
+   * @return the sorted connections.
+   */
+  static int[] sortByScore(int[] connections, FloatArrayPartition scores) {
+    if(scores == null || connections.length < 2) {
+      return connections;
+    }
+    
+    // Pack the descending score order and the position of every connection in one primitive key
+    long[] keys = new long[connections.length];
+    for(int i = 0; i < keys.length; i++) {
+      int elemId = connections[i];
+      int bits = Float.floatToIntBits(scores.hasIndex(elemId) ? scores.get(elemId) : 0);
+      bits ^= (bits >> 31) & Integer.MAX_VALUE;
+      keys[i] = ((long)~bits << 32) | i;
+    }
+    Arrays.sort(keys);
+    
+    int[] result = new int[keys.length];
+    for(int i = 0; i < keys.length; i++) {
+      result[i] = connections[(int)keys[i]];
+    }
+    return result;
+  }
+  
+  @Override
+  public Iterator<String> sourceIterator() {
+    Version v = version;
+    Set<String> sources = new LinkedHashSet<String>();
+    sources.addAll(v.active.postings.keySet());
+    for(MemSegment m : v.frozen) {
+      sources.addAll(m.postings.keySet());
+    }
+    for(LsmSegment s : v.segments) {
+      Iterator<String> iter = s.sourceIterator();
+      while(iter.hasNext()) {
+        sources.add(iter.next());
+      }
+    }
+    
+    return new SourceIterator(sources);
+  }
+  
+  @Override
+  public synchronized void saveHWMark(long endOfPeriod) throws Exception {
+    ensureOpen();
+    hwMark = Math.max(hwMark, endOfPeriod);
+    version.active.maxScn = Math.max(version.active.maxScn, endOfPeriod);
+  }
+  
+  @Override
+  public long getHWMark() {
+    return hwMark;
+  }
+  
+  @Override
+  public long getLWMark() {
+    return lwMark;
+  }
+  
+  /**
+   * Writes the memory segment and all frozen segments to disk.
+   */
+  @Override
+  public void persist() throws IOException {
+    ensureOpen();
+    mergeLock.lock();
+    try {
+      long scn;
+      synchronized(this) {
+        scn = hwMark;
+        freeze();
+      }
+      
+      flushFrozen();
+      saveBaseHWMark(scn);
+      baseStore.persist();
+      lwMark = Math.max(lwMark, scn);
+    } finally {
+      mergeLock.unlock();
+    }
+  }
+  
+  @Override
+  public void sync() throws IOException {
+    ensureOpen();
+    mergeLock.lock();
+    try {
+      long scn;
+      synchronized(this) {
+        scn = hwMark;
+        freeze();
+      }
+      
+      flushFrozen();
+      saveBaseHWMark(scn);
+      baseStore.sync();
+      lwMark = Math.max(lwMark, scn);
+    } finally {
+      mergeLock.unlock();
+    }
+  }
+  
+  private void saveBaseHWMark(long scn) throws IOException {
+    try {
+      baseStore.saveHWMark(scn);
+    } catch(IOException e) {
+      throw e;
+    } catch(Exception e) {
+      throw new IOException(e);
+    }
+  }
+  
+  @Override
+  public void close() throws IOException {
+    if(isClosed) {
+      return;
+    }
+    
+    try {
+      persist();
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    } catch(InterruptedException e) {
+      logger.warn("interrupted while closing " + homeDir.getAbsolutePath());
+    } finally {
+      isClosed = true;
+      baseStore.close();
+    }
+  }
+  
+  /**
+   * The segments visible to readers, replaced as a whole upon every change.
+   */
+  private static final class Version {
+    final MemSegment active;
+    final MemSegment[] frozen;   // newest first
+    final LsmSegment[] segments; // newest first
+    
+    Version(MemSegment active, MemSegment[] frozen, LsmSegment[] segments) {
+      this.active = (active == null) ? new MemSegment() : active;
+      this.frozen = frozen;
+      this.segments = segments;
+    }
+  }
+  
+  /**
+   * A memory segment, which is only updated by the store writer.
+   */
+  private static final class MemSegment {
+    final ConcurrentHashMap<String, LsmPosting> postings = new ConcurrentHashMap<String, LsmPosting>();
+    volatile int numUpdates = 0;
+    volatile long maxScn = 0;
+    
+    void put(String source, LsmPosting p, long scn) {
+      postings.put(source, p);
+      numUpdates += Math.max(1, p.size());
+      maxScn = Math.max(maxScn, scn);
+    }
+    
+    void append(String source, int elemId, boolean remove, long scn) {
+      LsmPosting p = postings.get(source);
+      LsmPosting upd = (p == null) ? LsmPosting.create(LsmPosting.DELTA, null).append(elemId, remove) : p.append(elemId, remove);
+      if(upd != p) {
+        postings.put(source, upd);
+      }
+      numUpdates++;
+      maxScn = Math.max(maxScn, scn);
+    }
+  }
+  
+  private static final class SegmentCmpDsc implements Comparator<LsmSegment> {
+    @Override
+    public int compare(LsmSegment s0, LsmSegment s1) {
+      return s0.getId() < s1.getId() ? 1 : (s0.getId() == s1.getId() ? 0 : -1);
+    }
+  }
+  
+  /**
+   * Iterates over the sources with pending updates followed by the other sources of the base store.
+   */
+  private class SourceIterator implements Iterator<String> {
+    private final Set<String> sources;
+    private final Iterator<String> sourceIter;
+    private final Iterator<String> baseIter;
+    private String next;
+    
+    SourceIterator(Set<String> sources) {
+      this.sources = sources;
+      this.sourceIter = sources.iterator();
+      this.baseIter = baseStore.sourceIterator();
+      this.next = advance();
+    }
+    
+    private String advance() {
+      while(sourceIter.hasNext()) {
+        String source = sourceIter.next();
+        if(getConnections(source) != null) {
+          return source;
+        }
+      }
+      
+      while(baseIter.hasNext()) {
+        String source = baseIter.next();
+        if(source != null && !sources.contains(source)) {
+          return source;
+        }
+      }
+      
+      return null;
+    }
+    
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+    
+    @Override
+    public String next() {
+      if(next == null) {
+        throw new NoSuchElementException();
+      }
+      
+      String source = next;
+      next = advance();
+      return source;
+    }
+    
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.util.Arrays;
+
+import cleo.search.util.IntHashSet;
+
+/**
+ * LsmPosting - The changes to the connections of a source held by one segment of an {@link LsmConnectionsStore}.
+ * 
+ * <p>
+ * A {@link #DELTA} posting adds connections to and removes connections (tombstones) from the postings
+ * of older segments, while a {@link #REPLACE} or {@link #DELETE} posting hides them.
+ * 
+ * <p>
+ * Updates are appended by a single writer and published through the volatile size,
+ * so readers never block and never see a partially written update. The canonical view
+ * is cached until the next update is published.
+ * 
+ * @since 10/18, 2026
+ */
+final class LsmPosting {
+  final static int DELTA = 0;
+  final static int REPLACE = 1;
+  final static int DELETE = 2;
+  
+  final int flag;
+  private final int[] elemIds;
+  private final boolean[] removed;
+  private final boolean immutable;
+  private volatile int size;
+  private volatile Canonical canonical;
+  
+  LsmPosting(int flag, int[] elemIds, boolean[] removed, int size) {
+    this.flag = flag;
+    this.elemIds = elemIds;
+    this.removed = removed;
+    this.size = size;
+    this.immutable = false;
+  }
+  
+  /**
+   * Creates a posting of canonical updates (e.g. read from a disk segment).
+   */
+  LsmPosting(int flag, int[] adds, int[] tombstones) {
+    this.flag = flag;
+    this.elemIds = null;
+    this.removed = null;
+    this.size = adds.length + tombstones.length;
+    this.canonical = new Canonical(size, new int[][] { adds, tombstones });
+    this.immutable = true;
+  }
+  
+  static LsmPosting create(int flag, int[] connections) {
+    int cnt = (connections == null) ? 0 : connections.length;
+    int[] elemIds = new int[Math.max(4, cnt)];
+    if(cnt > 0) {
+      System.arraycopy(connections, 0, elemIds, 0, cnt);
+    }
+    return new LsmPosting(flag, elemIds, new boolean[elemIds.length], cnt);
+  }
+  
+  int size() {
+    return size;
+  }
+  
+  /**
+   * Appends an update.
+   * 
+   * @param elemId  - the connection
+   * @param remove  - whether the connection is removed
+   * @return this posting, or a copy with a larger capacity if this one is full.
+   */
+  LsmPosting append(int elemId, boolean remove) {
+    if(immutable) {
+      throw new UnsupportedOperationException("append");
+    }
+    
+    int cnt = size;
+    if(cnt < elemIds.length) {
+      elemIds[cnt] = elemId;
+      removed[cnt] = remove;
+      size = cnt + 1;
+      return this;
+    }
+    
+    int capacity = Math.max(4, cnt << 1);
+    LsmPosting p = new LsmPosting(flag, Arrays.copyOf(elemIds, capacity), Arrays.copyOf(removed, capacity), cnt);
+    return p.append(elemId, remove);
+  }
+  
+  /**
+   * Collapses the updates so that only the latest one is kept for every connection.
+   * 
+   * @return the added connections in the order they were applied, followed by the removed connections.
+   */
+  int[][] canonical() {
+    int cnt = size;
+    Canonical c = canonical;
+    if(c != null && c.size == cnt) {
+      return c.updates;
+    }
+    
+    int[] adds = new int[cnt];
+    int[] tombstones = new int[cnt];
+    int addPos = cnt;
+    int tombstonePos = cnt;
+    
+    IntHashSet seen = new IntHashSet(cnt);
+    for(int i = cnt - 1; i >= 0; i--) {
+      int elemId = elemIds[i];
+      if(seen.add(elemId)) {
+        if(removed[i]) {
+          tombstones[--tombstonePos] = elemId;
+        } else {
+          adds[--addPos] = elemId;
+        }
+      }
+    }
+    
+    int[][] updates = new int[][] {
+        Arrays.copyOfRange(adds, addPos, cnt),
+        Arrays.copyOfRange(tombstones, tombstonePos, cnt) };
+    canonical = new Canonical(cnt, updates);
+    return updates;
+  }
+  
+  /**
+   * The canonical updates of the first <code>size</code> appended updates.
+   */
+  private final static class Canonical {
+    final int size;
+    final int[][] updates;
+    
+    Canonical(int size, int[][] updates) {
+      this.size = size;
+      this.updates = updates;
+    }
+  }
+}
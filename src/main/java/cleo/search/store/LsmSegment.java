@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * LsmSegment - An immutable, memory-mapped segment of an {@link LsmConnectionsStore}.
+ * 
+ * <p>
+ * A segment consists of two files. <code>segment_&lt;id&gt;.idx</code> holds the SCN of the segment
+ * followed by one long offset per source in the unsigned order of the UTF-8 source bytes.
+ * <code>segment_&lt;id&gt;.dat</code> holds the entries laid out as
+ * <code>[keyLength][flag][numAdds][numTombstones][key bytes padded to 4][adds][tombstones]</code>.
+ * The index file is written last and renamed into place, so a segment without it is incomplete.
+ * 
+ * @since 10/18, 2026
+ */
+final class LsmSegment {
+  final static String FILE_PREFIX = "segment_";
+  final static String INDEX_FILE_SUFFIX = ".idx";
+  final static String DATA_FILE_SUFFIX = ".dat";
+  final static int HEADER_SIZE = 16;
+  
+  private final long id;
+  private final long scn;
+  private final int numSources;
+  private final File indexFile;
+  private final File dataFile;
+  private final MappedDataFile indexData;
+  private final MappedDataFile data;
+  
+  LsmSegment(File dir, long id) throws IOException {
+    this.id = id;
+    this.indexFile = getIndexFile(dir, id);
+    this.dataFile = getDataFile(dir, id);
+    this.indexData = new MappedDataFile(indexFile);
+    this.data = new MappedDataFile(dataFile);
+    
+    if(indexData.length() < 8) {
+      throw new IOException("Invalid file length: " + indexFile.getAbsolutePath());
+    }
+    
+    this.scn = indexData.getLong(0);
+    this.numSources = (int)((indexData.length() - 8) >> 3);
+  }
+  
+  static File getIndexFile(File dir, long id) {
+    return new File(dir, FILE_PREFIX + id + INDEX_FILE_SUFFIX);
+  }
+  
+  static File getDataFile(File dir, long id) {
+    return new File(dir, FILE_PREFIX + id + DATA_FILE_SUFFIX);
+  }
+  
+  /**
+   * Parses the segment ID from the name of an index file.
+   * 
+   * @return the segment ID, or <code>-1</code> if the file is not a segment index file.
+   */
+  static long parseId(String fileName) {
+    if(fileName.startsWith(FILE_PREFIX) && fileName.endsWith(INDEX_FILE_SUFFIX)) {
+      try {
+        return Long.parseLong(fileName.substring(FILE_PREFIX.length(), fileName.length() - INDEX_FILE_SUFFIX.length()));
+      } catch(NumberFormatException e) {}
+    }
+    return -1;
+  }
+  
+  /**
+   * Writes the postings of a memory segment to a new segment.
+   * 
+   * @param dir      - the store directory
+   * @param id       - the segment ID
+   * @param scn      - the SCN high-water mark of the postings
+   * @param postings - the postings
+   * @param scores   - the element scores to order added connections by, <code>null</code> to keep the order of updates
+   * @return the segment.
+   * @throws IOException
+   */
+  static LsmSegment write(File dir, long id, long scn, Map<String, LsmPosting> postings, FloatArrayPartition scores) throws IOException {
+    // Keep every source next to its key bytes as a source may not survive the round trip through UTF-8
+    final String[] sources = postings.keySet().toArray(new String[0]);
+    final byte[][] keys = new byte[sources.length][];
+    Integer[] order = new Integer[sources.length];
+    for(int i = 0; i < sources.length; i++) {
+      keys[i] = SnapshotConnectionsStore.toBytes(sources[i]);
+      order[i] = i;
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer i0, Integer i1) {
+        return SnapshotConnectionsStore.compareBytes(keys[i0], keys[i1]);
+      }
+    });
+    
+    long[] offsets = new long[sources.length];
+    
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getDataFile(dir, id)), 1 << 16));
+    try {
+      long offset = 0;
+      for(int k = 0; k < offsets.length; k++) {
+        byte[] key = keys[order[k]];
+        LsmPosting p = postings.get(sources[order[k]]);
+        int[][] canonical = p.canonical();
+        int[] adds = LsmConnectionsStore.sortByScore(canonical[0], scores);
+        int[] tombstones = canonical[1];
+        int padded = SnapshotConnectionsStore.padded(key.length);
+        
+        offsets[k] = offset;
+        out.writeInt(key.length);
+        out.writeInt(p.flag);
+        out.writeInt(adds.length);
+        out.writeInt(tombstones.length);
+        out.write(key);
+        for(int i = key.length; i < padded; i++) {
+          out.write(0);
+        }
+        for(int elemId : adds) {
+          out.writeInt(elemId);
+        }
+        for(int elemId : tombstones) {
+          out.writeInt(elemId);
+        }
+        offset += HEADER_SIZE + padded + (((long)adds.length + tombstones.length) << 2);
+      }
+    } finally {
+      out.close();
+    }
+    
+    // Write the index last as the commit marker
+    File indexFile = getIndexFile(dir, id);
+    File tmpFile = new File(dir, indexFile.getName() + ".tmp");
+    out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile), 1 << 16));
+    try {
+      out.writeLong(scn);
+      for(long offset : offsets) {
+        out.writeLong(offset);
+      }
+    } finally {
+      out.close();
+    }
+    
+    if(!tmpFile.renameTo(indexFile)) {
+      throw new IOException("Failed to rename " + tmpFile.getAbsolutePath() + " to " + indexFile.getAbsolutePath());
+    }
+    
+    return new LsmSegment(dir, id);
+  }
+  
+  long getId() {
+    return id;
+  }
+  
+  long getSCN() {
+    return scn;
+  }
+  
+  int getNumSources() {
+    return numSources;
+  }
+  
+  private long position(int index) {
+    return indexData.getLong(8 + (((long)index) << 3));
+  }
+  
+  private int compareKey(long pos, byte[] key) {
+    int keyLength = data.getInt(pos);
+    pos += HEADER_SIZE;
+    for(int i = 0, len = Math.min(keyLength, key.length); i < len; i++) {
+      int c = (data.get(pos + i) & 0xff) - (key[i] & 0xff);
+      if(c != 0) return c;
+    }
+    return keyLength - key.length;
+  }
+  
+  private String readKey(long pos) {
+    byte[] key = new byte[data.getInt(pos)];
+    data.get(pos + HEADER_SIZE, key, 0, key.length);
+    return SnapshotConnectionsStore.toString(key, 0, key.length);
+  }
+  
+  /**
+   * @return the posting of a source, or <code>null</code> if the source is not found in this segment.
+   */
+  LsmPosting get(String source) {
+    byte[] key = SnapshotConnectionsStore.toBytes(source);
+    
+    int low = 0;
+    int high = numSources - 1;
+    while(low <= high) {
+      int mid = (low + high) >>> 1;
+      long pos = position(mid);
+      int c = compareKey(pos, key);
+      if(c < 0) {
+        low = mid + 1;
+      } else if(c > 0) {
+        high = mid - 1;
+      } else {
+        int flag = data.getInt(pos + 4);
+        int[] adds = new int[data.getInt(pos + 8)];
+        int[] tombstones = new int[data.getInt(pos + 12)];
+        pos += HEADER_SIZE + SnapshotConnectionsStore.padded(key.length);
+        data.get(pos, adds, 0, adds.length);
+        data.get(pos + (((long)adds.length) << 2), tombstones, 0, tombstones.length);
+        return new LsmPosting(flag, adds, tombstones);
+      }
+    }
+    
+    return null;
+  }
+  
+  /**
+   * @return the iterator over the sources of this segment in key order.
+   */
+  Iterator<String> sourceIterator() {
+    return new Iterator<String>() {
+      private int index = 0;
+      
+      @Override
+      public boolean hasNext() {
+        return index < numSources;
+      }
+      
+      @Override
+      public String next() {
+        if(index >= numSources) {
+          throw new NoSuchElementException();
+        }
+        return readKey(position(index++));
+      }
+      
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+  
+  /**
+   * Deletes the files of this segment.
+   */
+  void delete() {
+    indexFile.delete();
+    dataFile.delete();
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * MappedDataFile - A read-only view of a file mapped into memory in regions of 1 GB,
+ * which lifts the 2 GB limit of a single {@link MappedByteBuffer}.
+ *
+ * <p>
+ * Callers must keep int, long and float values aligned to their size so that no value
+ * straddles two regions. All reads are absolute and safe for concurrent readers.
+ *
+ * @since 10/18, 2026
+ */
+final class MappedDataFile {
+  final static int REGION_BITS = 30;
+  final static long REGION_SIZE = 1L << REGION_BITS;
+  final static long REGION_MASK = REGION_SIZE - 1;
+
+  private final File file;
+  private final long length;
+  private final MappedByteBuffer[] regions;
+
+  MappedDataFile(File file) throws IOException {
+    this.file = file;
+
+    RandomAccessFile raf = new RandomAccessFile(file, "r");
+    try {
+      FileChannel channel = raf.getChannel();
+      this.length = channel.size();
+      this.regions = new MappedByteBuffer[(int)((length + REGION_MASK) >>> REGION_BITS)];
+
+      for(int i = 0; i < regions.length; i++) {
+        long pos = ((long)i) << REGION_BITS;
+        regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(REGION_SIZE, length - pos));
+      }
+    } finally {
+      raf.close();
+    }
+  }
+
+  File getFile() {
+    return file;
+  }
+
+  long length() {
+    return length;
+  }
+
+  byte get(long pos) {
+    return regions[(int)(pos >>> REGION_BITS)].get((int)(pos & REGION_MASK));
+  }
+
+  int getInt(long pos) {
+    return regions[(int)(pos >>> REGION_BITS)].getInt((int)(pos & REGION_MASK));
+  }
+
+  long getLong(long pos) {
+    return regions[(int)(pos >>> REGION_BITS)].getLong((int)(pos & REGION_MASK));
+  }
+
+  void get(long pos, byte[] dst, int offset, int len) {
+    while(len > 0) {
+      ByteBuffer region = regions[(int)(pos >>> REGION_BITS)].duplicate();
+      int regionPos = (int)(pos & REGION_MASK);
+      int cnt = Math.min(len, region.limit() - regionPos);
+
+      region.position(regionPos);
+      region.get(dst, offset, cnt);
+
+      pos += cnt;
+      offset += cnt;
+      len -= cnt;
+    }
+  }
+
+  void get(long pos, int[] dst, int offset, int len) {
+    for(int i = 0; i < len; i++, pos += 4) {
+      dst[offset + i] = getInt(pos);
+    }
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import krati.array.Array;
+
+import org.apache.log4j.Logger;
+
+import cleo.search.filter.BloomFilter;
+
+/**
+ * MappedFilterStore - A bloom filter store persisted as a memory-mapped primitive file, usually kept
+ * next to the element store, so that a restart does not have to deserialize every element to recompute
+ * its filter.
+ * 
+ * <p>
+ * The file starts with a fixed-size header recording the bloom filter class and prefix length, the index
+ * range, and the SCN of the element store the filters were last committed against. An existing file is
+ * used only if its header matches the bloom filter in use and it was committed at the current element
+ * store SCN. Otherwise, the existing file is left untouched and a new file is created next to it, whose
+ * filters must be recomputed by the caller. The new file replaces the existing one by rename upon
+ * {@link #commit(long)}, so other processes mapping the existing file keep reading consistent filters.
+ * 
+ * <p>
+ * The first update after a commit clears the committed flag in the header, so filters updated after
+ * the last commit are never trusted after a crash.
+ * 
+ * <p>
+ * The file is mapped in read-write mode, so multiple JVMs on one host share the same page cache pages.
+ * Only one of them should update the filters.
+ * 
+ * @since 10/18, 2026
+ */
+public abstract class MappedFilterStore implements Array {
+  private final static Logger logger = Logger.getLogger(MappedFilterStore.class);
+  
+  public final static long MAGIC = 0x436c656f46696c74L;
+  public final static int VERSION = 1;
+  public final static int HEADER_SIZE = 512;
+  
+  private final static int MAGIC_OFFSET = 0;
+  private final static int VERSION_OFFSET = 8;
+  private final static int INDEX_START_OFFSET = 12;
+  private final static int CAPACITY_OFFSET = 16;
+  private final static int ELEMENT_SIZE_OFFSET = 20;
+  private final static int PREFIX_LENGTH_OFFSET = 24;
+  private final static int COMMITTED_OFFSET = 28;
+  private final static int SCN_OFFSET = 32;
+  private final static int CLASS_NAME_OFFSET = 40;
+  
+  protected final File file;
+  protected final int indexStart;
+  protected final int indexEnd;
+  protected final int capacity;
+  private final MappedByteBuffer mapped;
+  private File rebuildFile;
+  private volatile boolean committed;
+  
+  /**
+   * Opens a filter store.
+   * 
+   * @param file        - the filter store file
+   * @param indexStart  - the start index
+   * @param capacity    - the number of filters
+   * @param elementSize - the number of bytes per filter
+   * @param bloomFilter - the bloom filter in use
+   * @param scn         - the current SCN (high-water mark) of the element store
+   * @throws IOException
+   */
+  protected MappedFilterStore(File file, int indexStart, int capacity, int elementSize, BloomFilter<?> bloomFilter, long scn) throws IOException {
+    this.file = file;
+    this.indexStart = indexStart;
+    this.indexEnd = indexStart + capacity;
+    this.capacity = capacity;
+    
+    long size = HEADER_SIZE + ((long)capacity) * elementSize;
+    if(size > Integer.MAX_VALUE) {
+      throw new IOException("Capacity too large: " + capacity);
+    }
+    
+    byte[] className = bloomFilter.getClass().getName().getBytes("UTF-8");
+    if(CLASS_NAME_OFFSET + 4 + className.length > HEADER_SIZE) {
+      throw new IOException("Class name too long: " + bloomFilter.getClass().getName());
+    }
+    
+    File dir = file.getParentFile();
+    if(dir != null && !dir.exists() && !dir.mkdirs()) {
+      throw new IOException("Failed to create directory: " + dir.getAbsolutePath());
+    }
+    
+    // Use the existing file only if it is valid
+    MappedByteBuffer m = null;
+    if(file.exists() && file.length() == size) {
+      m = map(file, size, false);
+      boolean matched = m.getLong(MAGIC_OFFSET) == MAGIC &&
+                        m.getInt(VERSION_OFFSET) == VERSION &&
+                        m.getInt(INDEX_START_OFFSET) == indexStart &&
+                        m.getInt(CAPACITY_OFFSET) == capacity &&
+                        m.getInt(ELEMENT_SIZE_OFFSET) == elementSize &&
+                        m.getInt(PREFIX_LENGTH_OFFSET) == bloomFilter.getPrefixLength() &&
+                        m.getInt(COMMITTED_OFFSET) == 1 &&
+                        m.getLong(SCN_OFFSET) == scn &&
+                        bloomFilter.getClass().getName().equals(readClassName(m));
+      if(!matched) {
+        m = null;
+      }
+    }
+    
+    if(m != null) {
+      this.mapped = m;
+      this.rebuildFile = null;
+      this.committed = true;
+    } else {
+      // Rebuild into a new file without touching the existing one
+      this.rebuildFile = new File(file.getPath() + ".rebuild");
+      this.mapped = map(rebuildFile, size, true);
+      this.committed = false;
+      
+      mapped.putLong(MAGIC_OFFSET, MAGIC);
+      mapped.putInt(VERSION_OFFSET, VERSION);
+      mapped.putInt(INDEX_START_OFFSET, indexStart);
+      mapped.putInt(CAPACITY_OFFSET, capacity);
+      mapped.putInt(ELEMENT_SIZE_OFFSET, elementSize);
+      mapped.putInt(PREFIX_LENGTH_OFFSET, bloomFilter.getPrefixLength());
+      mapped.putInt(COMMITTED_OFFSET, 0);
+      mapped.putLong(SCN_OFFSET, 0);
+      mapped.putInt(CLASS_NAME_OFFSET, className.length);
+      for(int i = 0; i < className.length; i++) {
+        mapped.put(CLASS_NAME_OFFSET + 4 + i, className[i]);
+      }
+      mapped.force();
+    }
+  }
+  
+  /**
+   * Maps a file in read-write mode.
+   * 
+   * @param create - whether to create a new file of all zeros, replacing any file left at the path
+   */
+  private static MappedByteBuffer map(File f, long size, boolean create) throws IOException {
+    if(create && f.exists() && !f.delete()) {
+      throw new IOException("Failed to delete " + f.getAbsolutePath());
+    }
+    
+    RandomAccessFile raf = new RandomAccessFile(f, "rw");
+    try {
+      if(create) {
+        raf.setLength(size);
+      }
+      return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+    } finally {
+      raf.close();
+    }
+  }
+  
+  private static String readClassName(MappedByteBuffer mapped) throws UnsupportedEncodingException {
+    int len = mapped.getInt(CLASS_NAME_OFFSET);
+    if(len < 0 || CLASS_NAME_OFFSET + 4 + len > HEADER_SIZE) {
+      return null;
+    }
+    
+    byte[] bytes = new byte[len];
+    for(int i = 0; i < len; i++) {
+      bytes[i] = mapped.get(CLASS_NAME_OFFSET + 4 + i);
+    }
+    return new String(bytes, "UTF-8");
+  }
+  
+  /**
+   * @return the data region following the header.
+   */
+  protected ByteBuffer data() {
+    ByteBuffer buffer = mapped.duplicate();
+    buffer.position(HEADER_SIZE);
+    return buffer.slice();
+  }
+  
+  /**
+   * @return the filter store file, or the new file being rebuilt until it is committed.
+   */
+  public final synchronized File getFile() {
+    return (rebuildFile == null) ? file : rebuildFile;
+  }
+  
+  /**
+   * @return the SCN of the element store the filters were last committed against.
+   */
+  public final long getSCN() {
+    return mapped.getLong(SCN_OFFSET);
+  }
+  
+  /**
+   * Checks whether the filters can be used without recomputing.
+   * 
+   * @param scn - the current SCN (high-water mark) of the element store
+   * @return <code>true</code> if the existing file matches the bloom filter and its filters were committed at <code>scn</code>.
+   */
+  public final boolean isValid(long scn) {
+    return committed && getSCN() == scn;
+  }
+  
+  /**
+   * Clears the committed flag before the first update after a commit.
+   */
+  protected final void beforeUpdate() {
+    if(committed) {
+      synchronized(this) {
+        if(committed) {
+          mapped.putInt(COMMITTED_OFFSET, 0);
+          mapped.force();
+          committed = false;
+        }
+      }
+    }
+  }
+  
+  /**
+   * Flushes the filters to disk and marks them as committed against an element store SCN.
+   * A rebuilt file replaces the existing file by rename.
+   * 
+   * @param scn - the SCN (high-water mark) of the element store
+   */
+  public final synchronized void commit(long scn) {
+    mapped.force();
+    mapped.putLong(SCN_OFFSET, scn);
+    mapped.putInt(COMMITTED_OFFSET, 1);
+    mapped.force();
+    committed = true;
+    
+    if(rebuildFile != null) {
+      if(rebuildFile.renameTo(file) || (file.delete() && rebuildFile.renameTo(file))) {
+        rebuildFile = null;
+      } else {
+        logger.warn("failed to rename " + rebuildFile.getAbsolutePath() + " to " + file.getAbsolutePath());
+      }
+    }
+  }
+  
+  public final int getIndexStart() {
+    return indexStart;
+  }
+  
+  public final int getIndexEnd() {
+    return indexEnd;
+  }
+  
+  public final int capacity() {
+    return capacity;
+  }
+  
+  @Override
+  public final int length() {
+    return capacity;
+  }
+  
+  @Override
+  public final boolean hasIndex(int index) {
+    return (indexStart <= index && index < indexEnd);
+  }
+  
+  @Override
+  public final Array.Type getType() {
+    return Array.Type.STATIC;
+  }
+}
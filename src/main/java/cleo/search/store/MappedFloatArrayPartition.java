@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+
+import krati.array.Array;
+
+/**
+ * MappedFloatArrayPartition - A float array partition backed by a private (copy-on-write) memory mapping
+ * of a snapshot file. Pages are loaded by the OS on first access and updates never reach the file.
+ *
+ * @since 10/18, 2026
+ */
+public class MappedFloatArrayPartition implements FloatArrayPartition {
+  private final int indexStart;
+  private final int indexEnd;
+  private final int capacity;
+  private final FloatBuffer buffer;
+
+  public MappedFloatArrayPartition(File file, int indexStart, int capacity) throws IOException {
+    this.indexStart = indexStart;
+    this.indexEnd = indexStart + capacity;
+    this.capacity = capacity;
+
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try {
+      long size = ((long)capacity) << 2;
+      if(raf.length() != size) {
+        throw new IOException("Invalid file length: " + file.getAbsolutePath());
+      }
+      this.buffer = raf.getChannel().map(FileChannel.MapMode.PRIVATE, 0, size).asFloatBuffer();
+    } finally {
+      raf.close();
+    }
+  }
+
+  /**
+   * Writes the values of a float array partition to a file in the format read by this class.
+   */
+  public static void write(File file, FloatArrayPartition p) throws IOException {
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+    try {
+      for(int i = p.getIndexStart(), end = p.getIndexEnd(); i < end; i++) {
+        out.writeFloat(p.get(i));
+      }
+    } finally {
+      out.close();
+    }
+  }
+
+  @Override
+  public int getIndexStart() {
+    return indexStart;
+  }
+
+  @Override
+  public int getIndexEnd() {
+    return indexEnd;
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public int length() {
+    return capacity;
+  }
+
+  /**
+   * @throws UnsupportedOperationException always, values are not backed by a heap array.
+   */
+  @Override
+  public float[] getInternalArray() {
+    throw new UnsupportedOperationException("getInternalArray");
+  }
+
+  @Override
+  public void clear() {
+    for(int i = 0; i < capacity; i++) {
+      buffer.put(i, 0);
+    }
+  }
+
+  @Override
+  public boolean hasIndex(int index) {
+    return (indexStart <= index && index < indexEnd);
+  }
+
+  @Override
+  public float get(int index) {
+    return buffer.get(index - indexStart);
+  }
+
+  @Override
+  public void set(int index, float value) {
+    buffer.put(index - indexStart, value);
+  }
+
+  @Override
+  public Array.Type getType() {
+    return Array.Type.STATIC;
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.IntBuffer;
+
+import cleo.search.filter.BloomFilter;
+
+/**
+ * MappedIntFilterStore - A memory-mapped store of int-based bloom filters.
+ * 
+ * @since 10/18, 2026
+ */
+public class MappedIntFilterStore extends MappedFilterStore implements IntArrayPartition {
+  private final IntBuffer buffer;
+  
+  public MappedIntFilterStore(File file, int indexStart, int capacity, BloomFilter<Integer> bloomFilter, long scn) throws IOException {
+    super(file, indexStart, capacity, 4, bloomFilter, scn);
+    this.buffer = data().asIntBuffer();
+  }
+  
+  /**
+   * @throws UnsupportedOperationException always, filters are not backed by a heap array.
+   */
+  @Override
+  public int[] getInternalArray() {
+    throw new UnsupportedOperationException("getInternalArray");
+  }
+  
+  @Override
+  public void clear() {
+    beforeUpdate();
+    for(int i = 0; i < capacity; i++) {
+      buffer.put(i, 0);
+    }
+  }
+  
+  @Override
+  public int get(int index) {
+    return buffer.get(index - indexStart);
+  }
+  
+  @Override
+  public void set(int index, int value) {
+    beforeUpdate();
+    buffer.put(index - indexStart, value);
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.LongBuffer;
+
+import cleo.search.filter.BloomFilter;
+
+/**
+ * MappedLongFilterStore - A memory-mapped store of long-based bloom filters.
+ * 
+ * @since 10/18, 2026
+ */
+public class MappedLongFilterStore extends MappedFilterStore implements LongArrayPartition {
+  private final LongBuffer buffer;
+  
+  public MappedLongFilterStore(File file, int indexStart, int capacity, BloomFilter<Long> bloomFilter, long scn) throws IOException {
+    super(file, indexStart, capacity, 8, bloomFilter, scn);
+    this.buffer = data().asLongBuffer();
+  }
+  
+  /**
+   * @throws UnsupportedOperationException always, filters are not backed by a heap array.
+   */
+  @Override
+  public long[] getInternalArray() {
+    throw new UnsupportedOperationException("getInternalArray");
+  }
+  
+  @Override
+  public void clear() {
+    beforeUpdate();
+    for(int i = 0; i < capacity; i++) {
+      buffer.put(i, 0);
+    }
+  }
+  
+  @Override
+  public long get(int index) {
+    return buffer.get(index - indexStart);
+  }
+  
+  @Override
+  public void set(int index, long value) {
+    beforeUpdate();
+    buffer.put(index - indexStart, value);
+  }
+}
@@ -34,6 +34,7 @@ import cleo.search.ElementSerializer;
  * 
  * <p>
  * 05/27, 2011 - Added methods getElmentBytes/setElementBytes <br/>
+ * 10/18, 2026 - Loaded elements in contiguous index ranges instead of a stride <br/>
  */
 public class MemoryArrayStoreElement<E extends Element> implements ArrayStoreElement<E> {
   private final int indexStart;
@@ -56,6 +57,16 @@ public class MemoryArrayStoreElement<E extends Element> implements ArrayStoreEle
     
     this.init();
   }
+  
+  /**
+   * Creates a MemoryArrayStoreElement on top of elements already loaded, see {@link ParallelElementLoader}.
+   */
+  MemoryArrayStoreElement(ArrayStoreElement<E> elementStore, ArrayList<E> elementList) {
+    this.elementStore = elementStore;
+    this.loadParallelism = 1;
+    this.elementList = elementList;
+    this.indexStart = elementStore.getIndexStart();
+  }
 
   protected void ensureOpen() throws UnsupportedOperationException {
     if(isClosed)
@@ -73,10 +84,11 @@ public class MemoryArrayStoreElement<E extends Element> implements ArrayStoreEle
       elementList.add(null);
     }
     
-    // Start to load elements in parallel
+    // Start to load elements in parallel, each loader reads a contiguous range
+    int rangeSize = (cnt + loadParallelism - 1) / loadParallelism;
     ArrayList<ParallelLoader> loaders = new ArrayList<ParallelLoader>(loadParallelism);
     for(int i = 0; i < loadParallelism; i++) {
-      ParallelLoader l = new ParallelLoader(loadParallelism, i);
+      ParallelLoader l = new ParallelLoader(Math.min(cnt, i * rangeSize), Math.min(cnt, (i + 1) * rangeSize));
       loaders.add(l);
       l.start();
     }
@@ -115,18 +127,18 @@ public class MemoryArrayStoreElement<E extends Element> implements ArrayStoreEle
   }
   
   class ParallelLoader extends Thread {
-    final int modBase;
-    final int modRank;
+    final int start;
+    final int end;
     
-    public ParallelLoader(int modBase, int modRank) {
-      this.modBase = modBase;
-      this.modRank = modRank;
+    public ParallelLoader(int start, int end) {
+      this.start = start;
+      this.end = end;
     }
     
     @Override
     public void run() {
       E element = null;
-      for(int i = modRank, cnt = elementStore.capacity(); i < cnt; i += modBase) {
+      for(int i = start; i < end; i++) {
         int index = indexStart + i;
         try {
           element = elementStore.getElement(index);
@@ -141,7 +153,7 @@ public class MemoryArrayStoreElement<E extends Element> implements ArrayStoreEle
     
     @Override
     public final String toString() {
-      return getClass().getSimpleName() + "-" + modBase + "-" + modRank;
+      return getClass().getSimpleName() + "[" + start + "," + end + ")";
     }
   }
   
@@ -27,6 +27,9 @@ import org.apache.log4j.Logger;
  * 
  * @author jwu
  * @since 02/12, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Added openCursor <br/>
  */
 public class MemoryConnectionsStore<S> implements ConnectionsStore<S> {
   private final ConnectionsStore<S> pcs;
@@ -59,6 +62,12 @@ public class MemoryConnectionsStore<S> implements ConnectionsStore<S> {
     return map.get(source);
   }
   
+  @Override
+  public PostingCursor openCursor(S source) {
+    int[] connections = map.get(source);
+    return (connections == null) ? null : new ArrayPostingCursor(connections);
+  }
+  
   @Override
   public synchronized void putConnections(S source, int[] connections, long scn) throws Exception {
     pcs.putConnections(source, connections, scn);
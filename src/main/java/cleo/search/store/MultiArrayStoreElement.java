@@ -18,6 +18,7 @@ package cleo.search.store;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
@@ -30,14 +31,43 @@ import cleo.search.ElementSerializer;
 /**
  * MultiArrayStoreElement is a simple container of more than one subsidiary {@link ArrayStoreElement}.
  * 
+ * <p>
+ * Element accesses are routed to subsidiary stores by a routing structure built from the index ranges
+ * of subsidiary stores: a division by the partition capacity if the stores are contiguous and of the
+ * same capacity, a bucket table if the stores are disjoint, a binary search over the sorted index starts
+ * if the bucket table would be too large, or a linear scan if the stores overlap.
+ * </p>
+ * 
  * @author jwu
  * @since 01/05, 2012
+ * 
+ * <p>
+ * 10/18, 2026 - Routed element accesses by direct lookup or binary search instead of a linear scan <br/>
  */
 public final class MultiArrayStoreElement<E extends Element> implements ArrayStoreElement<E> {
   private final static Logger logger = Logger.getLogger(MultiArrayStoreElement.class);
   private final List<ArrayStoreElement<E>> storeList;
   private boolean isClosed=false;
   
+  // routing by direct lookup if partitionCapacity > 0
+  private int partitionCapacity;
+  private int routingStart;
+  
+  // routing by bucket table if bucketTable != null
+  private int bucketShift;
+  private int[] bucketTable;
+  private long routingSpan;
+  
+  // routing by binary search over indexStarts if disjoint
+  private boolean disjoint;
+  private int[] indexStarts;
+  private int[] indexEnds;
+  
+  /**
+   * The maximum number of buckets to route elements of disjoint stores.
+   */
+  private final static int MAX_BUCKETS = 1 << 16;
+  
   /**
    * Creates a new instance of MultiArrayStoreElement.
    * 
@@ -55,6 +85,132 @@ public final class MultiArrayStoreElement<E extends Element> implements ArraySto
         return s1.getIndexStart() - s2.getIndexStart();
       }
     });
+    
+    buildRouting();
+  }
+  
+  /**
+   * Builds the routing structure from the index ranges of subsidiary stores.
+   * It must be called whenever subsidiary stores change.
+   */
+  private void buildRouting() {
+    int num = storeList.size();
+    indexStarts = new int[num];
+    indexEnds = new int[num];
+    
+    for(int i = 0; i < num; i++) {
+      ArrayStoreElement<E> store = storeList.get(i);
+      indexStarts[i] = store.getIndexStart();
+      indexEnds[i] = store.getIndexStart() + store.capacity();
+    }
+    
+    disjoint = true;
+    for(int i = 1; i < num; i++) {
+      if(indexStarts[i] < indexEnds[i-1] || indexStarts[i] == indexStarts[i-1]) {
+        disjoint = false;
+        break;
+      }
+    }
+    
+    partitionCapacity = 0;
+    routingStart = (num > 0) ? indexStarts[0] : 0;
+    if(num > 0 && disjoint) {
+      int capacity = indexEnds[0] - indexStarts[0];
+      boolean uniform = capacity > 0;
+      for(int i = 1; i < num && uniform; i++) {
+        uniform = (indexStarts[i] == indexEnds[i-1]) && (indexEnds[i] - indexStarts[i] == capacity);
+      }
+      if(uniform) {
+        partitionCapacity = capacity;
+      }
+    }
+    
+    bucketTable = null;
+    if(num > 0 && disjoint && partitionCapacity == 0) {
+      buildBucketTable();
+    }
+  }
+  
+  /**
+   * Builds a table mapping buckets of indexes to the last store starting at or before each bucket.
+   * The bucket width does not exceed the minimum store capacity, so a bucket overlaps at most two stores.
+   */
+  private void buildBucketTable() {
+    int num = indexStarts.length;
+    int minCapacity = Integer.MAX_VALUE;
+    for(int i = 0; i < num; i++) {
+      minCapacity = Math.min(minCapacity, indexEnds[i] - indexStarts[i]);
+    }
+    if(minCapacity <= 0) {
+      return;
+    }
+    
+    int shift = 31 - Integer.numberOfLeadingZeros(minCapacity);
+    long span = (long)indexEnds[num - 1] - routingStart;
+    long numBuckets = ((span - 1) >> shift) + 1;
+    if(numBuckets > MAX_BUCKETS) {
+      return;
+    }
+    
+    int[] table = new int[(int)numBuckets];
+    for(int b = 0, pos = 0; b < table.length; b++) {
+      long bucketStart = routingStart + ((long)b << shift);
+      while(pos + 1 < num && indexStarts[pos + 1] <= bucketStart) {
+        pos++;
+      }
+      table[b] = pos;
+    }
+    
+    bucketShift = shift;
+    routingSpan = span;
+    bucketTable = table;
+  }
+  
+  /**
+   * Finds the subsidiary store containing an index.
+   * 
+   * @param index - the element index
+   * @return the subsidiary store or <code>null</code> if no store contains the index.
+   */
+  private ArrayStoreElement<E> route(int index) {
+    if(partitionCapacity > 0) {
+      long offset = (long)index - routingStart;
+      if(offset < 0) {
+        return null;
+      }
+      
+      long slot = offset / partitionCapacity;
+      return (slot < indexStarts.length) ? storeList.get((int)slot) : null;
+    }
+    
+    if(bucketTable != null) {
+      long offset = (long)index - routingStart;
+      if(offset < 0 || offset >= routingSpan) {
+        return null;
+      }
+      
+      int pos = bucketTable[(int)(offset >> bucketShift)];
+      if(pos + 1 < indexStarts.length && index >= indexStarts[pos + 1]) {
+        pos++;
+      }
+      return (index < indexEnds[pos]) ? storeList.get(pos) : null;
+    }
+    
+    if(disjoint) {
+      int pos = Arrays.binarySearch(indexStarts, index);
+      if(pos < 0) {
+        pos = -pos - 2;
+      }
+      return (pos >= 0 && index < indexEnds[pos]) ? storeList.get(pos) : null;
+    }
+    
+    for(ArrayStoreElement<E> store : storeList) {
+      if(store.hasIndex(index)) {
+        return store;
+      }
+    }
+    
+    return null;
   }
 
   protected void ensureOpen() throws UnsupportedOperationException {
@@ -99,13 +255,7 @@ public final class MultiArrayStoreElement<E extends Element> implements ArraySto
   
   @Override
   public boolean hasIndex(int index) {
-    for(ArrayStoreElement<E> store : storeList) {
-      if(store.hasIndex(index)) {
-        return true;
-      }
-    }
-    
-    return false;
+    return route(index) != null;
   }
   
   @Override
@@ -120,56 +270,40 @@ public final class MultiArrayStoreElement<E extends Element> implements ArraySto
     
   @Override
   public E getElement(int index) {
-    for(ArrayStoreElement<E> store : storeList) {
-      if(store.hasIndex(index)) {
-        return store.getElement(index);
-      }
-    }
-    
-    return null;
+    ArrayStoreElement<E> store = route(index);
+    return (store == null) ? null : store.getElement(index);
   }
   
   @Override
   public byte[] getElementBytes(int index) {
-    for(ArrayStoreElement<E> store : storeList) {
-      if(store.hasIndex(index)) {
-        return store.getElementBytes(index);
-      }
-    }
-    
-    return null;
+    ArrayStoreElement<E> store = route(index);
+    return (store == null) ? null : store.getElementBytes(index);
   }
   
   @Override
   public void setElement(int index, E element, long scn) throws Exception {
     ensureOpen();
-    for(ArrayStoreElement<E> store : storeList) {
-      if(store.hasIndex(index)) {
-        store.setElement(index, element, scn);
-        return;
-      }
+    ArrayStoreElement<E> store = route(index);
+    if(store != null) {
+      store.setElement(index, element, scn);
     }
   }
   
   @Override
   public void setElementBytes(int index, byte[] elementBytes, long scn) throws Exception {
     ensureOpen();
-    for(ArrayStoreElement<E> store : storeList) {
-      if(store.hasIndex(index)) {
-        store.setElementBytes(index, elementBytes, scn);
-        return;
-      }
+    ArrayStoreElement<E> store = route(index);
+    if(store != null) {
+      store.setElementBytes(index, elementBytes, scn);
     }
   }
   
   @Override
   public void deleteElement(int index, long scn) throws Exception {
     ensureOpen();
-    for(ArrayStoreElement<E> store : storeList) {
-      if(store.hasIndex(index)) {
-        store.deleteElement(index, scn);
-        return;
-      }
+    ArrayStoreElement<E> store = route(index);
+    if(store != null) {
+      store.deleteElement(index, scn);
     }
   }
   
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import cleo.search.Element;
+import cleo.search.Score;
+import cleo.search.filter.BloomFilter;
+import cleo.search.filter.LongBloomFilter;
+import cleo.search.util.ElementScoreHandler;
+import cleo.search.util.ScoreScanner;
+
+/**
+ * ParallelElementLoader - Loads an element store into memory at startup in a single pass.
+ * 
+ * <p>
+ * Element scores are scanned first. The element store is then read by parallel workers in contiguous
+ * index chunks, so that each worker walks the underlying segments sequentially. Each element is decoded
+ * once to fill the memory element cache, apply its score and compute its bloom filter, replacing the
+ * separate passes of {@link MemoryArrayStoreElement}, <code>initScoreStore</code> and <code>initFilterStore</code>.
+ * 
+ * @since 10/18, 2026
+ */
+public class ParallelElementLoader<E extends Element> {
+  private final static Logger logger = Logger.getLogger(ParallelElementLoader.class);
+  public final static int DEFAULT_CHUNK_SIZE = 8192;
+  
+  private final ArrayStoreElement<E> elementStore;
+  private final int parallelism;
+  private final int chunkSize;
+  
+  // Per-phase timings in nanoseconds, the element phases are summed over all workers
+  private final AtomicLong readTime = new AtomicLong();
+  private final AtomicLong scoreTime = new AtomicLong();
+  private final AtomicLong filterTime = new AtomicLong();
+  private volatile long scanTime;
+  private volatile long totalTime;
+  
+  public ParallelElementLoader(ArrayStoreElement<E> elementStore, int parallelism) {
+    this(elementStore, parallelism, DEFAULT_CHUNK_SIZE);
+  }
+  
+  public ParallelElementLoader(ArrayStoreElement<E> elementStore, int parallelism, int chunkSize) {
+    this.elementStore = elementStore;
+    this.parallelism = Math.max(1, parallelism);
+    this.chunkSize = Math.max(1, chunkSize);
+  }
+  
+  /**
+   * Loads the element store in a single pass.
+   * 
+   * @param scoreStore   - the score partition to fill, <code>null</code> to skip scores
+   * @param scoreScanner - the element score scanner, <code>null</code> if scores are not available
+   * @param filterStore  - the filter partition to fill, <code>null</code> to skip filters
+   * @param bloomFilter  - the bloom filter for computing element filters
+   * @return the memory element store backed by the loaded elements.
+   * @throws Exception if any worker fails.
+   */
+  public MemoryArrayStoreElement<E> load(final FloatArrayPartition scoreStore,
+                                         ScoreScanner scoreScanner,
+                                         final LongArrayPartition filterStore,
+                                         final BloomFilter<Long> bloomFilter) throws Exception {
+    long startTime = System.nanoTime();
+    
+    // Phase 1: scan element scores
+    if(scoreStore != null && scoreScanner != null) {
+      try {
+        scoreScanner.scan(new ElementScoreHandler(scoreStore));
+      } catch(Exception e) {
+        logger.warn("failed to load element scores", e);
+      }
+    }
+    scanTime = System.nanoTime() - startTime;
+    
+    // Phase 2: read, decode, score and filter elements in parallel chunks
+    final int indexStart = elementStore.getIndexStart();
+    final int capacity = elementStore.capacity();
+    final ArrayList<E> elementList = new ArrayList<E>(capacity);
+    for(int i = 0; i < capacity; i++) {
+      elementList.add(null);
+    }
+    
+    final AtomicInteger nextChunk = new AtomicInteger();
+    final int numChunks = (capacity + chunkSize - 1) / chunkSize;
+    final Exception[] failures = new Exception[parallelism];
+    
+    Thread[] workers = new Thread[parallelism];
+    for(int w = 0; w < parallelism; w++) {
+      final int rank = w;
+      workers[w] = new Thread(getClass().getSimpleName() + "-" + rank) {
+        @Override
+        public void run() {
+          try {
+            int chunk;
+            while((chunk = nextChunk.getAndIncrement()) < numChunks) {
+              int start = chunk * chunkSize;
+              int end = Math.min(capacity, start + chunkSize);
+              loadChunk(elementList, indexStart + start, indexStart + end, scoreStore, filterStore, bloomFilter);
+            }
+          } catch(Exception e) {
+            failures[rank] = e;
+          }
+        }
+      };
+      workers[w].start();
+    }
+    
+    for(Thread t : workers) {
+      t.join();
+    }
+    
+    for(Exception e : failures) {
+      if(e != null) throw e;
+    }
+    
+    totalTime = System.nanoTime() - startTime;
+    logger.info(toString());
+    
+    return new MemoryArrayStoreElement<E>(elementStore, elementList);
+  }
+  
+  private void loadChunk(ArrayList<E> elementList, int start, int end,
+                         FloatArrayPartition scoreStore,
+                         LongArrayPartition filterStore,
+                         BloomFilter<Long> bloomFilter) {
+    long read = 0, score = 0, filter = 0;
+    int indexStart = elementStore.getIndexStart();
+    LongBloomFilter longBloomFilter = (bloomFilter instanceof LongBloomFilter) ? (LongBloomFilter)bloomFilter : null;
+    
+    for(int index = start; index < end; index++) {
+      long t0 = System.nanoTime();
+      E element = null;
+      try {
+        element = elementStore.getElement(index);
+      } catch(Exception e) {
+        logger.warn("Failed to load element " + index, e);
+      }
+      elementList.set(index - indexStart, element);
+      
+      long t1 = System.nanoTime();
+      if(scoreStore != null && scoreStore.hasIndex(index)) {
+        float elemScore = scoreStore.get(index);
+        if(elemScore < Score.MIN_SCORE_FLOAT) {
+          elemScore = Score.MIN_SCORE_FLOAT;
+          scoreStore.set(index, elemScore);
+        }
+        
+        if(elemScore > Score.MIN_SCORE_FLOAT && element != null) {
+          element.setScore(elemScore);
+        }
+      }
+      
+      long t2 = System.nanoTime();
+      if(filterStore != null && element != null) {
+        filterStore.set(index, (longBloomFilter != null) ?
+            longBloomFilter.computeIndexBits(element) : bloomFilter.computeIndexFilter(element));
+      }
+      
+      long t3 = System.nanoTime();
+      read += t1 - t0;
+      score += t2 - t1;
+      filter += t3 - t2;
+    }
+    
+    readTime.addAndGet(read);
+    scoreTime.addAndGet(score);
+    filterTime.addAndGet(filter);
+  }
+  
+  /**
+   * @return the time in milliseconds spent on scanning element scores.
+   */
+  public long getScanTime() {
+    return scanTime / 1000000;
+  }
+  
+  /**
+   * @return the time in milliseconds spent on reading and decoding elements, summed over all workers.
+   */
+  public long getReadTime() {
+    return readTime.get() / 1000000;
+  }
+  
+  /**
+   * @return the time in milliseconds spent on applying element scores, summed over all workers.
+   */
+  public long getScoreTime() {
+    return scoreTime.get() / 1000000;
+  }
+  
+  /**
+   * @return the time in milliseconds spent on computing element filters, summed over all workers.
+   */
+  public long getFilterTime() {
+    return filterTime.get() / 1000000;
+  }
+  
+  /**
+   * @return the elapsed time in milliseconds of the last load.
+   */
+  public long getTotalTime() {
+    return totalTime / 1000000;
+  }
+  
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "[parallelism=" + parallelism + ", chunkSize=" + chunkSize +
+           "] scan scores: " + getScanTime() + " ms, read elements: " + getReadTime() +
+           " ms, apply scores: " + getScoreTime() + " ms, compute filters: " + getFilterTime() +
+           " ms, total: " + getTotalTime() + " ms";
+  }
+}
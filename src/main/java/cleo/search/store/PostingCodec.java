@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import cleo.search.util.IntIterator;
+
+/**
+ * PostingCodec - Encodes and decodes posting lists (lists of element IDs) stored as byte arrays.
+ * 
+ * <p>
+ * Encoded values start with the header written by {@link PostingCodecs#writeHeader(byte[], int, int)}
+ * so that values written by different codecs, including legacy raw values without any header,
+ * can be mixed in one store. Use {@link PostingCodecs} to read values of any format.
+ * 
+ * @since 10/18, 2026
+ */
+public interface PostingCodec {
+  
+  /**
+   * @return the codec ID recorded in the value header.
+   */
+  public int getId();
+  
+  /**
+   * Encodes a list of integers.
+   * 
+   * @param values - the integer array
+   * @param offset - the offset of the first integer to encode
+   * @param length - the number of integers to encode
+   * @return the encoded bytes.
+   */
+  public byte[] encode(int[] values, int offset, int length);
+  
+  /**
+   * Creates a streaming decoder.
+   * 
+   * @param dat    - the encoded bytes
+   * @param offset - the offset of the encoded integers following the value header
+   * @param count  - the number of encoded integers
+   * @return the iterator of decoded integers.
+   */
+  public IntIterator iterator(byte[] dat, int offset, int count);
+}
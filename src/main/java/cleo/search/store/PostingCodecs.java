@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.util.Arrays;
+
+import cleo.search.util.IntIterator;
+
+/**
+ * PostingCodecs - Static utilities for reading posting lists written by any {@link PostingCodec}.
+ * 
+ * <p>
+ * An encoded value starts with the {@link #MAGIC} byte, followed by the codec ID byte and the number
+ * of integers as a varint. A legacy value is a plain sequence of 4-byte big-endian integers, so its length
+ * is always a multiple of 4. An encoded value is padded by one byte whenever its length would be a multiple
+ * of 4. Both formats can therefore coexist even if a legacy value starts with {@link #MAGIC}.
+ * 
+ * @since 10/18, 2026
+ */
+public final class PostingCodecs {
+  public final static byte MAGIC = (byte)0xC1;
+  
+  public final static PostingCodec RAW = new RawPostingCodec();
+  public final static PostingCodec DELTA_VARINT = new DeltaVarintPostingCodec();
+  public final static PostingCodec FRAME_OF_REFERENCE = new FrameOfReferencePostingCodec();
+  
+  private final static PostingCodec[] codecs = { RAW, DELTA_VARINT, FRAME_OF_REFERENCE };
+  private final static String[] names = { "raw", "deltaVarint", "frameOfReference" };
+  
+  private PostingCodecs() {}
+  
+  /**
+   * Gets the codec of a codec ID.
+   * 
+   * @throws IllegalArgumentException if the codec ID is unknown.
+   */
+  public static PostingCodec getCodec(int id) {
+    if(id < 0 || id >= codecs.length) {
+      throw new IllegalArgumentException("Unknown posting codec: " + id);
+    }
+    return codecs[id];
+  }
+  
+  /**
+   * Gets the codec of a configuration name, i.e. <code>raw</code>, <code>deltaVarint</code> or <code>frameOfReference</code>.
+   * 
+   * @throws IllegalArgumentException if the name is unknown.
+   */
+  public static PostingCodec getCodec(String name) {
+    for(int i = 0; i < names.length; i++) {
+      if(names[i].equalsIgnoreCase(name)) {
+        return codecs[i];
+      }
+    }
+    throw new IllegalArgumentException("Unknown posting codec: " + name);
+  }
+  
+  /**
+   * @return <code>true</code> if the specified value has a codec header. Otherwise, it is a legacy value.
+   */
+  public static boolean isEncoded(byte[] dat) {
+    return dat != null && isEncoded(dat, dat.length);
+  }
+  
+  /**
+   * @param head   - the leading bytes of a value
+   * @param length - the full length of the value
+   * @return <code>true</code> if the value has a codec header. Otherwise, it is a legacy value.
+   */
+  public static boolean isEncoded(byte[] head, int length) {
+    return length >= 3 && (length & 3) != 0 && head[0] == MAGIC;
+  }
+  
+  /**
+   * @return the number of integers in a value of any format, or <code>-1</code> if the value is <code>null</code>.
+   */
+  public static int count(byte[] dat) {
+    if(dat == null) return -1;
+    if(!isEncoded(dat)) return dat.length >> 2;
+    return readVarint(dat, 2);
+  }
+  
+  /**
+   * @return the streaming decoder of a value of any format.
+   */
+  public static IntIterator iterator(byte[] dat) {
+    if(dat == null) return RAW.iterator(new byte[0], 0, 0);
+    if(!isEncoded(dat)) return RAW.iterator(dat, 0, dat.length >> 2);
+    
+    int count = readVarint(dat, 2);
+    return getCodec(dat[1]).iterator(dat, 2 + varintLength(count), count);
+  }
+  
+  /**
+   * @return the integers decoded from a value of any format, or <code>null</code> if the value is <code>null</code>.
+   */
+  public static int[] decode(byte[] dat) {
+    if(dat == null) return null;
+    
+    int[] result = new int[count(dat)];
+    IntIterator iter = iterator(dat);
+    for(int i = 0; i < result.length; i++) {
+      result[i] = iter.next();
+    }
+    return result;
+  }
+  
+  /**
+   * @return <code>true</code> if a value of any format contains the specified integer.
+   */
+  public static boolean contains(byte[] dat, int value) {
+    IntIterator iter = iterator(dat);
+    while(iter.hasNext()) {
+      if(iter.next() == value) return true;
+    }
+    return false;
+  }
+  
+  /**
+   * Writes the value header.
+   * 
+   * @return the offset following the header.
+   */
+  static int writeHeader(byte[] dst, int codecId, int count) {
+    dst[0] = MAGIC;
+    dst[1] = (byte)codecId;
+    return writeVarint(dst, 2, count);
+  }
+  
+  /**
+   * Trims an encoded value to its written length, padding one byte if needed
+   * so that it cannot be taken for a legacy value.
+   */
+  static byte[] seal(byte[] dat, int pos) {
+    return Arrays.copyOf(dat, ((pos & 3) == 0) ? pos + 1 : pos);
+  }
+  
+  static int headerLength(int count) {
+    return 2 + varintLength(count);
+  }
+  
+  static int varintLength(int value) {
+    int len = 1;
+    while((value & ~0x7F) != 0) {
+      value >>>= 7;
+      len++;
+    }
+    return len;
+  }
+  
+  static int writeVarint(byte[] dst, int pos, int value) {
+    while((value & ~0x7F) != 0) {
+      dst[pos++] = (byte)((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    dst[pos++] = (byte)value;
+    return pos;
+  }
+  
+  static int readVarint(byte[] src, int pos) {
+    int value = 0;
+    for(int shift = 0; ; shift += 7) {
+      byte b = src[pos++];
+      value |= (b & 0x7F) << shift;
+      if(b >= 0) return value;
+    }
+  }
+  
+  static int zigzag(int value) {
+    return (value << 1) ^ (value >> 31);
+  }
+  
+  static int unzigzag(int value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
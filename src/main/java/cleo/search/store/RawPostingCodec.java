@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.nio.ByteBuffer;
+
+import cleo.search.util.IntIterator;
+import cleo.search.util.IntIteratorFromBytes;
+
+/**
+ * RawPostingCodec - The legacy posting list format of 4-byte big-endian integers without any header.
+ * 
+ * @since 10/18, 2026
+ */
+public class RawPostingCodec implements PostingCodec {
+  
+  @Override
+  public int getId() {
+    return 0;
+  }
+  
+  @Override
+  public byte[] encode(int[] values, int offset, int length) {
+    byte[] dat = new byte[length << 2];
+    ByteBuffer bb = ByteBuffer.wrap(dat);
+    for(int i = offset, end = offset + length; i < end; i++) {
+      bb.putInt(values[i]);
+    }
+    return dat;
+  }
+  
+  @Override
+  public IntIterator iterator(byte[] dat, int offset, int count) {
+    return new IntIteratorFromBytes(dat, offset, count << 2);
+  }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import krati.array.Array;
+
+import cleo.search.Element;
+import cleo.search.ElementSerializer;
+
+/**
+ * SnapshotArrayStoreElement - An element store serving serialized elements directly from a memory-mapped,
+ * read-only snapshot. Elements changed after the snapshot are kept in an in-memory overlay.
+ *
+ * <p>
+ * The snapshot consists of two files: <code>elements.idx</code> holding <code>capacity + 1</code> long offsets
+ * and <code>elements.dat</code> holding the serialized elements back to back. An empty slot has equal offsets.
+ *
+ * @since 10/18, 2026
+ */
+public class SnapshotArrayStoreElement<E extends Element> implements ArrayStoreElement<E> {
+  public final static String INDEX_FILE_NAME = "elements.idx";
+  public final static String DATA_FILE_NAME = "elements.dat";
+
+  private final static byte[] DELETED = new byte[0];
+
+  private final int indexStart;
+  private final int indexEnd;
+  private final int capacity;
+  private final MappedDataFile indexFile;
+  private final MappedDataFile dataFile;
+  private final ElementSerializer<E> elementSerializer;
+  private final ConcurrentHashMap<Integer, byte[]> overlay;
+  private volatile boolean cleared = false;
+  private final long lwMark;
+  private volatile long hwMark;
+  private boolean isClosed = false;
+
+  public SnapshotArrayStoreElement(File dir, int indexStart, int capacity, long scn, ElementSerializer<E> elementSerializer) throws IOException {
+    this.indexStart = indexStart;
+    this.indexEnd = indexStart + capacity;
+    this.capacity = capacity;
+    this.elementSerializer = elementSerializer;
+    this.overlay = new ConcurrentHashMap<Integer, byte[]>();
+    this.indexFile = new MappedDataFile(new File(dir, INDEX_FILE_NAME));
+    this.dataFile = new MappedDataFile(new File(dir, DATA_FILE_NAME));
+    this.lwMark = scn;
+    this.hwMark = scn;
+
+    if(indexFile.length() != ((capacity + 1L) << 3)) {
+      throw new IOException("Invalid file length: " + indexFile.getFile().getAbsolutePath());
+    }
+  }
+
+  /**
+   * Writes the elements of an element store to a snapshot directory.
+   *
+   * @param dir   - the snapshot directory
+   * @param store - the element store
+   * @return the number of elements written.
+   * @throws IOException
+   */
+  public static <E extends Element> int write(File dir, ArrayStoreElement<E> store) throws IOException {
+    int count = 0;
+    long[] offsets = new long[store.capacity() + 1];
+    ElementSerializer<E> serializer = store.getElementSerializer();
+
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(dir, DATA_FILE_NAME)), 1 << 16));
+    try {
+      long offset = 0;
+      for(int i = 0, cnt = store.capacity(); i < cnt; i++) {
+        offsets[i] = offset;
+
+        // Serialize from the element instead of copying raw bytes to carry the scores set on cached elements
+        E element = store.getElement(store.getIndexStart() + i);
+        if(element != null) {
+          byte[] dat = serializer.serialize(element);
+          out.write(dat);
+          offset += dat.length;
+          count++;
+        }
+      }
+      offsets[offsets.length - 1] = offset;
+    } finally {
+      out.close();
+    }
+
+    out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(dir, INDEX_FILE_NAME)), 1 << 16));
+    try {
+      for(long offset : offsets) {
+        out.writeLong(offset);
+      }
+    } finally {
+      out.close();
+    }
+
+    return count;
+  }
+
+  protected void ensureOpen() throws UnsupportedOperationException {
+    if(isClosed)
+      throw new UnsupportedOperationException("Cannot modify store, already closed!");
+  }
+
+  @Override
+  public ElementSerializer<E> getElementSerializer() {
+    return elementSerializer;
+  }
+
+  @Override
+  public E getElement(int index) {
+    byte[] dat = getElementBytes(index);
+    return (dat == null) ? null : elementSerializer.deserialize(dat);
+  }
+
+  @Override
+  public byte[] getElementBytes(int index) {
+    byte[] dat = overlay.get(index);
+    if(dat != null) {
+      return (dat == DELETED) ? null : dat;
+    }
+
+    if(cleared) {
+      return null;
+    }
+
+    long pos = ((long)(index - indexStart)) << 3;
+    long start = indexFile.getLong(pos);
+    int len = (int)(indexFile.getLong(pos + 8) - start);
+    if(len == 0) {
+      return null;
+    }
+
+    dat = new byte[len];
+    dataFile.get(start, dat, 0, len);
+    return dat;
+  }
+
+  @Override
+  public void setElement(int index, E element, long scn) throws Exception {
+    setElementBytes(index, (element == null) ? null : elementSerializer.serialize(element), scn);
+  }
+
+  @Override
+  public synchronized void setElementBytes(int index, byte[] elementBytes, long scn) throws Exception {
+    ensureOpen();
+    if(!hasIndex(index)) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+
+    overlay.put(index, (elementBytes == null) ? DELETED : elementBytes);
+    hwMark = Math.max(hwMark, scn);
+  }
+
+  @Override
+  public void deleteElement(int index, long scn) throws Exception {
+    setElementBytes(index, null, scn);
+  }
+
+  @Override
+  public long getLWMark() {
+    return lwMark;
+  }
+
+  @Override
+  public long getHWMark() {
+    return hwMark;
+  }
+
+  @Override
+  public synchronized void saveHWMark(long endOfPeriod) throws Exception {
+    ensureOpen();
+    hwMark = Math.max(hwMark, endOfPeriod);
+  }
+
+  /**
+   * Does not advance the low water mark. The overlay lives in memory only and is rebuilt
+   * on restart by replaying changes newer than the snapshot SCN, which stays the low water mark.
+   */
+  @Override
+  public synchronized void persist() throws IOException {
+    ensureOpen();
+  }
+
+  @Override
+  public synchronized void sync() throws IOException {
+    persist();
+  }
+
+  @Override
+  public synchronized void clear() {
+    ensureOpen();
+    cleared = true;
+    overlay.clear();
+  }
+
+  /**
+   * @return the number of elements changed since the snapshot.
+   */
+  public int getOverlaySize() {
+    return overlay.size();
+  }
+
+  @Override
+  public boolean hasIndex(int index) {
+    return (indexStart <= index && index < indexEnd);
+  }
+
+  @Override
+  public int length() {
+    return capacity;
+  }
+
+  @Override
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public int getIndexStart() {
+    return indexStart;
+  }
+
+  @Override
+  public Array.Type getType() {
+    return Array.Type.STATIC;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    isClosed = true;
+  }
+}
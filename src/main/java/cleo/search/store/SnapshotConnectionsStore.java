@@ -0,0 +1,418 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SnapshotConnectionsStore - A connections store serving posting lists directly from a memory-mapped,
+ * read-only snapshot. Sources changed after the snapshot are kept in an in-memory overlay.
+ *
+ * <p>
+ * The snapshot consists of two files: <code>postings.idx</code> holding one long offset per source
+ * in the unsigned order of the UTF-8 source bytes, and <code>postings.dat</code> holding the entries.
+ * Each entry is laid out as <code>[keyLength][count][key bytes padded to 4][count connections]</code>
+ * so that every int is aligned and a lookup is a binary search without any decoding up front.
+ *
+ * @since 10/18, 2026
+ */
+public class SnapshotConnectionsStore implements ConnectionsStore<String> {
+  public final static String INDEX_FILE_NAME = "postings.idx";
+  public final static String DATA_FILE_NAME = "postings.dat";
+
+  private final static int[] DELETED = new int[0];
+
+  private final int numSources;
+  private final MappedDataFile indexFile;
+  private final MappedDataFile dataFile;
+  private final ConcurrentHashMap<String, int[]> overlay;
+  private volatile boolean cleared = false;
+  private final long lwMark;
+  private volatile long hwMark;
+
+  public SnapshotConnectionsStore(File dir, long scn) throws IOException {
+    this.overlay = new ConcurrentHashMap<String, int[]>();
+    this.indexFile = new MappedDataFile(new File(dir, INDEX_FILE_NAME));
+    this.dataFile = new MappedDataFile(new File(dir, DATA_FILE_NAME));
+    this.numSources = (int)(indexFile.length() >> 3);
+    this.lwMark = scn;
+    this.hwMark = scn;
+  }
+
+  /**
+   * Writes the posting lists of a connections store to a snapshot directory.
+   *
+   * @param dir   - the snapshot directory
+   * @param store - the connections store
+   * @return the number of sources written.
+   * @throws IOException
+   */
+  public static int write(File dir, ConnectionsStore<String> store) throws IOException {
+    List<byte[]> keys = new ArrayList<byte[]>();
+    Iterator<String> iter = store.sourceIterator();
+    while(iter.hasNext()) {
+      String source = iter.next();
+      if(source != null) {
+        keys.add(toBytes(source));
+      }
+    }
+    Collections.sort(keys, new Comparator<byte[]>() {
+      @Override
+      public int compare(byte[] b0, byte[] b1) {
+        return compareBytes(b0, b1);
+      }
+    });
+
+    int count = 0;
+    long[] offsets = new long[keys.size()];
+
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(dir, DATA_FILE_NAME)), 1 << 16));
+    try {
+      long offset = 0;
+      for(byte[] key : keys) {
+        int[] connections = store.getConnections(toString(key, 0, key.length));
+        if(connections == null || connections.length == 0) {
+          continue;
+        }
+
+        offsets[count++] = offset;
+        out.writeInt(key.length);
+        out.writeInt(connections.length);
+        out.write(key);
+        for(int i = key.length, end = padded(key.length); i < end; i++) {
+          out.write(0);
+        }
+        for(int connection : connections) {
+          out.writeInt(connection);
+        }
+        offset += 8 + padded(key.length) + (((long)connections.length) << 2);
+      }
+    } finally {
+      out.close();
+    }
+
+    out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(dir, INDEX_FILE_NAME)), 1 << 16));
+    try {
+      for(int i = 0; i < count; i++) {
+        out.writeLong(offsets[i]);
+      }
+    } finally {
+      out.close();
+    }
+
+    return count;
+  }
+
+  static int padded(int len) {
+    return (len + 3) & ~3;
+  }
+
+  static byte[] toBytes(String source) {
+    try {
+      return source.getBytes("UTF-8");
+    } catch(UnsupportedEncodingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  static String toString(byte[] bytes, int offset, int len) {
+    try {
+      return new String(bytes, offset, len, "UTF-8");
+    } catch(UnsupportedEncodingException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  static int compareBytes(byte[] b0, byte[] b1) {
+    for(int i = 0, len = Math.min(b0.length, b1.length); i < len; i++) {
+      int c = (b0[i] & 0xff) - (b1[i] & 0xff);
+      if(c != 0) return c;
+    }
+    return b0.length - b1.length;
+  }
+
+  private int compareKey(long pos, byte[] key) {
+    int keyLength = dataFile.getInt(pos);
+    pos += 8;
+    for(int i = 0, len = Math.min(keyLength, key.length); i < len; i++) {
+      int c = (dataFile.get(pos + i) & 0xff) - (key[i] & 0xff);
+      if(c != 0) return c;
+    }
+    return keyLength - key.length;
+  }
+
+  private String readKey(long pos) {
+    byte[] key = new byte[dataFile.getInt(pos)];
+    dataFile.get(pos + 8, key, 0, key.length);
+    return toString(key, 0, key.length);
+  }
+
+  private int[] readConnections(long pos) {
+    int keyLength = dataFile.getInt(pos);
+    int[] connections = new int[dataFile.getInt(pos + 4)];
+    dataFile.get(pos + 8 + padded(keyLength), connections, 0, connections.length);
+    return connections;
+  }
+
+  /**
+   * @return the connections of a source from the snapshot, or <code>null</code> if the source is not found.
+   */
+  protected int[] getSnapshotConnections(String source) {
+    long pos = findSnapshotEntry(source);
+    return (pos < 0) ? null : readConnections(pos);
+  }
+  
+  /**
+   * @return the position of the entry of a source in the data file, or <code>-1</code> if the source is not found.
+   */
+  private long findSnapshotEntry(String source) {
+    byte[] key = toBytes(source);
+
+    int low = 0;
+    int high = numSources - 1;
+    while(low <= high) {
+      int mid = (low + high) >>> 1;
+      long pos = indexFile.getLong(((long)mid) << 3);
+      int c = compareKey(pos, key);
+      if(c < 0) {
+        low = mid + 1;
+      } else if(c > 0) {
+        high = mid - 1;
+      } else {
+        return pos;
+      }
+    }
+
+    return -1;
+  }
+
+  /**
+   * @return the number of sources in the snapshot.
+   */
+  public int getNumSnapshotSources() {
+    return numSources;
+  }
+
+  /**
+   * @return the number of sources changed since the snapshot.
+   */
+  public int getOverlaySize() {
+    return overlay.size();
+  }
+
+  @Override
+  public int[] getConnections(String source) {
+    int[] connections = overlay.get(source);
+    if(connections != null) {
+      return (connections == DELETED) ? null : connections;
+    }
+
+    return cleared ? null : getSnapshotConnections(source);
+  }
+
+  /**
+   * Opens a cursor which reads the connections of a source from the snapshot in chunks.
+   */
+  @Override
+  public PostingCursor openCursor(String source) {
+    int[] connections = overlay.get(source);
+    if(connections != null) {
+      return (connections == DELETED) ? null : new ArrayPostingCursor(connections);
+    }
+    
+    long pos = cleared ? -1 : findSnapshotEntry(source);
+    return (pos < 0) ? null : new SnapshotCursor(pos);
+  }
+  
+  @Override
+  public synchronized void putConnections(String source, int[] connections, long scn) throws Exception {
+    overlay.put(source, (connections == null) ? DELETED : connections);
+    hwMark = Math.max(hwMark, scn);
+  }
+
+  @Override
+  public synchronized void deleteConnections(String source, long scn) throws Exception {
+    putConnections(source, null, scn);
+  }
+
+  @Override
+  public synchronized void addConnection(String source, int connection, long scn) throws Exception {
+    int[] connections = getConnections(source);
+    if(connections == null) {
+      connections = new int[] { connection };
+    } else {
+      for(int c : connections) {
+        if(c == connection) {
+          hwMark = Math.max(hwMark, scn);
+          return;
+        }
+      }
+
+      connections = Arrays.copyOf(connections, connections.length + 1);
+      connections[connections.length - 1] = connection;
+    }
+
+    putConnections(source, connections, scn);
+  }
+
+  @Override
+  public synchronized void removeConnection(String source, int connection, long scn) throws Exception {
+    int[] connections = getConnections(source);
+    if(connections != null) {
+      for(int i = 0; i < connections.length; i++) {
+        if(connections[i] == connection) {
+          int[] newConnections = new int[connections.length - 1];
+          System.arraycopy(connections, 0, newConnections, 0, i);
+          System.arraycopy(connections, i + 1, newConnections, i, newConnections.length - i);
+          putConnections(source, newConnections.length == 0 ? null : newConnections, scn);
+          return;
+        }
+      }
+    }
+
+    hwMark = Math.max(hwMark, scn);
+  }
+
+  /**
+   * Removes all connections.
+   */
+  public synchronized void clear() {
+    cleared = true;
+    overlay.clear();
+  }
+
+  @Override
+  public Iterator<String> sourceIterator() {
+    return new SourceIterator();
+  }
+
+  @Override
+  public synchronized void saveHWMark(long endOfPeriod) throws Exception {
+    hwMark = Math.max(hwMark, endOfPeriod);
+  }
+
+  @Override
+  public long getHWMark() {
+    return hwMark;
+  }
+
+  @Override
+  public long getLWMark() {
+    return lwMark;
+  }
+
+  /**
+   * Does not advance the low water mark. The overlay lives in memory only and is rebuilt
+   * on restart by replaying changes newer than the snapshot SCN, which stays the low water mark.
+   */
+  @Override
+  public synchronized void persist() throws IOException {
+  }
+
+  @Override
+  public synchronized void sync() throws IOException {
+    persist();
+  }
+
+  @Override
+  public void close() throws IOException {}
+
+  /**
+   * Reads connections from the memory-mapped data file in chunks.
+   */
+  private class SnapshotCursor extends ChunkedPostingCursor {
+    private long pos;
+    private int remaining;
+    
+    SnapshotCursor(long entryPos) {
+      super(dataFile.getInt(entryPos + 4), DEFAULT_CHUNK_SIZE);
+      this.pos = entryPos + 8 + padded(dataFile.getInt(entryPos));
+      this.remaining = size();
+    }
+    
+    @Override
+    protected int fill(int[] chunk) {
+      int cnt = Math.min(remaining, chunk.length);
+      dataFile.get(pos, chunk, 0, cnt);
+      pos += ((long)cnt) << 2;
+      remaining -= cnt;
+      return cnt;
+    }
+  }
+  
+  /**
+   * Iterates over the live snapshot sources followed by the sources only found in the overlay.
+   */
+  private class SourceIterator implements Iterator<String> {
+    private final Iterator<Map.Entry<String, int[]>> overlayIter = overlay.entrySet().iterator();
+    private int index = cleared ? numSources : 0;
+    private String next = advance();
+
+    private String advance() {
+      while(index < numSources) {
+        String source = readKey(indexFile.getLong(((long)index++) << 3));
+        if(!overlay.containsKey(source)) {
+          return source;
+        }
+      }
+
+      while(overlayIter.hasNext()) {
+        Map.Entry<String, int[]> e = overlayIter.next();
+        if(e.getValue() != DELETED) {
+          return e.getKey();
+        }
+      }
+
+      return null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public String next() {
+      if(next == null) {
+        throw new NoSuchElementException();
+      }
+
+      String source = next;
+      next = advance();
+      return source;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -31,6 +31,9 @@ import cleo.search.ElementSerializer;
  * 
  * @author jwu
  * @since 01/20, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Added posting codec of connections stores <br/>
  */
 public class StoreFactory {
   
@@ -124,8 +127,23 @@ public class StoreFactory {
    * @throws Exception if the <code>ArrayStoreConnections</code> cannot be created.
    */
   public static ArrayStoreConnections createArrayStoreConnections(File storeHomeDir, int capacity, SegmentFactory segmentFactory, int segmentFileSizeMB) throws Exception {
+    return createArrayStoreConnections(storeHomeDir, capacity, segmentFactory, segmentFileSizeMB, PostingCodecs.RAW);
+  }
+  
+  /**
+   * Creates a <code>ArrayStoreConnections</code> writing connections using a specified posting codec.
+   * 
+   * @param storeHomeDir      - Store home directory
+   * @param capacity          - Initial capacity
+   * @param segmentFactory    - Store Segment factory
+   * @param segmentFileSizeMB - Store segment size in MB
+   * @param codec             - Posting codec for writing connections
+   * @return the created <code>ArrayStoreConnections</code>.
+   * @throws Exception if the <code>ArrayStoreConnections</code> cannot be created.
+   */
+  public static ArrayStoreConnections createArrayStoreConnections(File storeHomeDir, int capacity, SegmentFactory segmentFactory, int segmentFileSizeMB, PostingCodec codec) throws Exception {
     KratiArrayStore kas = createKratiArrayStore(storeHomeDir, capacity, segmentFactory, segmentFileSizeMB);
-    return new KratiArrayStoreConnections(new KratiArrayStoreInts(kas));
+    return new KratiArrayStoreConnections(new KratiArrayStoreInts(kas, codec));
   }
   
   public static ArrayStoreConnections createArrayStoreConnections(File storeHomeDir,
@@ -160,13 +178,28 @@ public class StoreFactory {
       int initialCapacity,
       int indexSegmentFileSizeMB, SegmentFactory indexSegmentFactory,
       int storeSegmentFileSizeMB, SegmentFactory storeSegmentFactory) throws Exception {
+    return createConnectionsStore(storeHomeDir, initialCapacity,
+                                  indexSegmentFileSizeMB, indexSegmentFactory,
+                                  storeSegmentFileSizeMB, storeSegmentFactory,
+                                  PostingCodecs.RAW);
+  }
+  
+  /**
+   * Creates a connections store writing connections using a specified posting codec.
+   */
+  public static ConnectionsStore<String> createConnectionsStore(
+      File storeHomeDir,
+      int initialCapacity,
+      int indexSegmentFileSizeMB, SegmentFactory indexSegmentFactory,
+      int storeSegmentFileSizeMB, SegmentFactory storeSegmentFactory,
+      PostingCodec codec) throws Exception {
     int batchSize = 10000;
     int numSyncBatches = 20;
     KratiDataStore kds = new KratiDataStore(storeHomeDir,
                                             initialCapacity, batchSize, numSyncBatches,
                                             indexSegmentFileSizeMB, indexSegmentFactory,
                                             storeSegmentFileSizeMB, storeSegmentFactory);
-    return new KratiDataStoreConnections(new KratiBufferedInts(kds));
+    return new KratiDataStoreConnections(new KratiBufferedInts(KratiBufferedInts.DEFAULT_BUFFER_SIZE, kds, codec));
   }
   
   public static ConnectionsStore<String> createConnectionsStore(
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.store;
+
+import java.util.Arrays;
+
+/**
+ * StridedLongArrayPartition - A partition of fixed-width multi-word values laid out in one primitive long array.
+ * 
+ * <p>
+ * The words of index <code>i</code> are stored at <code>[(i - indexStart) * stride, (i - indexStart + 1) * stride)</code>.
+ * 
+ * @since 10/18, 2026
+ */
+public final class StridedLongArrayPartition {
+  private final int indexStart;
+  private final int indexEnd;
+  private final int capacity;
+  private final int stride;
+  private final long[] array;
+  
+  public StridedLongArrayPartition(int indexStart, int capacity, int stride) {
+    if(stride < 1) {
+      throw new IllegalArgumentException("stride must be positive: " + stride);
+    }
+    
+    this.indexStart = indexStart;
+    this.indexEnd = indexStart + capacity;
+    this.capacity = capacity;
+    this.stride = stride;
+    this.array = new long[capacity * stride];
+  }
+  
+  public int getIndexStart() {
+    return indexStart;
+  }
+  
+  public int getIndexEnd() {
+    return indexEnd;
+  }
+  
+  public int capacity() {
+    return capacity;
+  }
+  
+  /**
+   * @return the number of words per index.
+   */
+  public int getStride() {
+    return stride;
+  }
+  
+  public long[] getInternalArray() {
+    return array;
+  }
+  
+  public boolean hasIndex(int index) {
+    return (indexStart <= index && index < indexEnd);
+  }
+  
+  /**
+   * @return the offset of the first word of an index in the internal array.
+   */
+  public int offset(int index) {
+    return (index - indexStart) * stride;
+  }
+  
+  public long get(int index, int word) {
+    return array[offset(index) + word];
+  }
+  
+  /**
+   * Sets the words of an index.
+   * 
+   * @param index  - the index
+   * @param words  - the array holding the words
+   * @param offset - the offset of the first word in <code>words</code>
+   */
+  public void set(int index, long[] words, int offset) {
+    System.arraycopy(words, offset, array, offset(index), stride);
+  }
+  
+  /**
+   * Checks whether all bits of a multi-word value are set at an index.
+   */
+  public boolean matches(int index, long[] words) {
+    return matches(array, offset(index), words);
+  }
+  
+  /**
+   * Checks whether all bits of a multi-word value are set in an array starting at a given offset.
+   */
+  public static boolean matches(long[] array, int offset, long[] words) {
+    for(int i = 0; i < words.length; i++) {
+      long w = words[i];
+      if((array[offset + i] & w) != w) {
+        return false;
+      }
+    }
+    return true;
+  }
+  
+  public void clear() {
+    Arrays.fill(array, 0);
+  }
+  
+  public void clear(int index) {
+    int pos = offset(index);
+    Arrays.fill(array, pos, pos + stride, 0);
+  }
+}
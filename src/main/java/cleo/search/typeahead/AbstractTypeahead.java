@@ -27,6 +27,8 @@ import cleo.search.Element;
 import cleo.search.collector.Collector;
 import cleo.search.collector.SimpleCollector;
 import cleo.search.filter.BloomFilter;
+import cleo.search.filter.LongBloomFilter;
+import cleo.search.filter.PositionalBloomFilter;
 import cleo.search.selector.SelectorFactory;
 import cleo.search.store.ArrayStoreElement;
 
@@ -35,10 +37,16 @@ import cleo.search.store.ArrayStoreElement;
  * 
  * @author jwu
  * @since 03/02, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Computed filters without boxing for primitive bloom filters <br/>
+ * 10/18, 2026 - Added per-term query signatures for positional bloom filters <br/>
  */
 public abstract class AbstractTypeahead<E extends Element> implements Typeahead<E>, Closeable {
   protected final String name;
   protected final BloomFilter<Long> bloomFilter;
+  protected final LongBloomFilter longBloomFilter;
+  protected final PositionalBloomFilter positionalBloomFilter;
   protected final ArrayStoreElement<E> elementStore;
   protected final SelectorFactory<E> selectorFactory;
   protected boolean isClosed=false;
@@ -49,6 +57,8 @@ public abstract class AbstractTypeahead<E extends Element> implements Typeahead<
                               BloomFilter<Long> bloomFilter) {
     this.name = name;
     this.bloomFilter = bloomFilter;
+    this.longBloomFilter = (bloomFilter instanceof LongBloomFilter) ? (LongBloomFilter)bloomFilter : null;
+    this.positionalBloomFilter = (bloomFilter instanceof PositionalBloomFilter) ? (PositionalBloomFilter)bloomFilter : null;
     this.elementStore = elementStore;
     this.selectorFactory = selectorFactory;
   }
@@ -75,6 +85,45 @@ public abstract class AbstractTypeahead<E extends Element> implements Typeahead<
     return bloomFilter;
   }
   
+  /**
+   * Computes the index filter of an element, without boxing if the bloom filter is a {@link LongBloomFilter}.
+   */
+  protected final long computeIndexBits(E element) {
+    return (longBloomFilter != null) ? longBloomFilter.computeIndexBits(element) : bloomFilter.computeIndexFilter(element);
+  }
+  
+  /**
+   * Computes the query filter of terms, without boxing if the bloom filter is a {@link LongBloomFilter}.
+   */
+  protected final long computeQueryBits(String[] terms) {
+    return (longBloomFilter != null) ? longBloomFilter.computeQueryBits(terms) : bloomFilter.computeQueryFilter(terms);
+  }
+  
+  /**
+   * Computes the per-term query signatures of terms.
+   * 
+   * @return the signatures, or <code>null</code> if the bloom filter is not a {@link PositionalBloomFilter}.
+   */
+  protected final long[] computeQuerySignatures(String[] terms) {
+    return (positionalBloomFilter != null) ? positionalBloomFilter.computeQuerySignatures(terms) : null;
+  }
+  
+  /**
+   * Computes the per-term signature of an element.
+   * 
+   * @return the signature, or <code>0</code> if the bloom filter is not a {@link PositionalBloomFilter}.
+   */
+  protected final long computeIndexSignature(E element) {
+    return (positionalBloomFilter != null) ? positionalBloomFilter.computeIndexSignature(element) : 0;
+  }
+  
+  /**
+   * Checks an element signature against query signatures, which always passes if there are no query signatures.
+   */
+  protected final boolean acceptSignature(long elemSignature, long[] signatures) {
+    return signatures == null || positionalBloomFilter.matches(elemSignature, signatures);
+  }
+  
   @Override
   public List<E> search(int uid, String[] terms) {
     return search(uid, terms, Integer.MAX_VALUE, Long.MAX_VALUE);
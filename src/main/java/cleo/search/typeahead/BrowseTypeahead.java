@@ -23,16 +23,22 @@ import org.apache.log4j.Logger;
 import cleo.search.Element;
 import cleo.search.collector.Collector;
 import cleo.search.filter.BloomFilter;
+import cleo.search.filter.WideBloomFilter;
 import cleo.search.selector.Selector;
 import cleo.search.selector.SelectorContext;
 import cleo.search.selector.SelectorFactory;
 import cleo.search.store.ArrayStoreElement;
+import cleo.search.store.StridedLongArrayPartition;
 
 /**
  * BrowseTypeahead
  * 
  * @author jwu
  * @since 02/12, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Kept strided multi-word filters for wide bloom filters <br/>
+ * 10/18, 2026 - Checked per-term query signatures of positional bloom filters <br/>
  */
 public class BrowseTypeahead<E extends Element> extends AbstractTypeahead<E> {
   private final static Logger logger = Logger.getLogger(BrowseTypeahead.class);
@@ -67,30 +73,68 @@ public class BrowseTypeahead<E extends Element> extends AbstractTypeahead<E> {
     
     int size = list.size();
     int[] elemIdArray = new int[size];
-    long[] filterArray = new long[size];
+    WideBloomFilter wideBloomFilter = (bloomFilter instanceof WideBloomFilter) ? (WideBloomFilter)bloomFilter : null;
+    int numWords = (wideBloomFilter == null) ? 1 : wideBloomFilter.getNumWords();
+    long[] filterArray = new long[size * numWords];
+    long[] signatureArray = (positionalBloomFilter == null) ? null : new long[size];
     for(int i = 0; i < size; i++) {
       elemIdArray[i] = list.get(i);
       E element = elementStore.getElement(elemIdArray[i]);
       if(element != null) {
-        filterArray[i] = bloomFilter.computeIndexFilter(element);
+        if(wideBloomFilter != null) {
+          wideBloomFilter.computeIndexWords(element, filterArray, i * numWords);
+        } else {
+          filterArray[i] = computeIndexBits(element);
+        }
+        
+        if(signatureArray != null) {
+          signatureArray[i] = computeIndexSignature(element);
+        }
       }
     }
     
-    browseData = new BrowseData(elemIdArray, filterArray);
+    browseData = new BrowseData(elemIdArray, filterArray, numWords, signatureArray);
   }
   
   protected static class BrowseData {
     private int[] idArray;
     private long[] filterArray;
+    private int numWords;
+    private long[] signatureArray;
     
     public BrowseData() {
       idArray = new int[0];
       filterArray = new long[0];
+      numWords = 1;
     }
     
     public BrowseData(int[] idArray, long[] filterArray) {
+      this(idArray, filterArray, 1);
+    }
+    
+    public BrowseData(int[] idArray, long[] filterArray, int numWords) {
+      this(idArray, filterArray, numWords, null);
+    }
+    
+    public BrowseData(int[] idArray, long[] filterArray, int numWords, long[] signatureArray) {
       this.idArray = idArray;
       this.filterArray = filterArray;
+      this.numWords = numWords;
+      this.signatureArray = signatureArray;
+    }
+    
+    /**
+     * @return the element signatures of a positional bloom filter, or <code>null</code>.
+     */
+    public final long[] getElementSignatures() {
+      return signatureArray;
+    }
+    
+    /**
+     * @return the number of filter words per element.
+     */
+    public final int getNumFilterWords() {
+      return numWords;
     }
     
     public final int[] getElementIds() {
@@ -123,7 +167,11 @@ public class BrowseTypeahead<E extends Element> extends AbstractTypeahead<E> {
     long[] filterArray = browse.getElementFilters();
     if(idArray == null || idArray.length == 0) return;
     
-    long filter = bloomFilter.computeQueryFilter(terms);
+    long filter = computeQueryBits(terms);
+    int numWords = browse.getNumFilterWords();
+    long[] words = (numWords > 1) ? ((WideBloomFilter)bloomFilter).computeQueryWords(terms) : null;
+    long[] signatureArray = browse.getElementSignatures();
+    long[] signatures = (signatureArray == null) ? null : computeQuerySignatures(terms);
     
     long totalTime = 0;
     long startTime = System.currentTimeMillis();
@@ -136,7 +184,9 @@ public class BrowseTypeahead<E extends Element> extends AbstractTypeahead<E> {
     
     for(int cnt = idArray.length; i < cnt; i++) {
       int elemId = idArray[i];
-      if((filterArray[i] & filter) == filter) {
+      if(words == null ?
+         (filterArray[i] & filter) == filter && (signatures == null || acceptSignature(signatureArray[i], signatures)) :
+         StridedLongArrayPartition.matches(filterArray, i * numWords, words)) {
         numFilterHits++;
         
         E elem = getElementStore().getElement(elemId);
@@ -16,15 +16,22 @@
 
 package cleo.search.typeahead;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
 import krati.Persistable;
@@ -36,17 +43,28 @@ import cleo.search.Indexer;
 import cleo.search.Score;
 import cleo.search.collector.Collector;
 import cleo.search.filter.BloomFilter;
+import cleo.search.filter.PositionalBloomFilter;
+import cleo.search.filter.PrefixSummary;
 import cleo.search.selector.Selector;
 import cleo.search.selector.SelectorContext;
 import cleo.search.selector.SelectorFactory;
 import cleo.search.store.ArrayStoreElement;
+import cleo.search.store.BitmapConnectionsStore;
 import cleo.search.store.ConnectionsStore;
 import cleo.search.store.FloatArrayPartition;
 import cleo.search.store.LongArrayPartition;
+import cleo.search.store.LsmConnectionsStore;
+import cleo.search.store.MappedLongFilterStore;
+import cleo.search.store.PostingCursor;
 import cleo.search.store.StaticFloatArrayPartition;
 import cleo.search.store.StaticLongArrayPartition;
 import cleo.search.store.Stores;
+import cleo.search.util.DaemonThreadFactory;
 import cleo.search.util.ElementScoreHandler;
+import cleo.search.util.IntArrayIterator;
+import cleo.search.util.IntBitmap;
+import cleo.search.util.IntIterator;
+import cleo.search.util.IntRangeIterator;
 import cleo.search.util.ScoreScanner;
 
 /**
@@ -58,8 +76,23 @@ import cleo.search.util.ScoreScanner;
  * <p>
  * 05/16, 2011 - Added field maxElementScore <br/>
  * 09/16, 2012 - Used buffering connections store instead of roller to enhance indexing performance <br/> 
+ * 10/18, 2026 - Added constructor on top of prebuilt score and filter stores for snapshot loading <br/>
+ * 10/18, 2026 - Added optional memory-mapped filter store file to skip recomputing filters at startup <br/>
+ * 10/18, 2026 - Checked bitmap connections of dense prefixes when backed by BitmapConnectionsStore <br/>
+ * 10/18, 2026 - Browsed connections through lazy posting cursors instead of materialized arrays <br/>
+ * 10/18, 2026 - Ordered disk segments of LsmConnectionsStore by element scores <br/>
+ * 10/18, 2026 - Checked per-term query signatures of positional bloom filters <br/>
+ * 10/18, 2026 - Planned each query by estimated cost from store statistics <br/>
+ * 10/18, 2026 - Kept a prefix summary of connections for MultiTypeahead to skip this typeahead <br/>
+ * 10/18, 2026 - Served single short terms from incrementally maintained top-K results of hot prefixes <br/>
+ * 10/18, 2026 - Answered extensions of queries without results from a negative result cache <br/>
+ * 10/18, 2026 - Added live score updates and double-buffered score reloads with lazy re-sort of posting lists <br/>
+ * 10/18, 2026 - Refreshed posting lists in parallel by primitive scores, swapping one sorted copy at a time <br/>
+ * 10/18, 2026 - Reused intersection bitmaps of posting lists until the next modification <br/>
+ * 10/18, 2026 - Rebuilt hot prefixes from score store outside writeLock, swapping one prefix at a time <br/>
+ * 10/18, 2026 - Built the prefix summary of existing connections lazily instead of at construction <br/>
  */
-public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> implements Indexer<E>, Persistable {
+public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> implements Indexer<E>, Persistable, SummarizedTypeahead<E> {
   /**
    * The logger.
    */
@@ -78,13 +111,39 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
   /**
    * The float-based element score store.
    */
-  protected final FloatArrayPartition scoreStore;
+  protected volatile FloatArrayPartition scoreStore;
+  
+  /**
+   * The score store filled by the next reload, swapped with <code>scoreStore</code> afterwards.
+   */
+  private FloatArrayPartition spareScoreStore;
+  
+  /**
+   * The offsets of the elements whose scores were written during a score reload, <code>null</code> if not reloading.
+   * Guarded by <code>writeLock</code>.
+   */
+  private BitSet liveScoreWrites;
+  
+  /**
+   * The connection sources containing elements whose scores changed since the sources were last sorted.
+   */
+  protected final Set<String> dirtySources = new HashSet<String>();
   
   /**
    * The scanner to load element scores.
    */
   protected final ScoreScanner scoreScanner;
   
+  /**
+   * The element signature store of a {@link PositionalBloomFilter}, or <code>null</code> for other bloom filters.
+   */
+  protected final LongArrayPartition signatureStore;
+  
+  /**
+   * The file of the memory-mapped filter store, or <code>null</code> to keep filters on the heap.
+   */
+  protected final File filterStoreFile;
+  
   /**
    * The reentrant lock for updating underlying stores.
    */
@@ -100,6 +159,63 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
    */
   protected volatile float maxElementScore;
   
+  /**
+   * The statistics of this typeahead maintained incrementally for query planning.
+   */
+  protected final QueryStats queryStats;
+  
+  /**
+   * The query planner choosing a strategy per query.
+   */
+  protected final QueryPlanner queryPlanner;
+  
+  /**
+   * The summary of connection sources (i.e. term prefixes).
+   */
+  protected final PrefixSummary prefixSummary;
+  
+  /**
+   * Whether the prefix summary covers all the connection sources and can be used for skipping queries.
+   */
+  private volatile boolean prefixSummaryReady = false;
+  
+  /**
+   * Whether the prefix summary is being built in the background.
+   */
+  private final AtomicBoolean prefixSummaryBuilding = new AtomicBoolean(false);
+  
+  /**
+   * The top-K results of hot prefixes, <code>null</code> if not enabled.
+   */
+  protected volatile HotPrefixTable hotPrefixTable;
+  
+  /**
+   * The queries found without results since the last modification.
+   */
+  protected final NegativeResultCache negativeCache = new NegativeResultCache();
+  
+  /**
+   * The number of indexing operations, which stamps the entries of the negative result cache and the intersection bitmaps.
+   */
+  protected volatile long modCount = 0;
+  
+  /**
+   * The bitmaps of posting lists built for intersections, stamped with the modification count they were built at.
+   */
+  private final ConcurrentHashMap<String, StampedBitmap> intersectionBitmaps = new ConcurrentHashMap<String, StampedBitmap>();
+  
+  /**
+   * The maximum number of intersection bitmaps kept before they are all dropped.
+   */
+  private final static int MAX_INTERSECTION_BITMAPS = 1024;
+  
+  private final static IntBitmap[] NO_BITMAPS = new IntBitmap[0];
+  
+  /**
+   * The number of connection sources refreshed per task.
+   */
+  private final static int REFRESH_BATCH_SIZE = 1000;
+  
   /**
    * Creates a new GenericTypeahead.
    * 
@@ -118,12 +234,36 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
                           BloomFilter<Long> bloomFilter,
                           ScoreScanner scoreScanner,
                           int maxKeyLength) {
+    this(name, elementStore, connectionsStore, selectorFactory, bloomFilter, scoreScanner, maxKeyLength, null);
+  }
+  
+  /**
+   * Creates a new GenericTypeahead.
+   * 
+   * @param name             - the name
+   * @param elementStore     - the element store
+   * @param connectionsStore - the mapping from source to list of integers (i.e. connections)
+   * @param selectorFactory  - the selector factory
+   * @param bloomFilter      - the Bloom filter
+   * @param scoreScanner     - the element score scanner
+   * @param maxKeyLength     - the maximum key length
+   * @param filterStoreFile  - the file of the memory-mapped filter store, <code>null</code> to keep filters on the heap
+   */
+  public GenericTypeahead(String name,
+                          ArrayStoreElement<E> elementStore,
+                          ConnectionsStore<String> connectionsStore,
+                          SelectorFactory<E> selectorFactory,
+                          BloomFilter<Long> bloomFilter,
+                          ScoreScanner scoreScanner,
+                          int maxKeyLength,
+                          File filterStoreFile) {
     super(name, elementStore, selectorFactory, bloomFilter);
     logger.info(name + " start...");
     
     this.connectionsStore = connectionsStore;
     this.scoreScanner = scoreScanner;
     this.maxKeyLength = maxKeyLength;
+    this.filterStoreFile = filterStoreFile;
     
     // Initialize scoreStore and maxElementScore
     this.scoreStore = initScoreStore();
@@ -131,10 +271,65 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
     
     // Initialize filterStore
     this.filterStore = initFilterStore();
+    this.signatureStore = initSignatureStore();
+    
+    // Initialize query planner
+    this.queryStats = initQueryStats();
+    this.queryPlanner = initQueryPlanner();
+    
+    initConnectionsStore();
+    this.prefixSummary = initPrefixSummary();
+    logger.info(name + " started.");
+  }
+  
+  /**
+   * Creates a new GenericTypeahead on top of prebuilt score and filter stores (e.g. loaded from a snapshot).
+   * 
+   * @param name             - the name
+   * @param elementStore     - the element store
+   * @param connectionsStore - the mapping from source to list of integers (i.e. connections)
+   * @param selectorFactory  - the selector factory
+   * @param bloomFilter      - the Bloom filter
+   * @param scoreStore       - the element score store
+   * @param filterStore      - the element filter store computed by <code>bloomFilter</code>
+   * @param maxKeyLength     - the maximum key length
+   */
+  public GenericTypeahead(String name,
+                          ArrayStoreElement<E> elementStore,
+                          ConnectionsStore<String> connectionsStore,
+                          SelectorFactory<E> selectorFactory,
+                          BloomFilter<Long> bloomFilter,
+                          FloatArrayPartition scoreStore,
+                          LongArrayPartition filterStore,
+                          int maxKeyLength) {
+    super(name, elementStore, selectorFactory, bloomFilter);
+    logger.info(name + " start...");
+    
+    this.connectionsStore = connectionsStore;
+    this.scoreScanner = null;
+    this.maxKeyLength = maxKeyLength;
+    this.filterStoreFile = null;
+    this.scoreStore = scoreStore;
+    this.maxElementScore = Stores.max(scoreStore);
+    this.filterStore = filterStore;
+    this.signatureStore = initSignatureStore();
+    this.queryStats = initQueryStats();
+    this.queryPlanner = initQueryPlanner();
     
+    initConnectionsStore();
+    this.prefixSummary = initPrefixSummary();
     logger.info(name + " started.");
   }
 
+  /**
+   * Lets an {@link LsmConnectionsStore} write its segments in the descending order of element scores.
+   */
+  protected void initConnectionsStore() {
+    if(connectionsStore instanceof LsmConnectionsStore) {
+      ((LsmConnectionsStore)connectionsStore).setScoreStore(scoreStore);
+    }
+  }
+  
   protected FloatArrayPartition initScoreStore() {
     FloatArrayPartition p = new StaticFloatArrayPartition(elementStore.getIndexStart(), elementStore.capacity());
     
@@ -142,16 +337,10 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
       if(scoreScanner != null) {
         long startTime = System.currentTimeMillis();
         
-        ElementScoreHandler handler = new ElementScoreHandler(p);
-        scoreScanner.scan(handler);
+        loadScores(scoreScanner, p);
         
         for(int i = p.getIndexStart(), end = p.getIndexEnd(); i < end; i++) {
           float score = p.get(i);
-          if(score < Score.MIN_SCORE_FLOAT) {
-            score = Score.MIN_SCORE_FLOAT;
-            p.set(i, score);
-          }
-          
           if(score > Score.MIN_SCORE_FLOAT && elementStore.hasIndex(i)) {
             E element = elementStore.getElement(i);
             if(element != null) {
@@ -170,23 +359,152 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
     return p;
   }
   
+  /**
+   * Loads element scores into a score store, raising the scores below {@link Score#MIN_SCORE_FLOAT}.
+   */
+  protected static void loadScores(ScoreScanner scanner, FloatArrayPartition p) throws Exception {
+    ElementScoreHandler handler = new ElementScoreHandler(p);
+    scanner.scan(handler);
+    
+    for(int i = p.getIndexStart(), end = p.getIndexEnd(); i < end; i++) {
+      if(p.get(i) < Score.MIN_SCORE_FLOAT) {
+        p.set(i, Score.MIN_SCORE_FLOAT);
+      }
+    }
+  }
+  
   protected LongArrayPartition initFilterStore() {
     long startTime = System.currentTimeMillis();
     
-    LongArrayPartition p = new StaticLongArrayPartition(elementStore.getIndexStart(), elementStore.capacity());
+    LongArrayPartition p = null;
+    if(filterStoreFile != null) {
+      try {
+        MappedLongFilterStore m = new MappedLongFilterStore(filterStoreFile, elementStore.getIndexStart(), elementStore.capacity(), bloomFilter, elementStore.getHWMark());
+        if(m.isValid(elementStore.getHWMark())) {
+          long totalTime = System.currentTimeMillis() - startTime;
+          logger.info(getName() + " load filter store " + filterStoreFile.getAbsolutePath() + ": " + totalTime + " ms");
+          return m;
+        }
+        p = m;
+      } catch(IOException e) {
+        logger.warn(getName() + " failed to open filter store " + filterStoreFile.getAbsolutePath(), e);
+      }
+    }
+    
+    if(p == null) {
+      p = new StaticLongArrayPartition(elementStore.getIndexStart(), elementStore.capacity());
+    }
+    
     for(int i = p.getIndexStart(), end = p.getIndexEnd(); i < end; i++) {
       E element = elementStore.getElement(i);
       if(element != null) {
-        p.set(i, bloomFilter.computeIndexFilter(element));
+        p.set(i, computeIndexBits(element));
       }
     }
     
+    if(p instanceof MappedLongFilterStore) {
+      ((MappedLongFilterStore)p).commit(elementStore.getHWMark());
+    }
+    
     long totalTime = System.currentTimeMillis() - startTime;
     logger.info(getName() + " init filter store: " + totalTime + " ms");
     
     return p;
   }
   
+  /**
+   * Computes element signatures on the heap if the bloom filter is a {@link PositionalBloomFilter}.
+   * Signatures are not persisted along with filters and are recomputed at startup.
+   */
+  protected LongArrayPartition initSignatureStore() {
+    if(positionalBloomFilter == null) {
+      return null;
+    }
+    
+    long startTime = System.currentTimeMillis();
+    LongArrayPartition p = new StaticLongArrayPartition(elementStore.getIndexStart(), elementStore.capacity());
+    
+    for(int i = p.getIndexStart(), end = p.getIndexEnd(); i < end; i++) {
+      E element = elementStore.getElement(i);
+      if(element != null) {
+        p.set(i, computeIndexSignature(element));
+      }
+    }
+    
+    long totalTime = System.currentTimeMillis() - startTime;
+    logger.info(getName() + " init signature store: " + totalTime + " ms");
+    
+    return p;
+  }
+  
+  /**
+   * Creates an empty prefix summary, which is ready at once only if there are no connections yet.
+   * The existing connections are summarized later by {@link #buildPrefixSummary()}.
+   */
+  protected PrefixSummary initPrefixSummary() {
+    prefixSummaryReady = !connectionsStore.sourceIterator().hasNext();
+    return new PrefixSummary(maxKeyLength);
+  }
+  
+  /**
+   * Summarizes the existing connection sources, each counted by the number of its connections, and makes
+   * the prefix summary available for skipping queries. Indexing keeps adding prefixes meanwhile but does
+   * not remove any until the summary is ready, so the summary never misses a present prefix.
+   */
+  public void buildPrefixSummary() {
+    synchronized(prefixSummary) {
+      if(prefixSummaryReady) return;
+      
+      long startTime = System.currentTimeMillis();
+      Iterator<String> iter = connectionsStore.sourceIterator();
+      while(iter.hasNext()) {
+        String source = iter.next();
+        PostingCursor cursor = connectionsStore.openCursor(source);
+        if(cursor != null && cursor.size() > 0) {
+          prefixSummary.add(source, cursor.size());
+        }
+      }
+      prefixSummaryReady = true;
+      
+      long totalTime = System.currentTimeMillis() - startTime;
+      logger.info(getName() + " init prefix summary: " + totalTime + " ms");
+    }
+  }
+  
+  /**
+   * Counts the elements with non-empty filters.
+   */
+  protected QueryStats initQueryStats() {
+    int numElements = 0;
+    for(int i = filterStore.getIndexStart(), end = filterStore.getIndexEnd(); i < end; i++) {
+      if(filterStore.get(i) != 0) numElements++;
+    }
+    return new QueryStats(numElements);
+  }
+  
+  /**
+   * Creates the query planner. A full scan is never considered: it browses elements in ID order, and
+   * posting lists are read in score order (newest first for the in-memory part of an {@link LsmConnectionsStore}),
+   * so an early-stopping collector would return the lowest element IDs instead of the top scores.
+   * Subclasses may enable it only if their posting lists are not ordered by score and their collectors never stop early.
+   */
+  protected QueryPlanner initQueryPlanner() {
+    return new QueryPlanner(queryStats,
+                            filterStore.capacity(),
+                            false,
+                            filterStore.getIndexStart() >= 0,
+                            QueryPlanner.DEFAULT_CACHE_SIZE);
+  }
+  
+  /**
+   * Commits the memory-mapped filter store, if any, against the current element store high-water mark.
+   */
+  protected void commitFilterStore() {
+    if(filterStore instanceof MappedLongFilterStore) {
+      ((MappedLongFilterStore)filterStore).commit(elementStore.getHWMark());
+    }
+  }
+  
   public final int getMaxKeyLength() {
     return maxKeyLength;
   }
@@ -195,6 +513,191 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
     return maxElementScore;
   }
   
+  public final QueryStats getQueryStats() {
+    return queryStats;
+  }
+  
+  public final QueryPlanner getQueryPlanner() {
+    return queryPlanner;
+  }
+  
+  public final HotPrefixTable getHotPrefixTable() {
+    return hotPrefixTable;
+  }
+  
+  /**
+   * Enables serving single-term queries of short prefixes from precomputed top-K results.
+   * 
+   * <p>
+   * The table is installed first so that indexing maintains it from then on, and every hot prefix is
+   * then built from its posting list and the scores in <code>scoreStore</code> without holding
+   * <code>writeLock</code>, see {@link #rebuildHotPrefix(HotPrefixTable, String)}. The table is served
+   * once all the prefixes are built.
+   * </p>
+   * 
+   * @param maxPrefixLength - the maximum length of hot prefixes, no greater than the maximum key length
+   * @param topK            - the number of results kept per prefix
+   */
+  public void enableHotPrefixes(int maxPrefixLength, int topK) {
+    long startTime = System.currentTimeMillis();
+    HotPrefixTable table = new HotPrefixTable(Math.min(maxPrefixLength, maxKeyLength), topK);
+    table.setReady(false);
+    
+    writeLock.lock();
+    try {
+      hotPrefixTable = table;
+    } finally {
+      writeLock.unlock();
+    }
+    
+    Iterator<String> iter = connectionsStore.sourceIterator();
+    while(iter.hasNext()) {
+      String source = iter.next();
+      if(source != null && table.isHot(source)) {
+        rebuildHotPrefix(table, source);
+      }
+    }
+    table.setReady(true);
+    
+    long totalTime = System.currentTimeMillis() - startTime;
+    logger.info(getName() + " init hot prefixes: " + table.size() + " in " + totalTime + " ms");
+  }
+  
+  private static void hotPrefixes(Element element, int maxPrefixLength, Set<String> prefixes) {
+    String[] terms = element.getTerms();
+    if(terms != null) {
+      for(String term : terms) {
+        for(int i = 1, len = Math.min(term.length(), maxPrefixLength); i <= len; i++) {
+          prefixes.add(term.substring(0, i));
+        }
+      }
+    }
+  }
+  
+  /**
+   * Updates the hot prefixes of an element.
+   * 
+   * @return the prefixes left deficient, to be rebuilt after <code>writeLock</code> is released.
+   */
+  protected List<String> updateHotPrefixes(HotPrefixTable table, E oldElement, E newElement) {
+    int elemId = newElement.getElementId();
+    Set<String> oldPrefixes = new HashSet<String>();
+    Set<String> newPrefixes = new HashSet<String>();
+    if(oldElement != null) {
+      hotPrefixes(oldElement, table.getMaxPrefixLength(), oldPrefixes);
+    }
+    hotPrefixes(newElement, table.getMaxPrefixLength(), newPrefixes);
+    
+    for(String prefix : oldPrefixes) {
+      if(newPrefixes.contains(prefix)) {
+        table.update(prefix, elemId, newElement.getScore());
+      } else {
+        table.remove(prefix, elemId);
+      }
+    }
+    
+    for(String prefix : newPrefixes) {
+      if(!oldPrefixes.contains(prefix)) {
+        table.add(prefix, elemId, newElement.getScore());
+      }
+    }
+    
+    List<String> deficient = null;
+    for(String prefix : oldPrefixes) {
+      if(table.isDeficient(prefix)) {
+        if(deficient == null) deficient = new ArrayList<String>();
+        deficient.add(prefix);
+      }
+    }
+    
+    return deficient;
+  }
+  
+  /**
+   * Rebuilds the hot prefixes which are still deficient. Must be called without holding <code>writeLock</code>.
+   */
+  protected void rebuildHotPrefixes(HotPrefixTable table, Collection<String> prefixes) {
+    for(String prefix : prefixes) {
+      if(table.isDeficient(prefix)) {
+        rebuildHotPrefix(table, prefix);
+        logger.info(getName() + " rebuilt hot prefix " + prefix);
+      }
+    }
+  }
+  
+  /**
+   * Rebuilds a hot prefix from its posting list and the scores in <code>scoreStore</code>.
+   * 
+   * <p>
+   * The prefix is computed without holding <code>writeLock</code> and swapped in under <code>writeLock</code>
+   * only if it was not updated by indexing since its posting list was read. Otherwise it is computed again
+   * under <code>writeLock</code>. Indexing is therefore blocked only for the time of swapping one prefix.
+   * </p>
+   */
+  protected void rebuildHotPrefix(HotPrefixTable table, String prefix) {
+    boolean locked = false;
+    try {
+      while(true) {
+        long version = table.getVersion(prefix);
+        int[] connections = connectionsStore.getConnections(prefix);
+        
+        int length = 0;
+        int[] elemIds = new int[connections == null ? 0 : connections.length];
+        float[] scores = new float[elemIds.length];
+        for(int i = 0; i < elemIds.length; i++) {
+          float score = refreshScore(connections[i]);
+          if(score >= 0) {
+            elemIds[length] = connections[i];
+            scores[length++] = score;
+          }
+        }
+        
+        if(!locked) {
+          writeLock.lock();
+          locked = true;
+        }
+        if(table.rebuild(prefix, version, elemIds, scores, length)) {
+          return;
+        }
+      }
+    } finally {
+      if(locked) writeLock.unlock();
+    }
+  }
+  
+  /**
+   * Gets the prefix summary, which is built in the background upon the first call if the typeahead
+   * started on existing connections.
+   * 
+   * @return the prefix summary, or <code>null</code> until it covers all the connection sources.
+   */
+  @Override
+  public final PrefixSummary getPrefixSummary() {
+    if(prefixSummaryReady) {
+      return prefixSummary;
+    }
+    
+    if(prefixSummaryBuilding.compareAndSet(false, true)) {
+      Thread t = new DaemonThreadFactory().newThread(new Runnable() {
+        @Override
+        public void run() {
+          buildPrefixSummary();
+        }
+      });
+      t.start();
+    }
+    return null;
+  }
+  
+  @Override
+  public boolean isKnownEmpty(String[] terms) {
+    return negativeCache.isKnownEmpty(terms, modCount);
+  }
+  
+  public final NegativeResultCache getNegativeResultCache() {
+    return negativeCache;
+  }
+  
   public final ConnectionsStore<String> getConnectionsStore() {
     return connectionsStore;
   }
@@ -203,6 +706,18 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
   public Collector<E> search(int uid, String[] terms, Collector<E> collector, long timeoutMillis) {
     if(terms == null || terms.length == 0) return collector;
     
+    if(negativeCache.isKnownEmpty(terms, modCount)) {
+      return collector;
+    }
+    
+    return searchChecked(uid, terms, collector, timeoutMillis);
+  }
+  
+  @Override
+  public Collector<E> searchChecked(int uid, String[] terms, Collector<E> collector, long timeoutMillis) {
+    if(terms == null || terms.length == 0) return collector;
+    
+    long stamp = modCount;
     HitStats hitStats = new HitStats();
     hitStats.start();
     
@@ -211,39 +726,248 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
     
     hitStats.stop();
     log(logger, uid, terms, hitStats);
+    
+    // Remember a query without results unless it timed out
+    if(hitStats.getNumResultHits() == 0 && hitStats.getTotalTime() < timeoutMillis) {
+      negativeCache.addEmpty(terms, stamp);
+    }
+    
     return collector;
   }
   
-  protected void searchInternal(int uid, String[] terms, Collector<E> collector, Selector<E> selector, HitStats hitStats, long timeoutMillis) {
-    long filter = bloomFilter.computeQueryFilter(terms);
+  protected void searchInternal(int uid, String[] terms, Collector<E> collector, Selector<E> selector, HitStats hitStats, long timeoutMillis) {
+    long stamp = modCount;
+    long filter = computeQueryBits(terms);
+    long[] signatures = computeQuerySignatures(terms);
+    
+    int numBrowseHits = hitStats.numBrowseHits;
+    int numFilterHits = hitStats.numFilterHits;
+    
+    HotPrefixTable table = hotPrefixTable;
+    if(table != null && terms.length == 1 && table.isHot(terms[0]) && collector.capacity() <= table.getTopK()) {
+      int[] elemIds = table.get(terms[0]);
+      if(elemIds != null) {
+        applyFilter(filter, signatures, new IntArrayIterator(elemIds), NO_BITMAPS, collector, selector, hitStats, timeoutMillis);
+        queryStats.observe(QueryStrategy.TOP_K, hitStats.numBrowseHits - numBrowseHits, hitStats.numFilterHits - numFilterHits);
+        return;
+      }
+    }
+    
+    if(connectionsStore instanceof BitmapConnectionsStore) {
+      searchBitmaps(filter, signatures, terms, collector, selector, hitStats, timeoutMillis);
+      queryStats.observe(QueryStrategy.BITMAP, hitStats.numBrowseHits - numBrowseHits, hitStats.numFilterHits - numFilterHits);
+      return;
+    }
+    
+    int numLists = 0;
+    int minIndex = -1;
+    int[] lengths = new int[terms.length];
+    String[] prefixes = new String[terms.length];
+    PostingCursor[] cursors = new PostingCursor[terms.length];
+    
+    for(String term : terms) {
+      String prefix = term.substring(0, Math.min(term.length(), maxKeyLength));
+      PostingCursor cursor = connectionsStore.openCursor(prefix);
+      if(cursor != null) {
+        if(minIndex < 0 || lengths[minIndex] > cursor.size()) {
+          minIndex = numLists;
+        }
+        lengths[numLists] = cursor.size();
+        prefixes[numLists] = prefix;
+        cursors[numLists++] = cursor;
+      }
+    }
+    
+    QueryPlan plan = queryPlanner.plan(lengths, numLists);
+    if(logger.isDebugEnabled()) {
+      logger.debug(getName() + " plan " + Arrays.toString(terms) + ": " + plan.explain());
+    }
+    
+    switch(plan.getStrategy()) {
+    case SMALLEST_LIST:
+      applyFilter(filter, signatures, cursors[minIndex], NO_BITMAPS, collector, selector, hitStats, timeoutMillis);
+      break;
+      
+    case INTERSECTION:
+      IntBitmap[] bitmaps = new IntBitmap[numLists - 1];
+      for(int i = 0, j = 0; i < numLists; i++) {
+        if(i != minIndex) bitmaps[j++] = getIntersectionBitmap(prefixes[i], cursors[i], stamp);
+      }
+      applyFilter(filter, signatures, cursors[minIndex], bitmaps, collector, selector, hitStats, timeoutMillis);
+      break;
+      
+    case FULL_SCAN:
+      IntIterator iter = new IntRangeIterator(filterStore.getIndexStart(), filterStore.getIndexEnd());
+      applyFilter(filter, signatures, iter, NO_BITMAPS, collector, selector, hitStats, timeoutMillis);
+      break;
+      
+    default:
+      return;
+    }
+    
+    queryStats.observe(plan.getStrategy(), hitStats.numBrowseHits - numBrowseHits, hitStats.numFilterHits - numFilterHits);
+  }
+  
+  /**
+   * Gets the bitmap of a posting list for intersection. A bitmap is built once per prefix
+   * and reused by queries until the next modification of this typeahead.
+   * 
+   * @param prefix - the connection source
+   * @param cursor - the cursor over the connections of <code>prefix</code>, consumed only if the bitmap is built
+   * @param stamp  - the modification count read before opening <code>cursor</code>
+   */
+  protected IntBitmap getIntersectionBitmap(String prefix, PostingCursor cursor, long stamp) {
+    StampedBitmap entry = intersectionBitmaps.get(prefix);
+    if(entry != null && entry.stamp == stamp) {
+      return entry.bitmap;
+    }
+    
+    IntBitmap bitmap = toBitmap(cursor);
+    if(intersectionBitmaps.size() >= MAX_INTERSECTION_BITMAPS) {
+      intersectionBitmaps.clear();
+    }
+    intersectionBitmaps.put(prefix, new StampedBitmap(stamp, bitmap));
+    return bitmap;
+  }
+  
+  private static class StampedBitmap {
+    final long stamp;
+    final IntBitmap bitmap;
+    
+    StampedBitmap(long stamp, IntBitmap bitmap) {
+      this.stamp = stamp;
+      this.bitmap = bitmap;
+    }
+  }
+  
+  private static IntBitmap toBitmap(PostingCursor cursor) {
+    int num = 0;
+    int[] values = new int[cursor.size()];
+    while(num < values.length && cursor.hasNext()) {
+      values[num++] = cursor.next();
+    }
+    return IntBitmap.valueOf(num < values.length ? Arrays.copyOf(values, num) : values);
+  }
+  
+  /**
+   * Searches a {@link BitmapConnectionsStore}. The smallest list is browsed in its stored order and
+   * checked against the bitmaps of the dense prefixes. If every term prefix is dense, the connections
+   * of the sparsest dense prefix are browsed in their stored order, never in element ID order, so that
+   * early-stopping collectors keep the score ranking.
+   */
+  protected void searchBitmaps(long filter, long[] signatures, String[] terms, Collector<E> collector, Selector<E> selector, HitStats hitStats, long timeoutMillis) {
+    BitmapConnectionsStore<String> store = (BitmapConnectionsStore<String>)connectionsStore;
+    
+    int numBitmaps = 0;
+    int minBitmap = -1;
+    IntBitmap[] bitmaps = new IntBitmap[terms.length];
+    String[] bitmapPrefixes = new String[terms.length];
+    int[] minConnections = null;
+    
+    for(String term : terms) {
+      String prefix = term.substring(0, Math.min(term.length(), maxKeyLength));
+      IntBitmap bitmap = store.getBitmap(prefix);
+      if(bitmap != null) {
+        if(minBitmap < 0 || bitmaps[minBitmap].cardinality() > bitmap.cardinality()) {
+          minBitmap = numBitmaps;
+        }
+        bitmapPrefixes[numBitmaps] = prefix;
+        bitmaps[numBitmaps++] = bitmap;
+      } else {
+        int[] connections = store.getConnections(prefix);
+        if(connections != null) {
+          if(minConnections == null || minConnections.length > connections.length) {
+            minConnections = connections;
+          }
+        }
+      }
+    }
+    
+    if(minConnections != null) {
+      bitmaps = Arrays.copyOf(bitmaps, numBitmaps);
+      applyFilter(filter, signatures, new IntArrayIterator(minConnections), bitmaps, collector, selector, hitStats, timeoutMillis);
+    } else if(numBitmaps > 0) {
+      PostingCursor cursor = store.openCursor(bitmapPrefixes[minBitmap]);
+      if(cursor != null) {
+        IntBitmap[] others = new IntBitmap[numBitmaps - 1];
+        for(int i = 0, j = 0; i < numBitmaps; i++) {
+          if(i != minBitmap) others[j++] = bitmaps[i];
+        }
+        applyFilter(filter, signatures, cursor, others, collector, selector, hitStats, timeoutMillis);
+      }
+    }
+  }
+  
+  /**
+   * Applies the filter to element IDs which are contained in all the specified bitmaps.
+   */
+  protected long applyFilter(long filter, IntIterator elemIdIter, IntBitmap[] bitmaps, Collector<E> collector, Selector<E> selector, HitStats hitStats, long timeoutMillis) {
+    return applyFilter(filter, null, elemIdIter, bitmaps, collector, selector, hitStats, timeoutMillis);
+  }
+  
+  /**
+   * Applies the filter and the optional query signatures to element IDs which are contained in all the specified bitmaps.
+   */
+  protected long applyFilter(long filter, long[] signatures, IntIterator elemIdIter, IntBitmap[] bitmaps, Collector<E> collector, Selector<E> selector, HitStats hitStats, long timeoutMillis) {
+    long totalTime = 0;
+    long startTime = System.currentTimeMillis();
     
-    if(terms.length == 1) {
-      String term = terms[0];
-      String prefix = term.substring(0, Math.min(term.length(), maxKeyLength));
-      int[] connections = connectionsStore.getConnections(prefix);
-      applyFilter(filter, connections, collector, selector, hitStats, timeoutMillis);
-    } else {
-      int minConnectionCount = Integer.MAX_VALUE;
-      int[] minConnections = null;
+    int numBrowseHits = 0;
+    int numFilterHits = 0;
+    int numResultHits = 0;
+    
+    SelectorContext ctx = new SelectorContext();
+    
+    while(elemIdIter.hasNext()) {
+      numBrowseHits++;
       
-      for(String term : terms) {
-        String prefix = term.substring(0, Math.min(term.length(), maxKeyLength));
-        int[] connections = connectionsStore.getConnections(prefix);
-        if(connections != null) {
-          if(minConnectionCount > connections.length) {
-            minConnections = connections;
-            minConnectionCount = connections.length;
+      int elemId = elemIdIter.next();
+      if((filterStore.get(elemId) & filter) == filter && acceptSignature(elemId, signatures) && containsAll(bitmaps, elemId)) {
+        numFilterHits++;
+        
+        E elem = getElementStore().getElement(elemId);
+        if(elem != null) {
+          if(selector.select(elem, ctx)) {
+            numResultHits++;
+            collector.add(elem, ctx.getScore(), getName());
+            if(collector.canStop()) {
+              break;
+            }
           }
+          
+          ctx.clear();
         }
       }
       
-      if(minConnections != null) {
-        applyFilter(filter, minConnections, collector, selector, hitStats, timeoutMillis);
+      if(numBrowseHits % 100 == 0) {
+        totalTime = System.currentTimeMillis() - startTime;
+        if(totalTime > timeoutMillis) break;
       }
     }
+    
+    hitStats.numBrowseHits += numBrowseHits;
+    hitStats.numFilterHits += numFilterHits;
+    hitStats.numResultHits += numResultHits;
+    
+    return System.currentTimeMillis() - startTime;
+  }
+  
+  private boolean acceptSignature(int elemId, long[] signatures) {
+    return signatures == null || acceptSignature(signatureStore.get(elemId), signatures);
+  }
+  
+  private static boolean containsAll(IntBitmap[] bitmaps, int elemId) {
+    for(IntBitmap bitmap : bitmaps) {
+      if(!bitmap.contains(elemId)) return false;
+    }
+    return true;
   }
   
   protected long applyFilter(long filter, int[] elemIds, Collector<E> collector, Selector<E> selector, HitStats hitStats, long timeoutMillis) {
+    return applyFilter(filter, null, elemIds, collector, selector, hitStats, timeoutMillis);
+  }
+  
+  protected long applyFilter(long filter, long[] signatures, int[] elemIds, Collector<E> collector, Selector<E> selector, HitStats hitStats, long timeoutMillis) {
     if(elemIds == null || elemIds.length == 0) return 0;
     
     long totalTime = 0;
@@ -257,7 +981,7 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
     
     for(int cnt = elemIds.length; i < cnt; i++) {
       int elemId = elemIds[i];
-      if((filterStore.get(elemId) & filter) == filter) {
+      if((filterStore.get(elemId) & filter) == filter && acceptSignature(elemId, signatures)) {
         numFilterHits++;
         
         E elem = getElementStore().getElement(elemId);
@@ -307,6 +1031,7 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
           String source = term.substring(0, i);
           if(prefixes.add(source)) {
             connectionsStore.addConnection(source, elemId, scn);
+            prefixSummary.add(source);
           }
         }
       }
@@ -339,11 +1064,15 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
       newPrefixes.removeAll(commonPrefixes);
       for(String source : newPrefixes) {
         connectionsStore.addConnection(source, elemId, scn);
+        prefixSummary.add(source);
       }
       
       oldPrefixes.removeAll(commonPrefixes);
       for(String source : oldPrefixes) {
         connectionsStore.removeConnection(source, elemId, scn);
+        if(prefixSummaryReady) {
+          prefixSummary.remove(source);
+        }
       }
     } else {
       logger.info("ignored element: " + newElement);
@@ -353,6 +1082,8 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
   @Override
   public boolean index(E element) throws Exception {
     ensureOpen();
+    HotPrefixTable hotTable = null;
+    List<String> deficientPrefixes = null;
     writeLock.lock();
     
     try {
@@ -361,9 +1092,13 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
         return false;
       }
       
-      // Set element score
-      if(scoreStore.hasIndex(elemId) && element.getScore() == 0) {
-        element.setScore(scoreStore.get(elemId));
+      // Set element score and keep it in scoreStore for sorting connections
+      if(scoreStore.hasIndex(elemId)) {
+        if(element.getScore() == 0) {
+          element.setScore(scoreStore.get(elemId));
+        } else {
+          setLiveScore(scoreStore, elemId, Math.max(element.getScore(), Score.MIN_SCORE_FLOAT));
+        }
       }
       
       // Check if prefixes changed
@@ -375,18 +1110,39 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
       
       // Update elementStore, filterStore
       long scn = element.getTimestamp();
-      long elemFilter = bloomFilter.computeIndexFilter(element);
+      long elemFilter = computeIndexBits(element);
+      long oldFilter = filterStore.get(elemId);
+      if(oldFilter == 0 && elemFilter != 0) {
+        queryStats.elementAdded();
+      } else if(oldFilter != 0 && elemFilter == 0) {
+        queryStats.elementRemoved();
+      }
       filterStore.set(elemId, elemFilter);
+      if(signatureStore != null) {
+        signatureStore.set(elemId, computeIndexSignature(element));
+      }
       elementStore.setElement(elemId, element, scn);
       
       // Update connectionsStore upon prefix changes
       if(prefixChanged) {
         updateConnectionStore(oldElement, element);
       }
+      
+      // Update hot prefixes upon prefix or score changes
+      hotTable = hotPrefixTable;
+      if(hotTable != null) {
+        deficientPrefixes = updateHotPrefixes(hotTable, oldElement, element);
+      }
     } finally {
+      modCount++;
       writeLock.unlock();
     }
     
+    // Rebuild deficient hot prefixes
+    if(deficientPrefixes != null) {
+      rebuildHotPrefixes(hotTable, deficientPrefixes);
+    }
+    
     // Logging
     if(logger.isInfoEnabled()) {
       logger.info(getName() +  " indexed element " + element.getElementId());
@@ -408,6 +1164,7 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
     try {
       elementStore.sync();
       connectionsStore.sync();
+      commitFilterStore();
     } finally {
       writeLock.unlock();
     }
@@ -421,6 +1178,7 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
     try {
       elementStore.persist();
       connectionsStore.persist();
+      commitFilterStore();
     } finally {
       writeLock.unlock();
     }
@@ -432,75 +1190,448 @@ public class GenericTypeahead<E extends Element> extends AbstractTypeahead<E> im
    * @throws IOException
    */
   public void refresh() throws IOException {
-    int counter = 0;
+    refresh(Runtime.getRuntime().availableProcessors());
+  }
+  
+  /**
+   * Refresh indexes using the descending order of element scores in parallel.
+   * 
+   * <p>
+   * Connection sources are split into batches sorted by worker threads. Every list is sorted as primitive
+   * (score, id) pairs looked up from <code>scoreStore</code> without holding <code>writeLock</code>, and
+   * the sorted copy replaces the list under <code>writeLock</code> only if the list is unchanged since it
+   * was read. A list changed by concurrent indexing is sorted again under <code>writeLock</code>.
+   * Indexing is therefore blocked only for the time of swapping one list at a time.
+   * </p>
+   * 
+   * @param numThreads - the number of worker threads
+   * @throws IOException
+   */
+  public void refresh(int numThreads) throws IOException {
     long startTime = System.currentTimeMillis();
     
     // Sync first
     sync();
     
-    // Re-score all elements for every connection source
-    List<E> list = new ArrayList<E>(10000);
+    writeLock.lock();
+    try {
+      dirtySources.clear();
+    } finally {
+      writeLock.unlock();
+    }
     
-    // Create an element comparator in the descending order of scores
-    Comparator<E> scoreCmpDsc = new Comparator<E>() {
-      @Override
-      public int compare(E e0, E e1) {
-        float score0 = e0.getScore();
-        float score1 = e1.getScore();
-        return score0 < score1 ? 1 : (score0 == score1 ? (e0.getElementId() - e1.getElementId()) : -1);
-      }
-    };
+    ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numThreads), new DaemonThreadFactory());
+    List<Future<Integer>> futureList = new ArrayList<Future<Integer>>();
     
+    int counter = 0;
+    List<String> batch = new ArrayList<String>(REFRESH_BATCH_SIZE);
     Iterator<String> iter = connectionsStore.sourceIterator();
     while(iter.hasNext()) {
-      counter++;
       String source = iter.next();
       if(source != null) {
-        writeLock.lock();
+        counter++;
+        batch.add(source);
+        if(batch.size() == REFRESH_BATCH_SIZE) {
+          futureList.add(executor.submit(new RefreshTask(batch)));
+          batch = new ArrayList<String>(REFRESH_BATCH_SIZE);
+        }
+      }
+    }
+    if(batch.size() > 0) {
+      futureList.add(executor.submit(new RefreshTask(batch)));
+    }
+    
+    int numSwapped = 0;
+    try {
+      for(Future<Integer> f : futureList) {
+        numSwapped += f.get();
+      }
+    } catch(Exception e) {
+      logger.error(getName() + " failed to refresh", e);
+    } finally {
+      executor.shutdown();
+    }
+    
+    long totalTime = System.currentTimeMillis() - startTime;
+    logger.info(getName() + " refreshed " + counter + " (" + numSwapped + " reordered) in " + (totalTime/1000) + " seconds");
+    
+    // Sync all updates
+    connectionsStore.sync();
+  }
+  
+  /**
+   * Re-sorts only the connection sources containing elements whose scores changed
+   * since the sources were last sorted.
+   * 
+   * @return the number of sources re-sorted.
+   * @throws IOException
+   */
+  public int refreshDirty() throws IOException {
+    List<String> sources;
+    writeLock.lock();
+    try {
+      sources = new ArrayList<String>(dirtySources);
+      dirtySources.clear();
+    } finally {
+      writeLock.unlock();
+    }
+    
+    if(sources.size() > 0) {
+      long startTime = System.currentTimeMillis();
+      for(String source : sources) {
+        refreshSource(source);
+      }
+      connectionsStore.sync();
+      
+      long totalTime = System.currentTimeMillis() - startTime;
+      logger.info(getName() + " refreshed " + sources.size() + " dirty sources in " + totalTime + " ms");
+    }
+    
+    return sources.size();
+  }
+  
+  /**
+   * @return the number of connection sources waiting for {@link #refreshDirty()}.
+   */
+  public int getNumDirtySources() {
+    writeLock.lock();
+    try {
+      return dirtySources.size();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+  
+  /**
+   * Re-sorts the connections of a source by element scores.
+   * 
+   * @return <code>true</code> if the connections were reordered.
+   */
+  protected boolean refreshSource(String source) {
+    try {
+      int[] connections = connectionsStore.getConnections(source);
+      if(connections == null) {
+        return false;
+      }
+      int[] sorted = sortByScore(connections);
+      
+      writeLock.lock();
+      try {
+        int[] current = connectionsStore.getConnections(source);
+        if(current == null) {
+          return false;
+        }
+        if(!Arrays.equals(current, connections)) {
+          sorted = sortByScore(current);
+        }
+        if(Arrays.equals(current, sorted)) {
+          return false;
+        }
         
+        // Update source connections
+        connectionsStore.putConnections(source, sorted, getHWMark());
+        return true;
+      } finally {
+        writeLock.unlock();
+      }
+    } catch (Exception e) {
+      logger.error(getName() + " failed to refresh source: " + source, e);
+      return false;
+    }
+  }
+  
+  /**
+   * Sorts element IDs in the descending order of scores and the ascending order of IDs upon equal scores.
+   * Elements which no longer exist are dropped.
+   */
+  private int[] sortByScore(int[] elemIds) {
+    int num = 0;
+    long[] keys = new long[elemIds.length];
+    
+    for(int elemId : elemIds) {
+      float score = refreshScore(elemId);
+      if(score >= 0) {
+        int bits = Float.floatToIntBits(score);
+        keys[num++] = ((long)(Integer.MAX_VALUE - bits) << 32) | ((elemId ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+      }
+    }
+    Arrays.sort(keys, 0, num);
+    
+    int[] sorted = new int[num];
+    for(int i = 0; i < num; i++) {
+      sorted[i] = ((int)keys[i]) ^ Integer.MIN_VALUE;
+    }
+    return sorted;
+  }
+  
+  /**
+   * Gets the score of an element for sorting connections, or <code>-1</code> if the element does not exist.
+   * 
+   * <p>
+   * The score of an element without any score in <code>scoreStore</code> is read from the element. It is kept
+   * in <code>scoreStore</code> only if <code>writeLock</code> is free and no score was written meanwhile,
+   * so that a live score from {@link #updateScores(int[], float[], int)} or a score swapped in by {@link #reloadScores(ScoreScanner)}
+   * is never overwritten by this fallback.
+   * </p>
+   */
+  private float refreshScore(int elemId) {
+    FloatArrayPartition p = scoreStore;
+    if(!p.hasIndex(elemId) || filterStore.get(elemId) == 0) {
+      return -1;
+    }
+    
+    float score = p.get(elemId);
+    if(score == 0) {
+      E elem = elementStore.getElement(elemId);
+      if(elem == null) {
+        return -1;
+      }
+      score = Math.max(elem.getScore(), Score.MIN_SCORE_FLOAT);
+      
+      if(writeLock.tryLock()) {
         try {
-          int[] connections = connectionsStore.getConnections(source);
-          if(connections != null) {
-            list.clear();
-            
-            for(int i = 0, cnt = connections.length; i < cnt; i++) {
-              if(elementStore.hasIndex(connections[i])) {
-                E elem = elementStore.getElement(connections[i]);
-                if(elem != null) {
-                  list.add(elem);
-                }
-              }
-            }
-            
-            Collections.sort(list, scoreCmpDsc);
-            if(list.size() < connections.length) {
-              connections = new int[list.size()];
-            }
-            
-            for(int i = 0, cnt = connections.length; i < cnt; i++) {
-              connections[i] = list.get(i).getElementId();
-            }
-            
-            // Update source connections
-            connectionsStore.putConnections(source, connections, getHWMark());
+          if(p == scoreStore && p.get(elemId) == 0) {
+            p.set(elemId, score);
           }
-        } catch (Exception e) {
-          logger.error(getName() + " failed to refresh source: " + source, e);
         } finally {
           writeLock.unlock();
         }
       }
+    }
+    
+    return Math.max(score, 0);
+  }
+  
+  /**
+   * RefreshTask - Refreshes a batch of connection sources.
+   */
+  private class RefreshTask implements Callable<Integer> {
+    private final List<String> sources;
+    
+    RefreshTask(List<String> sources) {
+      this.sources = sources;
+    }
+    
+    @Override
+    public Integer call() {
+      int numSwapped = 0;
+      for(String source : sources) {
+        if(refreshSource(source)) numSwapped++;
+      }
+      return numSwapped;
+    }
+  }
+  
+  /**
+   * Updates the scores of a batch of elements in the score store and the element store. The hot prefixes
+   * of the elements are updated right away while their posting lists are marked for {@link #refreshDirty()}.
+   * 
+   * @param elemIds - the element IDs
+   * @param scores  - the new element scores
+   * @param length  - the number of elements in the batch
+   * @return the number of elements whose scores changed.
+   * @throws Exception
+   */
+  public int updateScores(int[] elemIds, float[] scores, int length) throws Exception {
+    ensureOpen();
+    
+    int counter = 0;
+    HotPrefixTable table = null;
+    Set<String> deficientPrefixes = new HashSet<String>();
+    writeLock.lock();
+    
+    try {
+      table = hotPrefixTable;
+      FloatArrayPartition p = scoreStore;
+      for(int i = 0; i < length; i++) {
+        int elemId = elemIds[i];
+        if(p.hasIndex(elemId)) {
+          float score = Math.max(scores[i], Score.MIN_SCORE_FLOAT);
+          setLiveScore(p, elemId, score);
+          if(updateElementScore(elemId, score, table, deficientPrefixes)) {
+            counter++;
+          }
+        }
+      }
+    } finally {
+      writeLock.unlock();
+    }
+    
+    if(table != null) {
+      rebuildHotPrefixes(table, deficientPrefixes);
+    }
+    
+    return counter;
+  }
+  
+  /**
+   * Reloads all the element scores. The scores are loaded into a spare score store without blocking
+   * searches or indexing, which is swapped with the current one at once. Only the elements whose scores
+   * changed are updated afterwards as done by {@link #updateScores(int[], float[], int)}.
+   * 
+   * <p>
+   * Elements absent from the scanned scores keep their current scores. Scores written by indexing or
+   * {@link #updateScores(int[], float[], int)} while the scores are loaded are newer than the scanned
+   * ones, and are replayed into the spare score store under <code>writeLock</code> before the swap.
+   * </p>
+   * 
+   * @param scanner - the element score scanner
+   * @return the number of elements whose scores changed.
+   * @throws Exception
+   */
+  public synchronized int reloadScores(ScoreScanner scanner) throws Exception {
+    ensureOpen();
+    long startTime = System.currentTimeMillis();
+    
+    FloatArrayPartition p = spareScoreStore;
+    if(p == null) {
+      p = new StaticFloatArrayPartition(elementStore.getIndexStart(), elementStore.capacity());
+    } else {
+      p.clear();
+    }
+    
+    // Track live score writes from now on
+    writeLock.lock();
+    try {
+      liveScoreWrites = new BitSet(p.capacity());
+    } finally {
+      writeLock.unlock();
+    }
+    
+    // Load scanned scores and keep the current scores of absent elements
+    try {
+      BitSet loaded = new BitSet(p.capacity());
+      scanner.scan(new ReloadScoreHandler(p, loaded));
+      
+      FloatArrayPartition current = scoreStore;
+      for(int i = p.getIndexStart(), end = p.getIndexEnd(); i < end; i++) {
+        if(!loaded.get(i - p.getIndexStart())) {
+          p.set(i, current.get(i));
+        } else if(p.get(i) < Score.MIN_SCORE_FLOAT) {
+          p.set(i, Score.MIN_SCORE_FLOAT);
+        }
+      }
+    } catch(Exception e) {
+      writeLock.lock();
+      try {
+        liveScoreWrites = null;
+      } finally {
+        writeLock.unlock();
+      }
+      throw e;
+    }
+    
+    int counter = 0;
+    HotPrefixTable table = null;
+    Set<String> deficientPrefixes = new HashSet<String>();
+    writeLock.lock();
+    
+    try {
+      table = hotPrefixTable;
+      
+      // Replay live score writes
+      BitSet writes = liveScoreWrites;
+      liveScoreWrites = null;
+      for(int i = writes.nextSetBit(0); i >= 0; i = writes.nextSetBit(i + 1)) {
+        int elemId = p.getIndexStart() + i;
+        p.set(elemId, scoreStore.get(elemId));
+      }
       
-      if(counter%1000 == 0) {
-        logger.info(getName() + " refreshed " + counter);
+      // Swap score stores
+      spareScoreStore = scoreStore;
+      scoreStore = p;
+      if(connectionsStore instanceof LsmConnectionsStore) {
+        ((LsmConnectionsStore)connectionsStore).setScoreStore(p);
       }
+      
+      // Update changed elements
+      for(int i = p.getIndexStart(), end = p.getIndexEnd(); i < end; i++) {
+        float score = p.get(i);
+        if(score != spareScoreStore.get(i) && updateElementScore(i, score, table, deficientPrefixes)) {
+          counter++;
+        }
+      }
+    } finally {
+      writeLock.unlock();
+    }
+    
+    if(table != null) {
+      rebuildHotPrefixes(table, deficientPrefixes);
     }
     
     long totalTime = System.currentTimeMillis() - startTime;
-    logger.info(getName() + " refreshed " + counter + " in " + (totalTime/1000) + " seconds");
+    logger.info(getName() + " reloaded scores of " + counter + " elements in " + totalTime + " ms");
     
-    // Sync all updates
-    connectionsStore.sync();
+    return counter;
+  }
+  
+  /**
+   * Updates the score of an element in the element store and its hot prefixes, and marks its connection sources
+   * dirty. Must be called under <code>writeLock</code>.
+   * 
+   * @param table             - the hot prefix table, or <code>null</code>
+   * @param deficientPrefixes - the hot prefixes left deficient, to be rebuilt after <code>writeLock</code> is released
+   * @return <code>true</code> if the element score changed.
+   */
+  private boolean updateElementScore(int elemId, float score, HotPrefixTable table, Set<String> deficientPrefixes) throws Exception {
+    E element = elementStore.hasIndex(elemId) ? elementStore.getElement(elemId) : null;
+    if(element == null || element.getScore() == score) {
+      return false;
+    }
+    
+    element.setScore(score);
+    elementStore.setElement(elemId, element, element.getTimestamp());
+    
+    if(score > maxElementScore) {
+      maxElementScore = score;
+    }
+    
+    if(table != null) {
+      List<String> deficient = updateHotPrefixes(table, element, element);
+      if(deficient != null) {
+        deficientPrefixes.addAll(deficient);
+      }
+    }
+    
+    for(String term : element.getTerms()) {
+      for(int i = 1, len = Math.min(term.length(), maxKeyLength); i <= len; i++) {
+        dirtySources.add(term.substring(0, i));
+      }
+    }
+    
+    return true;
+  }
+  
+  /**
+   * Sets the score of an element in <code>scoreStore</code> and records the write for a concurrent
+   * {@link #reloadScores(ScoreScanner)}. Must be called under <code>writeLock</code>.
+   */
+  private void setLiveScore(FloatArrayPartition p, int elemId, float score) {
+    p.set(elemId, score);
+    if(liveScoreWrites != null) {
+      liveScoreWrites.set(elemId - p.getIndexStart());
+    }
+  }
+  
+  /**
+   * ReloadScoreHandler - Loads element scores and records which elements were scanned.
+   */
+  private static class ReloadScoreHandler extends ElementScoreHandler {
+    private final BitSet loaded;
+    
+    ReloadScoreHandler(FloatArrayPartition partition, BitSet loaded) {
+      super(partition);
+      this.loaded = loaded;
+    }
+    
+    @Override
+    public double handle(int elementId, double elementScore) {
+      FloatArrayPartition p = getScorePartition();
+      if(p.hasIndex(elementId)) {
+        loaded.set(elementId - p.getIndexStart());
+      }
+      return super.handle(elementId, elementScore);
+    }
   }
   
   @Override
@@ -20,8 +20,11 @@ import java.io.File;
 
 import cleo.search.Element;
 import cleo.search.ElementSerializer;
+import cleo.search.filter.BloomFilters;
 import cleo.search.selector.PrefixSelectorFactory;
 import cleo.search.selector.SelectorFactory;
+import cleo.search.store.PostingCodec;
+import cleo.search.store.PostingCodecs;
 
 import krati.core.segment.MemorySegmentFactory;
 import krati.core.segment.SegmentFactory;
@@ -31,6 +34,12 @@ import krati.core.segment.SegmentFactory;
  * 
  * @author jwu
  * @since 02/09, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Added bloom filter type <br/>
+ * 10/18, 2026 - Added hot prefix length and top-K <br/>
+ * 10/18, 2026 - Added element store cache size <br/>
+ * 10/18, 2026 - Added posting codec of connections store <br/>
  */
 public class GenericTypeaheadConfig<E extends Element> {
   private String name;
@@ -53,15 +62,33 @@ public class GenericTypeaheadConfig<E extends Element> {
   // whether cache elementStore in memory
   private boolean elementStoreCached = true;
   
+  // max MB of hot elements cached in front of elementStore, 0 to disable
+  private int elementStoreCacheMB = 0;
+  
   // whether cache connectionsStore in memory
   private boolean connectionsStoreCached = false;
   
+  // posting codec for writing connections, see cleo.search.store.PostingCodecs
+  private PostingCodec connectionsStoreCodec = PostingCodecs.RAW;
+  
   // BloomFilter prefixLength
   private int filterPrefixLength = 2;
   
+  // BloomFilter type, see cleo.search.filter.BloomFilters
+  private String filterType = BloomFilters.TYPE_FNV64;
+  
+  // memory-mapped filter store file, null to keep filters on the heap
+  private File filterStoreFile;
+  
   // max length of String key 
   private int maxKeyLength = 7;
   
+  // max length of hot prefixes served from precomputed top-K results, 0 to disable
+  private int hotPrefixLength = 0;
+  
+  // number of precomputed results per hot prefix
+  private int hotPrefixTopK = 100;
+  
   // elementSerializer
   private ElementSerializer<E> elementSerializer;
   
@@ -134,6 +161,14 @@ public class GenericTypeaheadConfig<E extends Element> {
     return elementStoreCached;
   }
   
+  public void setElementStoreCacheMB(int elementStoreCacheMB) {
+    this.elementStoreCacheMB = elementStoreCacheMB;
+  }
+  
+  public int getElementStoreCacheMB() {
+    return elementStoreCacheMB;
+  }
+  
   public void setConnectionsStoreDir(File connectionsStoreDir) {
     this.connectionsStoreDir = connectionsStoreDir;
   }
@@ -198,6 +233,22 @@ public class GenericTypeaheadConfig<E extends Element> {
     return maxKeyLength;
   }
   
+  public void setHotPrefixLength(int hotPrefixLength) {
+    this.hotPrefixLength = hotPrefixLength;
+  }
+  
+  public int getHotPrefixLength() {
+    return hotPrefixLength;
+  }
+  
+  public void setHotPrefixTopK(int hotPrefixTopK) {
+    this.hotPrefixTopK = hotPrefixTopK;
+  }
+  
+  public int getHotPrefixTopK() {
+    return hotPrefixTopK;
+  }
+  
   public void setElementSerializer(ElementSerializer<E> elementSerializer) {
     this.elementSerializer = elementSerializer;
   }
@@ -222,6 +273,22 @@ public class GenericTypeaheadConfig<E extends Element> {
     return elementScoreFile;
   }
   
+  public String getFilterType() {
+    return filterType;
+  }
+  
+  public void setFilterType(String filterType) {
+    this.filterType = filterType;
+  }
+  
+  public void setFilterStoreFile(File filterStoreFile) {
+    this.filterStoreFile = filterStoreFile;
+  }
+  
+  public File getFilterStoreFile() {
+    return filterStoreFile;
+  }
+  
   public void setSearchTimeoutMillis(long searchTimeoutMillis) {
     this.searchTimeoutMillis = searchTimeoutMillis;
   }
@@ -241,4 +308,12 @@ public class GenericTypeaheadConfig<E extends Element> {
   public boolean isConnectionsStoreCached() {
     return connectionsStoreCached;
   }
+  
+  public void setConnectionsStoreCodec(PostingCodec connectionsStoreCodec) {
+    this.connectionsStoreCodec = connectionsStoreCodec;
+  }
+  
+  public PostingCodec getConnectionsStoreCodec() {
+    return connectionsStoreCodec;
+  }
 }
@@ -38,6 +38,9 @@ import cleo.search.store.ConnectionsStore;
  * 
  * @author jwu
  * @since 03/02, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Exposed the maximum key length of the rolled typeahead <br/>
  */
 public class GenericTypeaheadIndexRoller<E extends Element> implements IndexRoller<E> {
   private final static Logger logger = Logger.getLogger(GenericTypeahead.class);
@@ -47,6 +50,13 @@ public class GenericTypeaheadIndexRoller<E extends Element> implements IndexRoll
     this.ta = ta;
   }
   
+  /**
+   * @return the maximum key length of the rolled typeahead.
+   */
+  public int getMaxKeyLength() {
+    return ta.getMaxKeyLength();
+  }
+  
   @Override
   public synchronized boolean roll(Collection<E> elements) {
     if(elements == null || elements.size() == 0) {
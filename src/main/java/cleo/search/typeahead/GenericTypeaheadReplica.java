@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.typeahead;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+import org.apache.log4j.Logger;
+
+import cleo.search.Element;
+import cleo.search.ElementSerializer;
+import cleo.search.filter.BloomFilter;
+import cleo.search.selector.SelectorFactory;
+import cleo.search.store.ElementChangeLogReader;
+
+/**
+ * GenericTypeaheadReplica - A read replica of a {@link GenericTypeahead} published by a {@link GenericTypeaheadReplicator}.
+ * 
+ * <p>
+ * A replica copies the latest snapshot of the replication directory to a local directory, loads it
+ * and then tails the change log incrementally through {@link #catchUp()}.
+ * 
+ * @since 10/18, 2026
+ */
+public class GenericTypeaheadReplica<E extends Element> implements Closeable {
+  private final static Logger logger = Logger.getLogger(GenericTypeaheadReplica.class);
+  
+  private final GenericTypeahead<E> typeahead;
+  private final ElementChangeLogReader<E> reader;
+  
+  protected GenericTypeaheadReplica(GenericTypeahead<E> typeahead, ElementChangeLogReader<E> reader) {
+    this.typeahead = typeahead;
+    this.reader = reader;
+  }
+  
+  /**
+   * Bootstraps a replica from the latest snapshot of a replication directory.
+   * 
+   * @param replicationDir    - the replication directory of the publisher
+   * @param localDir          - the local directory to copy the snapshot to
+   * @param name              - the typeahead name
+   * @param elementSerializer - the element serializer
+   * @param selectorFactory   - the selector factory
+   * @param bloomFilter       - the Bloom filter
+   * @return the replica, which is not caught up yet.
+   * @throws IOException if no snapshot is found or the snapshot cannot be loaded.
+   */
+  public static <E extends Element> GenericTypeaheadReplica<E> bootstrap(File replicationDir,
+                                                                         File localDir,
+                                                                         String name,
+                                                                         ElementSerializer<E> elementSerializer,
+                                                                         SelectorFactory<E> selectorFactory,
+                                                                         BloomFilter<Long> bloomFilter) throws IOException {
+    long[] ids = GenericTypeaheadReplicator.listSnapshots(replicationDir);
+    if(ids.length == 0) {
+      throw new IOException("Snapshot not found: " + replicationDir.getAbsolutePath());
+    }
+    
+    long startTime = System.currentTimeMillis();
+    long id = ids[ids.length - 1];
+    
+    File srcDir = GenericTypeaheadReplicator.getSnapshotDir(replicationDir, id);
+    File dstDir = new File(localDir, srcDir.getName());
+    if(!dstDir.exists()) {
+      copy(srcDir, dstDir);
+    }
+    
+    GenericTypeahead<E> typeahead = GenericTypeaheadSnapshot.load(dstDir, name, elementSerializer, selectorFactory, bloomFilter);
+    ElementChangeLogReader<E> reader = new ElementChangeLogReader<E>(replicationDir, elementSerializer, id);
+    
+    long totalTime = System.currentTimeMillis() - startTime;
+    logger.info(name + " bootstrapped from snapshot " + srcDir.getAbsolutePath() + ": " + totalTime + " ms");
+    
+    return new GenericTypeaheadReplica<E>(typeahead, reader);
+  }
+  
+  /**
+   * Copies the files of a snapshot to a temporary directory and renames it into place.
+   */
+  static void copy(File srcDir, File dstDir) throws IOException {
+    File tmpDir = new File(dstDir.getParentFile(), dstDir.getName() + ".tmp");
+    if(!tmpDir.exists() && !tmpDir.mkdirs()) {
+      throw new IOException("Failed to create directory: " + tmpDir.getAbsolutePath());
+    }
+    
+    File[] files = srcDir.listFiles();
+    if(files == null) {
+      throw new IOException("Failed to list directory: " + srcDir.getAbsolutePath());
+    }
+    
+    for(File file : files) {
+      FileChannel src = new FileInputStream(file).getChannel();
+      try {
+        FileChannel dst = new FileOutputStream(new File(tmpDir, file.getName())).getChannel();
+        try {
+          long pos = 0, len = src.size();
+          while(pos < len) {
+            pos += src.transferTo(pos, len - pos, dst);
+          }
+        } finally {
+          dst.close();
+        }
+      } finally {
+        src.close();
+      }
+    }
+    
+    if(!tmpDir.renameTo(dstDir)) {
+      throw new IOException("Failed to rename " + tmpDir.getAbsolutePath() + " to " + dstDir.getAbsolutePath());
+    }
+  }
+  
+  public final GenericTypeahead<E> getTypeahead() {
+    return typeahead;
+  }
+  
+  /**
+   * @return the SCN of the last change applied from the change log.
+   */
+  public long getSCN() {
+    return reader.getSCN();
+  }
+  
+  /**
+   * Applies the changes published since the last call.
+   * 
+   * @return the number of changes applied.
+   * @throws Exception if the change log has been pruned past this replica or a change failed to index.
+   */
+  public synchronized int catchUp() throws Exception {
+    return catchUp(Integer.MAX_VALUE);
+  }
+  
+  /**
+   * Applies at most a given number of changes published since the last call.
+   * 
+   * @param maxChanges - the maximum number of changes to apply
+   * @return the number of changes applied.
+   * @throws Exception if the change log has been pruned past this replica or a change failed to index.
+   */
+  public synchronized int catchUp(int maxChanges) throws Exception {
+    int cnt = 0;
+    E element;
+    
+    while(cnt < maxChanges && (element = reader.next()) != null) {
+      typeahead.index(element);
+      cnt++;
+    }
+    
+    return cnt;
+  }
+  
+  @Override
+  public synchronized void close() throws IOException {
+    reader.close();
+    typeahead.close();
+  }
+}
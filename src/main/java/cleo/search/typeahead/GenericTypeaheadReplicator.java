@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.typeahead;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.log4j.Logger;
+
+import cleo.search.Element;
+import cleo.search.ElementSerializer;
+import cleo.search.Indexer;
+import cleo.search.store.ElementChangeLog;
+
+/**
+ * GenericTypeaheadReplicator - Publishes a {@link GenericTypeahead} to read replicas through a local directory.
+ * 
+ * <p>
+ * The replication directory holds snapshots <code>snapshot_&lt;id&gt;</code> written by {@link GenericTypeaheadSnapshot}
+ * and an {@link ElementChangeLog} of the changes indexed through this replicator. A snapshot is taken right after
+ * the change log rolls over to segment <code>id</code>, so a replica bootstraps from the latest snapshot and tails
+ * the change log from the segment of the same ID. See {@link GenericTypeaheadReplica}.
+ * 
+ * <p>
+ * All changes to the typeahead must go through {@link #index(Element)} to be replicated.
+ * 
+ * @since 10/18, 2026
+ */
+public class GenericTypeaheadReplicator<E extends Element> implements Indexer<E>, Closeable {
+  private final static Logger logger = Logger.getLogger(GenericTypeaheadReplicator.class);
+  
+  public final static String SNAPSHOT_PREFIX = "snapshot_";
+  
+  private final GenericTypeahead<E> typeahead;
+  private final File replicationDir;
+  private final ElementChangeLog<E> changeLog;
+  
+  /**
+   * Creates a new replicator.
+   * 
+   * @param typeahead         - the typeahead to replicate
+   * @param replicationDir    - the replication directory
+   * @param elementSerializer - the element serializer
+   * @throws IOException
+   */
+  public GenericTypeaheadReplicator(GenericTypeahead<E> typeahead, File replicationDir, ElementSerializer<E> elementSerializer) throws IOException {
+    this.typeahead = typeahead;
+    this.replicationDir = replicationDir;
+    this.changeLog = new ElementChangeLog<E>(replicationDir, elementSerializer);
+  }
+  
+  public final GenericTypeahead<E> getTypeahead() {
+    return typeahead;
+  }
+  
+  public final File getReplicationDir() {
+    return replicationDir;
+  }
+  
+  public final ElementChangeLog<E> getChangeLog() {
+    return changeLog;
+  }
+  
+  /**
+   * @return the directory of a snapshot.
+   */
+  public static File getSnapshotDir(File replicationDir, long id) {
+    return new File(replicationDir, SNAPSHOT_PREFIX + id);
+  }
+  
+  /**
+   * @return the IDs of the complete snapshots in a replication directory in ascending order.
+   */
+  public static long[] listSnapshots(File replicationDir) {
+    File[] files = replicationDir.listFiles();
+    if(files == null) {
+      return new long[0];
+    }
+    
+    int cnt = 0;
+    long[] ids = new long[files.length];
+    for(File file : files) {
+      String name = file.getName();
+      if(file.isDirectory() && name.startsWith(SNAPSHOT_PREFIX)) {
+        try {
+          long id = Long.parseLong(name.substring(SNAPSHOT_PREFIX.length()));
+          if(new File(file, GenericTypeaheadSnapshot.PROPERTIES_FILE_NAME).exists()) {
+            ids[cnt++] = id;
+          }
+        } catch(NumberFormatException e) {}
+      }
+    }
+    
+    ids = Arrays.copyOf(ids, cnt);
+    Arrays.sort(ids);
+    return ids;
+  }
+  
+  /**
+   * Indexes an element and appends it to the change log.
+   */
+  @Override
+  public synchronized boolean index(E element) throws Exception {
+    boolean b = typeahead.index(element);
+    if(b) {
+      changeLog.append(element);
+    }
+    return b;
+  }
+  
+  /**
+   * Flushes the typeahead and makes logged changes visible to replicas.
+   */
+  @Override
+  public synchronized void flush() throws IOException {
+    typeahead.flush();
+    changeLog.flush();
+  }
+  
+  /**
+   * Rolls over the change log and writes a snapshot for replicas to bootstrap from.
+   * Indexing is blocked while the snapshot is being written.
+   * 
+   * @return the snapshot ID, which is also the change log segment replicas should tail from.
+   * @throws IOException
+   */
+  public synchronized long publishSnapshot() throws IOException {
+    long id = changeLog.roll();
+    long scn = GenericTypeaheadSnapshot.write(typeahead, getSnapshotDir(replicationDir, id));
+    logger.info(typeahead.getName() + " published snapshot " + id + " at scn " + scn);
+    return id;
+  }
+  
+  /**
+   * Deletes all but the latest snapshots and the change log segments no longer reachable from them.
+   * 
+   * @param numSnapshots - the number of snapshots to keep
+   * @return the number of snapshots deleted.
+   */
+  public synchronized int prune(int numSnapshots) {
+    long[] ids = listSnapshots(replicationDir);
+    int numDeleted = ids.length - Math.max(1, numSnapshots);
+    if(numDeleted <= 0) {
+      return 0;
+    }
+    
+    for(int i = 0; i < numDeleted; i++) {
+      File dir = getSnapshotDir(replicationDir, ids[i]);
+      File[] files = dir.listFiles();
+      if(files != null) {
+        for(File file : files) {
+          file.delete();
+        }
+      }
+      dir.delete();
+    }
+    
+    changeLog.prune(ids[numDeleted]);
+    return numDeleted;
+  }
+  
+  @Override
+  public synchronized void close() throws IOException {
+    changeLog.close();
+  }
+}
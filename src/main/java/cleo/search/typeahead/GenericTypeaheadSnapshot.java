@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.typeahead;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+import org.apache.log4j.Logger;
+
+import cleo.search.Element;
+import cleo.search.ElementSerializer;
+import cleo.search.filter.BloomFilter;
+import cleo.search.selector.SelectorFactory;
+import cleo.search.store.MappedFloatArrayPartition;
+import cleo.search.store.MappedLongArrayPartition;
+import cleo.search.store.SnapshotArrayStoreElement;
+import cleo.search.store.SnapshotConnectionsStore;
+
+/**
+ * GenericTypeaheadSnapshot - Writes and loads immutable, memory-mapped snapshots of a {@link GenericTypeahead}.
+ *
+ * <p>
+ * A snapshot directory freezes the elements, filters, scores and posting lists of a typeahead together with
+ * a <code>snapshot.properties</code> header stamped with the format version and the SCN high-water mark.
+ * Loading a snapshot maps the files into memory and serves queries immediately, no element is deserialized
+ * and no filter is recomputed up front. Changes newer than {@link #getSCN(File)} should be replayed through
+ * {@link GenericTypeahead#index(Element)} after loading.
+ *
+ * @since 10/18, 2026
+ */
+public class GenericTypeaheadSnapshot {
+  private final static Logger logger = Logger.getLogger(GenericTypeaheadSnapshot.class);
+
+  public final static int VERSION = 1;
+  public final static String PROPERTIES_FILE_NAME = "snapshot.properties";
+  public final static String FILTERS_FILE_NAME = "filters.dat";
+  public final static String SCORES_FILE_NAME = "scores.dat";
+
+  public final static String PARAM_VERSION = "version";
+  public final static String PARAM_SCN = "scn";
+  public final static String PARAM_NAME = "name";
+  public final static String PARAM_INDEX_START = "indexStart";
+  public final static String PARAM_CAPACITY = "capacity";
+  public final static String PARAM_MAX_KEY_LENGTH = "maxKeyLength";
+  public final static String PARAM_BLOOM_FILTER = "bloomFilter";
+  public final static String PARAM_BLOOM_FILTER_PREFIX_LENGTH = "bloomFilter.prefixLength";
+  public final static String PARAM_BLOOM_FILTER_NUM_BITS = "bloomFilter.numBits";
+  public final static String PARAM_BLOOM_FILTER_PROBE = "bloomFilter.probe";
+  public final static String PARAM_NUM_ELEMENTS = "numElements";
+  public final static String PARAM_NUM_SOURCES = "numSources";
+  
+  private final static String[] PROBE_TERMS = { "snapshot", "bloom", "filter", "probe" };
+
+  /**
+   * Writes a snapshot of a typeahead to a new directory. Indexing is blocked while the snapshot
+   * is being written, searches are not. The snapshot is written to a temporary directory first
+   * and renamed upon completion so that a partial snapshot is never visible.
+   *
+   * @param typeahead - the typeahead
+   * @param dir       - the snapshot directory, which must not exist
+   * @return the SCN high-water mark of the snapshot.
+   * @throws IOException
+   */
+  public static <E extends Element> long write(GenericTypeahead<E> typeahead, File dir) throws IOException {
+    if(dir.exists()) {
+      throw new IOException("Snapshot already exists: " + dir.getAbsolutePath());
+    }
+
+    // Discard the leftover of an earlier failed write
+    File tmpDir = new File(dir.getParentFile(), dir.getName() + ".tmp");
+    if(tmpDir.exists()) {
+      deleteDirectory(tmpDir);
+    }
+    if(!tmpDir.mkdirs()) {
+      throw new IOException("Failed to create directory: " + tmpDir.getAbsolutePath());
+    }
+
+    long scn;
+    long startTime = System.currentTimeMillis();
+    Properties p = new Properties();
+
+    typeahead.writeLock.lock();
+    try {
+      scn = typeahead.getHWMark();
+
+      int numElements = SnapshotArrayStoreElement.write(tmpDir, typeahead.getElementStore());
+      int numSources = SnapshotConnectionsStore.write(tmpDir, typeahead.getConnectionsStore());
+      MappedLongArrayPartition.write(new File(tmpDir, FILTERS_FILE_NAME), typeahead.filterStore);
+      MappedFloatArrayPartition.write(new File(tmpDir, SCORES_FILE_NAME), typeahead.scoreStore);
+
+      p.setProperty(PARAM_VERSION, Integer.toString(VERSION));
+      p.setProperty(PARAM_SCN, Long.toString(scn));
+      p.setProperty(PARAM_NAME, typeahead.getName());
+      p.setProperty(PARAM_INDEX_START, Integer.toString(typeahead.getElementStore().getIndexStart()));
+      p.setProperty(PARAM_CAPACITY, Integer.toString(typeahead.getElementStore().capacity()));
+      p.setProperty(PARAM_MAX_KEY_LENGTH, Integer.toString(typeahead.getMaxKeyLength()));
+      setBloomFilterProperties(p, typeahead.getBloomFilter());
+      p.setProperty(PARAM_NUM_ELEMENTS, Integer.toString(numElements));
+      p.setProperty(PARAM_NUM_SOURCES, Integer.toString(numSources));
+    } finally {
+      typeahead.writeLock.unlock();
+    }
+
+    // Write the header last as the commit marker
+    OutputStream out = new FileOutputStream(new File(tmpDir, PROPERTIES_FILE_NAME));
+    try {
+      p.store(out, "GenericTypeahead snapshot");
+    } finally {
+      out.close();
+    }
+
+    if(!tmpDir.renameTo(dir)) {
+      throw new IOException("Failed to rename " + tmpDir.getAbsolutePath() + " to " + dir.getAbsolutePath());
+    }
+
+    long totalTime = System.currentTimeMillis() - startTime;
+    logger.info(typeahead.getName() + " wrote snapshot " + dir.getAbsolutePath() + " at scn " + scn + ": " + totalTime + " ms");
+
+    return scn;
+  }
+
+  /**
+   * Records the configuration of a bloom filter. The probe is the query filter of fixed terms,
+   * which differs if the filter hashes terms differently.
+   */
+  static void setBloomFilterProperties(Properties p, BloomFilter<Long> bloomFilter) {
+    p.setProperty(PARAM_BLOOM_FILTER, bloomFilter.getClass().getName());
+    p.setProperty(PARAM_BLOOM_FILTER_PREFIX_LENGTH, Integer.toString(bloomFilter.getPrefixLength()));
+    p.setProperty(PARAM_BLOOM_FILTER_NUM_BITS, Integer.toString(bloomFilter.getNumBits()));
+    p.setProperty(PARAM_BLOOM_FILTER_PROBE, Long.toString(bloomFilter.computeQueryFilter(PROBE_TERMS)));
+  }
+  
+  /**
+   * Checks that a bloom filter is configured the same as the one recorded in a snapshot header,
+   * otherwise the filters of the snapshot would reject matching elements.
+   * 
+   * @throws IOException if the bloom filter is incompatible.
+   */
+  static void checkBloomFilter(Properties p, BloomFilter<Long> bloomFilter) throws IOException {
+    Properties expected = new Properties();
+    setBloomFilterProperties(expected, bloomFilter);
+    
+    String[] params = { PARAM_BLOOM_FILTER, PARAM_BLOOM_FILTER_PREFIX_LENGTH, PARAM_BLOOM_FILTER_NUM_BITS, PARAM_BLOOM_FILTER_PROBE };
+    for(String param : params) {
+      String value = p.getProperty(param);
+      if(!expected.getProperty(param).equals(value)) {
+        throw new IOException("Incompatible bloom filter " + param + "=" + expected.getProperty(param) + ", expected " + value);
+      }
+    }
+  }
+  
+  private static void deleteDirectory(File dir) throws IOException {
+    File[] files = dir.listFiles();
+    if(files != null) {
+      for(File f : files) {
+        if(f.isDirectory()) {
+          deleteDirectory(f);
+        } else if(!f.delete()) {
+          throw new IOException("Failed to delete " + f.getAbsolutePath());
+        }
+      }
+    }
+    if(!dir.delete()) {
+      throw new IOException("Failed to delete " + dir.getAbsolutePath());
+    }
+  }
+  
+  /**
+   * Reads the header of a snapshot.
+   *
+   * @param dir - the snapshot directory
+   * @throws IOException if the snapshot is incomplete or its format version is not supported.
+   */
+  public static Properties readProperties(File dir) throws IOException {
+    File file = new File(dir, PROPERTIES_FILE_NAME);
+    if(!file.exists()) {
+      throw new IOException("Snapshot not found: " + dir.getAbsolutePath());
+    }
+
+    Properties p = new Properties();
+    InputStream in = new FileInputStream(file);
+    try {
+      p.load(in);
+    } finally {
+      in.close();
+    }
+
+    int version = Integer.parseInt(p.getProperty(PARAM_VERSION, "0"));
+    if(version != VERSION) {
+      throw new IOException("Unsupported snapshot version " + version + ": " + dir.getAbsolutePath());
+    }
+
+    return p;
+  }
+
+  /**
+   * @return the SCN high-water mark of a snapshot.
+   */
+  public static long getSCN(File dir) throws IOException {
+    return Long.parseLong(readProperties(dir).getProperty(PARAM_SCN));
+  }
+
+  /**
+   * Loads a typeahead from a snapshot.
+   *
+   * @param dir               - the snapshot directory
+   * @param name              - the typeahead name
+   * @param elementSerializer - the element serializer
+   * @param selectorFactory   - the selector factory
+   * @param bloomFilter       - the Bloom filter, which must be configured the same as the one the snapshot was written with
+   * @return the typeahead.
+   * @throws IOException
+   */
+  public static <E extends Element> GenericTypeahead<E> load(File dir,
+                                                             String name,
+                                                             ElementSerializer<E> elementSerializer,
+                                                             SelectorFactory<E> selectorFactory,
+                                                             BloomFilter<Long> bloomFilter) throws IOException {
+    long startTime = System.currentTimeMillis();
+    Properties p = readProperties(dir);
+
+    checkBloomFilter(p, bloomFilter);
+
+    long scn = Long.parseLong(p.getProperty(PARAM_SCN));
+    int indexStart = Integer.parseInt(p.getProperty(PARAM_INDEX_START));
+    int capacity = Integer.parseInt(p.getProperty(PARAM_CAPACITY));
+    int maxKeyLength = Integer.parseInt(p.getProperty(PARAM_MAX_KEY_LENGTH));
+
+    GenericTypeahead<E> typeahead = new GenericTypeahead<E>(
+        name,
+        new SnapshotArrayStoreElement<E>(dir, indexStart, capacity, scn, elementSerializer),
+        new SnapshotConnectionsStore(dir, scn),
+        selectorFactory,
+        bloomFilter,
+        new MappedFloatArrayPartition(new File(dir, SCORES_FILE_NAME), indexStart, capacity),
+        new MappedLongArrayPartition(new File(dir, FILTERS_FILE_NAME), indexStart, capacity),
+        maxKeyLength);
+
+    long totalTime = System.currentTimeMillis() - startTime;
+    logger.info(name + " loaded snapshot " + dir.getAbsolutePath() + " at scn " + scn + ": " + totalTime + " ms");
+
+    return typeahead;
+  }
+}
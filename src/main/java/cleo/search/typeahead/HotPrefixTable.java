@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.typeahead;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HotPrefixTable - Precomputed top-K element IDs by element score for every prefix up to a maximum length.
+ * 
+ * <p>
+ * Every prefix keeps up to 2K entries so that elements leaving the top of a prefix can be replaced without
+ * looking at its posting list. A prefix is <em>deficient</em> if it keeps fewer than K entries while more
+ * elements have it, in which case it has to be rebuilt from its posting list and is not served meanwhile.
+ * A prefix is never kept with entries whose scores are lower than an element not kept.
+ * </p>
+ * 
+ * <p>
+ * Every update of a prefix gives it a new version, so that a prefix rebuilt from a snapshot of its posting list
+ * can be swapped in only if it was not updated since the snapshot, see {@link #rebuild(String, long, int[], float[], int)}.
+ * A table being filled for the first time is not served until it is marked ready.
+ * </p>
+ * 
+ * <p>
+ * This class is thread-safe. Updates are expected to be serialized by the indexer.
+ * </p>
+ * 
+ * @since 10/18, 2026
+ */
+public class HotPrefixTable {
+  private final static int[] EMPTY = new int[0];
+  
+  private final int maxPrefixLength;
+  private final int topK;
+  private final int capacity;
+  private final Map<String, Entry> map = new HashMap<String, Entry>();
+  private final AtomicLong versions = new AtomicLong();
+  private volatile boolean ready = true;
+  
+  /**
+   * Creates a new hot prefix table.
+   * 
+   * @param maxPrefixLength - the maximum length of hot prefixes
+   * @param topK            - the number of element IDs served per prefix
+   */
+  public HotPrefixTable(int maxPrefixLength, int topK) {
+    this.maxPrefixLength = maxPrefixLength;
+    this.topK = topK;
+    this.capacity = topK << 1;
+  }
+  
+  public final int getMaxPrefixLength() {
+    return maxPrefixLength;
+  }
+  
+  public final int getTopK() {
+    return topK;
+  }
+  
+  /**
+   * Sets whether this table is served. A table is ready upon creation.
+   */
+  public void setReady(boolean ready) {
+    this.ready = ready;
+  }
+  
+  public final boolean isReady() {
+    return ready;
+  }
+  
+  /**
+   * Tests whether a query term is short enough to be served by this table.
+   */
+  public boolean isHot(String term) {
+    return term.length() > 0 && term.length() <= maxPrefixLength;
+  }
+  
+  /**
+   * Gets the top-K element IDs of a prefix in the descending order of scores.
+   * 
+   * @return the element IDs, or <code>null</code> if the prefix is deficient or the table is not ready.
+   */
+  public int[] get(String prefix) {
+    if(!ready) return null;
+    
+    Entry e;
+    synchronized(map) {
+      e = map.get(prefix);
+    }
+    return e == null ? EMPTY : e.get(topK);
+  }
+  
+  /**
+   * Records an element which newly has a prefix.
+   */
+  public void add(String prefix, int elemId, float score) {
+    Entry e;
+    synchronized(map) {
+      e = map.get(prefix);
+      if(e == null) {
+        e = new Entry(capacity);
+        map.put(prefix, e);
+      }
+    }
+    e.add(elemId, score);
+    e.version = versions.incrementAndGet();
+  }
+  
+  /**
+   * Records the new score of an element which keeps a prefix.
+   */
+  public void update(String prefix, int elemId, float score) {
+    Entry e;
+    synchronized(map) {
+      e = map.get(prefix);
+    }
+    if(e != null) {
+      e.update(elemId, score);
+      e.version = versions.incrementAndGet();
+    }
+  }
+  
+  /**
+   * Records an element which no longer has a prefix.
+   */
+  public void remove(String prefix, int elemId) {
+    synchronized(map) {
+      Entry e = map.get(prefix);
+      if(e != null) {
+        e.version = versions.incrementAndGet();
+        if(e.remove(elemId) == 0) {
+          map.remove(prefix);
+        }
+      }
+    }
+  }
+  
+  /**
+   * Tests whether a prefix keeps fewer than K entries while more elements have it.
+   */
+  public boolean isDeficient(String prefix) {
+    Entry e;
+    synchronized(map) {
+      e = map.get(prefix);
+    }
+    return e != null && e.isDeficient(topK);
+  }
+  
+  /**
+   * Gets the version of a prefix, which changes upon every update of the prefix.
+   * 
+   * @return the version, or <code>0</code> if the prefix is absent.
+   */
+  public long getVersion(String prefix) {
+    Entry e;
+    synchronized(map) {
+      e = map.get(prefix);
+    }
+    return e == null ? 0 : e.version;
+  }
+  
+  /**
+   * Rebuilds a prefix from all the elements having it, unless the prefix was updated since a version.
+   * 
+   * @param prefix   - the prefix
+   * @param version  - the version of the prefix before its elements were read, see {@link #getVersion(String)}
+   * @param elemIds  - the IDs of all the elements having the prefix
+   * @param scores   - the element scores
+   * @param length   - the number of elements
+   * @return <code>true</code> if the prefix was rebuilt, <code>false</code> if its version changed.
+   */
+  public boolean rebuild(String prefix, long version, int[] elemIds, float[] scores, int length) {
+    Entry e = new Entry(capacity);
+    for(int i = 0; i < length; i++) {
+      e.add(elemIds[i], scores[i]);
+    }
+    e.version = versions.incrementAndGet();
+    
+    synchronized(map) {
+      Entry current = map.get(prefix);
+      if((current == null ? 0 : current.version) != version) {
+        return false;
+      }
+      
+      if(length == 0) {
+        map.remove(prefix);
+      } else {
+        map.put(prefix, e);
+      }
+      return true;
+    }
+  }
+  
+  /**
+   * Rebuilds a prefix from all the elements having it.
+   * 
+   * @param prefix   - the prefix
+   * @param elemIds  - the IDs of all the elements having the prefix
+   * @param scores   - the element scores
+   * @param length   - the number of elements
+   */
+  public void rebuild(String prefix, int[] elemIds, float[] scores, int length) {
+    Entry e = new Entry(capacity);
+    for(int i = 0; i < length; i++) {
+      e.add(elemIds[i], scores[i]);
+    }
+    e.version = versions.incrementAndGet();
+    
+    synchronized(map) {
+      if(length == 0) {
+        map.remove(prefix);
+      } else {
+        map.put(prefix, e);
+      }
+    }
+  }
+  
+  /**
+   * @return the number of prefixes.
+   */
+  public int size() {
+    synchronized(map) {
+      return map.size();
+    }
+  }
+  
+  /**
+   * Entry - The top element IDs of a prefix in the descending order of scores.
+   */
+  static class Entry {
+    private final int[] ids;
+    private final float[] scores;
+    private int size = 0;
+    private int total = 0;
+    volatile long version;
+    
+    Entry(int capacity) {
+      this.ids = new int[capacity];
+      this.scores = new float[capacity];
+    }
+    
+    synchronized int[] get(int k) {
+      return isDeficient(k) ? null : Arrays.copyOf(ids, Math.min(k, size));
+    }
+    
+    synchronized boolean isDeficient(int k) {
+      return size < Math.min(k, total);
+    }
+    
+    synchronized void add(int elemId, float score) {
+      int index = indexOf(elemId);
+      if(index >= 0) {
+        delete(index);
+      } else {
+        total++;
+      }
+      insert(elemId, score);
+    }
+    
+    synchronized void update(int elemId, float score) {
+      int index = indexOf(elemId);
+      if(index >= 0) {
+        delete(index);
+      }
+      insert(elemId, score);
+    }
+    
+    synchronized int remove(int elemId) {
+      int index = indexOf(elemId);
+      if(index >= 0) {
+        delete(index);
+      }
+      total = Math.max(0, total - 1);
+      return total;
+    }
+    
+    /**
+     * Inserts an element not kept, unless a higher scored element may be left out.
+     */
+    private void insert(int elemId, float score) {
+      boolean complete = (size == total - 1);
+      if(!complete && (size == 0 || score < scores[size - 1])) {
+        return;
+      }
+      
+      int pos = size;
+      while(pos > 0 && scores[pos - 1] < score) pos--;
+      if(pos == ids.length) return;
+      
+      int num = Math.min(size, ids.length - 1) - pos;
+      System.arraycopy(ids, pos, ids, pos + 1, num);
+      System.arraycopy(scores, pos, scores, pos + 1, num);
+      ids[pos] = elemId;
+      scores[pos] = score;
+      size = Math.min(size + 1, ids.length);
+    }
+    
+    private void delete(int index) {
+      int num = size - index - 1;
+      System.arraycopy(ids, index + 1, ids, index, num);
+      System.arraycopy(scores, index + 1, scores, index, num);
+      size--;
+    }
+    
+    private int indexOf(int elemId) {
+      for(int i = 0; i < size; i++) {
+        if(ids[i] == elemId) return i;
+      }
+      return -1;
+    }
+  }
+}
@@ -26,6 +26,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 
@@ -34,6 +35,7 @@ import cleo.search.collector.Collector;
 import cleo.search.collector.MultiCollector;
 import cleo.search.collector.MultiSourceCollector;
 import cleo.search.collector.SortedCollector;
+import cleo.search.filter.PrefixSummary;
 import cleo.search.util.Strings;
 
 /**
@@ -41,12 +43,18 @@ import cleo.search.util.Strings;
  * 
  * @author jwu
  * @since 02/10, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Skipped sub-typeaheads whose prefix summaries rule out the query <br/>
+ * 10/18, 2026 - Skipped sub-typeaheads which know the query has no results <br/>
  */
 public class MultiTypeahead<E extends Element> implements Typeahead<E> {
   private final String name;
   private final ExecutorService executor;
   private final List<Typeahead<E>> typeaheads;
   private final Map<String, Typeahead<E>> typeaheadMap;
+  private final AtomicLong numDispatchedSources = new AtomicLong();
+  private final AtomicLong numSkippedSources = new AtomicLong();
   private final static Logger logger = Logger.getLogger(MultiTypeahead.class);
   
   public MultiTypeahead(String name, List<Typeahead<E>> typeaheads) {
@@ -76,6 +84,37 @@ public class MultiTypeahead<E extends Element> implements Typeahead<E> {
     return name;
   }
   
+  /**
+   * @return the number of sub-typeahead tasks submitted so far.
+   */
+  public final long getNumDispatchedSources() {
+    return numDispatchedSources.get();
+  }
+  
+  /**
+   * @return the number of sub-typeaheads skipped so far because their prefix summaries ruled out the query.
+   */
+  public final long getNumSkippedSources() {
+    return numSkippedSources.get();
+  }
+  
+  /**
+   * Tests whether a sub-typeahead can be skipped according to its prefix summary or known empty queries.
+   * A {@link SummarizedTypeahead} which is not skipped is searched by {@link SummarizedTypeahead#searchChecked}
+   * so that its known empty queries are looked up only once.
+   */
+  protected boolean canSkip(Typeahead<E> ta, String[] terms) {
+    if(terms != null && ta instanceof SummarizedTypeahead) {
+      SummarizedTypeahead<E> sta = (SummarizedTypeahead<E>)ta;
+      PrefixSummary summary = sta.getPrefixSummary();
+      if((summary != null && !summary.mightContainAll(terms)) || sta.isKnownEmpty(terms)) {
+        numSkippedSources.incrementAndGet();
+        return true;
+      }
+    }
+    return false;
+  }
+  
   @Override
   public List<E> search(int uid, String[] terms) {
     return search(uid, terms, Integer.MAX_VALUE, Long.MAX_VALUE);
@@ -109,21 +148,24 @@ public class MultiTypeahead<E extends Element> implements Typeahead<E> {
       for(String source : mc.sources()) {
         Collector<E> c = mc.getCollector(source);
         Typeahead<E> ta = typeaheadMap.get(source);
-        if(c != null && ta != null) {
-          taskList.add(new TypeaheadTask<E>(ta, uid, terms, c, timeoutMillis));
+        if(c != null && ta != null && !canSkip(ta, terms)) {
+          taskList.add(new TypeaheadTask<E>(ta, uid, terms, c, timeoutMillis, true));
         }
       }
     } else {
       multiCollector = new MultiSourceCollector<E>();
       for(Typeahead<E> ta : typeaheads) {
+        if(canSkip(ta, terms)) continue;
         Collector<E> c = collector.newInstance();
         multiCollector.putCollector(ta.getName(), c);
-        taskList.add(new TypeaheadTask<E>(ta, uid, terms, c, timeoutMillis));
+        taskList.add(new TypeaheadTask<E>(ta, uid, terms, c, timeoutMillis, true));
       }
     }
     
     int numTasks = taskList.size();
     if(numTasks > 0) {
+      numDispatchedSources.addAndGet(numTasks);
+      
       // Execute tasks
       List<Future<Collector<E>>> futureList = new ArrayList<Future<Collector<E>>>(taskList.size());
       for(TypeaheadTask<E> t : taskList) {
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.typeahead;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * NegativeResultCache - Remembers queries without results so that their extensions can be answered empty
+ * without searching.
+ * 
+ * <p>
+ * A query extends another if it has at least as many terms and each term of the other query is a prefix
+ * of the term at the same position. Since every query term has to prefix an element term in order, no element
+ * can match an extension of a query without results. The extensions looked up are those produced by typing,
+ * i.e. the last term of a leading part of the query being cut short.
+ * </p>
+ * 
+ * <p>
+ * Entries are kept in an open-addressing table by a hash rolled over the characters of their terms, so that
+ * every (term index, prefix length) of a query is looked up without allocation, and a hash match is verified
+ * against the terms of the entry. Lookups and insertions are lock-free. Once the probed slots of a hash are
+ * taken, an insertion replaces the first of them, so the capacity is approximate.
+ * </p>
+ * 
+ * <p>
+ * Entries are stamped with the modification count of the typeahead. Only entries of the stamp of a lookup
+ * are found, so that any indexing invalidates all the entries.
+ * </p>
+ * 
+ * @since 10/18, 2026
+ */
+public class NegativeResultCache {
+  public final static int DEFAULT_CAPACITY = 10000;
+  
+  private final static char SEPARATOR = '\u0000';
+  private final static long SEED = 0xCBF29CE484222325L;
+  private final static int MAX_PROBES = 8;
+  
+  private final AtomicReferenceArray<Entry> slots;
+  private final int mask;
+  private volatile long stamp = -1;
+  private final AtomicLong numHits = new AtomicLong();
+  private final AtomicLong numMisses = new AtomicLong();
+  
+  public NegativeResultCache(int capacity) {
+    int numSlots = Integer.highestOneBit(Math.max(1, capacity * 2 - 1)) << 1;
+    this.slots = new AtomicReferenceArray<Entry>(numSlots);
+    this.mask = numSlots - 1;
+  }
+  
+  public NegativeResultCache() {
+    this(DEFAULT_CAPACITY);
+  }
+  
+  /**
+   * Tests whether a query is known to have no results.
+   * 
+   * @param terms - the query terms
+   * @param stamp - the current modification count of the typeahead
+   */
+  public boolean isKnownEmpty(String[] terms, long stamp) {
+    updateStamp(stamp);
+    
+    long h = SEED;
+    for(int i = 0; i < terms.length; i++) {
+      String term = terms[i];
+      if(i > 0) {
+        h = hash(h, SEPARATOR);
+      }
+      for(int len = 1; len <= term.length(); len++) {
+        h = hash(h, term.charAt(len - 1));
+        if(find(h, terms, i, len, stamp) != null) {
+          numHits.incrementAndGet();
+          return true;
+        }
+      }
+    }
+    
+    numMisses.incrementAndGet();
+    return false;
+  }
+  
+  /**
+   * Remembers a query without results.
+   * 
+   * @param terms - the query terms
+   * @param stamp - the modification count of the typeahead before the query was searched
+   */
+  public void addEmpty(String[] terms, long stamp) {
+    updateStamp(stamp);
+    
+    long h = SEED;
+    for(int i = 0; i < terms.length; i++) {
+      if(i > 0) {
+        h = hash(h, SEPARATOR);
+      }
+      String term = terms[i];
+      for(int j = 0, len = term.length(); j < len; j++) {
+        h = hash(h, term.charAt(j));
+      }
+    }
+    
+    int last = terms.length - 1;
+    if(last < 0 || find(h, terms, last, terms[last].length(), stamp) != null) {
+      return;
+    }
+    
+    // Take the first free or stale slot, or replace the first probed one
+    Entry entry = new Entry(h, terms.clone(), stamp);
+    int home = index(h);
+    for(int p = 0; p < MAX_PROBES; p++) {
+      int slot = (home + p) & mask;
+      Entry e = slots.get(slot);
+      if(e == null || e.stamp != stamp) {
+        if(slots.compareAndSet(slot, e, entry)) return;
+      }
+    }
+    slots.set(home, entry);
+  }
+  
+  /**
+   * Finds the entry of the query made of the leading <code>termIndex</code> terms and
+   * the first <code>length</code> characters of the next term.
+   */
+  private Entry find(long h, String[] terms, int termIndex, int length, long stamp) {
+    int home = index(h);
+    for(int p = 0; p < MAX_PROBES; p++) {
+      Entry e = slots.get((home + p) & mask);
+      if(e == null) {
+        return null;
+      }
+      if(e.hash == h && e.stamp == stamp && e.matches(terms, termIndex, length)) {
+        return e;
+      }
+    }
+    return null;
+  }
+  
+  private void updateStamp(long stamp) {
+    if(stamp > this.stamp) {
+      this.stamp = stamp;
+    }
+  }
+  
+  private int index(long h) {
+    return (int)(h >>> 32) & mask;
+  }
+  
+  private static long hash(long h, char c) {
+    return (h ^ c) * 0x9E3779B97F4A7C15L;
+  }
+  
+  /**
+   * @return the number of entries of the latest stamp.
+   */
+  public int size() {
+    long current = stamp;
+    int size = 0;
+    for(int i = 0, cnt = slots.length(); i < cnt; i++) {
+      Entry e = slots.get(i);
+      if(e != null && e.stamp == current) size++;
+    }
+    return size;
+  }
+  
+  public long getNumHits() {
+    return numHits.get();
+  }
+  
+  public long getNumMisses() {
+    return numMisses.get();
+  }
+  
+  private static class Entry {
+    final long hash;
+    final String[] terms;
+    final long stamp;
+    
+    Entry(long hash, String[] terms, long stamp) {
+      this.hash = hash;
+      this.terms = terms;
+      this.stamp = stamp;
+    }
+    
+    boolean matches(String[] query, int termIndex, int length) {
+      if(terms.length != termIndex + 1 || terms[termIndex].length() != length) {
+        return false;
+      }
+      for(int i = 0; i < termIndex; i++) {
+        if(!terms[i].equals(query[i])) return false;
+      }
+      return query[termIndex].regionMatches(0, terms[termIndex], 0, length);
+    }
+  }
+}
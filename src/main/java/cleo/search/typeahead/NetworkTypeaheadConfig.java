@@ -64,6 +64,18 @@ public class NetworkTypeaheadConfig<E extends Element> {
   // BloomFilter prefixLength
   private int filterPrefixLength;
   
+  // memory-mapped filter store file, null to keep filters on the heap
+  private File filterStoreFile;
+  
+  // largest size class of the byte array pool for reading connections
+  private int maxByteArraySize = VanillaNetworkTypeahead.BYTE_ARRAY_SIZE_MAX_DEFAULT;
+  
+  // largest size class of byte arrays cached per thread
+  private int threadLocalByteArraySize = VanillaNetworkTypeahead.BYTE_ARRAY_SIZE_THREAD_LOCAL_DEFAULT;
+  
+  // maximum number of bytes retained by the byte array pool for reading connections
+  private long bytesPoolRetainedBytes = VanillaNetworkTypeahead.BYTES_POOL_RETAINED_BYTES_DEFAULT;
+  
   // elementSerializer
   private ElementSerializer<E> elementSerializer;
   
@@ -197,6 +209,38 @@ public class NetworkTypeaheadConfig<E extends Element> {
     this.filterPrefixLength = filterPrefixLength;
   }
   
+  public void setFilterStoreFile(File filterStoreFile) {
+    this.filterStoreFile = filterStoreFile;
+  }
+  
+  public File getFilterStoreFile() {
+    return filterStoreFile;
+  }
+  
+  public void setMaxByteArraySize(int maxByteArraySize) {
+    this.maxByteArraySize = maxByteArraySize;
+  }
+  
+  public int getMaxByteArraySize() {
+    return maxByteArraySize;
+  }
+  
+  public void setThreadLocalByteArraySize(int threadLocalByteArraySize) {
+    this.threadLocalByteArraySize = threadLocalByteArraySize;
+  }
+  
+  public int getThreadLocalByteArraySize() {
+    return threadLocalByteArraySize;
+  }
+  
+  public void setBytesPoolRetainedBytes(long bytesPoolRetainedBytes) {
+    this.bytesPoolRetainedBytes = bytesPoolRetainedBytes;
+  }
+  
+  public long getBytesPoolRetainedBytes() {
+    return bytesPoolRetainedBytes;
+  }
+  
   public void setElementSerializer(ElementSerializer<E> elementSerializer) {
     this.elementSerializer = elementSerializer;
   }
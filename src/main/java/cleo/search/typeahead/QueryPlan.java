@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.typeahead;
+
+/**
+ * QueryPlan - The strategy chosen by a {@link QueryPlanner} for a query shape along with the estimated
+ * costs of all the strategies considered.
+ * 
+ * @since 10/18, 2026
+ */
+public final class QueryPlan {
+  private final String shape;
+  private final QueryStrategy strategy;
+  private final double[] costs;
+  
+  QueryPlan(String shape, QueryStrategy strategy, double[] costs) {
+    this.shape = shape;
+    this.strategy = strategy;
+    this.costs = costs;
+  }
+  
+  /**
+   * Gets the query shape this plan is cached by.
+   */
+  public final String getShape() {
+    return shape;
+  }
+  
+  public final QueryStrategy getStrategy() {
+    return strategy;
+  }
+  
+  /**
+   * Gets the estimated cost of a strategy, or {@link Double#NaN} if the strategy was not considered.
+   */
+  public final double getCost(QueryStrategy strategy) {
+    return costs[strategy.ordinal()];
+  }
+  
+  /**
+   * Explains this plan for debug logging.
+   */
+  public String explain() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(strategy).append(" shape=").append(shape).append(" costs={");
+    
+    boolean first = true;
+    for(QueryStrategy s : QueryStrategy.values()) {
+      double cost = costs[s.ordinal()];
+      if(!Double.isNaN(cost)) {
+        if(!first) sb.append(", ");
+        sb.append(s).append('=').append(String.format("%.1f", cost));
+        first = false;
+      }
+    }
+    
+    return sb.append('}').toString();
+  }
+  
+  @Override
+  public String toString() {
+    return explain();
+  }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.typeahead;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * QueryPlanner - Picks the cheapest {@link QueryStrategy} of a query from the lengths of its posting lists
+ * and the {@link QueryStats} of a store.
+ * 
+ * <p>
+ * Costs are estimated in units of one posting browsed from a list:
+ * <ul>
+ * <li>SMALLEST_LIST browses the smallest list and reads the elements passing the filter.</li>
+ * <li>INTERSECTION first builds bitmaps of the other lists, then reads only the elements expected
+ *     in all lists assuming the lists are independent.</li>
+ * <li>FULL_SCAN scans the filter store sequentially, which is cheaper per element than browsing
+ *     a list, and reads as many elements as SMALLEST_LIST since the query filter covers the smallest list prefix.</li>
+ * </ul>
+ * </p>
+ * 
+ * <p>
+ * Plans are cached by query shape, i.e. the number of posting lists, the magnitudes of their lengths and
+ * of the number of elements, and the observed filter pass rate rounded to one decimal.
+ * The cache is read and filled by search threads without locking. Once it is full, an arbitrary
+ * plan is evicted for every new one, which is cheap to recompute.
+ * </p>
+ * 
+ * @since 10/18, 2026
+ */
+public class QueryPlanner {
+  /**
+   * The cost of browsing one posting of a list.
+   */
+  public final static double PROBE_COST = 1.0;
+  
+  /**
+   * The cost of scanning one slot of the filter store sequentially.
+   */
+  public final static double SCAN_COST = 0.25;
+  
+  /**
+   * The cost of adding one posting to an intersection bitmap.
+   */
+  public final static double BUILD_COST = 2.0;
+  
+  /**
+   * The cost of reading and selecting one element from the element store.
+   */
+  public final static double FETCH_COST = 20.0;
+  
+  public final static int DEFAULT_CACHE_SIZE = 1024;
+  
+  private final QueryStats stats;
+  private final int capacity;
+  private final boolean fullScanEnabled;
+  private final boolean intersectionEnabled;
+  private final int cacheSize;
+  private final ConcurrentHashMap<String, QueryPlan> cache;
+  private final AtomicLong numCacheHits = new AtomicLong();
+  private final AtomicLong numCacheMisses = new AtomicLong();
+  
+  /**
+   * Creates a new query planner.
+   * 
+   * @param stats               - the store statistics
+   * @param capacity            - the number of slots of the filter store to scan
+   * @param fullScanEnabled     - whether FULL_SCAN is allowed, which browses elements in ID order rather than posting order
+   *                              and is therefore only valid if collectors do not stop before the scan ends
+   * @param intersectionEnabled - whether INTERSECTION is allowed, which requires non-negative element IDs
+   * @param cacheSize           - the maximum number of cached plans
+   */
+  public QueryPlanner(QueryStats stats, int capacity, boolean fullScanEnabled, boolean intersectionEnabled, int cacheSize) {
+    this.stats = stats;
+    this.capacity = capacity;
+    this.fullScanEnabled = fullScanEnabled;
+    this.intersectionEnabled = intersectionEnabled;
+    this.cacheSize = Math.max(1, cacheSize);
+    this.cache = new ConcurrentHashMap<String, QueryPlan>(Math.min(this.cacheSize, 1024));
+  }
+  
+  public final QueryStats getStats() {
+    return stats;
+  }
+  
+  /**
+   * Plans a query.
+   * 
+   * @param listLengths - the lengths of the posting lists of the query prefixes having connections
+   * @param numLists    - the number of leading list lengths to use
+   * @return the plan of the query.
+   */
+  public QueryPlan plan(int[] listLengths, int numLists) {
+    int[] lengths = Arrays.copyOf(listLengths, numLists);
+    Arrays.sort(lengths);
+    
+    double passRate = stats.getPassRate(QueryStrategy.SMALLEST_LIST);
+    int numElements = Math.max(1, stats.getNumElements());
+    String shape = shape(lengths, numElements, passRate);
+    
+    QueryPlan plan = cache.get(shape);
+    if(plan != null) {
+      numCacheHits.incrementAndGet();
+      return plan;
+    }
+    numCacheMisses.incrementAndGet();
+    
+    plan = compute(shape, lengths, numElements, passRate);
+    
+    if(cache.size() >= cacheSize) {
+      Iterator<String> iter = cache.keySet().iterator();
+      if(iter.hasNext()) {
+        cache.remove(iter.next());
+      }
+    }
+    cache.put(shape, plan);
+    
+    return plan;
+  }
+  
+  protected QueryPlan compute(String shape, int[] lengths, int numElements, double passRate) {
+    double[] costs = new double[QueryStrategy.values().length];
+    Arrays.fill(costs, Double.NaN);
+    
+    if(lengths.length == 0 || lengths[0] == 0) {
+      costs[QueryStrategy.EMPTY.ordinal()] = 0;
+      return new QueryPlan(shape, QueryStrategy.EMPTY, costs);
+    }
+    
+    int minLength = lengths[0];
+    double numFetches = minLength * passRate;
+    
+    QueryStrategy best = QueryStrategy.SMALLEST_LIST;
+    double bestCost = minLength * PROBE_COST + numFetches * FETCH_COST;
+    costs[best.ordinal()] = bestCost;
+    
+    if(intersectionEnabled && lengths.length > 1) {
+      double buildCost = 0;
+      double selectivity = 1;
+      for(int i = 1; i < lengths.length; i++) {
+        buildCost += lengths[i] * BUILD_COST;
+        selectivity *= Math.min(1.0, (double)lengths[i] / numElements);
+      }
+      
+      double cost = buildCost + minLength * PROBE_COST + minLength * Math.min(passRate, selectivity) * FETCH_COST;
+      costs[QueryStrategy.INTERSECTION.ordinal()] = cost;
+      if(cost < bestCost) {
+        best = QueryStrategy.INTERSECTION;
+        bestCost = cost;
+      }
+    }
+    
+    if(fullScanEnabled) {
+      double cost = capacity * SCAN_COST + numFetches * FETCH_COST;
+      costs[QueryStrategy.FULL_SCAN.ordinal()] = cost;
+      if(cost < bestCost) {
+        best = QueryStrategy.FULL_SCAN;
+        bestCost = cost;
+      }
+    }
+    
+    return new QueryPlan(shape, best, costs);
+  }
+  
+  private static String shape(int[] lengths, int numElements, double passRate) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(magnitude(numElements)).append(':').append(Math.round(passRate * 10)).append(':');
+    for(int i = 0; i < lengths.length; i++) {
+      if(i > 0) sb.append(',');
+      sb.append(magnitude(lengths[i]));
+    }
+    return sb.toString();
+  }
+  
+  /**
+   * Rounds a length to a half power of two so that similar lengths share a plan.
+   */
+  private static int magnitude(int length) {
+    if(length <= 0) return 0;
+    int log = 31 - Integer.numberOfLeadingZeros(length);
+    int half = (log > 0 && (length & (1 << (log - 1))) != 0) ? 1 : 0;
+    return (log << 1) + half + 1;
+  }
+  
+  public int getCacheSize() {
+    return cache.size();
+  }
+  
+  public long getNumCacheHits() {
+    return numCacheHits.get();
+  }
+  
+  public long getNumCacheMisses() {
+    return numCacheMisses.get();
+  }
+  
+  /**
+   * Clears cached plans.
+   */
+  public void clearCache() {
+    cache.clear();
+  }
+}
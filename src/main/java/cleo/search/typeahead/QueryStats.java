@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.typeahead;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * QueryStats - Statistics of a typeahead store maintained incrementally for query planning.
+ * 
+ * <p>
+ * The number of elements is updated by the indexer. Filter pass rates are observed from the hit stats
+ * of every query per {@link QueryStrategy}. Observations are halved once a strategy has browsed
+ * {@link #DECAY_THRESHOLD} elements so that pass rates follow the recent workload.
+ * </p>
+ * 
+ * <p>
+ * Observations are recorded by search threads without locking. Counters of a strategy are updated
+ * one at a time, so a pass rate read during an update or a decay is approximate.
+ * </p>
+ * 
+ * @since 10/18, 2026
+ */
+public class QueryStats {
+  /**
+   * The pass rate assumed for a strategy which has not been observed yet.
+   */
+  public final static double DEFAULT_PASS_RATE = 0.5;
+  
+  /**
+   * The number of browsed elements after which the observations of a strategy are halved.
+   */
+  public final static long DECAY_THRESHOLD = 1L << 20;
+  
+  private volatile int numElements;
+  private final AtomicLongArray numQueries = new AtomicLongArray(QueryStrategy.values().length);
+  private final AtomicLongArray numBrowseHits = new AtomicLongArray(QueryStrategy.values().length);
+  private final AtomicLongArray numFilterHits = new AtomicLongArray(QueryStrategy.values().length);
+  
+  public QueryStats(int numElements) {
+    this.numElements = numElements;
+  }
+  
+  public final int getNumElements() {
+    return numElements;
+  }
+  
+  /**
+   * Called by the indexer upon adding a new element.
+   */
+  public void elementAdded() {
+    numElements++;
+  }
+  
+  /**
+   * Called by the indexer upon removing an element.
+   */
+  public void elementRemoved() {
+    numElements = Math.max(0, numElements - 1);
+  }
+  
+  /**
+   * Records a query executed by a strategy.
+   * 
+   * @param strategy      - the strategy
+   * @param numBrowseHits - the number of elements browsed
+   * @param numFilterHits - the number of browsed elements passing the filters
+   */
+  public void observe(QueryStrategy strategy, int numBrowseHits, int numFilterHits) {
+    int i = strategy.ordinal();
+    this.numQueries.incrementAndGet(i);
+    long browseHits = this.numBrowseHits.addAndGet(i, numBrowseHits);
+    long filterHits = this.numFilterHits.addAndGet(i, numFilterHits);
+    
+    // Only the thread winning the decay halves the filter hits
+    if(browseHits > DECAY_THRESHOLD && this.numBrowseHits.compareAndSet(i, browseHits, browseHits >> 1)) {
+      this.numFilterHits.addAndGet(i, -(filterHits >> 1));
+    }
+  }
+  
+  /**
+   * Gets the observed ratio of browsed elements passing the filters of a strategy.
+   */
+  public double getPassRate(QueryStrategy strategy) {
+    int i = strategy.ordinal();
+    long browseHits = numBrowseHits.get(i);
+    long filterHits = numFilterHits.get(i);
+    return browseHits <= 0 ? DEFAULT_PASS_RATE : Math.max(0, Math.min(1.0, (double)filterHits / browseHits));
+  }
+  
+  /**
+   * Gets the number of queries executed by a strategy.
+   */
+  public long getNumQueries(QueryStrategy strategy) {
+    return numQueries.get(strategy.ordinal());
+  }
+  
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("numElements=").append(numElements);
+    for(QueryStrategy s : QueryStrategy.values()) {
+      long n = getNumQueries(s);
+      if(n > 0) {
+        sb.append(' ').append(s).append("={queries=").append(n);
+        sb.append(String.format(", passRate=%.4f}", getPassRate(s)));
+      }
+    }
+    return sb.toString();
+  }
+}
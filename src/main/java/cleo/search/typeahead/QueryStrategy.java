@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.typeahead;
+
+/**
+ * QueryStrategy - How a {@link QueryPlan} browses the candidates of a query.
+ * 
+ * @since 10/18, 2026
+ */
+public enum QueryStrategy {
+  /**
+   * None of the query prefixes has connections.
+   */
+  EMPTY,
+  
+  /**
+   * The smallest posting list is browsed and its elements are checked by bloom filters.
+   */
+  SMALLEST_LIST,
+  
+  /**
+   * The smallest posting list is browsed and its elements are checked against the other posting lists
+   * before bloom filters.
+   */
+  INTERSECTION,
+  
+  /**
+   * The sparsest posting list is browsed in its stored order and checked against the bitmaps of dense prefixes,
+   * see {@link cleo.search.store.BitmapConnectionsStore}.
+   */
+  BITMAP,
+  
+  /**
+   * The filter store is scanned sequentially over the whole element index range.
+   */
+  FULL_SCAN,
+  
+  /**
+   * The precomputed top elements of a short prefix are served, see {@link HotPrefixTable}.
+   */
+  TOP_K;
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.typeahead;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import cleo.search.Element;
+
+/**
+ * RollingDelta - An in-memory prefix index over the elements pending a rolling update.
+ * 
+ * <p>
+ * Each prefix of an element term up to <code>maxKeyLength</code> maps to a growable buffer of element IDs
+ * in the order elements are added. A writer appends to a buffer and publishes its new size afterwards, so
+ * that searches never block on writers and always see a consistent prefix of the buffer. A delta only grows.
+ * Once it is handed to the roller it is frozen and dropped as a whole.
+ * 
+ * @since 10/18, 2026
+ */
+final class RollingDelta<E extends Element> {
+  private final int maxKeyLength;
+  private final List<E> elements = new ArrayList<E>();
+  private final ConcurrentHashMap<Integer, RollingTypeahead.FilterEntry<E>> entries;
+  private final ConcurrentHashMap<String, Postings> postings;
+  private volatile int size = 0;
+  
+  RollingDelta(int maxKeyLength) {
+    this.maxKeyLength = maxKeyLength;
+    this.entries = new ConcurrentHashMap<Integer, RollingTypeahead.FilterEntry<E>>();
+    this.postings = new ConcurrentHashMap<String, Postings>();
+  }
+  
+  /**
+   * @return the number of elements in this delta.
+   */
+  int size() {
+    return size;
+  }
+  
+  boolean contains(int elemId) {
+    return entries.containsKey(elemId);
+  }
+  
+  RollingTypeahead.FilterEntry<E> get(int elemId) {
+    return entries.get(elemId);
+  }
+  
+  /**
+   * Adds an element unless it is already present.
+   * 
+   * @return <code>true</code> if the element is added.
+   */
+  synchronized boolean add(E element, long filter) {
+    int elemId = element.getElementId();
+    if(entries.containsKey(elemId)) {
+      return false;
+    }
+    
+    String[] terms = element.getTerms();
+    if(terms != null) {
+      HashSet<String> prefixes = new HashSet<String>();
+      for(String term : terms) {
+        if(term == null) continue;
+        
+        int len = Math.min(term.length(), maxKeyLength);
+        for(int k = 1; k <= len; k++) {
+          String prefix = term.substring(0, k);
+          if(prefixes.add(prefix)) {
+            insert(prefix, elemId);
+          }
+        }
+      }
+    }
+    
+    entries.put(elemId, new RollingTypeahead.FilterEntry<E>(element, filter));
+    elements.add(element);
+    size = elements.size();
+    return true;
+  }
+  
+  private void insert(String prefix, int elemId) {
+    Postings p = postings.get(prefix);
+    if(p == null) {
+      p = new Postings();
+      p.add(elemId);
+      postings.put(prefix, p);
+    } else {
+      p.add(elemId);
+    }
+  }
+  
+  /**
+   * @return the element IDs of a prefix in the order they were added, or <code>null</code> if the prefix is not found.
+   */
+  int[] getPostings(String prefix) {
+    Postings p = postings.get(prefix);
+    return (p == null) ? null : p.toArray();
+  }
+  
+  /**
+   * Finds the shortest posting list among the prefixes of the query terms.
+   * 
+   * @return the postings, or <code>null</code> if any term prefix is not found.
+   */
+  Postings getMinPostings(String[] terms) {
+    Postings minPostings = null;
+    
+    for(String term : terms) {
+      Postings p = postings.get(term.substring(0, Math.min(term.length(), maxKeyLength)));
+      if(p == null) {
+        return null;
+      }
+      
+      if(minPostings == null || minPostings.size() > p.size()) {
+        minPostings = p;
+      }
+    }
+    
+    return minPostings;
+  }
+  
+  /**
+   * Postings - An append-only buffer of element IDs with a single writer and lock-free readers.
+   * Readers must call {@link #size()} before {@link #array()}.
+   */
+  static final class Postings {
+    private volatile int[] ids = new int[4];
+    private volatile int size = 0;
+    
+    /**
+     * Appends an element ID. The caller must hold the lock of the delta.
+     */
+    void add(int elemId) {
+      int n = size;
+      int[] buf = ids;
+      if(n == buf.length) {
+        buf = Arrays.copyOf(buf, n << 1);
+        ids = buf;
+      }
+      buf[n] = elemId;
+      size = n + 1;
+    }
+    
+    /**
+     * @return the number of published element IDs.
+     */
+    int size() {
+      return size;
+    }
+    
+    /**
+     * @return the buffer holding at least the first {@link #size()} element IDs.
+     */
+    int[] array() {
+      return ids;
+    }
+    
+    int[] toArray() {
+      int n = size;
+      return Arrays.copyOf(ids, n);
+    }
+  }
+  
+  /**
+   * @return the elements in the order they were added.
+   */
+  synchronized List<E> elements() {
+    return new ArrayList<E>(elements);
+  }
+}
@@ -16,14 +16,7 @@
 
 package cleo.search.typeahead;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -48,15 +41,18 @@ import cleo.search.util.DaemonThreadFactory;
  * <p>
  * 01/09, 2012 - Roll updates in one second <br/>
  * 01/17, 2012 - Speed up rolling <br/>
+ * 10/18, 2026 - Keep pending elements in a prefix index and swap out rolled batches as a whole <br/>
  */
 class RollingTypeahead<E extends Element> extends AbstractTypeahead<E> {
   public static final int DEFAULT_ROLLING_SIZE = 1000;
   
   private final static Logger logger = Logger.getLogger(RollingTypeahead.class);
   private final ExecutorService executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory());
-  private final Queue<FilterEntry<E>> elementQueue = new ConcurrentLinkedQueue<FilterEntry<E>>();
-  private final Map<Integer, E> elementMap = Collections.synchronizedMap(new HashMap<Integer, E>());
+  private final Object deltaLock = new Object();
+  private final int maxKeyLength;
   private final RollingDriver rollingDriver;
+  private volatile RollingDelta<E> activeDelta;
+  private volatile RollingDelta<E> rollingDelta = null;
   private volatile IndexRoller<E> indexRoller;
   private volatile int rollingSize = DEFAULT_ROLLING_SIZE;
   
@@ -79,14 +75,47 @@ class RollingTypeahead<E extends Element> extends AbstractTypeahead<E> {
                           ArrayStoreElement<E> elementStore,
                           SelectorFactory<E> selectorFactory,
                           BloomFilter<Long> bloomFilter) {
+    this(name,
+         rollingSize,
+         maxKeyLengthOf(indexRoller),
+         indexRoller,
+         elementStore,
+         selectorFactory,
+         bloomFilter);
+  }
+  
+  public RollingTypeahead(String name,
+                          int rollingSize,
+                          int maxKeyLength,
+                          IndexRoller<E> indexRoller,
+                          ArrayStoreElement<E> elementStore,
+                          SelectorFactory<E> selectorFactory,
+                          BloomFilter<Long> bloomFilter) {
     super(name, elementStore, selectorFactory, bloomFilter);
     
+    if(maxKeyLength < 1) {
+      throw new IllegalArgumentException("Invalid maxKeyLength: " + maxKeyLength);
+    }
+    
+    this.maxKeyLength = maxKeyLength;
+    this.activeDelta = new RollingDelta<E>(maxKeyLength);
     this.indexRoller = indexRoller;
     this.setRollingSize(rollingSize);
     this.rollingDriver = new RollingDriver();
     this.executor.execute(rollingDriver);
   }
   
+  /**
+   * @return the maximum key length of the typeahead updated by an index roller,
+   *         or <code>Integer.MAX_VALUE</code> to index every prefix if it is unknown.
+   */
+  static int maxKeyLengthOf(IndexRoller<?> indexRoller) {
+    if(indexRoller instanceof GenericTypeaheadIndexRoller) {
+      return ((GenericTypeaheadIndexRoller<?>)indexRoller).getMaxKeyLength();
+    }
+    return Integer.MAX_VALUE;
+  }
+  
   class RollingDriver implements Runnable {
     private final long rollingTime = 1000L; // 1000 Milliseconds
     private final long minSleepTime = 100L; //  100 Milliseconds
@@ -97,25 +126,12 @@ class RollingTypeahead<E extends Element> extends AbstractTypeahead<E> {
     public void run() {
       int rolled = 0;
       while(active) {
-        rolled = 0;
-        
         synchronized(mutex) {
-          if(elementQueue.size() > 0) {
-            // Collect elements up to the specified rollingSize
-            Iterator<FilterEntry<E>> iter = elementQueue.iterator();
-            List<E> list = new ArrayList<E>(rollingSize);
-            while(iter.hasNext()) {
-              list.add(iter.next().element);
-              if(list.size() >= rollingSize) break;
-            }
-            
-            roll(list, false);
-            rolled = list.size();
-          }
+          rolled = rollDelta(rollingSize);
         }
         
-        // Sleep if no elements in the queue
-        if(elementQueue.size() == 0) {
+        // Sleep if no elements are pending
+        if(activeDelta.size() == 0) {
           try {
             long sleepTime = (rollingSize - rolled) * rollingTime / rollingSize;
             sleepTime = Math.max(minSleepTime, sleepTime);
@@ -127,43 +143,55 @@ class RollingTypeahead<E extends Element> extends AbstractTypeahead<E> {
       drain();
     }
     
-    private void roll(List<E> list, boolean clearAll) {
+    /**
+     * Swaps out the active delta and rolls its elements in batches. The delta stays
+     * searchable until all its batches are rolled and is then dropped as a whole.
+     * 
+     * @param batchSize - the maximum number of elements per rolling update
+     * @return the number of elements rolled.
+     */
+    private int rollDelta(int batchSize) {
+      RollingDelta<E> delta;
+      synchronized(deltaLock) {
+        delta = activeDelta;
+        if(delta.size() == 0) {
+          return 0;
+        }
+        
+        rollingDelta = delta;
+        activeDelta = new RollingDelta<E>(maxKeyLength);
+      }
+      
+      try {
+        List<E> list = delta.elements();
+        for(int i = 0, cnt = list.size(); i < cnt; i += batchSize) {
+          roll(list.subList(i, Math.min(cnt, i + batchSize)));
+        }
+        return list.size();
+      } finally {
+        rollingDelta = null;
+      }
+    }
+    
+    private void roll(List<E> list) {
       try {
         if(indexRoller == null) {
           logger.warn("rolling update failure: no rolling handler");
         } else {
           if(indexRoller.roll(list)) {
-            logger.info("rolling update success: " + list.size()  + "/" + elementQueue.size());
+            logger.info("rolling update success: " + list.size()  + "/" + getNumPending());
           } else {
-            logger.warn("rolling update failure: " + list.size()  + "/" + elementQueue.size());
+            logger.warn("rolling update failure: " + list.size()  + "/" + getNumPending());
           }
         }
       } catch(Exception e) {
         logger.error("rolling update failure: " + e.getMessage(), e);
-      } finally {
-        if(clearAll) {
-          elementMap.clear();
-          elementQueue.clear();
-        } else {
-          for(Element e : list) {
-            elementQueue.remove();
-            elementMap.remove(e.getElementId());
-          }
-        }
       }
     }
     
     private void drain() {
       synchronized(mutex) {
-        if(elementQueue.size() > 0) {
-          List<E> list = new ArrayList<E>();
-          Iterator<FilterEntry<E>> iter = elementQueue.iterator();
-          while(iter.hasNext()) {
-            list.add(iter.next().element);
-          }
-          
-          roll(list, true);
-        }
+        rollDelta(Integer.MAX_VALUE);
       }
     }
     
@@ -191,16 +219,36 @@ class RollingTypeahead<E extends Element> extends AbstractTypeahead<E> {
   }
   
   synchronized boolean offer(E element) {
-    if(element != null && !elementMap.containsKey(element.getElementId())) {
-      long elementFilter = bloomFilter.computeIndexFilter(element);
-      elementQueue.offer(new FilterEntry<E>(element, elementFilter));
-      elementMap.put(element.getElementId(), element);
-      return true;
+    if(element != null) {
+      synchronized(deltaLock) {
+        int elemId = element.getElementId();
+        RollingDelta<E> delta = rollingDelta;
+        if(delta != null && delta.contains(elemId)) {
+          return false;
+        }
+        
+        if(!activeDelta.contains(elemId)) {
+          return activeDelta.add(element, computeIndexBits(element));
+        }
+      }
     }
     
     return false;
   }
   
+  /**
+   * @return the number of elements pending a rolling update.
+   */
+  public int getNumPending() {
+    int num = activeDelta.size();
+    RollingDelta<E> delta = rollingDelta;
+    return (delta == null) ? num : num + delta.size();
+  }
+  
+  public int getMaxKeyLength() {
+    return maxKeyLength;
+  }
+  
   public Collector<E> search(int uid, String[] terms, Collector<E> collector, long timeoutMillis, HitStats hitStats) {
     if(terms == null || terms.length == 0) return collector;
     Selector<E> selector = getSelectorFactory().createSelector(terms);
@@ -224,48 +272,76 @@ class RollingTypeahead<E extends Element> extends AbstractTypeahead<E> {
   }
   
   protected void searchInternal(int uid, String[] terms, Collector<E> collector, Selector<E> selector, HitStats hitStats, long timeoutMillis) {
-    long filter = bloomFilter.computeQueryFilter(terms);
-    
-    long totalTime = 0;
+    long filter = computeQueryBits(terms);
     long startTime = System.currentTimeMillis();
     
+    // Read the active delta first so that a concurrent swap cannot hide the delta being rolled
+    RollingDelta<E> active = activeDelta;
+    RollingDelta<E> rolling = rollingDelta;
+    
+    if(rolling != null && rolling != active) {
+      if(!searchDelta(rolling, terms, filter, collector, selector, hitStats, startTime, timeoutMillis)) {
+        return;
+      }
+    }
+    
+    searchDelta(active, terms, filter, collector, selector, hitStats, startTime, timeoutMillis);
+  }
+  
+  /**
+   * Searches the elements of a delta found under the shortest posting list of the query term prefixes.
+   * 
+   * @return <code>false</code> if the collector can stop or the search times out.
+   */
+  protected boolean searchDelta(RollingDelta<E> delta, String[] terms, long filter, Collector<E> collector, Selector<E> selector, HitStats hitStats, long startTime, long timeoutMillis) {
+    RollingDelta.Postings postings = delta.getMinPostings(terms);
+    if(postings == null) {
+      return true;
+    }
+    
+    // Read the size before the buffer so that every ID below the size is published
+    int cnt = postings.size();
+    int[] ids = postings.array();
+    
     int i = 0;
     int numFilterHits = 0;
     int numResultHits = 0;
+    boolean proceed = true;
     
     SelectorContext ctx = new SelectorContext();
     
-    FilterEntry<E> entry;
-    Iterator<FilterEntry<E>> iter = elementQueue.iterator();
-    while(iter.hasNext()) {
-      entry = iter.next();
-      E elem = entry.element;
+    for(; i < cnt; i++) {
+      FilterEntry<E> entry = delta.get(ids[i]);
       
-      if(elem != null && (entry.filter & filter) == filter) {
+      if(entry != null && (entry.filter & filter) == filter) {
         numFilterHits++;
         
-        if(selector.select(elem, ctx)) {
+        if(selector.select(entry.element, ctx)) {
           numResultHits++;
-          collector.add(elem, ctx.getScore(), getName());
+          collector.add(entry.element, ctx.getScore(), getName());
           if(collector.canStop()) {
+            proceed = false;
+            i++;
             break;
           }
         }
         
         ctx.clear();
       }
-
+      
       if(i % 100 == 0) {
-        totalTime = System.currentTimeMillis() - startTime;
-        if(totalTime > timeoutMillis) break;
+        if((System.currentTimeMillis() - startTime) > timeoutMillis) {
+          proceed = false;
+          i++;
+          break;
+        }
       }
-      
-      i++;
     }
     
-    hitStats.numBrowseHits += ++i;
+    hitStats.numBrowseHits += i;
     hitStats.numFilterHits += numFilterHits;
     hitStats.numResultHits += numResultHits;
+    return proceed;
   }
   
   public void setRollingSize(int rollingSize) {
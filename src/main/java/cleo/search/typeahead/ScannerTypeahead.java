@@ -16,18 +16,25 @@
 
 package cleo.search.typeahead;
 
+import java.io.File;
 import java.io.IOException;
 
 import org.apache.log4j.Logger;
 
 import cleo.search.Element;
-import cleo.search.Indexer;
+import cleo.search.RangeIndexer;
 import cleo.search.collector.Collector;
 import cleo.search.filter.BloomFilter;
+import cleo.search.filter.PositionalBloomFilter;
+import cleo.search.filter.WideBloomFilter;
 import cleo.search.selector.Selector;
 import cleo.search.selector.SelectorContext;
 import cleo.search.selector.SelectorFactory;
 import cleo.search.store.ArrayStoreElement;
+import cleo.search.store.LongArrayPartition;
+import cleo.search.store.MappedLongFilterStore;
+import cleo.search.store.StaticLongArrayPartition;
+import cleo.search.store.StridedLongArrayPartition;
 import cleo.search.util.Range;
 
 /**
@@ -36,13 +43,24 @@ import cleo.search.util.Range;
  * 
  * @author jwu
  * @since 03/22, 2011
+ * 
+ * <p>
+ * 10/18, 2026 - Added optional memory-mapped filter store file to skip recomputing filters at startup <br/>
+ * 10/18, 2026 - Exposed range for routing in MultiIndexer <br/>
+ * 10/18, 2026 - Kept multi-word filters in a strided partition for wide bloom filters <br/>
+ * 10/18, 2026 - Checked per-term query signatures of positional bloom filters <br/>
+ * 10/18, 2026 - Scanned filters in the filter store directly without a heap copy <br/>
  */
-public class ScannerTypeahead<E extends Element> extends AbstractTypeahead<E> implements RangeTypeahead<E>, Indexer<E> {
+public class ScannerTypeahead<E extends Element> extends AbstractTypeahead<E> implements RangeTypeahead<E>, RangeIndexer<E> {
   private final static Logger logger = Logger.getLogger(ScannerTypeahead.class);
   private final int rangeStart;
   private final int rangeEnd;
   private final Range range;
-  private long[] filterData;
+  private final File filterStoreFile;
+  private final LongArrayPartition filterStore;
+  private final WideBloomFilter wideBloomFilter;
+  private final StridedLongArrayPartition wideFilters;
+  private long[] signatureData;
   
   /**
    * Creates a new ScannerTypeahead.
@@ -60,36 +78,151 @@ public class ScannerTypeahead<E extends Element> extends AbstractTypeahead<E> im
                           ArrayStoreElement<E> elementStore,
                           SelectorFactory<E> selectorFactory,
                           BloomFilter<Long> bloomFilter) {
+    this(name, elementStore, selectorFactory, bloomFilter, null);
+  }
+  
+  /**
+   * Creates a new ScannerTypeahead.
+   * 
+   * @param name
+   *          the name of this ScannerTypeahead.
+   * @param elementStore
+   *          the element store.
+   * @param selectorFactory
+   *          the element selector factory.
+   * @param bloomFilter
+   *          the bloom filter.
+   * @param filterStoreFile
+   *          the file of the memory-mapped filter store, <code>null</code> to keep filters on the heap only.
+   */
+  public ScannerTypeahead(String name,
+                          ArrayStoreElement<E> elementStore,
+                          SelectorFactory<E> selectorFactory,
+                          BloomFilter<Long> bloomFilter,
+                          File filterStoreFile) {
     super(name, elementStore, selectorFactory, bloomFilter);
     logger.info(name + " start...");
     
     this.rangeStart = elementStore.getIndexStart();
     this.rangeEnd = elementStore.getIndexStart() + elementStore.length();
     this.range = new Range(rangeStart, rangeEnd - rangeStart);
-    this.filterData = initFilterData();
+    this.filterStoreFile = filterStoreFile;
+    this.wideBloomFilter = (bloomFilter instanceof WideBloomFilter) ? (WideBloomFilter)bloomFilter : null;
+    
+    if(wideBloomFilter != null) {
+      this.wideFilters = initWideFilters();
+      this.filterStore = null;
+    } else {
+      this.wideFilters = null;
+      this.filterStore = initFilterStore();
+      this.signatureData = initSignatureData();
+    }
     
     logger.info(name + " started.");
   }
   
-  protected long[] initFilterData() {
+  /**
+   * Creates the filter store, which is memory-mapped if <code>filterStoreFile</code> is specified.
+   * Filters are not copied to the heap.
+   */
+  protected LongArrayPartition initFilterStore() {
     long startTime = System.currentTimeMillis();
     
-    long[] array = new long[rangeEnd - rangeStart];
+    LongArrayPartition p = null;
+    if(filterStoreFile != null) {
+      try {
+        MappedLongFilterStore m = new MappedLongFilterStore(filterStoreFile, rangeStart, rangeEnd - rangeStart, bloomFilter, elementStore.getHWMark());
+        if(m.isValid(elementStore.getHWMark())) {
+          long totalTime = System.currentTimeMillis() - startTime;
+          logger.info(getName() + " load filter" + "[" + rangeStart + "," + rangeEnd + "): " + totalTime + " ms");
+          return m;
+        }
+        p = m;
+      } catch(IOException e) {
+        logger.warn(getName() + " failed to open filter store " + filterStoreFile.getAbsolutePath(), e);
+      }
+    }
+    
+    if(p == null) {
+      p = new StaticLongArrayPartition(rangeStart, rangeEnd - rangeStart);
+    }
+    
     for(int i = rangeStart; i < rangeEnd; i++) {
       E elem = elementStore.getElement(i);
       if(elem != null) {
-        array[i - rangeStart] = bloomFilter.computeIndexFilter(elem);
-      } else {
-        array[i - rangeStart] = 0;
+        p.set(i, computeIndexBits(elem));
       }
     }
     
+    if(p instanceof MappedLongFilterStore) {
+      ((MappedLongFilterStore)p).commit(elementStore.getHWMark());
+    }
+    
     long totalTime = System.currentTimeMillis() - startTime;
     logger.info(getName() + " init filter" + "[" + rangeStart + "," + rangeEnd + "): " + totalTime + " ms");
     
+    return p;
+  }
+  
+  /**
+   * Commits the memory-mapped filter store, if any, against the current element store high-water mark.
+   */
+  protected void commitFilterStore() {
+    if(filterStore instanceof MappedLongFilterStore) {
+      ((MappedLongFilterStore)filterStore).commit(elementStore.getHWMark());
+    }
+  }
+  
+  /**
+   * Computes element signatures if the bloom filter is a {@link PositionalBloomFilter}.
+   * Signatures are not persisted to the filter store file.
+   */
+  protected long[] initSignatureData() {
+    if(positionalBloomFilter == null) {
+      return null;
+    }
+    
+    long startTime = System.currentTimeMillis();
+    
+    long[] array = new long[rangeEnd - rangeStart];
+    for(int i = rangeStart; i < rangeEnd; i++) {
+      E elem = elementStore.getElement(i);
+      if(elem != null) {
+        array[i - rangeStart] = computeIndexSignature(elem);
+      }
+    }
+    
+    long totalTime = System.currentTimeMillis() - startTime;
+    logger.info(getName() + " init signature" + "[" + rangeStart + "," + rangeEnd + "): " + totalTime + " ms");
+    
     return array;
   }
   
+  /**
+   * Computes multi-word filters which are not persisted to the filter store file.
+   */
+  protected StridedLongArrayPartition initWideFilters() {
+    long startTime = System.currentTimeMillis();
+    
+    if(filterStoreFile != null) {
+      logger.info(getName() + " ignored filter store " + filterStoreFile.getAbsolutePath() + " for wide bloom filter");
+    }
+    
+    StridedLongArrayPartition p = new StridedLongArrayPartition(rangeStart, rangeEnd - rangeStart, wideBloomFilter.getNumWords());
+    long[] array = p.getInternalArray();
+    for(int i = rangeStart; i < rangeEnd; i++) {
+      E elem = elementStore.getElement(i);
+      if(elem != null) {
+        wideBloomFilter.computeIndexWords(elem, array, p.offset(i));
+      }
+    }
+    
+    long totalTime = System.currentTimeMillis() - startTime;
+    logger.info(getName() + " init wide filter" + "[" + rangeStart + "," + rangeEnd + "): " + totalTime + " ms");
+    
+    return p;
+  }
+  
   @Override
   public Collector<E> search(int uid, String[] terms, Collector<E> collector, long timeoutMillis) {
     if(terms == null || terms.length == 0) return collector;
@@ -108,7 +241,9 @@ public class ScannerTypeahead<E extends Element> extends AbstractTypeahead<E> im
   protected void searchInternal(int uid, int start, int end, String[] terms,
                                 Collector<E> collector, Selector<E> selector,
                                 HitStats hitStats, long timeoutMillis) {
-    long filter = bloomFilter.computeQueryFilter(terms);
+    long filter = computeQueryBits(terms);
+    long[] words = (wideFilters == null) ? null : wideBloomFilter.computeQueryWords(terms);
+    long[] signatures = computeQuerySignatures(terms);
     
     long totalTime = 0;
     long startTime = System.currentTimeMillis();
@@ -122,7 +257,9 @@ public class ScannerTypeahead<E extends Element> extends AbstractTypeahead<E> im
     for(; i < end; i++) {
       hitStats.numBrowseHits++;
       
-      if((filterData[i - rangeStart] & filter) == filter) {
+      if(words == null ?
+         (filterStore.get(i) & filter) == filter && (signatures == null || acceptSignature(signatureData[i - rangeStart], signatures)) :
+         wideFilters.matches(i, words)) {
         numFilterHits++;
         
         E elem = getElementStore().getElement(i);
@@ -153,6 +290,7 @@ public class ScannerTypeahead<E extends Element> extends AbstractTypeahead<E> im
   @Override
   public synchronized void flush() throws IOException {
     elementStore.persist();
+    commitFilterStore();
   }
   
   @Override
@@ -160,8 +298,15 @@ public class ScannerTypeahead<E extends Element> extends AbstractTypeahead<E> im
     int elemId = element.getElementId();
     if(elementStore.hasIndex(elemId)) {
       long scn = element.getTimestamp();
-      long elemFilter = bloomFilter.computeIndexFilter(element);
-      filterData[elemId - elementStore.getIndexStart()] = elemFilter;
+      if(wideFilters != null) {
+        wideBloomFilter.computeIndexWords(element, wideFilters.getInternalArray(), wideFilters.offset(elemId));
+      } else {
+        long elemFilter = computeIndexBits(element);
+        filterStore.set(elemId, elemFilter);
+        if(signatureData != null) {
+          signatureData[elemId - elementStore.getIndexStart()] = computeIndexSignature(element);
+        }
+      }
       elementStore.setElement(elemId, element, scn);
     }
     
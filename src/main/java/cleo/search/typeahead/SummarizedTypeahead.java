@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.typeahead;
+
+import cleo.search.Element;
+import cleo.search.collector.Collector;
+import cleo.search.filter.PrefixSummary;
+
+/**
+ * SummarizedTypeahead - A typeahead which summarizes the term prefixes of its elements and the queries
+ * found without results so that queries without any possible result can be skipped.
+ * 
+ * @since 10/18, 2026
+ * 
+ * @param <E> Element
+ */
+public interface SummarizedTypeahead<E extends Element> extends Typeahead<E> {
+  
+  /**
+   * @return the prefix summary kept up to date upon indexing, or <code>null</code> if not available.
+   */
+  public PrefixSummary getPrefixSummary();
+  
+  /**
+   * Tests whether a query is known to have no results without searching.
+   * 
+   * @param terms - the query terms
+   * @return <code>true</code> only if the query has no results.
+   */
+  public boolean isKnownEmpty(String[] terms);
+  
+  /**
+   * Searches a query which the caller has just found not known to be empty by {@link #isKnownEmpty(String[])},
+   * without looking it up again.
+   * 
+   * @param uid           - the user ID
+   * @param terms         - the query terms
+   * @param collector     - the collector of results
+   * @param timeoutMillis - the timeout in milliseconds
+   * @return the collector.
+   */
+  public Collector<E> searchChecked(int uid, String[] terms, Collector<E> collector, long timeoutMillis);
+}
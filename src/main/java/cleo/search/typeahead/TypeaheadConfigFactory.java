@@ -27,6 +27,7 @@ import krati.core.segment.SegmentFactory;
 import cleo.search.Element;
 import cleo.search.ElementSerializer;
 import cleo.search.connection.ConnectionFilter;
+import cleo.search.store.PostingCodecs;
 import cleo.search.util.PropertiesResolver;
 import cleo.search.util.Range;
 
@@ -38,6 +39,10 @@ import cleo.search.util.Range;
  * 
  * <p>
  * 12/12, 2011 - Added factory methods based on config file <br/>
+ * 10/18, 2026 - Added optional bloom filter type of generic typeahead <br/>
+ * 10/18, 2026 - Added optional hot prefixes of generic typeahead <br/>
+ * 10/18, 2026 - Added optional element store cache size of generic typeahead <br/>
+ * 10/18, 2026 - Added optional connections store posting codec of generic typeahead <br/>
  */
 public class TypeaheadConfigFactory {
   
@@ -65,11 +70,26 @@ public class TypeaheadConfigFactory {
    * cleo.search.generic.typeahead.config.connectionsStoreCapacity=1000000
    * cleo.search.generic.typeahead.config.connectionsStoreSegmentMB=64
    * cleo.search.generic.typeahead.config.connectionsStoreIndexSegmentMB=8
+   * cleo.search.generic.typeahead.config.connectionsStoreCodec=deltaVarint
    * 
    * cleo.search.generic.typeahead.config.filterPrefixLength=2
+   * cleo.search.generic.typeahead.config.filterType=fnv64
+   * cleo.search.generic.typeahead.config.filterStoreFile=${cleo.search.generic.typeahead.config.homeDir}/filter-store.dat
    * cleo.search.generic.typeahead.config.maxKeyLength=5
+   * cleo.search.generic.typeahead.config.hotPrefixLength=2
+   * cleo.search.generic.typeahead.config.hotPrefixTopK=100
+   * cleo.search.generic.typeahead.config.elementStoreCacheMB=256
    * </pre>
    * 
+   * <p>
+   * The property <code>filterStoreFile</code> is optional. If it is absent, bloom filters are kept on the heap only.
+   * The property <code>filterType</code> is optional and defaults to <code>fnv64</code>, see {@link cleo.search.filter.BloomFilters}.
+   * The properties <code>hotPrefixLength</code> and <code>hotPrefixTopK</code> are optional. Hot prefixes are disabled by default.
+   * The property <code>connectionsStoreCodec</code> is optional and defaults to <code>raw</code>, see {@link cleo.search.store.PostingCodecs}.
+   * The property <code>elementStoreCacheMB</code> is optional. If it is positive, only the hot elements up to the given size
+   * are cached in memory instead of all the elements.
+   * </p>
+   * 
    * @param properties - Typeahead configuration properties
    * @return <code>GenericTypeaheadConfig</code> if the properties specify a correct configuration.
    * @throws Exception if the properties specify an incorrect configuration.
@@ -110,6 +130,41 @@ public class TypeaheadConfigFactory {
     config.setMaxKeyLength(Integer.parseInt(properties.getProperty("cleo.search.generic.typeahead.config.maxKeyLength")));
     config.setFilterPrefixLength(Integer.parseInt(properties.getProperty("cleo.search.generic.typeahead.config.filterPrefixLength")));
     
+    // filterType (optional)
+    String filterType = properties.getProperty("cleo.search.generic.typeahead.config.filterType");
+    if(filterType != null && filterType.trim().length() > 0) {
+      config.setFilterType(filterType.trim());
+    }
+    
+    // filterStoreFile (optional)
+    String filterStoreFile = properties.getProperty("cleo.search.generic.typeahead.config.filterStoreFile");
+    if(filterStoreFile != null && filterStoreFile.trim().length() > 0) {
+      config.setFilterStoreFile(new File(filterStoreFile.trim()));
+    }
+    
+    // hotPrefixLength, hotPrefixTopK (optional)
+    String hotPrefixLength = properties.getProperty("cleo.search.generic.typeahead.config.hotPrefixLength");
+    if(hotPrefixLength != null && hotPrefixLength.trim().length() > 0) {
+      config.setHotPrefixLength(Integer.parseInt(hotPrefixLength.trim()));
+    }
+    
+    String hotPrefixTopK = properties.getProperty("cleo.search.generic.typeahead.config.hotPrefixTopK");
+    if(hotPrefixTopK != null && hotPrefixTopK.trim().length() > 0) {
+      config.setHotPrefixTopK(Integer.parseInt(hotPrefixTopK.trim()));
+    }
+    
+    // connectionsStoreCodec (optional)
+    String connectionsStoreCodec = properties.getProperty("cleo.search.generic.typeahead.config.connectionsStoreCodec");
+    if(connectionsStoreCodec != null && connectionsStoreCodec.trim().length() > 0) {
+      config.setConnectionsStoreCodec(PostingCodecs.getCodec(connectionsStoreCodec.trim()));
+    }
+    
+    // elementStoreCacheMB (optional)
+    String elementStoreCacheMB = properties.getProperty("cleo.search.generic.typeahead.config.elementStoreCacheMB");
+    if(elementStoreCacheMB != null && elementStoreCacheMB.trim().length() > 0) {
+      config.setElementStoreCacheMB(Integer.parseInt(elementStoreCacheMB.trim()));
+    }
+    
     return config;
   }
   
@@ -139,8 +194,23 @@ public class TypeaheadConfigFactory {
    *  cleo.search.network.typeahead.config.connectionsStoreSegmentMB=64
    *  
    *  cleo.search.network.typeahead.config.filterPrefixLength=2
+   *  cleo.search.network.typeahead.config.filterStoreFile=${cleo.search.network.typeahead.config.homeDir}/filter-store.dat
+   *  cleo.search.network.typeahead.config.maxByteArrayKB=16384
+   *  cleo.search.network.typeahead.config.threadLocalByteArrayKB=128
+   *  cleo.search.network.typeahead.config.bytesPoolRetainedMB=64
    * </pre>
    * 
+   * <p>
+   * The property <code>filterStoreFile</code> is optional. If it is absent, bloom filters are kept on the heap only.
+   * </p>
+   * 
+   * <p>
+   * The properties <code>maxByteArrayKB</code>, <code>threadLocalByteArrayKB</code> and <code>bytesPoolRetainedMB</code>
+   * are optional and configure the byte arrays pooled for reading connections: the largest size class (16MB by default),
+   * the largest size class cached per thread (128KB by default), and the bound of retained bytes, which defaults to four
+   * times the largest size class so that arrays of the largest size classes are reused.
+   * </p>
+   * 
    * @param properties - Typeahead configuration properties
    * @return <code>NetworkTypeaheadConfig</code> if the properties specify a correct configuration.
    * @throws Exception if the properties specify an incorrect configuration. 
@@ -182,6 +252,30 @@ public class TypeaheadConfigFactory {
     // BloomFilter prefix length
     config.setFilterPrefixLength(Integer.parseInt(properties.getProperty("cleo.search.network.typeahead.config.filterPrefixLength")));
     
+    // filterStoreFile (optional)
+    String filterStoreFile = properties.getProperty("cleo.search.network.typeahead.config.filterStoreFile");
+    if(filterStoreFile != null && filterStoreFile.trim().length() > 0) {
+      config.setFilterStoreFile(new File(filterStoreFile.trim()));
+    }
+    
+    // maxByteArrayKB (optional)
+    String maxByteArrayKB = properties.getProperty("cleo.search.network.typeahead.config.maxByteArrayKB");
+    if(maxByteArrayKB != null && maxByteArrayKB.trim().length() > 0) {
+      config.setMaxByteArraySize(Integer.parseInt(maxByteArrayKB.trim()) << 10);
+    }
+    
+    // threadLocalByteArrayKB (optional)
+    String threadLocalByteArrayKB = properties.getProperty("cleo.search.network.typeahead.config.threadLocalByteArrayKB");
+    if(threadLocalByteArrayKB != null && threadLocalByteArrayKB.trim().length() > 0) {
+      config.setThreadLocalByteArraySize(Integer.parseInt(threadLocalByteArrayKB.trim()) << 10);
+    }
+    
+    // bytesPoolRetainedMB (optional)
+    String bytesPoolRetainedMB = properties.getProperty("cleo.search.network.typeahead.config.bytesPoolRetainedMB");
+    if(bytesPoolRetainedMB != null && bytesPoolRetainedMB.trim().length() > 0) {
+      config.setBytesPoolRetainedBytes(Long.parseLong(bytesPoolRetainedMB.trim()) << 20);
+    }
+    
     return config;
   }
   
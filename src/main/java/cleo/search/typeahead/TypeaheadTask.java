@@ -33,17 +33,29 @@ public class TypeaheadTask<E extends Element> implements Callable<Collector<E>>
   private final String[] terms;
   private final Collector<E> collector;
   private final long timeoutMillis;
+  private final boolean checked;
   
   public TypeaheadTask(Typeahead<E> ta, int uid, String[] terms, Collector<E> collector, long timeoutMillis) {
+    this(ta, uid, terms, collector, timeoutMillis, false);
+  }
+  
+  /**
+   * @param checked - whether the query was found not known to be empty by a {@link SummarizedTypeahead}
+   */
+  public TypeaheadTask(Typeahead<E> ta, int uid, String[] terms, Collector<E> collector, long timeoutMillis, boolean checked) {
     this.ta = ta;
     this.uid = uid;
     this.terms = terms;
     this.collector = collector;
     this.timeoutMillis = timeoutMillis;
+    this.checked = checked && (ta instanceof SummarizedTypeahead);
   }
   
   @Override
   public Collector<E> call() throws Exception {
+    if(checked) {
+      return ((SummarizedTypeahead<E>)ta).searchChecked(uid, terms, collector, timeoutMillis);
+    }
     return ta.search(uid, terms, collector, timeoutMillis);
   }
   
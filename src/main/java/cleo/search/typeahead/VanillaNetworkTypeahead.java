@@ -16,6 +16,7 @@
 
 package cleo.search.typeahead;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -24,13 +25,14 @@ import java.util.List;
 import org.apache.log4j.Logger;
 
 import cleo.search.Element;
-import cleo.search.Indexer;
+import cleo.search.RangeIndexer;
 import cleo.search.collector.Collector;
 import cleo.search.collector.SimpleCollector;
 import cleo.search.connection.Connection;
 import cleo.search.connection.ConnectionFilter;
-import cleo.search.connection.ConnectionIndexer;
+import cleo.search.connection.FilteredConnectionIndexer;
 import cleo.search.filter.BloomFilter;
+import cleo.search.filter.IntBloomFilter;
 import cleo.search.network.Proximity;
 import cleo.search.selector.Selector;
 import cleo.search.selector.SelectorContext;
@@ -38,11 +40,12 @@ import cleo.search.selector.SelectorFactory;
 import cleo.search.store.ArrayStoreConnections;
 import cleo.search.store.ArrayStoreElement;
 import cleo.search.store.IntArrayPartition;
+import cleo.search.store.MappedIntFilterStore;
 import cleo.search.store.StaticIntArrayPartition;
+import cleo.search.util.BytesPool;
 import cleo.search.util.IntIterator;
 import cleo.search.util.IntIteratorFromBytes;
 import cleo.search.util.Range;
-import cleo.search.util.ResourcePool;
 
 /**
  * VanillaNetworkTypeahead
@@ -53,8 +56,13 @@ import cleo.search.util.ResourcePool;
  * <p>
  * 07/22, 2011 - Added lock objects to improve update synchronization <br/>
  * 09/18, 2011 - Added support for partially reading network connections <br/>
+ * 10/18, 2026 - Added optional memory-mapped filter store file to skip recomputing filters at startup <br/>
+ * 10/18, 2026 - Replaced the fixed-size byte array pool with a size-classed pool with thread-local caches <br/>
+ * 10/18, 2026 - Added constructor taking the size classes and retained bytes of the byte array pool <br/>
+ * 10/18, 2026 - Exposed range and connection filter for routing in MultiIndexer and MultiConnectionIndexer <br/>
+ * 10/18, 2026 - Computed filters without boxing for primitive bloom filters <br/>
  */
-public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeahead<E>, Indexer<E>, ConnectionIndexer {
+public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeahead<E>, RangeIndexer<E>, FilteredConnectionIndexer {
   private final static Logger logger = Logger.getLogger(VanillaNetworkTypeahead.class);
   private final Object elementStoreLock = new Object();
   private final Object connectionsStoreLock = new Object();
@@ -64,7 +72,9 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
   protected final ArrayStoreConnections connectionsStore;
   protected final SelectorFactory<E> selectorFactory;
   protected final BloomFilter<Integer> bloomFilter;
+  protected final IntBloomFilter intBloomFilter;
   protected final IntArrayPartition filterStore;
+  protected final File filterStoreFile;
   protected final ConnectionFilter connFilter;
   protected final Range range;
   
@@ -72,12 +82,21 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
   protected boolean partialReadEnabled = false;
   
   // byte array resource pool
+  /**
+   * @deprecated The pool is bounded by retained bytes, see {@link #BYTES_POOL_RETAINED_BYTES_DEFAULT}.
+   */
+  @Deprecated
   public final static int BYTES_POOL_SIZE_DEFAULT = 100;
   public final static int BYTE_ARRAY_SIZE_DEFAULT = 1 << 15;  // 32K bytes
+  public final static int BYTE_ARRAY_SIZE_MAX_DEFAULT = 1 << 24;  // 16M bytes
+  public final static int BYTE_ARRAY_SIZE_THREAD_LOCAL_DEFAULT = 1 << 17;  // 128K bytes
+  public final static long BYTES_POOL_RETAINED_BYTES_DEFAULT = 4L * BYTE_ARRAY_SIZE_MAX_DEFAULT;  // 64M bytes
   
-  protected final ResourcePool<byte[]> bytesPool;
-  protected int bytesPoolSize = BYTES_POOL_SIZE_DEFAULT;
+  protected final BytesPool bytesPool;
   protected int byteArraySize = BYTE_ARRAY_SIZE_DEFAULT;
+  protected int maxByteArraySize = BYTE_ARRAY_SIZE_MAX_DEFAULT;
+  protected int threadLocalByteArraySize = BYTE_ARRAY_SIZE_THREAD_LOCAL_DEFAULT;
+  protected long bytesPoolRetainedBytes = BYTES_POOL_RETAINED_BYTES_DEFAULT;
   
   /**
    * Creates a new TypeaheadSearch instance.
@@ -94,12 +113,61 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
                                  SelectorFactory<E> selectorFactory,
                                  BloomFilter<Integer> bloomFilter,
                                  ConnectionFilter connFilter) {
+    this(name, elementStore, connectionsStore, selectorFactory, bloomFilter, connFilter, null);
+  }
+  
+  /**
+   * Creates a new TypeaheadSearch instance.
+   * 
+   * @param elementStore       - Element store
+   * @param connectionsStore   - Element connections store
+   * @param selectorFactory    - Element selector factory
+   * @param bloomFilter        - Bloom filter
+   * @param connFilter         - Connection filter for indexing
+   * @param filterStoreFile    - File of the memory-mapped filter store, <code>null</code> to keep filters on the heap
+   */
+  public VanillaNetworkTypeahead(String name,
+                                 ArrayStoreElement<E> elementStore,
+                                 ArrayStoreConnections connectionsStore,
+                                 SelectorFactory<E> selectorFactory,
+                                 BloomFilter<Integer> bloomFilter,
+                                 ConnectionFilter connFilter,
+                                 File filterStoreFile) {
+    this(name, elementStore, connectionsStore, selectorFactory, bloomFilter, connFilter, filterStoreFile,
+         BYTE_ARRAY_SIZE_MAX_DEFAULT, BYTE_ARRAY_SIZE_THREAD_LOCAL_DEFAULT, BYTES_POOL_RETAINED_BYTES_DEFAULT);
+  }
+  
+  /**
+   * Creates a new TypeaheadSearch instance.
+   * 
+   * @param elementStore             - Element store
+   * @param connectionsStore         - Element connections store
+   * @param selectorFactory          - Element selector factory
+   * @param bloomFilter              - Bloom filter
+   * @param connFilter               - Connection filter for indexing
+   * @param filterStoreFile          - File of the memory-mapped filter store, <code>null</code> to keep filters on the heap
+   * @param maxByteArraySize         - Largest size class of the byte array pool for reading connections
+   * @param threadLocalByteArraySize - Largest size class of byte arrays cached per thread
+   * @param bytesPoolRetainedBytes   - Maximum number of bytes retained by the byte array pool
+   */
+  public VanillaNetworkTypeahead(String name,
+                                 ArrayStoreElement<E> elementStore,
+                                 ArrayStoreConnections connectionsStore,
+                                 SelectorFactory<E> selectorFactory,
+                                 BloomFilter<Integer> bloomFilter,
+                                 ConnectionFilter connFilter,
+                                 File filterStoreFile,
+                                 int maxByteArraySize,
+                                 int threadLocalByteArraySize,
+                                 long bytesPoolRetainedBytes) {
     this.name = name;
     this.elementStore = elementStore;
     this.connectionsStore = connectionsStore;
     this.selectorFactory = selectorFactory;
     this.bloomFilter = bloomFilter;
+    this.intBloomFilter = (bloomFilter instanceof IntBloomFilter) ? (IntBloomFilter)bloomFilter : null;
     this.connFilter = connFilter;
+    this.filterStoreFile = filterStoreFile;
     
     // Initialize bloom filter store
     this.filterStore = initFilterStore();
@@ -108,7 +176,10 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
     this.range = new Range(elementStore.getIndexStart(), elementStore.capacity());
     
     // Initialize the resource pool for byte array
-    this.bytesPool = new ResourcePool<byte[]>(bytesPoolSize);
+    this.maxByteArraySize = maxByteArraySize;
+    this.threadLocalByteArraySize = threadLocalByteArraySize;
+    this.bytesPoolRetainedBytes = bytesPoolRetainedBytes;
+    this.bytesPool = new BytesPool(byteArraySize, maxByteArraySize, threadLocalByteArraySize, bytesPoolRetainedBytes);
     
     // List properties
     this.listProperties();
@@ -126,26 +197,49 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
     getLogger().info(String.format(format, "filterStore", filterStore.getClass().getName()));
     getLogger().info(String.format(format, "connectionFilter", connFilter.toString()));
     getLogger().info(String.format(format, "range", range.toString()));
-    getLogger().info("# bytesPoolSize: " + bytesPoolSize);
     getLogger().info("# byteArraySize: " + byteArraySize);
+    getLogger().info("# maxByteArraySize: " + maxByteArraySize);
+    getLogger().info("# threadLocalByteArraySize: " + threadLocalByteArraySize);
+    getLogger().info("# bytesPoolRetainedBytes: " + bytesPool.getMaxRetainedBytes());
   }
   
   protected IntArrayPartition initFilterStore() {
     long startTime = System.currentTimeMillis();
     
-    IntArrayPartition p = new StaticIntArrayPartition(elementStore.getIndexStart(), elementStore.capacity());
+    IntArrayPartition p = null;
+    if(filterStoreFile != null) {
+      try {
+        MappedIntFilterStore m = new MappedIntFilterStore(filterStoreFile, elementStore.getIndexStart(), elementStore.capacity(), bloomFilter, elementStore.getHWMark());
+        if(m.isValid(elementStore.getHWMark())) {
+          long totalTime = System.currentTimeMillis() - startTime;
+          getLogger().info(getName() + " load filter store " + filterStoreFile.getAbsolutePath() + ": " + totalTime + " ms");
+          return m;
+        }
+        p = m;
+      } catch(IOException e) {
+        getLogger().warn(getName() + " failed to open filter store " + filterStoreFile.getAbsolutePath(), e);
+      }
+    }
+    
+    if(p == null) {
+      p = new StaticIntArrayPartition(elementStore.getIndexStart(), elementStore.capacity());
+    }
     
     try {
       for(int i = p.getIndexStart(), end = p.getIndexEnd(); i < end; i++) {
         E element = elementStore.getElement(i);
         if(element != null) {
-          p.set(i, bloomFilter.computeIndexFilter(element));
+          p.set(i, computeIndexBits(element));
         }
       }
     } catch(Exception e) {
       getLogger().error("failed to initialize filter store");
     }
     
+    if(p instanceof MappedIntFilterStore) {
+      ((MappedIntFilterStore)p).commit(elementStore.getHWMark());
+    }
+    
     long totalTime = System.currentTimeMillis() - startTime;
     getLogger().info(getName() + " init filter store: " + totalTime + " ms");
     
@@ -169,6 +263,14 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
     return bloomFilter;
   }
   
+  protected final int computeIndexBits(E element) {
+    return (intBloomFilter != null) ? intBloomFilter.computeIndexBits(element) : bloomFilter.computeIndexFilter(element);
+  }
+  
+  protected final int computeQueryBits(String[] terms) {
+    return (intBloomFilter != null) ? intBloomFilter.computeQueryBits(terms) : bloomFilter.computeQueryFilter(terms);
+  }
+  
   public final ConnectionFilter getConnectionFilter() {
     return connFilter;
   }
@@ -210,8 +312,14 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
   }
   
   protected byte[] getBytesFromPool() {
-    byte[] bytes = bytesPool.get();
-    return (bytes == null) ? bytes = new byte[byteArraySize] : bytes;
+    return bytesPool.get(byteArraySize);
+  }
+  
+  /**
+   * @return the byte array pool for reading connections.
+   */
+  public final BytesPool getBytesPool() {
+    return bytesPool;
   }
   
   protected void searchInternal(int uid, String[] terms, Collector<E> collector, Selector<E> selector, HitStats hitStats, long timeoutMillis) {
@@ -223,20 +331,14 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
         IntIteratorFromBytes elemIdIter = getConnectionIterator(uid, bytes);
         if(elemIdIter != null) {
           bytes = elemIdIter.array();
-          int filter = bloomFilter.computeQueryFilter(terms);
+          int filter = computeQueryBits(terms);
           applyFilter(filter, elemIdIter, collector, selector, hitStats, timeoutMillis);
         }
       } catch(Exception e) {
         getLogger().warn(e.getMessage(), e);
       } finally {
         // Return the byte array to resource pool
-        if(bytes != null && bytes.length == byteArraySize) {
-          bytesPool.put(bytes);
-        } else {
-          if(bytes != null) {
-            getLogger().info("bytes on the fly: " + bytes.length);
-          }
-        }
+        bytesPool.put(bytes);
       }
     }
   }
@@ -250,20 +352,14 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
         IntIteratorFromBytes elemIdIter = getConnectionIterator(uid, bytes);
         if(elemIdIter != null) {
           bytes = elemIdIter.array();
-          int filter = bloomFilter.computeQueryFilter(terms);
+          int filter = computeQueryBits(terms);
           applyFilter(filter, elemIdIter, collector, selector, uniqIds, hitStats, timeoutMillis);
         }
       } catch(Exception e) {
         getLogger().warn(e.getMessage(), e);
       } finally {
         // Return the byte array to resource pool
-        if(bytes != null && bytes.length == byteArraySize) {
-          bytesPool.put(bytes);
-        } else {
-          if(bytes != null) {
-            getLogger().info("bytes on the fly: " + bytes.length);
-          }
-        }
+        bytesPool.put(bytes);
       }
     }
   }
@@ -473,7 +569,7 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
     
     synchronized(elementStoreLock) {
       // Update elementStore
-      int elemFilter = getBloomFilter().computeIndexFilter(element);
+      int elemFilter = computeIndexBits(element);
       filterStore.set(elemId, elemFilter);
       elementStore.setElement(elemId, element, element.getTimestamp());
       
@@ -532,6 +628,9 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
   public void flush() throws IOException {
     synchronized(elementStoreLock) {
       elementStore.persist();
+      if(filterStore instanceof MappedIntFilterStore) {
+        ((MappedIntFilterStore)filterStore).commit(elementStore.getHWMark());
+      }
     }
     synchronized(connectionsStoreLock) {
       connectionsStore.persist();
@@ -612,7 +711,7 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
     final long startTime = System.currentTimeMillis();
     long totalTime = 0;
     
-    int filter = bloomFilter.computeQueryFilter(terms);
+    int filter = computeQueryBits(terms);
     if(connectionsStore.hasIndex(uid)) {
       int[] connections = context.getConnections();
       if(connections != null) {
@@ -640,10 +739,7 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
          *********************************************************************/
         
         // Obtain a byte array from resource pool
-        byte[] bytes = bytesPool.get();
-        if(bytes == null) {
-          bytes = new byte[byteArraySize];
-        }
+        byte[] bytes = getBytesFromPool();
         
         try {
           for(int i = 0, cnt = connections.length; i < cnt; i++) {
@@ -667,13 +763,7 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
           getLogger().warn(e.getMessage(), e);
         } finally {
           // Return the byte array to resource pool
-          if(bytes != null && bytes.length == byteArraySize) {
-            bytesPool.put(bytes);
-          } else {
-            if(bytes != null) {
-              getLogger().info("bytes on the fly: " + bytes.length);
-            }
-          }
+          bytesPool.put(bytes);
         }
       }
     }
@@ -748,17 +838,24 @@ public class VanillaNetworkTypeahead<E extends Element> implements NetworkTypeah
       
       // Check whether connection strength data was read successfully
       if(lenRead < 0) {
-        if(connectionsStore.getLength(uid) > bytes.length) {
-          // Read a new byte array from the connection store
-          byte[] bytesNew = connectionsStore.getBytes(uid);
-          if(bytesNew != null) {
-            lenRead = bytesNew.length;
-            
+        int length = connectionsStore.getLength(uid);
+        if(length > bytes.length) {
+          // Read into a larger byte array from resource pool
+          byte[] bytesNew = bytesPool.get(length);
+          lenRead = connectionsStore.getBytes(uid, bytesNew);
+          if(lenRead < 0) {
+            // Data grew after its length was read
+            bytesPool.put(bytesNew);
+            bytesNew = connectionsStore.getBytes(uid);
+            lenRead = (bytesNew == null) ? -1 : bytesNew.length;
+          }
+          
+          if(lenRead > 0) {
             // Return the byte array to resource pool
-            if(lenRead > 0 && bytes.length == byteArraySize) {
-              bytesPool.put(bytes);
-            }
+            bytesPool.put(bytes);
             bytes = bytesNew;
+          } else {
+            bytesPool.put(bytesNew);
           }
         }
       }
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.util;
+
+import java.util.Arrays;
+
+/**
+ * ArrayContainer - A bitmap container of up to {@link BitmapContainer#MAX_ARRAY_SIZE} sorted 16-bit values.
+ * 
+ * @since 10/18, 2026
+ */
+final class ArrayContainer extends BitmapContainer {
+  final char[] values;
+  
+  ArrayContainer(char[] values) {
+    this.values = values;
+  }
+  
+  @Override
+  int cardinality() {
+    return values.length;
+  }
+  
+  @Override
+  boolean contains(int low) {
+    return Arrays.binarySearch(values, (char)low) >= 0;
+  }
+  
+  @Override
+  int nextValue(int low) {
+    if(low > 0xFFFF) return -1;
+    int i = Arrays.binarySearch(values, (char)low);
+    if(i < 0) i = -i - 1;
+    return (i < values.length) ? values[i] : -1;
+  }
+  
+  @Override
+  BitmapContainer add(int low) {
+    int i = Arrays.binarySearch(values, (char)low);
+    if(i >= 0) return this;
+    
+    i = -i - 1;
+    char[] upd = new char[values.length + 1];
+    System.arraycopy(values, 0, upd, 0, i);
+    upd[i] = (char)low;
+    System.arraycopy(values, i, upd, i + 1, values.length - i);
+    return valueOf(upd, upd.length);
+  }
+  
+  @Override
+  BitmapContainer remove(int low) {
+    int i = Arrays.binarySearch(values, (char)low);
+    if(i < 0) return this;
+    if(values.length == 1) return null;
+    
+    char[] upd = new char[values.length - 1];
+    System.arraycopy(values, 0, upd, 0, i);
+    System.arraycopy(values, i + 1, upd, i, upd.length - i);
+    return new ArrayContainer(upd);
+  }
+  
+  @Override
+  BitmapContainer and(BitmapContainer c) {
+    char[] result = new char[values.length];
+    int cnt = 0;
+    for(char v : values) {
+      if(c.contains(v)) result[cnt++] = v;
+    }
+    return (cnt == 0) ? null : new ArrayContainer(Arrays.copyOf(result, cnt));
+  }
+  
+  @Override
+  int getSizeInBytes() {
+    return values.length << 1;
+  }
+  
+  @Override
+  void fill(long[] words) {
+    for(char v : values) {
+      words[v >>> 6] |= 1L << v;
+    }
+  }
+  
+  @Override
+  int toArray(int high, int[] dst, int offset) {
+    for(int i = 0; i < values.length; i++) {
+      dst[offset + i] = high | values[i];
+    }
+    return values.length;
+  }
+}
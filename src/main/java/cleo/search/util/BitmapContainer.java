@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.util;
+
+/**
+ * BitmapContainer - The set of the low 16 bits of integers sharing the same high 16 bits in an {@link IntBitmap}.
+ * 
+ * <p>
+ * Containers are immutable so that readers never need locking. Updates return a new container.
+ * 
+ * @since 10/18, 2026
+ */
+abstract class BitmapContainer {
+  /**
+   * The maximum cardinality of an array container.
+   */
+  final static int MAX_ARRAY_SIZE = 4096;
+  
+  /**
+   * The number of longs in a bitset container.
+   */
+  final static int BITSET_WORDS = 1024;
+  
+  /**
+   * @return the number of values.
+   */
+  abstract int cardinality();
+  
+  /**
+   * @return <code>true</code> if the low 16-bit value is in this container.
+   */
+  abstract boolean contains(int low);
+  
+  /**
+   * @return the smallest value not less than <code>low</code>, or <code>-1</code> if there is none.
+   */
+  abstract int nextValue(int low);
+  
+  /**
+   * @return the container with the value added.
+   */
+  abstract BitmapContainer add(int low);
+  
+  /**
+   * @return the container with the value removed, or <code>null</code> if the container becomes empty.
+   */
+  abstract BitmapContainer remove(int low);
+  
+  /**
+   * @return the intersection with another container, or <code>null</code> if the intersection is empty.
+   */
+  abstract BitmapContainer and(BitmapContainer c);
+  
+  /**
+   * @return the approximate number of bytes held by this container.
+   */
+  abstract int getSizeInBytes();
+  
+  /**
+   * Sets the bits of all values in a bitset of {@link #BITSET_WORDS} longs.
+   */
+  abstract void fill(long[] words);
+  
+  /**
+   * Copies values to an array.
+   * 
+   * @return the number of values copied.
+   */
+  int toArray(int high, int[] dst, int offset) {
+    int cnt = 0;
+    for(int v = nextValue(0); v >= 0; v = nextValue(v + 1)) {
+      dst[offset + cnt++] = high | v;
+    }
+    return cnt;
+  }
+  
+  /**
+   * Creates the smallest container for sorted and distinct low 16-bit values.
+   * 
+   * @return the container, or <code>null</code> if there are no values.
+   */
+  static BitmapContainer valueOf(char[] values, int length) {
+    if(length == 0) return null;
+    
+    int numRuns = 1;
+    for(int i = 1; i < length; i++) {
+      if(values[i] != values[i - 1] + 1) numRuns++;
+    }
+    
+    int runBytes = numRuns << 2;
+    int arrayBytes = length << 1;
+    int bitsetBytes = BITSET_WORDS << 3;
+    
+    if(runBytes < arrayBytes && runBytes < bitsetBytes) {
+      return RunContainer.valueOf(values, length, numRuns);
+    }
+    
+    if(length <= MAX_ARRAY_SIZE) {
+      char[] array = new char[length];
+      System.arraycopy(values, 0, array, 0, length);
+      return new ArrayContainer(array);
+    }
+    
+    long[] words = new long[BITSET_WORDS];
+    for(int i = 0; i < length; i++) {
+      words[values[i] >>> 6] |= 1L << values[i];
+    }
+    return new BitsetContainer(words, length);
+  }
+  
+  /**
+   * Creates the smallest container for the values of a bitset.
+   */
+  static BitmapContainer valueOf(long[] words) {
+    int cnt = 0;
+    for(long w : words) {
+      cnt += Long.bitCount(w);
+    }
+    if(cnt == 0) return null;
+    
+    char[] values = new char[cnt];
+    int n = 0;
+    for(int i = 0; i < words.length; i++) {
+      long w = words[i];
+      while(w != 0) {
+        values[n++] = (char)((i << 6) + Long.numberOfTrailingZeros(w));
+        w &= w - 1;
+      }
+    }
+    return valueOf(values, cnt);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.util;
+
+/**
+ * BitsetContainer - A bitmap container of 65536 bits for more than {@link BitmapContainer#MAX_ARRAY_SIZE} values.
+ * 
+ * @since 10/18, 2026
+ */
+final class BitsetContainer extends BitmapContainer {
+  final long[] words;
+  final int cardinality;
+  
+  BitsetContainer(long[] words, int cardinality) {
+    this.words = words;
+    this.cardinality = cardinality;
+  }
+  
+  @Override
+  int cardinality() {
+    return cardinality;
+  }
+  
+  @Override
+  boolean contains(int low) {
+    return (words[low >>> 6] & (1L << low)) != 0;
+  }
+  
+  @Override
+  int nextValue(int low) {
+    if(low > 0xFFFF) return -1;
+    
+    int i = low >>> 6;
+    long w = words[i] & (-1L << low);
+    while(w == 0) {
+      if(++i == BITSET_WORDS) return -1;
+      w = words[i];
+    }
+    return (i << 6) + Long.numberOfTrailingZeros(w);
+  }
+  
+  @Override
+  BitmapContainer add(int low) {
+    if(contains(low)) return this;
+    
+    long[] upd = words.clone();
+    upd[low >>> 6] |= 1L << low;
+    return new BitsetContainer(upd, cardinality + 1);
+  }
+  
+  @Override
+  BitmapContainer remove(int low) {
+    if(!contains(low)) return this;
+    
+    long[] upd = words.clone();
+    upd[low >>> 6] &= ~(1L << low);
+    return (cardinality - 1 <= MAX_ARRAY_SIZE) ? valueOf(upd) : new BitsetContainer(upd, cardinality - 1);
+  }
+  
+  @Override
+  BitmapContainer and(BitmapContainer c) {
+    if(c instanceof ArrayContainer) {
+      return c.and(this);
+    }
+    
+    long[] result = new long[BITSET_WORDS];
+    c.fill(result);
+    for(int i = 0; i < BITSET_WORDS; i++) {
+      result[i] &= words[i];
+    }
+    return valueOf(result);
+  }
+  
+  @Override
+  int getSizeInBytes() {
+    return BITSET_WORDS << 3;
+  }
+  
+  @Override
+  void fill(long[] dst) {
+    for(int i = 0; i < BITSET_WORDS; i++) {
+      dst[i] |= words[i];
+    }
+  }
+}
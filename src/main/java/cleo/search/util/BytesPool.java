@@ -0,0 +1,292 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.util;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * BytesPool - A pool of byte arrays in power-of-two size classes.
+ * 
+ * <p>
+ * Each thread keeps one array per size class up to {@link #getThreadLocalMaxSize()} in a thread-local cache.
+ * Arrays not fitting in the cache of the returning thread go to a shared queue of their size class. Thread-local
+ * caches and shared queues together retain at most {@link #getMaxRetainedBytes()} bytes. The caches of threads
+ * which have died are released once the bound is reached. Requests beyond {@link #getMaxSize()} are allocated
+ * on the fly and never retained. The bound should be a few times {@link #getMaxSize()}, since arrays of a size
+ * class larger than the bound are never retained either.
+ * 
+ * @since 10/18, 2026
+ */
+public class BytesPool {
+  private final int minShift;
+  private final int maxShift;
+  private final int threadLocalMaxShift;
+  private volatile long maxRetainedBytes;
+  
+  private final ConcurrentLinkedQueue<byte[]>[] queues;
+  private final ThreadLocal<byte[][]> threadLocalCache;
+  private final ConcurrentLinkedQueue<ThreadCache> threadCaches = new ConcurrentLinkedQueue<ThreadCache>();
+  
+  private final AtomicLong retainedBytes = new AtomicLong();
+  private final AtomicLong numGets = new AtomicLong();
+  private final AtomicLong numHits = new AtomicLong();
+  private final AtomicLong numAllocs = new AtomicLong();
+  private final AtomicLong numOnTheFly = new AtomicLong();
+  private final AtomicLong numDrops = new AtomicLong();
+  
+  /**
+   * Creates a new BytesPool.
+   * 
+   * @param minSize            - the smallest size class, rounded up to a power of two
+   * @param maxSize            - the largest size class, rounded up to a power of two
+   * @param threadLocalMaxSize - the largest size class cached per thread
+   * @param maxRetainedBytes   - the maximum number of bytes retained in thread-local caches and shared queues
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public BytesPool(int minSize, int maxSize, int threadLocalMaxSize, long maxRetainedBytes) {
+    this.minShift = shiftOf(Math.max(minSize, 16));
+    this.maxShift = Math.max(minShift, shiftOf(maxSize));
+    this.threadLocalMaxShift = Math.min(maxShift, shiftOf(threadLocalMaxSize));
+    this.maxRetainedBytes = maxRetainedBytes;
+    
+    this.queues = new ConcurrentLinkedQueue[maxShift - minShift + 1];
+    for(int i = 0; i < queues.length; i++) {
+      queues[i] = new ConcurrentLinkedQueue<byte[]>();
+    }
+    
+    final int numCached = Math.max(0, threadLocalMaxShift - minShift + 1);
+    this.threadLocalCache = new ThreadLocal<byte[][]>() {
+      @Override
+      protected byte[][] initialValue() {
+        ThreadCache c = new ThreadCache(Thread.currentThread(), new byte[numCached][]);
+        threadCaches.offer(c);
+        return c.arrays;
+      }
+    };
+  }
+  
+  /**
+   * @return the smallest shift such that <code>(1 << shift) >= size</code>.
+   */
+  private static int shiftOf(int size) {
+    if(size <= 1) return 0;
+    if(size > (1 << 30)) {
+      throw new IllegalArgumentException("Size too large: " + size);
+    }
+    return 32 - Integer.numberOfLeadingZeros(size - 1);
+  }
+  
+  /**
+   * Gets a byte array of at least the specified length.
+   * 
+   * @param minLength - the minimum length
+   * @return a pooled array of a size class, or an exact-length array if the length exceeds the largest size class.
+   */
+  public byte[] get(int minLength) {
+    numGets.incrementAndGet();
+    
+    if(minLength > getMaxSize()) {
+      numOnTheFly.incrementAndGet();
+      return new byte[minLength];
+    }
+    
+    int shift = Math.max(minShift, shiftOf(minLength));
+    int cls = shift - minShift;
+    
+    if(shift <= threadLocalMaxShift) {
+      byte[][] cache = threadLocalCache.get();
+      byte[] bytes = cache[cls];
+      if(bytes != null) {
+        cache[cls] = null;
+        retainedBytes.addAndGet(-bytes.length);
+        numHits.incrementAndGet();
+        return bytes;
+      }
+    }
+    
+    byte[] bytes = queues[cls].poll();
+    if(bytes != null) {
+      retainedBytes.addAndGet(-bytes.length);
+      numHits.incrementAndGet();
+      return bytes;
+    }
+    
+    numAllocs.incrementAndGet();
+    return new byte[1 << shift];
+  }
+  
+  /**
+   * Returns a byte array to the pool. Arrays not of a size class are ignored.
+   * 
+   * @return <code>true</code> if the array is retained for reuse.
+   */
+  public boolean put(byte[] bytes) {
+    if(bytes == null) return false;
+    
+    int len = bytes.length;
+    if(len < getMinSize() || len > getMaxSize() || (len & (len - 1)) != 0) {
+      return false;
+    }
+    
+    int shift = shiftOf(len);
+    int cls = shift - minShift;
+    
+    if(!reserve(len) && (releaseDeadThreadCaches() == 0 || !reserve(len))) {
+      numDrops.incrementAndGet();
+      return false;
+    }
+    
+    if(shift <= threadLocalMaxShift) {
+      byte[][] cache = threadLocalCache.get();
+      if(cache[cls] == null) {
+        cache[cls] = bytes;
+        return true;
+      }
+    }
+    
+    queues[cls].offer(bytes);
+    return true;
+  }
+  
+  /**
+   * Reserves retained bytes within the bound.
+   */
+  private boolean reserve(int len) {
+    if(retainedBytes.addAndGet(len) <= maxRetainedBytes) {
+      return true;
+    }
+    
+    retainedBytes.addAndGet(-len);
+    return false;
+  }
+  
+  /**
+   * Releases the arrays cached by threads which have died.
+   * 
+   * @return the number of bytes released.
+   */
+  private long releaseDeadThreadCaches() {
+    long released = 0;
+    
+    for(ThreadCache c : threadCaches) {
+      Thread t = c.owner.get();
+      if((t == null || !t.isAlive()) && threadCaches.remove(c)) {
+        for(byte[] bytes : c.arrays) {
+          if(bytes != null) released += bytes.length;
+        }
+      }
+    }
+    
+    if(released > 0) {
+      retainedBytes.addAndGet(-released);
+    }
+    return released;
+  }
+  
+  public final int getMinSize() {
+    return 1 << minShift;
+  }
+  
+  public final int getMaxSize() {
+    return 1 << maxShift;
+  }
+  
+  public final int getThreadLocalMaxSize() {
+    return 1 << threadLocalMaxShift;
+  }
+  
+  public final long getMaxRetainedBytes() {
+    return maxRetainedBytes;
+  }
+  
+  public final void setMaxRetainedBytes(long maxRetainedBytes) {
+    this.maxRetainedBytes = maxRetainedBytes;
+  }
+  
+  /**
+   * @return the number of bytes retained in thread-local caches and shared queues.
+   */
+  public long getRetainedBytes() {
+    return retainedBytes.get();
+  }
+  
+  /**
+   * @return the number of get requests.
+   */
+  public long getNumGets() {
+    return numGets.get();
+  }
+  
+  /**
+   * @return the number of get requests served by a pooled array.
+   */
+  public long getNumHits() {
+    return numHits.get();
+  }
+  
+  /**
+   * @return the number of arrays allocated for a size class.
+   */
+  public long getNumAllocs() {
+    return numAllocs.get();
+  }
+  
+  /**
+   * @return the number of arrays allocated on the fly beyond the largest size class.
+   */
+  public long getNumOnTheFly() {
+    return numOnTheFly.get();
+  }
+  
+  /**
+   * @return the number of returned arrays dropped due to the retained bytes limit.
+   */
+  public long getNumDrops() {
+    return numDrops.get();
+  }
+  
+  /**
+   * @return the fraction of get requests served by a pooled array.
+   */
+  public double getHitRate() {
+    long gets = numGets.get();
+    return (gets == 0) ? 0 : ((double)numHits.get()) / gets;
+  }
+  
+  @Override
+  public String toString() {
+    return String.format("%s{gets=%d, hitRate=%.3f, allocs=%d, onTheFly=%d, drops=%d, retainedBytes=%d}",
+                         getClass().getSimpleName(), getNumGets(), getHitRate(), getNumAllocs(),
+                         getNumOnTheFly(), getNumDrops(), getRetainedBytes());
+  }
+  
+  /**
+   * The thread-local cache of a thread.
+   */
+  private final static class ThreadCache {
+    final WeakReference<Thread> owner;
+    final byte[][] arrays;
+    
+    ThreadCache(Thread owner, byte[][] arrays) {
+      this.owner = new WeakReference<Thread>(owner);
+      this.arrays = arrays;
+    }
+  }
+}
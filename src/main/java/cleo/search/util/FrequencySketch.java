@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.util;
+
+/**
+ * FrequencySketch - A count-min sketch of 4-bit counters estimating the access frequencies of integer keys
+ * within a recent period. All counters are halved after a number of increments proportional to the sketch
+ * size, so that frequencies of keys no longer accessed decay over time.
+ * 
+ * @since 10/18, 2026
+ */
+public final class FrequencySketch {
+  private final static long[] SEEDS = {
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+  private final static long RESET_MASK = 0x7777777777777777L;
+  
+  private final long[] table;
+  private final int tableMask;
+  private final int sampleSize;
+  private int size;
+  
+  /**
+   * Creates a new FrequencySketch.
+   * 
+   * @param expectedKeys - the expected number of distinct keys to track
+   */
+  public FrequencySketch(int expectedKeys) {
+    int length = 16;
+    while(length < expectedKeys && length < (1 << 30)) {
+      length <<= 1;
+    }
+    
+    this.table = new long[length];
+    this.tableMask = length - 1;
+    this.sampleSize = 10 * length;
+  }
+  
+  /**
+   * @return the estimated frequency of a key, between 0 and 15.
+   */
+  public int frequency(int key) {
+    int frequency = 15;
+    for(int i = 0; i < 4; i++) {
+      long h = hash(key, i);
+      int shift = (int)(h >>> 60) << 2;
+      int count = (int)((table[(int)h & tableMask] >>> shift) & 0xFL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+  
+  /**
+   * Increments the frequency of a key.
+   */
+  public void increment(int key) {
+    boolean added = false;
+    for(int i = 0; i < 4; i++) {
+      long h = hash(key, i);
+      int index = (int)h & tableMask;
+      int shift = (int)(h >>> 60) << 2;
+      long mask = 0xFL << shift;
+      if((table[index] & mask) != mask) {
+        table[index] += 1L << shift;
+        added = true;
+      }
+    }
+    
+    if(added && ++size == sampleSize) {
+      reset();
+    }
+  }
+  
+  /**
+   * Halves all the counters.
+   */
+  public void reset() {
+    for(int i = 0; i < table.length; i++) {
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size = size >>> 1;
+  }
+  
+  /**
+   * Resets all the counters to zero.
+   */
+  public void clear() {
+    for(int i = 0; i < table.length; i++) {
+      table[i] = 0;
+    }
+    size = 0;
+  }
+  
+  private static long hash(int key, int i) {
+    long h = (key + SEEDS[i]) * SEEDS[(i + 1) & 3];
+    h ^= (h >>> 32);
+    h *= 0x9e3779b97f4a7c15L;
+    return h ^ (h >>> 29);
+  }
+}
@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.log4j.Logger;
+
+/**
+ * IngestionPipeline - A bounded, partitioned pipeline handing items over to consumer threads in batches.
+ * 
+ * <p>
+ * Every item is routed by its key to one of a fixed number of partitions. Each partition has a bounded
+ * ring buffer drained by its own consumer thread, so items with the same key are processed in the order
+ * they were offered and producers never wait on the locks of the underlying indexes. A consumer takes up
+ * to <code>batchSize</code> items at a time and may linger for <code>lingerMillis</code> to fill a batch.
+ * When a buffer is full, the producer is handled according to the {@link BackpressurePolicy}.
+ * 
+ * <p>
+ * Producers hold the read lock of <code>closeLock</code> while offering an item and {@link #close()} takes its
+ * write lock to stop accepting items, so every accepted item is buffered before the consumers are stopped.
+ * Items left over by consumers interrupted after closing are processed by {@link #close()}.
+ * 
+ * @since 10/18, 2026
+ */
+public abstract class IngestionPipeline<T> implements Closeable {
+  public final static int DEFAULT_NUM_PARTITIONS = 4;
+  public final static int DEFAULT_PARTITION_CAPACITY = 10000;
+  public final static int DEFAULT_BATCH_SIZE = 100;
+  
+  private final static Logger logger = Logger.getLogger(IngestionPipeline.class);
+  
+  private final String name;
+  private final int batchSize;
+  private final long lingerMillis;
+  private final BackpressurePolicy policy;
+  private final List<ArrayBlockingQueue<Entry<T>>> queues;
+  private final ExecutorService executor;
+  private final Object completionMutex = new Object();
+  private final ReentrantReadWriteLock closeLock = new ReentrantReadWriteLock();
+  private final AtomicLong numOffered = new AtomicLong();
+  private final AtomicLong numAccepted = new AtomicLong();
+  private final AtomicLong numProcessed = new AtomicLong();
+  private final AtomicLong numRejected = new AtomicLong();
+  private final AtomicLong numFailed = new AtomicLong();
+  private final AtomicLong numDropped = new AtomicLong();
+  private final AtomicLong numShed = new AtomicLong();
+  private volatile boolean active = true;
+  
+  /**
+   * Creates a new IngestionPipeline.
+   * 
+   * @param name              - the name
+   * @param numPartitions     - the number of partitions (i.e. consumer threads)
+   * @param partitionCapacity - the number of items buffered by a partition
+   * @param batchSize         - the maximum number of items taken by a consumer at a time
+   * @param lingerMillis      - the time a consumer waits to fill a batch, <code>0</code> to process whatever is buffered
+   * @param policy            - the backpressure policy
+   */
+  protected IngestionPipeline(String name,
+                              int numPartitions,
+                              int partitionCapacity,
+                              int batchSize,
+                              long lingerMillis,
+                              BackpressurePolicy policy) {
+    this.name = name;
+    this.batchSize = Math.max(1, batchSize);
+    this.lingerMillis = Math.max(0, lingerMillis);
+    this.policy = policy;
+    
+    numPartitions = Math.max(1, numPartitions);
+    this.queues = new ArrayList<ArrayBlockingQueue<Entry<T>>>(numPartitions);
+    this.executor = Executors.newFixedThreadPool(numPartitions, new DaemonThreadFactory());
+    for(int i = 0; i < numPartitions; i++) {
+      ArrayBlockingQueue<Entry<T>> queue = new ArrayBlockingQueue<Entry<T>>(Math.max(1, partitionCapacity));
+      queues.add(queue);
+      executor.execute(new Consumer(queue));
+    }
+  }
+  
+  /**
+   * @return the key routing an item to its partition (e.g. element ID or connection source).
+   */
+  protected abstract int getKey(T item);
+  
+  /**
+   * Processes an item in a consumer thread.
+   * 
+   * @return <code>true</code> if the item is processed, <code>false</code> if the item is rejected (e.g. out of range).
+   * @throws Exception if the item failed to be processed.
+   */
+  protected abstract boolean process(T item) throws Exception;
+  
+  public final String getName() {
+    return name;
+  }
+  
+  public final int getNumPartitions() {
+    return queues.size();
+  }
+  
+  public final int getBatchSize() {
+    return batchSize;
+  }
+  
+  public final long getLingerMillis() {
+    return lingerMillis;
+  }
+  
+  public final BackpressurePolicy getBackpressurePolicy() {
+    return policy;
+  }
+  
+  protected void ensureOpen() throws UnsupportedOperationException {
+    if(!active)
+      throw new UnsupportedOperationException("Cannot offer to pipeline, already closed!");
+  }
+  
+  /**
+   * Offers an item to its partition.
+   * 
+   * @return <code>true</code> if the item is accepted, <code>false</code> if it is dropped.
+   * @throws InterruptedException if the producer is interrupted while blocked.
+   */
+  protected boolean offer(T item) throws InterruptedException {
+    closeLock.readLock().lockInterruptibly();
+    try {
+      ensureOpen();
+      numOffered.incrementAndGet();
+      
+      ArrayBlockingQueue<Entry<T>> queue = queues.get((getKey(item) & Integer.MAX_VALUE) % queues.size());
+      Entry<T> entry = new Entry<T>(item);
+      
+      switch(policy) {
+      case BLOCK:
+        queue.put(entry);
+        break;
+        
+      case DROP:
+        if(!queue.offer(entry)) {
+          numDropped.incrementAndGet();
+          return false;
+        }
+        break;
+        
+      case SHED:
+        while(!queue.offer(entry)) {
+          if(queue.poll() != null) {
+            numShed.incrementAndGet();
+            completed();
+          }
+        }
+        break;
+      }
+      
+      numAccepted.incrementAndGet();
+      return true;
+    } finally {
+      closeLock.readLock().unlock();
+    }
+  }
+  
+  private void completed() {
+    synchronized(completionMutex) {
+      completionMutex.notifyAll();
+    }
+  }
+  
+  private long getNumCompleted() {
+    return numProcessed.get() + numRejected.get() + numFailed.get() + numShed.get();
+  }
+  
+  /**
+   * Waits until all items accepted so far are processed or shed.
+   * 
+   * @throws InterruptedException
+   */
+  public void awaitCompletion() throws InterruptedException {
+    long target = numAccepted.get();
+    synchronized(completionMutex) {
+      while(getNumCompleted() < target) {
+        completionMutex.wait(100);
+      }
+    }
+  }
+  
+  /**
+   * @return the number of items pending in all partitions.
+   */
+  public int getQueueDepth() {
+    int depth = 0;
+    for(ArrayBlockingQueue<Entry<T>> queue : queues) {
+      depth += queue.size();
+    }
+    return depth;
+  }
+  
+  /**
+   * @return the time in milliseconds the oldest pending item has been waiting, <code>0</code> if nothing is pending.
+   */
+  public long getLagMillis() {
+    long oldest = Long.MAX_VALUE;
+    for(ArrayBlockingQueue<Entry<T>> queue : queues) {
+      Entry<T> entry = queue.peek();
+      if(entry != null) {
+        oldest = Math.min(oldest, entry.time);
+      }
+    }
+    return (oldest == Long.MAX_VALUE) ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+  }
+  
+  public long getNumOffered() {
+    return numOffered.get();
+  }
+  
+  public long getNumAccepted() {
+    return numAccepted.get();
+  }
+  
+  public long getNumProcessed() {
+    return numProcessed.get();
+  }
+  
+  public long getNumRejected() {
+    return numRejected.get();
+  }
+  
+  public long getNumFailed() {
+    return numFailed.get();
+  }
+  
+  public long getNumDropped() {
+    return numDropped.get();
+  }
+  
+  public long getNumShed() {
+    return numShed.get();
+  }
+  
+  @Override
+  public String toString() {
+    return name + "{depth=" + getQueueDepth() + ", lag=" + getLagMillis() + "ms"
+        + ", offered=" + getNumOffered() + ", processed=" + getNumProcessed() + ", rejected=" + getNumRejected() + ", failed=" + getNumFailed()
+        + ", dropped=" + getNumDropped() + ", shed=" + getNumShed() + "}";
+  }
+  
+  /**
+   * Stops accepting items, waits for the consumers to process the pending ones, and then processes
+   * any items left over by consumers interrupted after closing.
+   */
+  @Override
+  public void close() throws IOException {
+    closeLock.writeLock().lock();
+    try {
+      if(!active) {
+        return;
+      }
+      active = false;
+    } finally {
+      closeLock.writeLock().unlock();
+    }
+    
+    executor.shutdown();
+    try {
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    } catch(InterruptedException e) {
+      logger.warn(name + " interrupted while closing");
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+      return;
+    }
+    
+    for(ArrayBlockingQueue<Entry<T>> queue : queues) {
+      new Consumer(queue).drain();
+    }
+  }
+  
+  static class Entry<T> {
+    final T item;
+    final long time;
+    
+    Entry(T item) {
+      this.item = item;
+      this.time = System.currentTimeMillis();
+    }
+  }
+  
+  /**
+   * Drains the buffer of one partition in batches.
+   */
+  private class Consumer implements Runnable {
+    private final ArrayBlockingQueue<Entry<T>> queue;
+    private final List<Entry<T>> batch;
+    
+    Consumer(ArrayBlockingQueue<Entry<T>> queue) {
+      this.queue = queue;
+      this.batch = new ArrayList<Entry<T>>(batchSize);
+    }
+    
+    /**
+     * Processes items until the pipeline is closed and the buffer is empty. An interrupt stops the consumer
+     * once the pipeline is closed, leaving the rest of the buffer to {@link IngestionPipeline#close()}, and
+     * is restored upon exit.
+     */
+    @Override
+    public void run() {
+      boolean interrupted = false;
+      while(active || !queue.isEmpty()) {
+        try {
+          Entry<T> entry = queue.poll(100, TimeUnit.MILLISECONDS);
+          if(entry == null) {
+            continue;
+          }
+          
+          batch.add(entry);
+          queue.drainTo(batch, batchSize - 1);
+          
+          if(lingerMillis > 0) {
+            long deadline = System.currentTimeMillis() + lingerMillis;
+            while(batch.size() < batchSize) {
+              long waitTime = deadline - System.currentTimeMillis();
+              if(waitTime <= 0 || (entry = queue.poll(waitTime, TimeUnit.MILLISECONDS)) == null) {
+                break;
+              }
+              
+              batch.add(entry);
+              queue.drainTo(batch, batchSize - batch.size());
+            }
+          }
+        } catch(InterruptedException e) {
+          logger.warn(name + " consumer interrupted");
+          interrupted = true;
+          if(!active) {
+            break;
+          }
+        } finally {
+          if(batch.size() > 0) {
+            processBatch();
+          }
+        }
+      }
+      
+      if(interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    
+    /**
+     * Processes whatever is left in the buffer after the consumer threads have stopped.
+     */
+    void drain() {
+      while(queue.drainTo(batch, batchSize) > 0) {
+        processBatch();
+      }
+    }
+    
+    private void processBatch() {
+      for(Entry<T> entry : batch) {
+        try {
+          if(process(entry.item)) {
+            numProcessed.incrementAndGet();
+          } else {
+            numRejected.incrementAndGet();
+          }
+        } catch(Exception e) {
+          numFailed.incrementAndGet();
+          logger.error(name + " failed to process " + entry.item, e);
+        }
+      }
+      
+      batch.clear();
+      completed();
+    }
+  }
+}
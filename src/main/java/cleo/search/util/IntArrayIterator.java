@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.util;
+
+/**
+ * IntArrayIterator - Iterates over an array of integers.
+ * 
+ * @since 10/18, 2026
+ */
+public class IntArrayIterator implements IntIterator {
+  private final int[] values;
+  private final int end;
+  private int index;
+  
+  public IntArrayIterator(int[] values) {
+    this(values, 0, values.length);
+  }
+  
+  public IntArrayIterator(int[] values, int offset, int length) {
+    this.values = values;
+    this.index = offset;
+    this.end = offset + length;
+  }
+  
+  @Override
+  public boolean hasNext() {
+    return index < end;
+  }
+  
+  @Override
+  public int next() {
+    return values[index++];
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.util;
+
+import java.util.Arrays;
+
+/**
+ * IntBitmap - An immutable compressed bitmap of non-negative integers in the style of Roaring bitmaps.
+ * 
+ * <p>
+ * Integers are partitioned by their high 16 bits into containers. Each container holds the low 16 bits
+ * as a sorted array, a bitset or a list of runs, whichever is the smallest. Updates return a new bitmap
+ * sharing the unchanged containers, so that readers never need locking.
+ * 
+ * @since 10/18, 2026
+ */
+public final class IntBitmap {
+  /**
+   * The empty bitmap.
+   */
+  public final static IntBitmap EMPTY = new IntBitmap(new int[0], new BitmapContainer[0], 0);
+  
+  private final int[] keys;
+  private final BitmapContainer[] containers;
+  private final int cardinality;
+  
+  private IntBitmap(int[] keys, BitmapContainer[] containers, int cardinality) {
+    this.keys = keys;
+    this.containers = containers;
+    this.cardinality = cardinality;
+  }
+  
+  /**
+   * Creates a bitmap from a list of non-negative integers in any order.
+   * 
+   * @throws IllegalArgumentException if a value is negative.
+   */
+  public static IntBitmap valueOf(int[] values) {
+    if(values == null || values.length == 0) return EMPTY;
+    
+    int[] sorted = values.clone();
+    Arrays.sort(sorted);
+    if(sorted[0] < 0) {
+      throw new IllegalArgumentException("Negative value: " + sorted[0]);
+    }
+    
+    int numKeys = 1;
+    for(int i = 1; i < sorted.length; i++) {
+      if((sorted[i] >>> 16) != (sorted[i - 1] >>> 16)) numKeys++;
+    }
+    
+    int[] keys = new int[numKeys];
+    BitmapContainer[] containers = new BitmapContainer[numKeys];
+    char[] buf = new char[Math.min(sorted.length, 1 << 16)];
+    
+    int k = 0, cardinality = 0;
+    for(int i = 0; i < sorted.length;) {
+      int high = sorted[i] >>> 16;
+      int n = 0;
+      for(; i < sorted.length && (sorted[i] >>> 16) == high; i++) {
+        if(n == 0 || buf[n - 1] != (char)sorted[i]) {
+          buf[n++] = (char)sorted[i];
+        }
+      }
+      keys[k] = high;
+      containers[k++] = BitmapContainer.valueOf(buf, n);
+      cardinality += n;
+    }
+    
+    return new IntBitmap(keys, containers, cardinality);
+  }
+  
+  private int indexOf(int high) {
+    return Arrays.binarySearch(keys, high);
+  }
+  
+  /**
+   * @return the number of integers.
+   */
+  public int cardinality() {
+    return cardinality;
+  }
+  
+  /**
+   * @return <code>true</code> if the bitmap contains the specified integer.
+   */
+  public boolean contains(int value) {
+    if(value < 0) return false;
+    int i = indexOf(value >>> 16);
+    return i >= 0 && containers[i].contains(value & 0xFFFF);
+  }
+  
+  /**
+   * @return the bitmap with the specified non-negative integer added.
+   */
+  public IntBitmap add(int value) {
+    if(value < 0) {
+      throw new IllegalArgumentException("Negative value: " + value);
+    }
+    
+    int high = value >>> 16;
+    int i = indexOf(high);
+    if(i >= 0) {
+      BitmapContainer c = containers[i].add(value & 0xFFFF);
+      if(c == containers[i]) return this;
+      
+      BitmapContainer[] upd = containers.clone();
+      upd[i] = c;
+      return new IntBitmap(keys, upd, cardinality + 1);
+    }
+    
+    i = -i - 1;
+    int[] updKeys = new int[keys.length + 1];
+    BitmapContainer[] upd = new BitmapContainer[keys.length + 1];
+    System.arraycopy(keys, 0, updKeys, 0, i);
+    System.arraycopy(containers, 0, upd, 0, i);
+    updKeys[i] = high;
+    upd[i] = new ArrayContainer(new char[] { (char)value });
+    System.arraycopy(keys, i, updKeys, i + 1, keys.length - i);
+    System.arraycopy(containers, i, upd, i + 1, keys.length - i);
+    return new IntBitmap(updKeys, upd, cardinality + 1);
+  }
+  
+  /**
+   * @return the bitmap with the specified integer removed.
+   */
+  public IntBitmap remove(int value) {
+    if(!contains(value)) return this;
+    
+    int i = indexOf(value >>> 16);
+    BitmapContainer c = containers[i].remove(value & 0xFFFF);
+    if(c != null) {
+      BitmapContainer[] upd = containers.clone();
+      upd[i] = c;
+      return new IntBitmap(keys, upd, cardinality - 1);
+    }
+    
+    int[] updKeys = new int[keys.length - 1];
+    BitmapContainer[] upd = new BitmapContainer[keys.length - 1];
+    System.arraycopy(keys, 0, updKeys, 0, i);
+    System.arraycopy(containers, 0, upd, 0, i);
+    System.arraycopy(keys, i + 1, updKeys, i, updKeys.length - i);
+    System.arraycopy(containers, i + 1, upd, i, upd.length - i);
+    return new IntBitmap(updKeys, upd, cardinality - 1);
+  }
+  
+  /**
+   * @return the intersection of this bitmap and another bitmap.
+   */
+  public IntBitmap and(IntBitmap bitmap) {
+    int n = Math.min(keys.length, bitmap.keys.length);
+    int[] resultKeys = new int[n];
+    BitmapContainer[] result = new BitmapContainer[n];
+    
+    int cnt = 0, card = 0;
+    for(int i = 0, j = 0; i < keys.length && j < bitmap.keys.length;) {
+      if(keys[i] < bitmap.keys[j]) {
+        i++;
+      } else if(keys[i] > bitmap.keys[j]) {
+        j++;
+      } else {
+        BitmapContainer c = containers[i].and(bitmap.containers[j]);
+        if(c != null) {
+          resultKeys[cnt] = keys[i];
+          result[cnt++] = c;
+          card += c.cardinality();
+        }
+        i++;
+        j++;
+      }
+    }
+    
+    return (cnt == 0) ? EMPTY : new IntBitmap(Arrays.copyOf(resultKeys, cnt), Arrays.copyOf(result, cnt), card);
+  }
+  
+  /**
+   * Intersects a list of bitmaps starting from the smallest one.
+   * 
+   * @return the intersection, or {@link #EMPTY} if there are no bitmaps.
+   */
+  public static IntBitmap and(IntBitmap... bitmaps) {
+    if(bitmaps.length == 0) return EMPTY;
+    
+    IntBitmap[] sorted = bitmaps.clone();
+    for(int i = 1; i < sorted.length; i++) {
+      for(int j = i; j > 0 && sorted[j].cardinality < sorted[j - 1].cardinality; j--) {
+        IntBitmap tmp = sorted[j];
+        sorted[j] = sorted[j - 1];
+        sorted[j - 1] = tmp;
+      }
+    }
+    
+    IntBitmap result = sorted[0];
+    for(int i = 1; i < sorted.length && result.cardinality > 0; i++) {
+      result = result.and(sorted[i]);
+    }
+    return result;
+  }
+  
+  /**
+   * @return the integers in ascending order.
+   */
+  public int[] toArray() {
+    int[] result = new int[cardinality];
+    int offset = 0;
+    for(int i = 0; i < keys.length; i++) {
+      offset += containers[i].toArray(keys[i] << 16, result, offset);
+    }
+    return result;
+  }
+  
+  /**
+   * @return the iterator of integers in ascending order.
+   */
+  public IntIterator iterator() {
+    return new Iter();
+  }
+  
+  /**
+   * @return the approximate number of bytes held by this bitmap.
+   */
+  public long getSizeInBytes() {
+    long size = keys.length << 2;
+    for(BitmapContainer c : containers) {
+      size += c.getSizeInBytes();
+    }
+    return size;
+  }
+  
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + "{cardinality=" + cardinality + ", containers=" + keys.length + ", bytes=" + getSizeInBytes() + "}";
+  }
+  
+  /**
+   * Iterates over integers in ascending order.
+   */
+  private class Iter implements IntIterator {
+    private int index = 0;
+    private int low = (keys.length == 0) ? -1 : containers[0].nextValue(0);
+    
+    @Override
+    public boolean hasNext() {
+      return low >= 0;
+    }
+    
+    @Override
+    public int next() {
+      int value = (keys[index] << 16) | low;
+      
+      low = containers[index].nextValue(low + 1);
+      while(low < 0 && ++index < keys.length) {
+        low = containers[index].nextValue(0);
+      }
+      
+      return value;
+    }
+  }
+}
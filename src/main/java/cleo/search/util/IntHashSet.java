@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.util;
+
+import java.util.Arrays;
+
+/**
+ * IntHashSet - An open-addressing hash set of primitive integers.
+ * 
+ * @since 10/18, 2026
+ */
+public class IntHashSet {
+  private int[] keys;
+  private boolean[] used;
+  private int mask;
+  private int size;
+  
+  public IntHashSet() {
+    this(16);
+  }
+  
+  /**
+   * Creates a new IntHashSet.
+   * 
+   * @param expectedSize - the expected number of integers
+   */
+  public IntHashSet(int expectedSize) {
+    int capacity = 4;
+    while(capacity < expectedSize * 2) {
+      capacity <<= 1;
+    }
+    init(capacity);
+  }
+  
+  private void init(int capacity) {
+    this.keys = new int[capacity];
+    this.used = new boolean[capacity];
+    this.mask = capacity - 1;
+    this.size = 0;
+  }
+  
+  private static int hash(int value) {
+    int h = value * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+  
+  /**
+   * @return the number of integers in this set.
+   */
+  public int size() {
+    return size;
+  }
+  
+  /**
+   * @return <code>true</code> if the integer is in this set.
+   */
+  public boolean contains(int value) {
+    for(int i = hash(value) & mask; used[i]; i = (i + 1) & mask) {
+      if(keys[i] == value) return true;
+    }
+    return false;
+  }
+  
+  /**
+   * Adds an integer.
+   * 
+   * @return <code>true</code> if the integer was not in this set.
+   */
+  public boolean add(int value) {
+    int i = hash(value) & mask;
+    for(; used[i]; i = (i + 1) & mask) {
+      if(keys[i] == value) return false;
+    }
+    
+    keys[i] = value;
+    used[i] = true;
+    if(++size * 2 > keys.length) {
+      rehash();
+    }
+    return true;
+  }
+  
+  private void rehash() {
+    int[] oldKeys = keys;
+    boolean[] oldUsed = used;
+    init(oldKeys.length << 1);
+    
+    for(int i = 0; i < oldKeys.length; i++) {
+      if(oldUsed[i]) add(oldKeys[i]);
+    }
+  }
+  
+  /**
+   * Removes all integers.
+   */
+  public void clear() {
+    Arrays.fill(used, false);
+    size = 0;
+  }
+}
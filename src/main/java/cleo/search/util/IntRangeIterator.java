@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.util;
+
+/**
+ * IntRangeIterator - Iterates over a range of consecutive integers.
+ * 
+ * @since 10/18, 2026
+ */
+public class IntRangeIterator implements IntIterator {
+  private final int end;
+  private int next;
+  
+  /**
+   * @param start - the first integer (inclusive)
+   * @param end   - the last integer (exclusive)
+   */
+  public IntRangeIterator(int start, int end) {
+    this.next = start;
+    this.end = end;
+  }
+  
+  @Override
+  public boolean hasNext() {
+    return next < end;
+  }
+  
+  @Override
+  public int next() {
+    return next++;
+  }
+}
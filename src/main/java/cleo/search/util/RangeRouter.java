@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * RangeRouter - Routes a number to the target owning the range it falls in by binary search.
+ * 
+ * <p>
+ * The ranges of a router never overlap. Use {@link #create(List, List)} to find out whether
+ * a set of ranges can be routed.
+ * 
+ * @since 10/18, 2026
+ */
+public final class RangeRouter<T> {
+  private final int[] starts;
+  private final int[] ends;
+  private final List<T> targets;
+  
+  private RangeRouter(int[] starts, int[] ends, List<T> targets) {
+    this.starts = starts;
+    this.ends = ends;
+    this.targets = targets;
+  }
+  
+  /**
+   * Creates a router.
+   * 
+   * @param ranges  - the ranges
+   * @param targets - the targets of the ranges
+   * @return the router, or <code>null</code> if any range is <code>null</code> or two ranges overlap.
+   */
+  public static <T> RangeRouter<T> create(List<Range> ranges, List<T> targets) {
+    if(ranges.size() != targets.size()) {
+      throw new IllegalArgumentException("ranges and targets differ in size");
+    }
+    
+    final List<Range> rangeList = ranges;
+    List<Integer> order = new ArrayList<Integer>(ranges.size());
+    for(int i = 0; i < ranges.size(); i++) {
+      if(ranges.get(i) == null) {
+        return null;
+      }
+      order.add(i);
+    }
+    
+    Collections.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(Integer i0, Integer i1) {
+        int s0 = rangeList.get(i0).getStart();
+        int s1 = rangeList.get(i1).getStart();
+        return s0 < s1 ? -1 : (s0 == s1 ? 0 : 1);
+      }
+    });
+    
+    int[] starts = new int[order.size()];
+    int[] ends = new int[order.size()];
+    List<T> sortedTargets = new ArrayList<T>(order.size());
+    for(int i = 0; i < starts.length; i++) {
+      Range range = ranges.get(order.get(i));
+      starts[i] = range.getStart();
+      ends[i] = range.getEnd();
+      sortedTargets.add(targets.get(order.get(i)));
+      
+      if(i > 0 && starts[i] < ends[i - 1]) {
+        return null;
+      }
+    }
+    
+    return new RangeRouter<T>(starts, ends, sortedTargets);
+  }
+  
+  /**
+   * @return the number of ranges.
+   */
+  public int size() {
+    return starts.length;
+  }
+  
+  /**
+   * @return the target owning the range a number falls in, or <code>null</code> if there is none.
+   */
+  public T find(int num) {
+    int low = 0;
+    int high = starts.length - 1;
+    
+    // Find the last range starting at or before num
+    while(low <= high) {
+      int mid = (low + high) >>> 1;
+      if(starts[mid] <= num) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    
+    return (high >= 0 && num < ends[high]) ? targets.get(high) : null;
+  }
+}
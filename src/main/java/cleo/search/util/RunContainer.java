@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.util;
+
+/**
+ * RunContainer - A bitmap container of sorted runs of consecutive 16-bit values.
+ * 
+ * @since 10/18, 2026
+ */
+final class RunContainer extends BitmapContainer {
+  final char[] starts;
+  final char[] lengths; // the run length minus one
+  final int cardinality;
+  
+  RunContainer(char[] starts, char[] lengths, int cardinality) {
+    this.starts = starts;
+    this.lengths = lengths;
+    this.cardinality = cardinality;
+  }
+  
+  static RunContainer valueOf(char[] values, int length, int numRuns) {
+    char[] starts = new char[numRuns];
+    char[] lengths = new char[numRuns];
+    
+    int r = 0;
+    starts[0] = values[0];
+    for(int i = 1; i < length; i++) {
+      if(values[i] != values[i - 1] + 1) {
+        lengths[r] = (char)(values[i - 1] - starts[r]);
+        starts[++r] = values[i];
+      }
+    }
+    lengths[r] = (char)(values[length - 1] - starts[r]);
+    
+    return new RunContainer(starts, lengths, length);
+  }
+  
+  /**
+   * @return the index of the last run starting at or before the value, or <code>-1</code>.
+   */
+  private int findRun(int low) {
+    int lo = 0, hi = starts.length - 1;
+    while(lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      if(starts[mid] <= low) {
+        lo = mid + 1;
+      } else {
+        hi = mid - 1;
+      }
+    }
+    return hi;
+  }
+  
+  @Override
+  int cardinality() {
+    return cardinality;
+  }
+  
+  @Override
+  boolean contains(int low) {
+    int r = findRun(low);
+    return r >= 0 && low <= starts[r] + lengths[r];
+  }
+  
+  @Override
+  int nextValue(int low) {
+    if(low > 0xFFFF) return -1;
+    
+    int r = findRun(low);
+    if(r >= 0 && low <= starts[r] + lengths[r]) return low;
+    return (r + 1 < starts.length) ? starts[r + 1] : -1;
+  }
+  
+  private char[] values() {
+    char[] values = new char[cardinality];
+    int n = 0;
+    for(int r = 0; r < starts.length; r++) {
+      for(int v = starts[r], end = starts[r] + lengths[r]; v <= end; v++) {
+        values[n++] = (char)v;
+      }
+    }
+    return values;
+  }
+  
+  /**
+   * Creates a run container, or the smallest container if runs no longer pay off.
+   */
+  private static BitmapContainer create(char[] starts, char[] lengths, int cardinality) {
+    int runBytes = starts.length << 2;
+    if(runBytes < (cardinality << 1) && runBytes < (BITSET_WORDS << 3)) {
+      return new RunContainer(starts, lengths, cardinality);
+    }
+    
+    RunContainer c = new RunContainer(starts, lengths, cardinality);
+    return valueOf(c.values(), cardinality);
+  }
+  
+  /**
+   * Copies the runs with a gap of <code>num</code> runs at <code>pos</code>, or
+   * without <code>-num</code> runs at <code>pos</code> if <code>num</code> is negative.
+   */
+  private static char[] copyRuns(char[] runs, int pos, int num) {
+    char[] result = new char[runs.length + num];
+    System.arraycopy(runs, 0, result, 0, pos);
+    if(num >= 0) {
+      System.arraycopy(runs, pos, result, pos + num, runs.length - pos);
+    } else {
+      System.arraycopy(runs, pos - num, result, pos, result.length - pos);
+    }
+    return result;
+  }
+  
+  @Override
+  BitmapContainer add(int low) {
+    if(contains(low)) return this;
+    
+    int r = findRun(low);
+    boolean extendsLeft = r >= 0 && starts[r] + lengths[r] + 1 == low;
+    boolean extendsRight = r + 1 < starts.length && starts[r + 1] == low + 1;
+    
+    char[] newStarts, newLengths;
+    if(extendsLeft && extendsRight) {
+      // Merge run r + 1 into run r
+      newStarts = copyRuns(starts, r + 1, -1);
+      newLengths = copyRuns(lengths, r + 1, -1);
+      newLengths[r] = (char)(starts[r + 1] + lengths[r + 1] - starts[r]);
+    } else if(extendsLeft) {
+      newStarts = starts;
+      newLengths = lengths.clone();
+      newLengths[r]++;
+    } else if(extendsRight) {
+      newStarts = starts.clone();
+      newLengths = lengths.clone();
+      newStarts[r + 1] = (char)low;
+      newLengths[r + 1]++;
+    } else {
+      newStarts = copyRuns(starts, r + 1, 1);
+      newLengths = copyRuns(lengths, r + 1, 1);
+      newStarts[r + 1] = (char)low;
+      newLengths[r + 1] = 0;
+    }
+    
+    return create(newStarts, newLengths, cardinality + 1);
+  }
+  
+  @Override
+  BitmapContainer remove(int low) {
+    if(!contains(low)) return this;
+    if(cardinality == 1) return null;
+    
+    int r = findRun(low);
+    int start = starts[r];
+    int end = start + lengths[r];
+    
+    char[] newStarts, newLengths;
+    if(start == end) {
+      newStarts = copyRuns(starts, r, -1);
+      newLengths = copyRuns(lengths, r, -1);
+    } else if(low == start) {
+      newStarts = starts.clone();
+      newLengths = lengths.clone();
+      newStarts[r]++;
+      newLengths[r]--;
+    } else if(low == end) {
+      newStarts = starts;
+      newLengths = lengths.clone();
+      newLengths[r]--;
+    } else {
+      // Split run r around the value
+      newStarts = copyRuns(starts, r + 1, 1);
+      newLengths = copyRuns(lengths, r + 1, 1);
+      newLengths[r] = (char)(low - 1 - start);
+      newStarts[r + 1] = (char)(low + 1);
+      newLengths[r + 1] = (char)(end - low - 1);
+    }
+    
+    return create(newStarts, newLengths, cardinality - 1);
+  }
+  
+  @Override
+  BitmapContainer and(BitmapContainer c) {
+    if(c instanceof ArrayContainer) {
+      return c.and(this);
+    }
+    
+    if(c instanceof RunContainer) {
+      RunContainer rc = (RunContainer)c;
+      char[] values = new char[Math.min(cardinality, rc.cardinality)];
+      int n = 0, i = 0, j = 0;
+      while(i < starts.length && j < rc.starts.length) {
+        int s0 = starts[i], e0 = s0 + lengths[i];
+        int s1 = rc.starts[j], e1 = s1 + rc.lengths[j];
+        for(int v = Math.max(s0, s1), end = Math.min(e0, e1); v <= end; v++) {
+          values[n++] = (char)v;
+        }
+        if(e0 < e1) i++; else j++;
+      }
+      return valueOf(values, n);
+    }
+    
+    return c.and(this);
+  }
+  
+  @Override
+  int getSizeInBytes() {
+    return starts.length << 2;
+  }
+  
+  @Override
+  void fill(long[] words) {
+    for(char v : values()) {
+      words[v >>> 6] |= 1L << v;
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * StripedLocks - A fixed set of reentrant locks shared by array indexes, so that updates
+ * to different indexes rarely contend while updates to the same index are serialized.
+ * 
+ * @since 10/18, 2026
+ */
+public final class StripedLocks {
+  /**
+   * The default number of stripes is 64.
+   */
+  public final static int DEFAULT_NUM_STRIPES = 64;
+  
+  private final ReentrantLock[] locks;
+  private final int mask;
+  
+  public StripedLocks() {
+    this(DEFAULT_NUM_STRIPES);
+  }
+  
+  /**
+   * Creates a new StripedLocks.
+   * 
+   * @param numStripes - the number of stripes, rounded up to a power of two
+   */
+  public StripedLocks(int numStripes) {
+    int size = 1;
+    while(size < numStripes) {
+      size <<= 1;
+    }
+    
+    this.mask = size - 1;
+    this.locks = new ReentrantLock[size];
+    for(int i = 0; i < size; i++) {
+      locks[i] = new ReentrantLock();
+    }
+  }
+  
+  /**
+   * @return the number of stripes.
+   */
+  public int size() {
+    return locks.length;
+  }
+  
+  /**
+   * @return the lock of the stripe of an index.
+   */
+  public ReentrantLock get(int index) {
+    return locks[index & mask];
+  }
+}
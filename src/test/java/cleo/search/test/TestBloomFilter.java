@@ -16,11 +16,15 @@
 
 package cleo.search.test;
 
+import java.util.Random;
+
 import cleo.search.Element;
 import cleo.search.SimpleElement;
 import cleo.search.filter.BloomFilter;
 import cleo.search.filter.FnvBloomFilter;
 import cleo.search.filter.FnvBloomFilterLong;
+import cleo.search.filter.FnvBloomFilterWide;
+import cleo.search.filter.PositionalBloomFilter;
 import junit.framework.TestCase;
 
 /**
@@ -172,4 +176,101 @@ public class TestBloomFilter extends TestCase {
     queryFilter = filter.computeQueryFilter(new String[]{"p", "n"});
     assertEquals(queryFilter, (queryFilter & indexFilter));
   }
+  
+  public void testFnvBloomFilterWide() {
+    String[] indexTerms = new String[] {"professional", "social", "network"};
+    String[][] queries = { {"professional", "social", "network"}, {"social", "network"}, {"pro", "net"}, {"p", "n"} };
+    Element element = createElement(1, indexTerms);
+    
+    for(int numWords = 2; numWords <= 4; numWords += 2) {
+      FnvBloomFilterWide filter = new FnvBloomFilterWide(2, numWords);
+      FnvBloomFilterLong filterLong = new FnvBloomFilterLong(2);
+      assertEquals(numWords * 64, filter.getNumBits());
+      
+      long[] indexWords = new long[numWords + 1];
+      filter.computeIndexWords(element, indexWords, 1);
+      assertEquals(0, indexWords[0]);
+      
+      // The folded filter is the same as the 64-bit filter
+      assertEquals(filterLong.computeIndexBits(element), filter.computeIndexBits(element));
+      
+      for(String[] terms : queries) {
+        long[] queryWords = filter.computeQueryWords(terms);
+        assertEquals(numWords, queryWords.length);
+        for(int i = 0; i < numWords; i++) {
+          assertEquals(queryWords[i], (queryWords[i] & indexWords[i + 1]));
+        }
+        assertEquals(filterLong.computeQueryBits(terms), filter.computeQueryBits(terms));
+      }
+    }
+    
+    try {
+      new FnvBloomFilterWide(2, 3);
+      fail("Invalid number of words");
+    } catch(IllegalArgumentException e) {}
+  }
+  
+  private String randomTerm(Random rand) {
+    int len = 1 + rand.nextInt(6);
+    StringBuilder sb = new StringBuilder(len);
+    for(int i = 0; i < len; i++) {
+      sb.append((char)('a' + rand.nextInt(8)));
+    }
+    return sb.toString();
+  }
+  
+  public void testPositionalBloomFilter() {
+    Random rand = new Random(1234);
+    int prefixLength = 3;
+    FnvBloomFilterLong filterLong = new FnvBloomFilterLong(prefixLength);
+    
+    for(int numSlots = 2; numSlots <= 8; numSlots <<= 1) {
+      PositionalBloomFilter filter = new PositionalBloomFilter(prefixLength, numSlots);
+      assertEquals(filterLong.computeQueryBits("abc", "def"), filter.computeQueryBits("abc", "def"));
+      
+      int falsePositives = 0, falsePositivesLong = 0;
+      for(int n = 0; n < 2000; n++) {
+        String[] indexTerms = new String[1 + rand.nextInt(numSlots + 2)];
+        for(int i = 0; i < indexTerms.length; i++) {
+          indexTerms[i] = randomTerm(rand);
+        }
+        String[] queryTerms = new String[] {randomTerm(rand), randomTerm(rand)};
+        
+        Element elem = createElement(n, indexTerms);
+        long indexFilterLong = filterLong.computeIndexBits(elem);
+        long queryFilterLong = filterLong.computeQueryBits(queryTerms);
+        boolean passedLong = (indexFilterLong & queryFilterLong) == queryFilterLong;
+        
+        long indexSignature = filter.computeIndexSignature(elem);
+        long[] signatures = filter.computeQuerySignatures(queryTerms);
+        boolean passed = passedLong && filter.matches(indexSignature, signatures);
+        
+        boolean expected = true;
+        for(String q : queryTerms) {
+          String p = q.substring(0, Math.min(prefixLength, q.length()));
+          boolean found = false;
+          for(String t : indexTerms) {
+            if(t.startsWith(p)) found = true;
+          }
+          expected = expected && found;
+        }
+        
+        // No false negatives
+        if(expected) {
+          assertTrue(passed);
+          assertTrue(passedLong);
+        } else {
+          if(passed) falsePositives++;
+          if(passedLong) falsePositivesLong++;
+        }
+      }
+      
+      assertTrue(falsePositives < falsePositivesLong);
+    }
+    
+    PositionalBloomFilter filter = new PositionalBloomFilter(prefixLength, 4);
+    long indexSignature = filter.computeIndexSignature(createElement(1, "john", "smith"));
+    assertTrue(filter.matches(indexSignature, filter.computeQuerySignatures("jo", "sm")));
+    assertTrue(filter.matches(indexSignature, filter.computeQuerySignatures(new String[0])));
+  }
 }
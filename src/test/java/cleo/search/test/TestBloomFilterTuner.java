@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+import cleo.search.SimpleElement;
+import cleo.search.filter.BloomFilterTuner;
+import cleo.search.filter.BloomFilters;
+import cleo.search.filter.LongBloomFilter;
+import cleo.search.selector.PrefixSelectorFactory;
+import junit.framework.TestCase;
+
+/**
+ * TestBloomFilterTuner
+ * 
+ * @since 10/18, 2026
+ */
+public class TestBloomFilterTuner extends TestCase {
+  private final Random rand = new Random(7);
+  
+  private String randomTerm() {
+    int len = 2 + rand.nextInt(6);
+    StringBuilder sb = new StringBuilder(len);
+    for(int i = 0; i < len; i++) {
+      sb.append((char)('a' + rand.nextInt(8)));
+    }
+    return sb.toString();
+  }
+  
+  private List<SimpleElement> createElements(int num) {
+    List<SimpleElement> list = new ArrayList<SimpleElement>(num);
+    for(int i = 0; i < num; i++) {
+      SimpleElement elem = new SimpleElement(i);
+      elem.setTerms(randomTerm(), randomTerm(), randomTerm());
+      list.add(elem);
+    }
+    return list;
+  }
+  
+  private List<String[]> createQueries(List<SimpleElement> elements, int num) {
+    List<String[]> list = new ArrayList<String[]>(num);
+    for(int i = 0; i < num; i++) {
+      String[] terms = elements.get(rand.nextInt(elements.size())).getTerms();
+      int numTerms = 1 + rand.nextInt(2);
+      String[] query = new String[numTerms];
+      for(int j = 0; j < numTerms; j++) {
+        String term = terms[rand.nextInt(terms.length)];
+        query[j] = term.substring(0, 1 + rand.nextInt(term.length()));
+      }
+      list.add(query);
+    }
+    return list;
+  }
+  
+  public void testSimulate() {
+    List<SimpleElement> elements = createElements(2000);
+    List<String[]> queries = createQueries(elements, 200);
+    
+    BloomFilterTuner<SimpleElement> tuner = new BloomFilterTuner<SimpleElement>(new PrefixSelectorFactory<SimpleElement>());
+    tuner.addCandidates(1, 3);
+    assertEquals(3 * BloomFilters.TYPES.length, tuner.getNumCandidates());
+    
+    List<BloomFilterTuner.Result> results = tuner.simulate(elements, queries);
+    assertEquals(tuner.getNumCandidates(), results.size());
+    
+    for(BloomFilterTuner.Result r : results) {
+      // Bloom filters never reject a selected element
+      assertEquals(0, r.getNumMisses());
+      assertTrue(r.getNumPasses() >= r.getNumMatches());
+      assertEquals(2000L * 200, r.getNumPairs());
+    }
+    
+    // Wider filters and positional signatures pass fewer elements at the same prefix length
+    for(int p = 0; p < 3; p++) {
+      BloomFilterTuner.Result fnv64 = results.get(p * 4);
+      BloomFilterTuner.Result fnv128 = results.get(p * 4 + 1);
+      BloomFilterTuner.Result fnv256 = results.get(p * 4 + 2);
+      BloomFilterTuner.Result positional = results.get(p * 4 + 3);
+      assertEquals(BloomFilters.TYPE_FNV64, fnv64.getType());
+      assertEquals(p + 1, fnv64.getPrefixLength());
+      assertTrue(fnv128.getNumPasses() <= fnv64.getNumPasses());
+      assertTrue(fnv256.getNumPasses() <= fnv128.getNumPasses());
+      assertTrue(positional.getNumPasses() <= fnv64.getNumPasses());
+    }
+    
+    BloomFilterTuner.Result best = BloomFilterTuner.recommend(results, BloomFilterTuner.DEFAULT_TOLERANCE);
+    assertNotNull(best);
+    for(BloomFilterTuner.Result r : results) {
+      if(r.getBytesPerElement() < best.getBytesPerElement()) {
+        assertTrue(r.getPassRate() > best.getPassRate());
+      }
+    }
+    
+    // A zero tolerance picks a candidate of the lowest pass rate
+    BloomFilterTuner.Result strict = BloomFilterTuner.recommend(results, 0);
+    for(BloomFilterTuner.Result r : results) {
+      assertTrue(strict.getPassRate() <= r.getPassRate());
+    }
+    
+    Properties p = BloomFilterTuner.toProperties(best, "cleo.search.generic.typeahead.config");
+    assertEquals(best.getType(), p.getProperty("cleo.search.generic.typeahead.config.filterType"));
+    assertEquals(Integer.toString(best.getPrefixLength()), p.getProperty("cleo.search.generic.typeahead.config.filterPrefixLength"));
+  }
+  
+  public void testFoldWideFilters() {
+    List<SimpleElement> elements = createElements(2000);
+    List<String[]> queries = createQueries(elements, 200);
+    
+    BloomFilterTuner<SimpleElement> tuner = new BloomFilterTuner<SimpleElement>(new PrefixSelectorFactory<SimpleElement>());
+    tuner.setFoldWideFilters(true);
+    tuner.addCandidate(BloomFilters.TYPE_FNV128, BloomFilters.createLongBloomFilter(BloomFilters.TYPE_FNV128, 2));
+    tuner.addCandidate(BloomFilters.TYPE_FNV256, BloomFilters.createLongBloomFilter(BloomFilters.TYPE_FNV256, 2));
+    
+    List<BloomFilterTuner.Result> results = tuner.simulate(elements, queries);
+    for(int c = 0; c < results.size(); c++) {
+      BloomFilterTuner.Result r = results.get(c);
+      assertEquals(0, r.getNumMisses());
+      assertEquals(64, r.getNumBits());
+      assertEquals(8, r.getBytesPerElement());
+      
+      // Pass counts of the folded filters stored by GenericTypeahead
+      LongBloomFilter bf = (LongBloomFilter)BloomFilters.createLongBloomFilter(r.getType(), 2);
+      long numPasses = 0;
+      for(String[] terms : queries) {
+        long filter = bf.computeQueryBits(terms);
+        for(SimpleElement e : elements) {
+          if((bf.computeIndexBits(e) & filter) == filter) numPasses++;
+        }
+      }
+      assertEquals(numPasses, r.getNumPasses());
+    }
+  }
+  
+  public void testUnknownType() {
+    try {
+      BloomFilters.createLongBloomFilter("unknown", 2);
+      fail("Unknown type accepted");
+    } catch(IllegalArgumentException e) {}
+  }
+}
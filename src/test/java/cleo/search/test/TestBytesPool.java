@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test;
+
+import junit.framework.TestCase;
+
+import cleo.search.typeahead.VanillaNetworkTypeahead;
+import cleo.search.util.BytesPool;
+
+/**
+ * TestBytesPool
+ * 
+ * @since 10/18, 2026
+ */
+public class TestBytesPool extends TestCase {
+  
+  public void testSizeClasses() {
+    BytesPool pool = new BytesPool(1000, 1 << 20, 1 << 16, 1 << 22);
+    assertEquals(1024, pool.getMinSize());
+    assertEquals(1 << 20, pool.getMaxSize());
+    assertEquals(1 << 16, pool.getThreadLocalMaxSize());
+    
+    assertEquals(1024, pool.get(1).length);
+    assertEquals(1024, pool.get(1024).length);
+    assertEquals(2048, pool.get(1025).length);
+    assertEquals(1 << 20, pool.get(1 << 20).length);
+    
+    // Beyond the largest size class
+    byte[] bytes = pool.get((1 << 20) + 1);
+    assertEquals((1 << 20) + 1, bytes.length);
+    assertEquals(1, pool.getNumOnTheFly());
+    assertFalse(pool.put(bytes));
+    
+    // Not of a size class
+    assertFalse(pool.put(new byte[1000]));
+    assertFalse(pool.put(null));
+  }
+  
+  public void testReuse() {
+    BytesPool pool = new BytesPool(1024, 1 << 20, 1 << 16, 1 << 22);
+    
+    // Thread-local cache
+    byte[] bytes = pool.get(5000);
+    assertTrue(pool.put(bytes));
+    assertEquals(8192, pool.getRetainedBytes());
+    assertSame(bytes, pool.get(5000));
+    assertEquals(0, pool.getRetainedBytes());
+    
+    // Shared queue beyond the thread-local cache
+    byte[] large = pool.get(1 << 19);
+    assertTrue(pool.put(large));
+    assertEquals(1 << 19, pool.getRetainedBytes());
+    assertSame(large, pool.get((1 << 18) + 1));
+    assertEquals(0, pool.getRetainedBytes());
+    
+    assertEquals(4, pool.getNumGets());
+    assertEquals(2, pool.getNumHits());
+    assertEquals(2, pool.getNumAllocs());
+    assertEquals(0.5, pool.getHitRate(), 0.0001);
+  }
+  
+  public void testMaxRetainedBytes() {
+    BytesPool pool = new BytesPool(1024, 1 << 20, 1024, 3 << 19);
+    
+    byte[][] arrays = new byte[4][];
+    for(int i = 0; i < arrays.length; i++) {
+      arrays[i] = pool.get(1 << 19);
+    }
+    
+    assertTrue(pool.put(arrays[0]));
+    assertTrue(pool.put(arrays[1]));
+    assertTrue(pool.put(arrays[2]));
+    assertFalse(pool.put(arrays[3]));
+    assertEquals(3 << 19, pool.getRetainedBytes());
+    assertEquals(1, pool.getNumDrops());
+    
+    pool.setMaxRetainedBytes(0);
+    pool.get(1 << 19);
+    assertFalse(pool.put(arrays[3]));
+    assertEquals(2 << 19, pool.getRetainedBytes());
+  }
+  
+  public void testDefaultRetainedBytes() {
+    BytesPool pool = new BytesPool(VanillaNetworkTypeahead.BYTE_ARRAY_SIZE_DEFAULT,
+                                   VanillaNetworkTypeahead.BYTE_ARRAY_SIZE_MAX_DEFAULT,
+                                   VanillaNetworkTypeahead.BYTE_ARRAY_SIZE_THREAD_LOCAL_DEFAULT,
+                                   VanillaNetworkTypeahead.BYTES_POOL_RETAINED_BYTES_DEFAULT);
+    
+    // The largest size classes are retained together
+    byte[] b16 = pool.get(1 << 24);
+    byte[] b8 = pool.get(1 << 23);
+    byte[] b4 = pool.get(1 << 22);
+    assertTrue(pool.put(b16));
+    assertTrue(pool.put(b8));
+    assertTrue(pool.put(b4));
+    assertEquals(28 << 20, pool.getRetainedBytes());
+    
+    assertSame(b16, pool.get((1 << 23) + 1));
+    assertSame(b8, pool.get((1 << 22) + 1));
+    assertSame(b4, pool.get((1 << 21) + 1));
+    assertEquals(0, pool.getNumDrops());
+  }
+  
+  public void testThreadLocalBound() throws Exception {
+    BytesPool pool = new BytesPool(1024, 1 << 20, 1 << 16, 1 << 16);
+    
+    // Thread-local caches count towards the bound
+    byte[] bytes = pool.get(1 << 16);
+    assertTrue(pool.put(bytes));
+    assertEquals(1 << 16, pool.getRetainedBytes());
+    assertFalse(pool.put(pool.get(1024)));
+    assertEquals(1, pool.getNumDrops());
+    assertSame(bytes, pool.get(1 << 16));
+    
+    // The cache of a dead thread is released once the bound is reached
+    Thread t = new Thread(new BytesPoolUser(pool, 1 << 16));
+    t.start();
+    t.join();
+    assertEquals(1 << 16, pool.getRetainedBytes());
+    
+    assertTrue(pool.put(new byte[1024]));
+    assertEquals(1024, pool.getRetainedBytes());
+  }
+}
+
+class BytesPoolUser implements Runnable {
+  private final BytesPool pool;
+  private final int size;
+  
+  BytesPoolUser(BytesPool pool, int size) {
+    this.pool = pool;
+    this.size = size;
+  }
+  
+  @Override
+  public void run() {
+    pool.put(pool.get(size));
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import cleo.search.util.FrequencySketch;
+
+/**
+ * TestFrequencySketch
+ * 
+ * @since 10/18, 2026
+ */
+public class TestFrequencySketch extends TestCase {
+  private final Random rand = new Random();
+  
+  public void testFrequency() {
+    FrequencySketch sketch = new FrequencySketch(1024);
+    
+    int key = rand.nextInt();
+    assertEquals(0, sketch.frequency(key));
+    for(int i = 1; i <= 10; i++) {
+      sketch.increment(key);
+      assertTrue(sketch.frequency(key) >= i);
+    }
+    
+    // Saturated at 15
+    for(int i = 0; i < 20; i++) {
+      sketch.increment(key);
+    }
+    assertEquals(15, sketch.frequency(key));
+    
+    sketch.reset();
+    assertEquals(7, sketch.frequency(key));
+    
+    sketch.clear();
+    assertEquals(0, sketch.frequency(key));
+  }
+  
+  public void testSkewedKeys() {
+    FrequencySketch sketch = new FrequencySketch(1024);
+    
+    // 16 hot keys among 10000 cold keys accessed once
+    for(int i = 0; i < 10000; i++) {
+      sketch.increment(100000 + i);
+      sketch.increment(i & 15);
+    }
+    
+    int numHot = 0;
+    for(int i = 0; i < 16; i++) {
+      if(sketch.frequency(i) > 4) numHot++;
+    }
+    assertEquals(16, numHot);
+    
+    int numColdOverestimated = 0;
+    for(int i = 0; i < 10000; i++) {
+      if(sketch.frequency(100000 + i) > 4) numColdOverestimated++;
+    }
+    assertTrue(numColdOverestimated < 100);
+  }
+}
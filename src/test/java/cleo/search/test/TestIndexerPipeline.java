@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import cleo.search.Indexer;
+import cleo.search.IndexerPipeline;
+import cleo.search.MultiIndexer;
+import cleo.search.SimpleElement;
+import cleo.search.test.util.RecordingIndexer;
+import cleo.search.util.BackpressurePolicy;
+import cleo.search.util.Range;
+
+/**
+ * TestIndexerPipeline
+ * 
+ * @since 10/18, 2026
+ */
+public class TestIndexerPipeline extends TestCase {
+  
+  private SimpleElement element(int elemId, long timestamp) {
+    SimpleElement elem = new SimpleElement(elemId);
+    elem.setTimestamp(timestamp);
+    return elem;
+  }
+  
+  public void testOrderPerElement() throws Exception {
+    RecordingIndexer indexer = new RecordingIndexer(true);
+    IndexerPipeline<SimpleElement> pipeline = new IndexerPipeline<SimpleElement>("test", indexer, 4, 16, 8, 1, BackpressurePolicy.BLOCK);
+    
+    int cnt = 2000;
+    for(int i = 0; i < cnt; i++) {
+      assertTrue(pipeline.index(element(i % 100, i)));
+    }
+    pipeline.flush();
+    
+    assertEquals(1, indexer.getNumFlushes());
+    assertEquals(0, pipeline.getQueueDepth());
+    assertEquals(0, pipeline.getLagMillis());
+    assertEquals(cnt, pipeline.getNumProcessed());
+    
+    List<SimpleElement> elements = indexer.getElements();
+    assertEquals(cnt, elements.size());
+    
+    Map<Integer, Long> lastTimestamps = new HashMap<Integer, Long>();
+    for(SimpleElement elem : elements) {
+      Long last = lastTimestamps.put(elem.getElementId(), elem.getTimestamp());
+      assertTrue(last == null || last < elem.getTimestamp());
+    }
+    
+    pipeline.close();
+  }
+  
+  public void testDrop() throws Exception {
+    RecordingIndexer indexer = new RecordingIndexer(false);
+    IndexerPipeline<SimpleElement> pipeline = new IndexerPipeline<SimpleElement>("test", indexer, 1, 2, 1, 0, BackpressurePolicy.DROP);
+    
+    assertTrue(pipeline.index(element(1, 1)));
+    indexer.awaitEntered();
+    
+    assertTrue(pipeline.index(element(2, 2)));
+    assertTrue(pipeline.index(element(3, 3)));
+    assertFalse(pipeline.index(element(4, 4)));
+    assertEquals(2, pipeline.getQueueDepth());
+    assertEquals(1, pipeline.getNumDropped());
+    assertEquals(4, pipeline.getNumOffered());
+    
+    indexer.release();
+    pipeline.flush();
+    assertEquals(3, pipeline.getNumProcessed());
+    assertEquals(3, indexer.getElements().get(2).getElementId());
+    
+    pipeline.close();
+  }
+  
+  public void testShed() throws Exception {
+    RecordingIndexer indexer = new RecordingIndexer(false);
+    IndexerPipeline<SimpleElement> pipeline = new IndexerPipeline<SimpleElement>("test", indexer, 1, 2, 1, 0, BackpressurePolicy.SHED);
+    
+    assertTrue(pipeline.index(element(1, 1)));
+    indexer.awaitEntered();
+    
+    assertTrue(pipeline.index(element(2, 2)));
+    assertTrue(pipeline.index(element(3, 3)));
+    assertTrue(pipeline.index(element(4, 4)));
+    assertEquals(2, pipeline.getQueueDepth());
+    assertEquals(1, pipeline.getNumShed());
+    
+    indexer.release();
+    pipeline.flush();
+    assertEquals(3, pipeline.getNumProcessed());
+    
+    List<SimpleElement> elements = indexer.getElements();
+    assertEquals(1, elements.get(0).getElementId());
+    assertEquals(3, elements.get(1).getElementId());
+    assertEquals(4, elements.get(2).getElementId());
+    
+    pipeline.close();
+    try {
+      pipeline.index(element(5, 5));
+      fail("UnsupportedOperationException expected");
+    } catch(UnsupportedOperationException e) {}
+  }
+  
+  public void testCloseWhileIndexing() throws Exception {
+    RecordingIndexer indexer = new RecordingIndexer(true);
+    final IndexerPipeline<SimpleElement> pipeline = new IndexerPipeline<SimpleElement>("test", indexer, 2, 4, 2, 0, BackpressurePolicy.BLOCK);
+    
+    Thread[] producers = new Thread[4];
+    for(int t = 0; t < producers.length; t++) {
+      final int offset = t * 100000;
+      producers[t] = new Thread() {
+        public void run() {
+          try {
+            for(int i = 0; ; i++) {
+              pipeline.index(element((offset + i) % 1000, offset + i));
+            }
+          } catch(UnsupportedOperationException e) {
+            // Closed
+          } catch(Exception e) {
+            e.printStackTrace();
+          }
+        }
+      };
+      producers[t].start();
+    }
+    
+    Thread.sleep(50);
+    pipeline.close();
+    for(Thread t : producers) {
+      t.join();
+    }
+    
+    // Every accepted element is indexed and waiting for completion returns
+    pipeline.flush();
+    assertEquals(pipeline.getNumAccepted(), pipeline.getNumProcessed());
+    assertEquals(pipeline.getNumAccepted(), indexer.getElements().size());
+  }
+  
+  public void testMultiIndexer() throws Exception {
+    RecordingIndexer indexer0 = new RecordingIndexer(true, new Range(0, 100));
+    RecordingIndexer indexer1 = new RecordingIndexer(true, new Range(100, 100));
+    IndexerPipeline<SimpleElement> pipeline0 = new IndexerPipeline<SimpleElement>("p0", indexer0, 2, 16, 8, 0, BackpressurePolicy.BLOCK);
+    IndexerPipeline<SimpleElement> pipeline1 = new IndexerPipeline<SimpleElement>("p1", indexer1, 2, 16, 8, 0, BackpressurePolicy.BLOCK);
+    assertSame(indexer0.getRange(), pipeline0.getRange());
+    
+    List<Indexer<SimpleElement>> pipelines = new ArrayList<Indexer<SimpleElement>>();
+    pipelines.add(pipeline0);
+    pipelines.add(pipeline1);
+    MultiIndexer<SimpleElement> multi = new MultiIndexer<SimpleElement>(pipelines);
+    assertTrue(multi.isRouted());
+    
+    for(int i = 0; i < 200; i++) {
+      assertTrue(multi.index(element(i, i)));
+    }
+    assertFalse(multi.index(element(200, 200)));
+    multi.flush();
+    
+    assertEquals(100, indexer0.getElements().size());
+    assertEquals(100, indexer1.getElements().size());
+    for(SimpleElement elem : indexer1.getElements()) {
+      assertTrue(elem.getElementId() >= 100);
+    }
+    
+    pipeline0.close();
+    pipeline1.close();
+  }
+  
+  public void testMultiIndexerUnrouted() throws Exception {
+    RecordingIndexer indexer0 = new RecordingIndexer(true, new Range(0, 100));
+    RecordingIndexer indexer1 = new RecordingIndexer(true);
+    IndexerPipeline<SimpleElement> pipeline0 = new IndexerPipeline<SimpleElement>("p0", indexer0, 2, 16, 8, 0, BackpressurePolicy.BLOCK);
+    IndexerPipeline<SimpleElement> pipeline1 = new IndexerPipeline<SimpleElement>("p1", indexer1, 2, 16, 8, 0, BackpressurePolicy.BLOCK);
+    assertNull(pipeline1.getRange());
+    
+    List<Indexer<SimpleElement>> pipelines = new ArrayList<Indexer<SimpleElement>>();
+    pipelines.add(pipeline0);
+    pipelines.add(pipeline1);
+    MultiIndexer<SimpleElement> multi = new MultiIndexer<SimpleElement>(pipelines);
+    assertFalse(multi.isRouted());
+    
+    // Elements outside the range of the first pipeline are rejected up front and reach the second
+    for(int i = 0; i < 200; i++) {
+      assertTrue(multi.index(element(i, i)));
+    }
+    multi.flush();
+    
+    assertEquals(100, indexer0.getElements().size());
+    assertEquals(100, indexer1.getElements().size());
+    
+    pipeline0.close();
+    pipeline1.close();
+  }
+}
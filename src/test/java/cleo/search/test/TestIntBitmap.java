@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import junit.framework.TestCase;
+
+import cleo.search.util.IntBitmap;
+import cleo.search.util.IntIterator;
+
+/**
+ * TestIntBitmap
+ * 
+ * @since 10/18, 2026
+ */
+public class TestIntBitmap extends TestCase {
+  protected Random rand = new Random();
+  
+  protected int[] toArray(TreeSet<Integer> set) {
+    int[] result = new int[set.size()];
+    int i = 0;
+    for(Integer v : set) {
+      result[i++] = v;
+    }
+    return result;
+  }
+  
+  protected void check(TreeSet<Integer> expected, IntBitmap bitmap) {
+    int[] values = toArray(expected);
+    assertEquals(values.length, bitmap.cardinality());
+    assertTrue(Arrays.equals(values, bitmap.toArray()));
+    
+    IntIterator iter = bitmap.iterator();
+    for(int v : values) {
+      assertTrue(iter.hasNext());
+      assertEquals(v, iter.next());
+    }
+    assertFalse(iter.hasNext());
+    
+    for(int i = 0; i < 1000; i++) {
+      int v = rand.nextInt(1 << 20);
+      assertEquals(expected.contains(v), bitmap.contains(v));
+    }
+  }
+  
+  /**
+   * Creates a set mixing sparse values, dense values and runs across several containers.
+   */
+  protected TreeSet<Integer> randomSet() {
+    TreeSet<Integer> set = new TreeSet<Integer>();
+    for(int i = 0, cnt = rand.nextInt(1000); i < cnt; i++) {
+      set.add(rand.nextInt(1 << 20));
+    }
+    for(int i = 0, cnt = rand.nextInt(20000); i < cnt; i++) {
+      set.add((1 << 16) + rand.nextInt(1 << 16));
+    }
+    for(int i = 0, start = (3 << 16) + rand.nextInt(1000), cnt = rand.nextInt(5000); i < cnt; i++) {
+      set.add(start + i);
+    }
+    return set;
+  }
+  
+  public void testValueOf() {
+    check(new TreeSet<Integer>(), IntBitmap.valueOf(new int[0]));
+    
+    for(int i = 0; i < 10; i++) {
+      TreeSet<Integer> set = randomSet();
+      int[] values = toArray(set);
+      
+      // Shuffle with duplicates
+      int[] shuffled = Arrays.copyOf(values, values.length + 10);
+      for(int j = values.length; j < shuffled.length && values.length > 0; j++) {
+        shuffled[j] = values[rand.nextInt(values.length)];
+      }
+      for(int j = shuffled.length - 1; j > 0; j--) {
+        int k = rand.nextInt(j + 1);
+        int tmp = shuffled[j];
+        shuffled[j] = shuffled[k];
+        shuffled[k] = tmp;
+      }
+      
+      IntBitmap bitmap = IntBitmap.valueOf(shuffled);
+      check(set, bitmap);
+      assertTrue(bitmap.getSizeInBytes() <= 4L * values.length + 64);
+    }
+  }
+  
+  public void testAddRemove() {
+    TreeSet<Integer> set = randomSet();
+    IntBitmap bitmap = IntBitmap.valueOf(toArray(set));
+    IntBitmap original = bitmap;
+    
+    for(int i = 0; i < 10000; i++) {
+      int v = rand.nextBoolean() ? rand.nextInt(1 << 20) : (1 << 16) + rand.nextInt(1 << 16);
+      if(rand.nextBoolean()) {
+        set.add(v);
+        bitmap = bitmap.add(v);
+      } else {
+        set.remove(v);
+        bitmap = bitmap.remove(v);
+      }
+    }
+    check(set, bitmap);
+    
+    for(Integer v : toArray(set)) {
+      bitmap = bitmap.remove(v);
+    }
+    assertEquals(0, bitmap.cardinality());
+    assertFalse(bitmap.iterator().hasNext());
+    
+    // Updates never change the original bitmap
+    assertTrue(original.cardinality() > 0);
+  }
+  
+  public void testAddRemoveRuns() {
+    TreeSet<Integer> set = new TreeSet<Integer>();
+    for(int r = 0; r < 100; r++) {
+      int start = r * 200;
+      for(int i = 0; i < 100; i++) {
+        set.add(start + i);
+      }
+    }
+    
+    IntBitmap bitmap = IntBitmap.valueOf(toArray(set));
+    
+    // Extend, merge, split and shrink runs
+    for(int i = 0; i < 5000; i++) {
+      int v = rand.nextInt(20000);
+      if(rand.nextBoolean()) {
+        set.add(v);
+        bitmap = bitmap.add(v);
+      } else {
+        set.remove(v);
+        bitmap = bitmap.remove(v);
+      }
+    }
+    check(set, bitmap);
+  }
+  
+  public void testAnd() {
+    for(int i = 0; i < 10; i++) {
+      TreeSet<Integer> set1 = randomSet();
+      TreeSet<Integer> set2 = randomSet();
+      TreeSet<Integer> set3 = randomSet();
+      
+      TreeSet<Integer> expected = new TreeSet<Integer>(set1);
+      expected.retainAll(set2);
+      check(expected, IntBitmap.valueOf(toArray(set1)).and(IntBitmap.valueOf(toArray(set2))));
+      
+      expected.retainAll(set3);
+      check(expected, IntBitmap.and(IntBitmap.valueOf(toArray(set1)),
+                                    IntBitmap.valueOf(toArray(set2)),
+                                    IntBitmap.valueOf(toArray(set3))));
+    }
+  }
+}
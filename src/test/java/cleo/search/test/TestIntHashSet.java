@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import cleo.search.util.IntHashSet;
+
+/**
+ * TestIntHashSet
+ *
+ * @since 10/18, 2026
+ */
+public class TestIntHashSet extends TestCase {
+  protected Random rand = new Random();
+
+  public void testAddContains() {
+    IntHashSet set = new IntHashSet(2);
+    Set<Integer> expected = new HashSet<Integer>();
+
+    for(int i = 0; i < 10000; i++) {
+      int v = rand.nextInt(5000) - 2500;
+      assertEquals(expected.add(v), set.add(v));
+      assertEquals(expected.size(), set.size());
+    }
+
+    for(int v = -3000; v < 3000; v++) {
+      assertEquals(expected.contains(v), set.contains(v));
+    }
+  }
+
+  public void testClear() {
+    IntHashSet set = new IntHashSet();
+    for(int i = 0; i < 100; i++) {
+      set.add(i);
+    }
+
+    set.clear();
+    assertEquals(0, set.size());
+    assertFalse(set.contains(0));
+    assertTrue(set.add(0));
+    assertEquals(1, set.size());
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import krati.core.segment.MemorySegmentFactory;
+
+import cleo.search.SimpleElement;
+import cleo.search.SimpleElementSerializer;
+import cleo.search.bootstrap.ParallelConnectionsCollector;
+import cleo.search.store.ArrayStoreElement;
+import cleo.search.store.ConnectionsStore;
+import cleo.search.store.StoreFactory;
+import cleo.search.test.util.FileUtils;
+import cleo.search.typeahead.GenericTypeaheadIndexRoller;
+
+/**
+ * TestParallelConnectionsCollector
+ *
+ * @since 10/18, 2026
+ */
+public class TestParallelConnectionsCollector extends TestCase {
+  private final Random rand = new Random();
+  private final int maxKeyLength = 4;
+  private File homeDir;
+  private ArrayStoreElement<SimpleElement> elementStore;
+  private ConnectionsStore<String> connectionsStore;
+
+  @Override
+  protected void setUp() {
+    homeDir = FileUtils.getTestDir(getClass().getSimpleName());
+
+    try {
+      elementStore = StoreFactory.createElementStorePartition(
+          new File(homeDir, "element-store"), 0, 3000, new MemorySegmentFactory(), 32, new SimpleElementSerializer());
+      connectionsStore = StoreFactory.createConnectionsStore(
+          new File(homeDir, "connections-store"), 100000, 8, new MemorySegmentFactory(), 32, new MemorySegmentFactory());
+    } catch(Exception e) {
+      e.printStackTrace();
+    }
+  }
+
+  @Override
+  protected void tearDown() {
+    try {
+      elementStore.close();
+      connectionsStore.close();
+      FileUtils.deleteDirectory(homeDir);
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  private String randomTerm() {
+    int len = 1 + rand.nextInt(6);
+    StringBuilder sb = new StringBuilder(len);
+    for(int i = 0; i < len; i++) {
+      sb.append((char)('a' + rand.nextInt(5)));
+    }
+    return sb.toString();
+  }
+
+  public void testCollectAndStore() throws Exception {
+    Map<String, List<SimpleElement>> expected = new HashMap<String, List<SimpleElement>>();
+
+    for(int i = 0, cnt = elementStore.capacity(); i < cnt; i++) {
+      if(rand.nextInt(10) == 0) continue;
+
+      SimpleElement elem = new SimpleElement(i);
+      elem.setTerms(randomTerm(), randomTerm());
+      elem.setScore(rand.nextInt(100));
+      elem.setTimestamp(System.currentTimeMillis());
+      elementStore.setElement(i, elem, elem.getTimestamp());
+
+      HashSet<String> prefixes = new HashSet<String>();
+      for(String term : elem.getTerms()) {
+        for(int k = 1, len = Math.min(term.length(), maxKeyLength); k <= len; k++) {
+          prefixes.add(term.substring(0, k));
+        }
+      }
+
+      for(String prefix : prefixes) {
+        List<SimpleElement> list = expected.get(prefix);
+        if(list == null) {
+          list = new ArrayList<SimpleElement>();
+          expected.put(prefix, list);
+        }
+        list.add(elem);
+      }
+    }
+    elementStore.sync();
+
+    // Use a tiny memory budget and merge factor to force spilling and multi-pass merging
+    ParallelConnectionsCollector collector = new ParallelConnectionsCollector(new File(homeDir, "runs"), 4, 500, 3);
+    collector.collect(elementStore, maxKeyLength);
+    assertTrue(collector.getNumRuns() > collector.getMergeFactor());
+
+    collector.store(connectionsStore);
+    assertEquals(0, collector.getNumRuns());
+
+    int numKeys = 0;
+    Iterator<String> iter = connectionsStore.sourceIterator();
+    while(iter.hasNext()) {
+      iter.next();
+      numKeys++;
+    }
+    assertEquals(expected.size(), numKeys);
+
+    GenericTypeaheadIndexRoller.ElementScoreCmpDsc cmp = new GenericTypeaheadIndexRoller.ElementScoreCmpDsc();
+    for(Map.Entry<String, List<SimpleElement>> e : expected.entrySet()) {
+      List<SimpleElement> list = e.getValue();
+      Collections.sort(list, cmp);
+
+      int[] connections = connectionsStore.getConnections(e.getKey());
+      assertEquals(list.size(), connections.length);
+      for(int i = 0; i < connections.length; i++) {
+        assertEquals(list.get(i).getElementId(), connections[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test;
+
+import cleo.search.filter.PrefixSummary;
+import junit.framework.TestCase;
+
+/**
+ * TestPrefixSummary
+ * 
+ * @since 10/18, 2026
+ */
+public class TestPrefixSummary extends TestCase {
+  
+  private void addTerm(PrefixSummary summary, String term) {
+    for(int i = 1, len = Math.min(term.length(), summary.getMaxPrefixLength()); i <= len; i++) {
+      summary.add(term.substring(0, i));
+    }
+  }
+  
+  private void removeTerm(PrefixSummary summary, String term) {
+    for(int i = 1, len = Math.min(term.length(), summary.getMaxPrefixLength()); i <= len; i++) {
+      summary.remove(term.substring(0, i));
+    }
+  }
+  
+  public void testMightContain() {
+    PrefixSummary summary = new PrefixSummary(5, 1 << 12);
+    addTerm(summary, "linkedin");
+    addTerm(summary, "cleo");
+    
+    assertTrue(summary.mightContain("l"));
+    assertTrue(summary.mightContain("li"));
+    assertTrue(summary.mightContain("link"));
+    assertTrue(summary.mightContain("linkedin"));
+    assertTrue(summary.mightContain("linke"));
+    assertTrue(summary.mightContainAll("cle", "lin"));
+    assertTrue(summary.mightContain(""));
+    
+    assertFalse(summary.mightContain("x"));
+    assertFalse(summary.mightContain("lx"));
+    assertFalse(summary.mightContain("cleopatra"));
+    assertFalse(summary.mightContainAll("cleo", "search"));
+  }
+  
+  public void testRemove() {
+    PrefixSummary summary = new PrefixSummary(5, 1 << 12);
+    addTerm(summary, "search");
+    addTerm(summary, "searcher");
+    
+    removeTerm(summary, "searcher");
+    assertTrue(summary.mightContain("searc"));
+    
+    removeTerm(summary, "search");
+    assertFalse(summary.mightContain("sea"));
+    assertFalse(summary.mightContain("searc"));
+    
+    // Short prefixes are never removed
+    assertTrue(summary.mightContain("s"));
+    assertTrue(summary.mightContain("se"));
+    
+    summary.clear();
+    assertFalse(summary.mightContain("s"));
+  }
+  
+  public void testConcurrentAdds() throws Exception {
+    final PrefixSummary summary = new PrefixSummary(5, 1 << 12);
+    
+    // Threads adding the same prefixes must not lose counts through racing updates
+    Thread[] threads = new Thread[4];
+    for(int t = 0; t < threads.length; t++) {
+      final int offset = t;
+      threads[t] = new Thread() {
+        public void run() {
+          for(int i = 0; i < 1000; i++) {
+            summary.add("term" + ((i + offset) % 50));
+          }
+        }
+      };
+      threads[t].start();
+    }
+    for(Thread t : threads) {
+      t.join();
+    }
+    
+    for(int i = 0; i < 50; i++) {
+      assertTrue(summary.mightContain("term" + i));
+    }
+    
+    // Each prefix was added 80 times, so one removal keeps it
+    summary.remove("term0");
+    assertTrue(summary.mightContain("term0"));
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import cleo.search.connection.ConnectionIndexer;
+import cleo.search.connection.ConnectionIndexerPipeline;
+import cleo.search.connection.MultiConnectionIndexer;
+import cleo.search.connection.OpenConnectionFilter;
+import cleo.search.connection.SimpleConnection;
+import cleo.search.connection.SourcePartitionConnectionFilter;
+import cleo.search.connection.TransitivePartitionConnectionFilter;
+import cleo.search.test.util.RecordingConnectionIndexer;
+import cleo.search.util.Range;
+import cleo.search.util.RangeRouter;
+
+/**
+ * TestRangeRouter
+ * 
+ * @since 10/18, 2026
+ */
+public class TestRangeRouter extends TestCase {
+  
+  public void testFind() {
+    List<Range> ranges = new ArrayList<Range>();
+    List<String> targets = new ArrayList<String>();
+    ranges.add(new Range(200, 100));
+    targets.add("c");
+    ranges.add(new Range(0, 100));
+    targets.add("a");
+    ranges.add(new Range(100, 50));
+    targets.add("b");
+    
+    RangeRouter<String> router = RangeRouter.create(ranges, targets);
+    assertNotNull(router);
+    assertEquals(3, router.size());
+    
+    assertEquals(null, router.find(-1));
+    assertEquals("a", router.find(0));
+    assertEquals("a", router.find(99));
+    assertEquals("b", router.find(100));
+    assertEquals("b", router.find(149));
+    assertEquals(null, router.find(150));
+    assertEquals(null, router.find(199));
+    assertEquals("c", router.find(200));
+    assertEquals("c", router.find(299));
+    assertEquals(null, router.find(300));
+  }
+  
+  public void testOverlap() {
+    List<Range> ranges = new ArrayList<Range>();
+    List<String> targets = new ArrayList<String>();
+    ranges.add(new Range(0, 100));
+    targets.add("a");
+    ranges.add(new Range(50, 100));
+    targets.add("b");
+    
+    assertNull(RangeRouter.create(ranges, targets));
+  }
+  
+  public void testMultiConnectionIndexer() throws Exception {
+    RecordingConnectionIndexer s0 = new RecordingConnectionIndexer(new SourcePartitionConnectionFilter(new Range(0, 100)));
+    RecordingConnectionIndexer s1 = new RecordingConnectionIndexer(new SourcePartitionConnectionFilter(new Range(100, 100)));
+    RecordingConnectionIndexer t0 = new RecordingConnectionIndexer(new TransitivePartitionConnectionFilter(new Range(0, 100)));
+    RecordingConnectionIndexer t1 = new RecordingConnectionIndexer(new TransitivePartitionConnectionFilter(new Range(100, 100)));
+    RecordingConnectionIndexer open = new RecordingConnectionIndexer(new OpenConnectionFilter());
+    
+    List<ConnectionIndexer> indexers = new ArrayList<ConnectionIndexer>();
+    indexers.add(s1);
+    indexers.add(t0);
+    indexers.add(s0);
+    indexers.add(open);
+    indexers.add(t1);
+    
+    MultiConnectionIndexer multi = new MultiConnectionIndexer(indexers);
+    assertEquals(1, multi.getNumUnrouted());
+    
+    assertTrue(multi.index(new SimpleConnection(10, 150, true)));
+    assertEquals(1, s0.getConnections().size());
+    assertEquals(0, s1.getConnections().size());
+    assertEquals(1, t0.getConnections().size());
+    assertEquals(1, t1.getConnections().size());
+    assertEquals(1, open.getConnections().size());
+    
+    assertTrue(multi.index(new SimpleConnection(120, 130, true)));
+    assertEquals(1, s0.getConnections().size());
+    assertEquals(1, s1.getConnections().size());
+    assertEquals(1, t0.getConnections().size());
+    assertEquals(2, t1.getConnections().size());
+    assertEquals(2, open.getConnections().size());
+    
+    assertTrue(multi.accept(500, 10, true));
+    assertTrue(multi.accept(new SimpleConnection(500, 600, true)));
+  }
+  
+  public void testMultiConnectionIndexerOverlap() throws Exception {
+    RecordingConnectionIndexer s0 = new RecordingConnectionIndexer(new SourcePartitionConnectionFilter(new Range(0, 100)));
+    RecordingConnectionIndexer s1 = new RecordingConnectionIndexer(new SourcePartitionConnectionFilter(new Range(50, 100)));
+    
+    List<ConnectionIndexer> indexers = new ArrayList<ConnectionIndexer>();
+    indexers.add(s0);
+    indexers.add(s1);
+    
+    MultiConnectionIndexer multi = new MultiConnectionIndexer(indexers);
+    assertEquals(2, multi.getNumUnrouted());
+    
+    assertTrue(multi.index(new SimpleConnection(60, 1, true)));
+    assertEquals(1, s0.getConnections().size());
+    assertEquals(1, s1.getConnections().size());
+    
+    assertFalse(multi.accept(150, 1, true));
+  }
+  
+  public void testMultiConnectionIndexerPipelines() throws Exception {
+    RecordingConnectionIndexer s0 = new RecordingConnectionIndexer(new SourcePartitionConnectionFilter(new Range(0, 100)));
+    RecordingConnectionIndexer s1 = new RecordingConnectionIndexer(new SourcePartitionConnectionFilter(new Range(100, 100)));
+    ConnectionIndexerPipeline p0 = new ConnectionIndexerPipeline("p0", s0);
+    ConnectionIndexerPipeline p1 = new ConnectionIndexerPipeline("p1", s1);
+    
+    List<ConnectionIndexer> indexers = new ArrayList<ConnectionIndexer>();
+    indexers.add(p1);
+    indexers.add(p0);
+    
+    MultiConnectionIndexer multi = new MultiConnectionIndexer(indexers);
+    assertEquals(0, multi.getNumUnrouted());
+    
+    for(int source = 0; source < 200; source++) {
+      assertTrue(multi.index(new SimpleConnection(source, 1, true)));
+    }
+    assertFalse(multi.index(new SimpleConnection(200, 1, true)));
+    multi.flush();
+    
+    assertEquals(100, s0.getConnections().size());
+    assertEquals(100, s1.getConnections().size());
+    
+    p0.close();
+    p1.close();
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test.store;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cleo.search.SimpleElement;
+import cleo.search.store.ArrayStoreElement;
+import cleo.search.store.CachedArrayStoreElement;
+
+/**
+ * TestCachedArrayStoreElement
+ * 
+ * @since 10/18, 2026
+ */
+public class TestCachedArrayStoreElement extends TestArrayStoreElement {
+  private final static long CACHE_BYTES = 16 * 1024;
+  
+  @Override
+  protected ArrayStoreElement<SimpleElement> createElementStore() throws Exception {
+    return new CachedArrayStoreElement<SimpleElement>(super.createElementStore(), CACHE_BYTES);
+  }
+  
+  @Override
+  protected ArrayStoreElement<SimpleElement> createElementStore(int idStart, int idCount) throws Exception {
+    return new CachedArrayStoreElement<SimpleElement>(super.createElementStore(idStart, idCount), CACHE_BYTES);
+  }
+  
+  private CachedArrayStoreElement<SimpleElement> cache() {
+    return (CachedArrayStoreElement<SimpleElement>)elementStore;
+  }
+  
+  private void fill() throws Exception {
+    long scn = System.currentTimeMillis();
+    for(int i = 0, cnt = elementStore.capacity(); i < cnt; i++) {
+      int elementId = elementStore.getIndexStart() + i;
+      SimpleElement element = new SimpleElement(elementId);
+      element.setTimestamp(System.currentTimeMillis());
+      element.setTerms(new String[] {"simple", "element." + elementId});
+      element.setScore(rand.nextFloat());
+      elementStore.setElement(elementId, element, scn++);
+    }
+  }
+  
+  public void testHitsAndMisses() throws Exception {
+    fill();
+    
+    int elementId = inRangeId();
+    assertEquals(elementId, elementStore.getElement(elementId).getElementId());
+    assertEquals(1, cache().getMissCount());
+    assertEquals(0, cache().getHitCount());
+    assertEquals(1, cache().getCacheSize());
+    
+    SimpleElement element = elementStore.getElement(elementId);
+    assertEquals(elementId, element.getElementId());
+    assertEquals(1, cache().getHitCount());
+    
+    // Write-through replaces the cached element
+    element = new SimpleElement(elementId);
+    element.setTimestamp(System.currentTimeMillis());
+    element.setTerms(new String[] {"updated"});
+    elementStore.setElement(elementId, element, System.currentTimeMillis());
+    assertEquals("updated", elementStore.getElement(elementId).getTerms()[0]);
+    assertEquals(2, cache().getHitCount());
+    
+    // Write-through removes the deleted element
+    elementStore.deleteElement(elementId, System.currentTimeMillis());
+    assertEquals(0, cache().getCacheSize());
+    assertNull(elementStore.getElement(elementId));
+    assertEquals(0, cache().getCacheSize());
+  }
+  
+  public void testBoundedWeight() throws Exception {
+    fill();
+    
+    for(int n = 0; n < 3; n++) {
+      for(int i = 0, cnt = elementStore.capacity(); i < cnt; i++) {
+        int elementId = elementStore.getIndexStart() + i;
+        assertEquals(elementId, elementStore.getElement(elementId).getElementId());
+        assertTrue(cache().getCacheWeight() <= cache().getMaxCacheWeight());
+      }
+    }
+    
+    assertTrue(cache().getEvictionCount() > 0);
+    assertTrue(cache().getCacheSize() > 0);
+    assertTrue(cache().getCacheSize() < elementStore.capacity());
+  }
+  
+  public void testSkewedAccess() throws Exception {
+    fill();
+    
+    // A hot set fitting in the cache read among a stream of cold elements
+    int hotCount = 32;
+    int start = elementStore.getIndexStart();
+    int capacity = elementStore.capacity();
+    for(int i = 0; i < 20000; i++) {
+      int elementId = (i % 2 == 0) ? (start + rand.nextInt(hotCount)) : (start + hotCount + rand.nextInt(capacity - hotCount));
+      assertEquals(elementId, elementStore.getElement(elementId).getElementId());
+    }
+    
+    assertTrue(cache().toString(), cache().getHitRate() > 0.4);
+  }
+  
+  public void testConcurrentReadsAndWrites() throws Exception {
+    fill();
+  
+    final int readsPerThread = 20000;
+    final int hotCount = 32;
+    final int start = elementStore.getIndexStart();
+    final int capacity = elementStore.capacity();
+    final AtomicInteger errors = new AtomicInteger();
+  
+    Thread[] readers = new Thread[4];
+    for(int t = 0; t < readers.length; t++) {
+      readers[t] = new Thread() {
+        public void run() {
+          Random r = new Random();
+          for(int i = 0; i < readsPerThread; i++) {
+            int elementId = (i % 2 == 0) ? (start + r.nextInt(hotCount)) : (start + hotCount + r.nextInt(capacity - hotCount));
+            SimpleElement element = elementStore.getElement(elementId);
+            if(element == null || element.getElementId() != elementId) {
+              errors.incrementAndGet();
+            }
+          }
+        }
+      };
+      readers[t].start();
+    }
+  
+    // Rewrite hot elements while they are read
+    long scn = System.currentTimeMillis();
+    for(int i = 0; i < 200; i++) {
+      int elementId = start + rand.nextInt(hotCount);
+      SimpleElement element = new SimpleElement(elementId);
+      element.setTimestamp(System.currentTimeMillis());
+      element.setTerms(new String[] {"updated." + i});
+      elementStore.setElement(elementId, element, scn++);
+    }
+  
+    for(Thread t : readers) {
+      t.join();
+    }
+  
+    assertEquals(0, errors.get());
+    assertEquals(readers.length * readsPerThread, cache().getHitCount() + cache().getMissCount());
+    assertTrue(cache().getCacheWeight() <= cache().getMaxCacheWeight());
+  
+    // Cached elements match the underlying store after the writes
+    for(int i = 0; i < hotCount; i++) {
+      int elementId = start + i;
+      SimpleElement element = elementStore.getElement(elementId);
+      assertEquals(elementStore.getElementSerializer().deserialize(elementStore.getElementBytes(elementId)).getTerms()[0],
+                   element.getTerms()[0]);
+    }
+  }
+}
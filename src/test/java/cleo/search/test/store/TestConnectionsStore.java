@@ -22,6 +22,7 @@ import java.util.Arrays;
 import java.util.Random;
 
 import cleo.search.store.ConnectionsStore;
+import cleo.search.store.PostingCursor;
 import cleo.search.store.StoreFactory;
 import cleo.search.test.util.FileUtils;
 
@@ -96,6 +97,21 @@ public class TestConnectionsStore extends TestCase {
     runApiBasics(source, connections, newConnection);
   }
   
+  private void checkCursor(String source, int[] connections) {
+    PostingCursor cursor = store.openCursor(source);
+    if(connections == null) {
+      assertEquals(null, cursor);
+      return;
+    }
+    
+    assertEquals(connections.length, cursor.size());
+    for(int i = 0; i < connections.length; i++) {
+      assertTrue(cursor.hasNext());
+      assertEquals(connections[i], cursor.next());
+    }
+    assertFalse(cursor.hasNext());
+  }
+  
   private void runApiBasics(String source, int[] connections, int newConnection) throws Exception {
     int[] connectionsRead;
     int cnt = connections == null ? 0 : connections.length;
@@ -103,10 +119,12 @@ public class TestConnectionsStore extends TestCase {
     store.putConnections(source, connections, System.currentTimeMillis());
     connectionsRead = store.getConnections(source);
     assertTrue(Arrays.equals(connections, connectionsRead));
+    checkCursor(source, connectionsRead);
     
     store.addConnection(source, newConnection, System.currentTimeMillis());
     connectionsRead = store.getConnections(source);
     assertEquals(cnt + 1, connectionsRead.length);
+    checkCursor(source, connectionsRead);
 
     assertTrue(store.getLWMark() <= store.getHWMark());
     store.persist();
@@ -119,6 +137,7 @@ public class TestConnectionsStore extends TestCase {
     store.deleteConnections(source, System.currentTimeMillis());
     connectionsRead = store.getConnections(source);
     assertEquals(null, connectionsRead);
+    assertEquals(null, store.openCursor(source));
     
     assertTrue(store.getLWMark() <= store.getHWMark());
     store.sync();
@@ -24,6 +24,7 @@ import java.util.Random;
 import cleo.search.store.DataStoreInts;
 import cleo.search.store.KratiDataStore;
 import cleo.search.store.KratiDataStoreInts;
+import cleo.search.store.PostingCursor;
 import cleo.search.store.StoreFactory;
 import cleo.search.test.util.FileUtils;
 
@@ -135,6 +136,30 @@ public class TestDataStoreInts extends TestCase {
     assertEquals(store.getLWMark(), store.getHWMark());
   }
   
+  public void testOpenCursor() throws Exception {
+    String key = "key." + rand.nextInt(10000);
+    assertNull(store.openCursor(key + ".none"));
+    
+    // Put a long list and add a few integers, which may end up in a different list store
+    int[] elemIds = new int[1000 + rand.nextInt(1000)];
+    for(int i = 0; i < elemIds.length; i++) {
+      elemIds[i] = i * 10 + rand.nextInt(10);
+    }
+    store.put(key, elemIds, System.currentTimeMillis());
+    for(int i = 0; i < 10; i++) {
+      store.add(key, -1 - i, System.currentTimeMillis());
+    }
+    
+    int[] results = store.get(key);
+    PostingCursor cursor = store.openCursor(key);
+    assertEquals(results.length, cursor.size());
+    for(int i = 0; i < results.length; i++) {
+      assertTrue(cursor.hasNext());
+      assertEquals(results[i], cursor.next());
+    }
+    assertFalse(cursor.hasNext());
+  }
+  
   public void testStress() throws Exception {
     int counter = 0;
     int opCount = 0;
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.test.store;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import krati.core.segment.MemorySegmentFactory;
+import krati.core.segment.SegmentFactory;
+import krati.core.segment.WriteBufferSegmentFactory;
+
+import cleo.search.store.ConnectionsStore;
+import cleo.search.store.LsmConnectionsStore;
+import cleo.search.store.StaticFloatArrayPartition;
+import cleo.search.store.StoreFactory;
+
+/**
+ * TestLsmConnectionsStore
+ * 
+ * @since 10/18, 2026
+ */
+public class TestLsmConnectionsStore extends TestConnectionsStore {
+  
+  protected ConnectionsStore<String> createBaseStore() throws Exception {
+    int indexSegmentFileSizeMB = 8;
+    SegmentFactory indexSegmentFactory = new MemorySegmentFactory();
+    int storeSegmentFileSizeMB = 32;
+    SegmentFactory storeSegmentFactory = new WriteBufferSegmentFactory(storeSegmentFileSizeMB);
+    
+    return StoreFactory.createConnectionsStore(new File(storeHome, "base"), getInitialCapacity(), indexSegmentFileSizeMB, indexSegmentFactory, storeSegmentFileSizeMB, storeSegmentFactory);
+  }
+  
+  @Override
+  protected ConnectionsStore<String> createConnectionsStore() throws Exception {
+    // Tiny segments to go through freezing, flushing and merging all the time
+    return new LsmConnectionsStore(new File(storeHome, "lsm"), createBaseStore(), 3, 2);
+  }
+  
+  private Set<Integer> toSet(int[] connections) {
+    Set<Integer> set = new HashSet<Integer>();
+    if(connections != null) {
+      for(int c : connections) {
+        assertTrue("duplicate connection " + c, set.add(c));
+      }
+    }
+    return set;
+  }
+  
+  private void check(Map<String, Set<Integer>> model) {
+    for(Map.Entry<String, Set<Integer>> e : model.entrySet()) {
+      assertEquals(e.getKey(), e.getValue(), toSet(store.getConnections(e.getKey())));
+    }
+    
+    Set<String> sources = new HashSet<String>();
+    Iterator<String> iter = store.sourceIterator();
+    while(iter.hasNext()) {
+      String source = iter.next();
+      assertTrue(sources.add(source));
+      assertTrue(model.containsKey(source));
+    }
+  }
+  
+  public void testRandomUpdates() throws Exception {
+    LsmConnectionsStore lsm = (LsmConnectionsStore)store;
+    Map<String, Set<Integer>> model = new HashMap<String, Set<Integer>>();
+    
+    long scn = System.currentTimeMillis();
+    for(int i = 0; i < 3000; i++) {
+      String source = "s" + rand.nextInt(20);
+      int elemId = rand.nextInt(50);
+      Set<Integer> set = model.get(source);
+      if(set == null) {
+        set = new HashSet<Integer>();
+        model.put(source, set);
+      }
+      
+      int op = rand.nextInt(100);
+      if(op < 50) {
+        store.addConnection(source, elemId, scn++);
+        set.add(elemId);
+      } else if(op < 85) {
+        store.removeConnection(source, elemId, scn++);
+        set.remove(elemId);
+      } else if(op < 95) {
+        int[] connections = new int[rand.nextInt(5)];
+        set.clear();
+        for(int k = 0; k < connections.length; k++) {
+          connections[k] = 50 + k;
+          set.add(connections[k]);
+        }
+        store.putConnections(source, connections, scn++);
+      } else {
+        store.deleteConnections(source, scn++);
+        set.clear();
+      }
+      
+      if(i % 500 == 0) {
+        check(model);
+        store.persist();
+        assertEquals(store.getHWMark(), store.getLWMark());
+      }
+      if(i % 1000 == 999) {
+        lsm.compact();
+        assertEquals(0, lsm.getNumSegments());
+      }
+    }
+    
+    check(model);
+    
+    // Reopen to read the disk segments again
+    long hwMark = store.getHWMark();
+    store.close();
+    store = createConnectionsStore();
+    assertEquals(hwMark, store.getHWMark());
+    check(model);
+    
+    ((LsmConnectionsStore)store).compact();
+    check(model);
+  }
+  
+  public void testScoreOrder() throws Exception {
+    LsmConnectionsStore lsm = (LsmConnectionsStore)store;
+    StaticFloatArrayPartition scores = new StaticFloatArrayPartition(0, 10);
+    scores.set(1, 0.5f);
+    scores.set(2, 3.0f);
+    scores.set(3, -1.0f);
+    scores.set(4, 3.0f);
+    scores.set(5, 0.5f);
+    lsm.setScoreStore(scores);
+    
+    long scn = System.currentTimeMillis();
+    lsm.putConnections("s", new int[] { 5, 3, 4, 1, 2, 20 }, scn++);
+    lsm.addConnection("s", 6, scn++);
+    lsm.compact();
+    
+    // Equal scores keep their merged order (newer additions first), elements without scores count as 0
+    int[] expected = new int[] { 4, 2, 5, 1, 6, 20, 3 };
+    assertTrue(Arrays.equals(expected, lsm.getBaseStore().getConnections("s")));
+    assertTrue(Arrays.equals(expected, lsm.getConnections("s")));
+  }
+}
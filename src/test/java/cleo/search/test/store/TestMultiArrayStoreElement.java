@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test.store;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import krati.core.segment.MemorySegmentFactory;
+import krati.core.segment.Segment;
+
+import cleo.search.SimpleElement;
+import cleo.search.store.ArrayStoreElement;
+import cleo.search.store.MultiArrayStoreElement;
+import cleo.search.store.StoreFactory;
+
+/**
+ * TestMultiArrayStoreElement
+ * 
+ * @since 10/18, 2026
+ */
+public class TestMultiArrayStoreElement extends TestArrayStoreElement {
+  
+  @Override
+  protected ArrayStoreElement<SimpleElement> createElementStore() throws Exception {
+    int idStart = rand.nextInt(1000);
+    int partitionCount = 250 + rand.nextInt(250);
+    return createMultiStore(idStart, partitionCount, 4);
+  }
+  
+  @Override
+  protected ArrayStoreElement<SimpleElement> createElementStore(int idStart, int idCount) throws Exception {
+    return createMultiStore(idStart, idCount / 4, 4);
+  }
+  
+  protected ArrayStoreElement<SimpleElement> createPartition(String name, int idStart, int idCount) throws Exception {
+    File storeHomeDir = new File(getStoreHomeDir(), name);
+    return StoreFactory.createElementStorePartition(storeHomeDir, idStart, idCount, new MemorySegmentFactory(), Segment.minSegmentFileSizeMB, createSerializer());
+  }
+  
+  protected ArrayStoreElement<SimpleElement> createMultiStore(int idStart, int partitionCount, int numPartitions) throws Exception {
+    List<ArrayStoreElement<SimpleElement>> list = new ArrayList<ArrayStoreElement<SimpleElement>>();
+    for(int i = numPartitions - 1; i >= 0; i--) {
+      list.add(createPartition("p" + i, idStart + i * partitionCount, partitionCount));
+    }
+    return new MultiArrayStoreElement<SimpleElement>(list);
+  }
+  
+  private void checkRouting(ArrayStoreElement<SimpleElement> store, List<ArrayStoreElement<SimpleElement>> list, int index) throws Exception {
+    ArrayStoreElement<SimpleElement> owner = null;
+    for(ArrayStoreElement<SimpleElement> s : list) {
+      if(s.hasIndex(index)) {
+        owner = s;
+        break;
+      }
+    }
+    
+    assertEquals(owner != null, store.hasIndex(index));
+    if(owner != null) {
+      SimpleElement element = new SimpleElement(index);
+      element.setTimestamp(System.currentTimeMillis());
+      element.setTerms(new String[] {"simple", "element." + index});
+      store.setElement(index, element, System.currentTimeMillis());
+      
+      assertEquals(index, owner.getElement(index).getElementId());
+      assertEquals(index, store.getElement(index).getElementId());
+    } else {
+      assertNull(store.getElement(index));
+      assertNull(store.getElementBytes(index));
+    }
+  }
+  
+  public void testUniformRouting() throws Exception {
+    int idStart = elementStore.getIndexStart();
+    for(int i = -10; i < elementStore.length() + 10; i++) {
+      assertEquals(i >= 0 && i < elementStore.length(), elementStore.hasIndex(idStart + i));
+    }
+  }
+  
+  public void testBucketRouting() throws Exception {
+    List<ArrayStoreElement<SimpleElement>> list = new ArrayList<ArrayStoreElement<SimpleElement>>();
+    list.add(createPartition("q0", 100, 50));
+    list.add(createPartition("q1", 150, 200));
+    list.add(createPartition("q2", 500, 30)); // gap [350, 500)
+    list.add(createPartition("q3", 530, 70));
+    
+    ArrayStoreElement<SimpleElement> store = new MultiArrayStoreElement<SimpleElement>(list);
+    try {
+      for(int index = 0; index < 700; index++) {
+        checkRouting(store, list, index);
+      }
+    } finally {
+      store.close();
+    }
+  }
+  
+  public void testBinarySearchRouting() throws Exception {
+    List<ArrayStoreElement<SimpleElement>> list = new ArrayList<ArrayStoreElement<SimpleElement>>();
+    list.add(createPartition("s0", 10, 2));
+    list.add(createPartition("s1", 20, 100));
+    list.add(createPartition("s2", 200000, 50));
+    
+    ArrayStoreElement<SimpleElement> store = new MultiArrayStoreElement<SimpleElement>(list);
+    try {
+      for(int index = 0; index < 130; index++) {
+        checkRouting(store, list, index);
+      }
+      for(int index = 199990; index < 200060; index++) {
+        checkRouting(store, list, index);
+      }
+    } finally {
+      store.close();
+    }
+  }
+  
+  public void testOverlappingRouting() throws Exception {
+    List<ArrayStoreElement<SimpleElement>> list = new ArrayList<ArrayStoreElement<SimpleElement>>();
+    list.add(createPartition("r0", 0, 100));
+    list.add(createPartition("r1", 50, 100));
+    
+    ArrayStoreElement<SimpleElement> store = new MultiArrayStoreElement<SimpleElement>(list);
+    try {
+      for(int index = -5; index < 160; index++) {
+        checkRouting(store, list, index);
+      }
+    } finally {
+      store.close();
+    }
+  }
+}
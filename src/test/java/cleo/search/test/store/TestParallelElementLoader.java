@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.test.store;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import cleo.search.SimpleElement;
+import cleo.search.filter.BloomFilter;
+import cleo.search.filter.FnvBloomFilterLong;
+import cleo.search.store.ArrayStoreElement;
+import cleo.search.store.MemoryArrayStoreElement;
+import cleo.search.store.ParallelElementLoader;
+import cleo.search.store.StaticFloatArrayPartition;
+import cleo.search.store.StaticLongArrayPartition;
+import cleo.search.util.ElementScoreScanner;
+import cleo.search.util.ScoreScanner;
+
+/**
+ * TestParallelElementLoader
+ * 
+ * @since 10/18, 2026
+ */
+public class TestParallelElementLoader extends TestArrayStoreElement {
+  
+  @Override
+  protected ArrayStoreElement<SimpleElement> createElementStore() throws Exception {
+    ArrayStoreElement<SimpleElement> store = super.createElementStore();
+    return new ParallelElementLoader<SimpleElement>(store, 4, 100).load(null, null, null, null);
+  }
+  
+  @Override
+  protected ArrayStoreElement<SimpleElement> createElementStore(int idStart, int idCount) throws Exception {
+    ArrayStoreElement<SimpleElement> store = super.createElementStore(idStart, idCount);
+    return new ParallelElementLoader<SimpleElement>(store, 4, 100).load(null, null, null, null);
+  }
+  
+  public void testSinglePassLoading() throws Exception {
+    Map<Integer, Float> scores = new HashMap<Integer, Float>();
+    
+    for(int i = 0; i < 1000; i++) {
+      int elementId = inRangeId();
+      SimpleElement element = new SimpleElement(elementId);
+      element.setTimestamp(System.currentTimeMillis());
+      element.setTerms(new String[] {"simple", "element." + elementId});
+      elementStore.setElement(elementId, element, element.getTimestamp());
+      
+      if(rand.nextBoolean()) {
+        scores.put(elementId, 1 + rand.nextInt(100) / 10.0f);
+      }
+    }
+    elementStore.sync();
+    
+    File scoreFile = new File(getStoreHomeDir(), "element-score.txt");
+    PrintWriter out = new PrintWriter(new FileWriter(scoreFile));
+    for(Map.Entry<Integer, Float> e : scores.entrySet()) {
+      out.println(e.getKey() + " " + e.getValue());
+    }
+    out.close();
+    ScoreScanner scoreScanner = new ElementScoreScanner(scoreFile);
+    
+    int indexStart = elementStore.getIndexStart();
+    int capacity = elementStore.capacity();
+    StaticFloatArrayPartition scoreStore = new StaticFloatArrayPartition(indexStart, capacity);
+    StaticLongArrayPartition filterStore = new StaticLongArrayPartition(indexStart, capacity);
+    BloomFilter<Long> bloomFilter = new FnvBloomFilterLong(2);
+    
+    ParallelElementLoader<SimpleElement> loader =
+      new ParallelElementLoader<SimpleElement>(super.createElementStore(indexStart, capacity), 3, 64);
+    MemoryArrayStoreElement<SimpleElement> store = loader.load(scoreStore, scoreScanner, filterStore, bloomFilter);
+    assertTrue(loader.getTotalTime() >= 0);
+    
+    for(int i = 0; i < capacity; i++) {
+      int elementId = indexStart + i;
+      SimpleElement element = elementStore.getElement(elementId);
+      SimpleElement loaded = store.getElement(elementId);
+      
+      if(element == null) {
+        assertNull(loaded);
+        assertEquals(0L, filterStore.get(elementId));
+        continue;
+      }
+      
+      assertEquals(elementId, loaded.getElementId());
+      assertEquals(bloomFilter.computeIndexFilter(element).longValue(), filterStore.get(elementId));
+      
+      Float score = scores.get(elementId);
+      if(score != null) {
+        assertEquals(score.floatValue(), scoreStore.get(elementId));
+        assertEquals(score.floatValue(), loaded.getScore());
+      }
+    }
+  }
+}
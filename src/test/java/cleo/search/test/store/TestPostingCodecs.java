@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import krati.core.segment.MemorySegmentFactory;
+
+import cleo.search.store.ArrayStoreConnections;
+import cleo.search.store.KratiArrayStore;
+import cleo.search.store.KratiArrayStoreInts;
+import cleo.search.store.KratiDataStore;
+import cleo.search.store.KratiDataStoreInts;
+import cleo.search.store.PostingCodec;
+import cleo.search.store.PostingCodecs;
+import cleo.search.store.StoreFactory;
+import cleo.search.test.util.FileUtils;
+import cleo.search.util.IntIterator;
+
+/**
+ * TestPostingCodecs
+ * 
+ * @since 10/18, 2026
+ */
+public class TestPostingCodecs extends TestCase {
+  protected Random rand = new Random();
+  protected File storeHome;
+  
+  @Override
+  protected void setUp() {
+    storeHome = FileUtils.getTestDir(getClass().getSimpleName());
+  }
+  
+  @Override
+  protected void tearDown() {
+    try {
+      FileUtils.deleteDirectory(storeHome);
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+  
+  protected int[] randomList(int length, int range) {
+    int[] values = new int[length];
+    for(int i = 0; i < length; i++) {
+      values[i] = rand.nextInt(range);
+    }
+    return values;
+  }
+  
+  protected void checkRoundTrip(PostingCodec codec, int[] values) {
+    byte[] dat = codec.encode(values, 0, values.length);
+    
+    assertEquals(values.length, PostingCodecs.count(dat));
+    assertTrue(Arrays.equals(values, PostingCodecs.decode(dat)));
+    
+    IntIterator iter = PostingCodecs.iterator(dat);
+    for(int i = 0; i < values.length; i++) {
+      assertTrue(iter.hasNext());
+      assertEquals(values[i], iter.next());
+    }
+    assertFalse(iter.hasNext());
+    
+    if(values.length > 0) {
+      assertTrue(PostingCodecs.contains(dat, values[rand.nextInt(values.length)]));
+    }
+    assertFalse(PostingCodecs.contains(dat, -1));
+  }
+  
+  public void testRoundTrip() {
+    PostingCodec[] codecs = { PostingCodecs.RAW, PostingCodecs.DELTA_VARINT, PostingCodecs.FRAME_OF_REFERENCE };
+    for(PostingCodec codec : codecs) {
+      assertSame(codec, PostingCodecs.getCodec(codec.getId()));
+      
+      checkRoundTrip(codec, new int[0]);
+      checkRoundTrip(codec, new int[] { 0 });
+      checkRoundTrip(codec, new int[] { Integer.MAX_VALUE, 0, Integer.MAX_VALUE });
+      checkRoundTrip(codec, randomList(1 + rand.nextInt(1000), 100));
+      checkRoundTrip(codec, randomList(1 + rand.nextInt(1000), Integer.MAX_VALUE));
+      
+      int[] sorted = randomList(1000 + rand.nextInt(1000), 1000000);
+      Arrays.sort(sorted);
+      checkRoundTrip(codec, sorted);
+    }
+  }
+  
+  public void testCompression() {
+    int[] sorted = randomList(10000, 1000000);
+    Arrays.sort(sorted);
+    
+    int rawLength = PostingCodecs.RAW.encode(sorted, 0, sorted.length).length;
+    assertTrue(PostingCodecs.DELTA_VARINT.encode(sorted, 0, sorted.length).length < rawLength / 2);
+    assertTrue(PostingCodecs.FRAME_OF_REFERENCE.encode(sorted, 0, sorted.length).length < rawLength);
+  }
+  
+  public void testMixedFormats() throws Exception {
+    KratiDataStore underlyingStore =
+      StoreFactory.createKratiDataStore(storeHome, 10000, 8, new MemorySegmentFactory(), 32, new MemorySegmentFactory());
+    
+    // Write legacy values first
+    KratiDataStoreInts rawInts = new KratiDataStoreInts(underlyingStore);
+    int[] legacy = randomList(100, 10000);
+    rawInts.put("legacy", legacy, System.currentTimeMillis());
+    
+    // Read and update legacy values with a codec
+    KratiDataStoreInts ints = new KratiDataStoreInts(underlyingStore, PostingCodecs.DELTA_VARINT);
+    assertEquals(legacy.length, ints.getCount("legacy"));
+    assertTrue(Arrays.equals(legacy, ints.get("legacy")));
+    
+    ints.add("legacy", 10001, System.currentTimeMillis());
+    assertEquals(legacy.length + 1, ints.getCount("legacy"));
+    assertEquals(10001, ints.get("legacy")[legacy.length]);
+    
+    ints.remove("legacy", 10001, System.currentTimeMillis());
+    assertTrue(Arrays.equals(legacy, ints.get("legacy")));
+    
+    int[] encoded = randomList(100, 10000);
+    ints.put("encoded", encoded, System.currentTimeMillis());
+    assertTrue(Arrays.equals(encoded, ints.get("encoded")));
+    
+    // Read encoded values in raw mode
+    assertEquals(encoded.length, rawInts.getCount("encoded"));
+    assertTrue(Arrays.equals(encoded, rawInts.get("encoded")));
+    
+    rawInts.add("encoded", 10002, System.currentTimeMillis());
+    assertEquals(encoded.length + 1, rawInts.getCount("encoded"));
+    assertEquals(10002, rawInts.get("encoded")[encoded.length]);
+    
+    underlyingStore.close();
+  }
+  
+  public void testLegacyMagicValue() throws Exception {
+    KratiDataStore underlyingStore =
+      StoreFactory.createKratiDataStore(storeHome, 10000, 8, new MemorySegmentFactory(), 32, new MemorySegmentFactory());
+    
+    // A legacy value may start with the magic byte if it holds negative integers
+    int[] legacy = new int[] { 0xC1000102, 3, -7 };
+    KratiDataStoreInts rawInts = new KratiDataStoreInts(underlyingStore);
+    rawInts.put("legacy", legacy, System.currentTimeMillis());
+    
+    KratiDataStoreInts ints = new KratiDataStoreInts(underlyingStore, PostingCodecs.DELTA_VARINT);
+    assertEquals(legacy.length, ints.getCount("legacy"));
+    assertTrue(Arrays.equals(legacy, ints.get("legacy")));
+    
+    // Encoded values never have the length of a legacy value
+    for(int len = 0; len < 64; len++) {
+      int[] list = randomList(len, 10000);
+      assertTrue(PostingCodecs.DELTA_VARINT.encode(list, 0, len).length % 4 != 0);
+      assertTrue(PostingCodecs.FRAME_OF_REFERENCE.encode(list, 0, len).length % 4 != 0);
+    }
+    
+    underlyingStore.close();
+  }
+  
+  public void testCodecByName() {
+    assertTrue(PostingCodecs.getCodec("raw") == PostingCodecs.RAW);
+    assertTrue(PostingCodecs.getCodec("deltaVarint") == PostingCodecs.DELTA_VARINT);
+    assertTrue(PostingCodecs.getCodec("FrameOfReference") == PostingCodecs.FRAME_OF_REFERENCE);
+    
+    try {
+      PostingCodecs.getCodec("unknown");
+      fail("IllegalArgumentException expected");
+    } catch(IllegalArgumentException e) {}
+  }
+  
+  public void testStoreFactoryCodec() throws Exception {
+    ArrayStoreConnections connStore = StoreFactory.createArrayStoreConnections(
+        new File(storeHome, "connections"), 1000, new MemorySegmentFactory(), 32, PostingCodecs.DELTA_VARINT);
+    
+    int[] connections = randomList(100, 10000);
+    connStore.setConnections(5, connections, System.currentTimeMillis());
+    assertTrue(Arrays.equals(connections, connStore.getConnections(5)));
+    
+    connStore.removeConnection(5, connections[0], System.currentTimeMillis());
+    assertEquals(connections.length - 1, connStore.getConnections(5).length);
+  }
+  
+  public void testEncodedRemovePersists() throws Exception {
+    KratiArrayStore underlyingStore =
+      StoreFactory.createKratiArrayStore(storeHome, 100, new MemorySegmentFactory(), 32);
+    KratiArrayStoreInts ints = new KratiArrayStoreInts(underlyingStore, PostingCodecs.DELTA_VARINT);
+    
+    int batchSize = underlyingStore.getUpdateBatchSize();
+    int[] ids = new int[batchSize];
+    for(int i = 0; i < ids.length; i++) {
+      ids[i] = i;
+    }
+    
+    long scn = underlyingStore.getHWMark() + 1;
+    ints.set(0, ids, scn);
+    
+    // The removals complete an update batch and must reach the low water mark
+    for(int i = 1; i < batchSize; i++) {
+      ints.remove(0, ids[i], ++scn);
+    }
+    
+    assertEquals(scn, underlyingStore.getLWMark());
+    assertTrue(Arrays.equals(new int[] { 0 }, ints.get(0)));
+    underlyingStore.close();
+  }
+}
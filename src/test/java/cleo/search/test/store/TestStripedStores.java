@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test.store;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+import krati.core.segment.MemorySegmentFactory;
+
+import cleo.search.store.ArrayStoreFilters;
+import cleo.search.store.ArrayStoreInts;
+import cleo.search.store.KratiArrayStoreCurrents;
+import cleo.search.store.KratiArrayStoreFilters;
+import cleo.search.store.KratiArrayStoreInts;
+import cleo.search.store.StoreFactory;
+import cleo.search.test.util.FileUtils;
+import cleo.search.util.StripedLocks;
+
+/**
+ * TestStripedStores - Hammers the same index and different indexes of striped stores from several threads.
+ * 
+ * @since 10/18, 2026
+ */
+public class TestStripedStores extends TestCase {
+  final static int NUM_THREADS = 8;
+  final static int NUM_ELEMENTS = 300;
+  
+  protected File storeHome;
+  
+  @Override
+  protected void setUp() {
+    storeHome = FileUtils.getTestDir(getClass().getSimpleName());
+  }
+  
+  @Override
+  protected void tearDown() {
+    try {
+      FileUtils.deleteDirectory(storeHome);
+    } catch(IOException e) {
+      e.printStackTrace();
+    }
+  }
+  
+  public void testStripedLocks() {
+    StripedLocks locks = new StripedLocks(20);
+    assertEquals(32, locks.size());
+    assertSame(locks.get(3), locks.get(3 + locks.size()));
+    assertNotSame(locks.get(3), locks.get(4));
+    assertEquals(StripedLocks.DEFAULT_NUM_STRIPES, new StripedLocks().size());
+  }
+  
+  public void testKratiArrayStoreInts() throws Exception {
+    ArrayStoreInts store = new KratiArrayStoreInts(
+        StoreFactory.createKratiArrayStore(new File(storeHome, "ints"), 100, new MemorySegmentFactory(), 32));
+    run(store, null);
+    checkInts(store);
+  }
+  
+  public void testKratiArrayStoreCurrents() throws Exception {
+    ArrayStoreInts store = new KratiArrayStoreCurrents(100, 1000, 10, new File(storeHome, "currents").getPath());
+    run(store, null);
+    checkInts(store);
+  }
+  
+  public void testKratiArrayStoreFilters() throws Exception {
+    ArrayStoreFilters store = new KratiArrayStoreFilters(
+        StoreFactory.createKratiArrayStore(new File(storeHome, "filters"), 100, new MemorySegmentFactory(), 32));
+    run(null, store);
+    
+    // Each thread keeps the even elements of its own range
+    for(int t = 0; t < NUM_THREADS; t++) {
+      for(int i = 0; i < NUM_ELEMENTS; i++) {
+        int elemId = StripedStoreWorker.elemId(t, i);
+        int expected = (i % 2 == 0) ? StripedStoreWorker.filter(elemId) : 0;
+        assertEquals(expected, store.getFilter(StripedStoreWorker.SHARED_INDEX, elemId));
+        assertEquals(expected, store.getFilter(StripedStoreWorker.ownIndex(t), elemId));
+      }
+    }
+    assertEquals(NUM_THREADS * NUM_ELEMENTS / 2, store.getCount(StripedStoreWorker.SHARED_INDEX));
+  }
+  
+  private void run(ArrayStoreInts ints, ArrayStoreFilters filters) throws Exception {
+    AtomicLong scn = new AtomicLong(System.currentTimeMillis());
+    
+    Thread[] threads = new Thread[NUM_THREADS];
+    StripedStoreWorker[] workers = new StripedStoreWorker[NUM_THREADS];
+    for(int t = 0; t < NUM_THREADS; t++) {
+      workers[t] = new StripedStoreWorker(t, NUM_ELEMENTS, ints, filters, scn);
+      threads[t] = new Thread(workers[t]);
+    }
+    
+    for(Thread thread : threads) {
+      thread.start();
+    }
+    for(Thread thread : threads) {
+      thread.join();
+    }
+    for(StripedStoreWorker w : workers) {
+      if(w.error != null) throw w.error;
+    }
+  }
+  
+  private void checkInts(ArrayStoreInts store) {
+    int[] expected = new int[NUM_THREADS * NUM_ELEMENTS / 2];
+    for(int t = 0, n = 0; t < NUM_THREADS; t++) {
+      int[] own = new int[NUM_ELEMENTS / 2];
+      for(int i = 0; i < NUM_ELEMENTS; i += 2) {
+        own[i >> 1] = StripedStoreWorker.elemId(t, i);
+        expected[n++] = own[i >> 1];
+      }
+      
+      int[] actual = store.get(StripedStoreWorker.ownIndex(t));
+      Arrays.sort(actual);
+      assertTrue(Arrays.equals(own, actual));
+    }
+    
+    int[] actual = store.get(StripedStoreWorker.SHARED_INDEX);
+    Arrays.sort(actual);
+    Arrays.sort(expected);
+    assertTrue(Arrays.equals(expected, actual));
+  }
+}
+
+/**
+ * Adds a range of elements to a shared index and an own index, and removes the odd ones.
+ */
+class StripedStoreWorker implements Runnable {
+  final static int SHARED_INDEX = 1;
+  
+  final int thread;
+  final int numElements;
+  final ArrayStoreInts ints;
+  final ArrayStoreFilters filters;
+  final AtomicLong scn;
+  Exception error;
+  
+  StripedStoreWorker(int thread, int numElements, ArrayStoreInts ints, ArrayStoreFilters filters, AtomicLong scn) {
+    this.thread = thread;
+    this.numElements = numElements;
+    this.ints = ints;
+    this.filters = filters;
+    this.scn = scn;
+  }
+  
+  static int elemId(int thread, int i) {
+    return 1 + thread * 10000 + i;
+  }
+  
+  static int ownIndex(int thread) {
+    return SHARED_INDEX + 1 + thread;
+  }
+  
+  static int filter(int elemId) {
+    return (elemId * 31) | 1;
+  }
+  
+  @Override
+  public void run() {
+    try {
+      for(int i = 0; i < numElements; i++) {
+        int elemId = elemId(thread, i);
+        add(SHARED_INDEX, elemId);
+        add(ownIndex(thread), elemId);
+      }
+      
+      for(int i = 1; i < numElements; i += 2) {
+        int elemId = elemId(thread, i);
+        remove(SHARED_INDEX, elemId);
+        remove(ownIndex(thread), elemId);
+      }
+    } catch(Exception e) {
+      error = e;
+    }
+  }
+  
+  private void add(int index, int elemId) throws Exception {
+    if(ints != null) {
+      ints.add(index, elemId, scn.incrementAndGet());
+    } else {
+      filters.add(index, elemId, filter(elemId), scn.incrementAndGet());
+    }
+  }
+  
+  private void remove(int index, int elemId) throws Exception {
+    if(ints != null) {
+      ints.remove(index, elemId, scn.incrementAndGet());
+    } else {
+      filters.remove(index, elemId, scn.incrementAndGet());
+    }
+  }
+}
@@ -117,7 +117,8 @@ public class GenericTypeaheadBootstrap {
       scan.scan(handler);
     }
     
-    ConnectionsCollector connectionsCollector = new ConnectionsCollector(config.getConnectionsStoreCapacity());
+    File runsDir = new File(config.getConnectionsStoreDir().getParentFile(), connectionsStoreName + ".runs");
+    ParallelConnectionsCollector connectionsCollector = new ParallelConnectionsCollector(runsDir);
     connectionsCollector.collect(elementStore, config.getMaxKeyLength());
     connectionsCollector.store(connectionsStore);
     
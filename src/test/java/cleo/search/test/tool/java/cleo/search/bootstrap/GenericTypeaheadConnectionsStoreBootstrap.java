@@ -94,7 +94,8 @@ public class GenericTypeaheadConnectionsStoreBootstrap {
           indexSegmentFileSizeMB, indexSegmentFactory,
           connectionsStoreSegmentMB, storeSegmentFactory);
     
-    ConnectionsCollector connectionsCollector = new ConnectionsCollector(connectionsStoreCapacity);
+    File runsDir = new File(connectionsStoreDir.getParentFile(), connectionsStoreDir.getName() + ".runs");
+    ParallelConnectionsCollector connectionsCollector = new ParallelConnectionsCollector(runsDir);
     connectionsCollector.collect(elementStore, 5 /* maxKeyLength */);
     connectionsCollector.store(connectionsStore);
     
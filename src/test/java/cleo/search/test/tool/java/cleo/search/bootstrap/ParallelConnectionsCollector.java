@@ -0,0 +1,431 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.bootstrap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cleo.search.Element;
+import cleo.search.store.ArrayStoreElement;
+import cleo.search.store.ConnectionsStore;
+import cleo.search.util.DaemonThreadFactory;
+
+/**
+ * ParallelConnectionsCollector - an out-of-core replacement of {@link ConnectionsCollector}.
+ *
+ * <p>
+ * Element store partitions are scanned by a pool of workers, each of which emits (prefix, score, elementId)
+ * tuples into a bounded buffer. Full buffers are sorted and spilled to disk as runs. The runs are then
+ * k-way merged into score-sorted posting lists that are written to the connections store one prefix at a time.
+ * </p>
+ *
+ * @since 10/18, 2026
+ */
+public class ParallelConnectionsCollector {
+  /**
+   * The default number of tuples buffered by each worker before spilling to disk.
+   */
+  public static final int DEFAULT_MAX_TUPLES_IN_MEMORY = 1 << 20;
+
+  /**
+   * The default maximum number of runs merged in one pass.
+   */
+  public static final int DEFAULT_MERGE_FACTOR = 64;
+
+  private final int parallelism;
+  private final int maxTuplesInMemory;
+  private final int mergeFactor;
+  private final File tmpDir;
+  private final List<File> runList = new ArrayList<File>();
+  private final AtomicInteger runCounter = new AtomicInteger(0);
+
+  public ParallelConnectionsCollector(File tmpDir) {
+    this(tmpDir, Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_TUPLES_IN_MEMORY, DEFAULT_MERGE_FACTOR);
+  }
+
+  /**
+   * Creates a new ParallelConnectionsCollector.
+   *
+   * @param tmpDir            - the directory for sorted runs
+   * @param parallelism       - the number of collecting workers
+   * @param maxTuplesInMemory - the number of tuples buffered by a worker before spilling a run
+   * @param mergeFactor       - the maximum number of runs merged in one pass
+   */
+  public ParallelConnectionsCollector(File tmpDir, int parallelism, int maxTuplesInMemory, int mergeFactor) {
+    this.tmpDir = tmpDir;
+    this.parallelism = Math.max(1, parallelism);
+    this.maxTuplesInMemory = Math.max(1, maxTuplesInMemory);
+    this.mergeFactor = Math.max(2, mergeFactor);
+
+    if(!tmpDir.exists()) {
+      tmpDir.mkdirs();
+    }
+  }
+
+  public final int getParallelism() {
+    return parallelism;
+  }
+
+  public final int getMaxTuplesInMemory() {
+    return maxTuplesInMemory;
+  }
+
+  public final int getMergeFactor() {
+    return mergeFactor;
+  }
+
+  /**
+   * @return the number of sorted runs pending to be stored.
+   */
+  public synchronized int getNumRuns() {
+    return runList.size();
+  }
+
+  public synchronized void clear() {
+    for(File run : runList) {
+      run.delete();
+    }
+    runList.clear();
+  }
+
+  /**
+   * Collects prefix tuples from an element store in parallel and spills them to sorted runs.
+   *
+   * @param elementStore - the element store
+   * @param maxKeyLength - the maximum prefix length
+   * @throws Exception if any worker failed.
+   */
+  public synchronized <E extends Element> void collect(final ArrayStoreElement<E> elementStore, final int maxKeyLength) throws Exception {
+    final int indexStart = elementStore.getIndexStart();
+    final int capacity = elementStore.capacity();
+
+    // Split the element store into more chunks than workers to balance load
+    final int numChunks = Math.max(1, Math.min(capacity, parallelism * 8));
+    final int chunkSize = (capacity + numChunks - 1) / numChunks;
+    final AtomicInteger nextChunk = new AtomicInteger(0);
+
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism, new DaemonThreadFactory());
+    List<Future<List<File>>> futureList = new ArrayList<Future<List<File>>>(parallelism);
+
+    try {
+      for(int i = 0; i < parallelism; i++) {
+        futureList.add(executor.submit(new Callable<List<File>>() {
+          @Override
+          public List<File> call() throws Exception {
+            CollectWorker w = new CollectWorker();
+            int chunk;
+            while((chunk = nextChunk.getAndIncrement()) < numChunks) {
+              int start = indexStart + chunk * chunkSize;
+              int end = Math.min(indexStart + capacity, start + chunkSize);
+              w.collect(elementStore, start, end, maxKeyLength);
+            }
+            w.spill();
+            return w.runs;
+          }
+        }));
+      }
+
+      for(Future<List<File>> f : futureList) {
+        runList.addAll(f.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Merges all sorted runs and writes score-sorted posting lists into a connections store.
+   *
+   * @param connectionsStore - the connections store
+   * @throws Exception
+   */
+  public synchronized void store(ConnectionsStore<String> connectionsStore) throws Exception {
+    // Reduce the number of runs so that the final merge opens at most mergeFactor files
+    while(runList.size() > mergeFactor) {
+      List<File> merged = new ArrayList<File>();
+      for(int i = 0; i < runList.size(); i += mergeFactor) {
+        List<File> group = runList.subList(i, Math.min(runList.size(), i + mergeFactor));
+        File run = newRunFile();
+        RunWriter writer = new RunWriter(run);
+        try {
+          merge(group, writer);
+        } finally {
+          writer.close();
+        }
+        merged.add(run);
+      }
+      clear();
+      runList.addAll(merged);
+    }
+
+    StoreSink sink = new StoreSink(connectionsStore);
+    try {
+      merge(runList, sink);
+      sink.flush();
+    } finally {
+      clear();
+    }
+
+    connectionsStore.sync();
+
+    System.out.printf("#keys=%d connectionsMaxCnt=%d connectionsMinCnt=%d%n",
+                      sink.keyCnt, sink.maxCnt, (sink.keyCnt == 0 ? 0 : sink.minCnt));
+  }
+
+  private File newRunFile() {
+    return new File(tmpDir, "run-" + runCounter.getAndIncrement() + ".dat");
+  }
+
+  private void merge(List<File> runs, TupleSink sink) throws IOException {
+    PriorityQueue<RunReader> queue = new PriorityQueue<RunReader>(Math.max(1, runs.size()), new Comparator<RunReader>() {
+      @Override
+      public int compare(RunReader r1, RunReader r2) {
+        return compareTuple(r1.prefix, r1.score, r1.elemId, r2.prefix, r2.score, r2.elemId);
+      }
+    });
+
+    List<RunReader> readers = new ArrayList<RunReader>(runs.size());
+    try {
+      for(File run : runs) {
+        RunReader r = new RunReader(run);
+        readers.add(r);
+        if(r.next()) {
+          queue.add(r);
+        }
+      }
+
+      RunReader r;
+      while((r = queue.poll()) != null) {
+        sink.add(r.prefix, r.score, r.elemId);
+        if(r.next()) {
+          queue.add(r);
+        }
+      }
+    } finally {
+      for(RunReader reader : readers) {
+        reader.close();
+      }
+    }
+  }
+
+  /**
+   * Orders tuples by prefix ascending, then score descending and elementId ascending.
+   */
+  static int compareTuple(String prefix1, float score1, int elemId1, String prefix2, float score2, int elemId2) {
+    int c = prefix1.compareTo(prefix2);
+    if(c != 0) return c;
+    if(score1 != score2) return score1 < score2 ? 1 : -1;
+    return elemId1 < elemId2 ? -1 : (elemId1 == elemId2 ? 0 : 1);
+  }
+
+  static final class Tuple {
+    final String prefix;
+    final float score;
+    final int elemId;
+
+    Tuple(String prefix, float score, int elemId) {
+      this.prefix = prefix;
+      this.score = score;
+      this.elemId = elemId;
+    }
+  }
+
+  static final Comparator<Tuple> tupleCmp = new Comparator<Tuple>() {
+    @Override
+    public int compare(Tuple t1, Tuple t2) {
+      return compareTuple(t1.prefix, t1.score, t1.elemId, t2.prefix, t2.score, t2.elemId);
+    }
+  };
+
+  /**
+   * CollectWorker buffers the tuples of a worker and spills them to sorted runs.
+   */
+  class CollectWorker {
+    final List<File> runs = new ArrayList<File>();
+    final Tuple[] buffer = new Tuple[maxTuplesInMemory];
+    final HashSet<String> prefixSet = new HashSet<String>();
+    int size = 0;
+
+    <E extends Element> void collect(ArrayStoreElement<E> elementStore, int start, int end, int maxKeyLength) throws IOException {
+      for(int index = start; index < end; index++) {
+        E element = elementStore.getElement(index);
+        if(element == null || element.getTerms() == null) {
+          continue;
+        }
+
+        prefixSet.clear();
+        for(String term : element.getTerms()) {
+          if(term == null) continue;
+
+          int len = Math.min(term.length(), maxKeyLength);
+          for(int k = 1; k <= len; k++) {
+            String prefix = term.substring(0, k);
+            if(prefixSet.add(prefix)) {
+              if(size == buffer.length) {
+                spill();
+              }
+              buffer[size++] = new Tuple(prefix, element.getScore(), element.getElementId());
+            }
+          }
+        }
+      }
+    }
+
+    void spill() throws IOException {
+      if(size == 0) return;
+
+      Arrays.sort(buffer, 0, size, tupleCmp);
+
+      File run = newRunFile();
+      RunWriter writer = new RunWriter(run);
+      try {
+        for(int i = 0; i < size; i++) {
+          Tuple t = buffer[i];
+          writer.add(t.prefix, t.score, t.elemId);
+          buffer[i] = null;
+        }
+      } finally {
+        writer.close();
+      }
+
+      runs.add(run);
+      size = 0;
+    }
+  }
+
+  static interface TupleSink {
+    public void add(String prefix, float score, int elemId) throws IOException;
+  }
+
+  static final class RunWriter implements TupleSink {
+    final DataOutputStream out;
+
+    RunWriter(File file) throws IOException {
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+    }
+
+    @Override
+    public void add(String prefix, float score, int elemId) throws IOException {
+      out.writeUTF(prefix);
+      out.writeFloat(score);
+      out.writeInt(elemId);
+    }
+
+    void close() throws IOException {
+      out.close();
+    }
+  }
+
+  static final class RunReader {
+    final DataInputStream in;
+    String prefix;
+    float score;
+    int elemId;
+
+    RunReader(File file) throws IOException {
+      in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+    }
+
+    boolean next() throws IOException {
+      // Each run is a sequence of complete tuples, so EOF is only expected at a tuple boundary
+      try {
+        prefix = in.readUTF();
+      } catch(EOFException e) {
+        return false;
+      }
+
+      score = in.readFloat();
+      elemId = in.readInt();
+      return true;
+    }
+
+    void close() throws IOException {
+      in.close();
+    }
+  }
+
+  /**
+   * StoreSink groups merged tuples by prefix and writes one posting list per prefix.
+   */
+  static final class StoreSink implements TupleSink {
+    final ConnectionsStore<String> connectionsStore;
+    String prefix = null;
+    int[] connections = new int[1024];
+    int count = 0;
+    int lastElemId = -1;
+    int keyCnt = 0;
+    int maxCnt = 0;
+    int minCnt = Integer.MAX_VALUE;
+
+    StoreSink(ConnectionsStore<String> connectionsStore) {
+      this.connectionsStore = connectionsStore;
+    }
+
+    @Override
+    public void add(String prefix, float score, int elemId) throws IOException {
+      if(!prefix.equals(this.prefix)) {
+        flush();
+        this.prefix = prefix;
+      } else if(elemId == lastElemId) {
+        return;
+      }
+
+      if(count == connections.length) {
+        connections = Arrays.copyOf(connections, count << 1);
+      }
+      connections[count++] = elemId;
+      lastElemId = elemId;
+    }
+
+    void flush() throws IOException {
+      if(prefix == null || count == 0) return;
+
+      try {
+        connectionsStore.putConnections(prefix, Arrays.copyOf(connections, count), System.currentTimeMillis());
+      } catch(IOException e) {
+        throw e;
+      } catch(Exception e) {
+        throw new IOException("failed to store connections for " + prefix, e);
+      }
+
+      maxCnt = Math.max(maxCnt, count);
+      minCnt = Math.min(minCnt, count);
+      keyCnt++;
+
+      count = 0;
+      lastElemId = -1;
+    }
+  }
+}
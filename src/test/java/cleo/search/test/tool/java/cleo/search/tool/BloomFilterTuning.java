@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.tool;
+
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+
+import cleo.search.Element;
+import cleo.search.filter.BloomFilterTuner;
+import cleo.search.selector.PrefixSelectorFactory;
+import cleo.search.selector.SelectorFactory;
+import cleo.search.store.ArrayStoreElement;
+import cleo.search.store.StoreFactory;
+import cleo.search.typeahead.GenericTypeaheadConfig;
+import cleo.search.typeahead.TypeaheadConfigFactory;
+
+/**
+ * BloomFilterTuning - Recommends the bloom filter settings of a generic typeahead
+ * by simulating candidate filters over sampled elements and a query log.
+ * 
+ * <pre>
+ * java cleo.search.tool.BloomFilterTuning &lt;ConfigFile&gt; &lt;QueryLog&gt; [SampleSize] [MaxQueries]
+ * </pre>
+ * 
+ * @since 10/18, 2026
+ */
+public class BloomFilterTuning {
+  
+  public static <E extends Element> void tune(GenericTypeaheadConfig<E> config, File queryLog, int sampleSize, int maxQueries) throws Exception {
+    ArrayStoreElement<E> elementStore =
+      StoreFactory.createElementStorePartition(
+          config.getElementStoreDir(),
+          config.getElementStoreIndexStart(),
+          config.getElementStoreCapacity(),
+          config.getElementStoreSegmentFactory(),
+          config.getElementStoreSegmentMB(),
+          config.getElementSerializer());
+    
+    SelectorFactory<E> selectorFactory = config.getSelectorFactory();
+    if(selectorFactory == null) selectorFactory = new PrefixSelectorFactory<E>();
+    
+    List<E> elements = BloomFilterTuner.sample(elementStore, sampleSize, new Random());
+    List<String[]> queries = BloomFilterTuner.readQueries(queryLog, maxQueries);
+    System.out.printf("sampled %d elements and %d queries%n", elements.size(), queries.size());
+    
+    // GenericTypeahead folds wide filters to 64 bits
+    BloomFilterTuner<E> tuner = new BloomFilterTuner<E>(selectorFactory);
+    tuner.setFoldWideFilters(true);
+    tuner.addCandidates(1, 4);
+    
+    List<BloomFilterTuner.Result> results = tuner.simulate(elements, queries);
+    for(BloomFilterTuner.Result r : results) {
+      System.out.println(r);
+    }
+    
+    BloomFilterTuner.Result best = BloomFilterTuner.recommend(results, BloomFilterTuner.DEFAULT_TOLERANCE);
+    if(best != null) {
+      System.out.println("recommended: " + best);
+      BloomFilterTuner.toProperties(best, "cleo.search.generic.typeahead.config").list(System.out);
+    }
+  }
+  
+  public static void main(String[] args) throws Exception {
+    File configFile = new File(args[0]);
+    File queryLog = new File(args[1]);
+    int sampleSize = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+    int maxQueries = args.length > 3 ? Integer.parseInt(args[3]) : 10000;
+    
+    GenericTypeaheadConfig<Element> config = TypeaheadConfigFactory.createGenericTypeaheadConfig(configFile);
+    tune(config, queryLog, sampleSize, maxQueries);
+    
+    System.exit(0);
+  }
+}
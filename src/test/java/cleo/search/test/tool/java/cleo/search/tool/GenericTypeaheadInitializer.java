@@ -19,13 +19,19 @@ package cleo.search.tool;
 import cleo.search.Element;
 import cleo.search.Indexer;
 import cleo.search.filter.BloomFilter;
-import cleo.search.filter.FnvBloomFilterLong;
+import cleo.search.filter.BloomFilters;
 import cleo.search.selector.PrefixSelectorFactory;
 import cleo.search.selector.SelectorFactory;
 import cleo.search.store.ArrayStoreElement;
+import cleo.search.store.CachedArrayStoreElement;
 import cleo.search.store.ConnectionsStore;
+import cleo.search.store.FloatArrayPartition;
+import cleo.search.store.LongArrayPartition;
 import cleo.search.store.MemoryArrayStoreElement;
 import cleo.search.store.MemoryConnectionsStore;
+import cleo.search.store.ParallelElementLoader;
+import cleo.search.store.StaticFloatArrayPartition;
+import cleo.search.store.StaticLongArrayPartition;
 import cleo.search.store.StoreFactory;
 import cleo.search.typeahead.GenericTypeahead;
 import cleo.search.typeahead.GenericTypeaheadConfig;
@@ -44,10 +50,18 @@ public class GenericTypeaheadInitializer<E extends Element> implements Typeahead
 
   public GenericTypeaheadInitializer(Config<E> config) throws Exception {
     this.genericTypeahead = createTypeahead(config);
+    initHotPrefixes(config);
   }
   
   public GenericTypeaheadInitializer(GenericTypeaheadConfig<E> config) throws Exception {
     this.genericTypeahead = createTypeahead(config);
+    initHotPrefixes(config);
+  }
+  
+  protected void initHotPrefixes(GenericTypeaheadConfig<E> config) {
+    if(config.getHotPrefixLength() > 0) {
+      genericTypeahead.enableHotPrefixes(config.getHotPrefixLength(), config.getHotPrefixTopK());
+    }
   }
   
   protected GenericTypeahead<E> createTypeahead(GenericTypeaheadConfig<E> config) throws Exception {
@@ -61,11 +75,6 @@ public class GenericTypeaheadInitializer<E extends Element> implements Typeahead
           config.getElementStoreSegmentMB(),
           config.getElementSerializer());
     
-    // load elementStore in memory
-    if(config.isElementStoreCached()) {
-      elementStore = new MemoryArrayStoreElement<E>(elementStore);
-    }
-    
     // create connectionsStore
     ConnectionsStore<String> connectionsStore =
       StoreFactory.createConnectionsStore(
@@ -74,7 +83,8 @@ public class GenericTypeaheadInitializer<E extends Element> implements Typeahead
           config.getConnectionsStoreIndexSegmentMB(),
           config.getConnectionsStoreIndexSegmentFactory(),
           config.getConnectionsStoreSegmentMB(),
-          config.getConnectionsStoreSegmentFactory());
+          config.getConnectionsStoreSegmentFactory(),
+          config.getConnectionsStoreCodec());
     
     // load connectionsStore in memory
     if(config.isConnectionsStoreCached()) {
@@ -88,11 +98,40 @@ public class GenericTypeaheadInitializer<E extends Element> implements Typeahead
     if(selectorFactory == null) selectorFactory = new PrefixSelectorFactory<E>();
     
     // create bloomFilter
-    BloomFilter<Long> bloomFilter = new FnvBloomFilterLong(config.getFilterPrefixLength());
+    BloomFilter<Long> bloomFilter = BloomFilters.createLongBloomFilter(config.getFilterType(), config.getFilterPrefixLength());
     
     // create scoreScanner
     ScoreScanner scoreScanner = new ElementScoreScanner(config.getElementScoreFile());
     
+    // cache hot elements only
+    boolean elementStoreCached = config.isElementStoreCached();
+    if(config.getElementStoreCacheMB() > 0) {
+      elementStore = new CachedArrayStoreElement<E>(elementStore, config.getElementStoreCacheMB() * 1024L * 1024L);
+      elementStoreCached = false;
+    }
+    
+    // load elementStore, element scores and filters in memory in a single pass
+    if(elementStoreCached && config.getFilterStoreFile() == null) {
+      FloatArrayPartition scoreStore = new StaticFloatArrayPartition(elementStore.getIndexStart(), elementStore.capacity());
+      LongArrayPartition filterStore = new StaticLongArrayPartition(elementStore.getIndexStart(), elementStore.capacity());
+      elementStore = new ParallelElementLoader<E>(elementStore, 10).load(scoreStore, scoreScanner, filterStore, bloomFilter);
+      
+      return new GenericTypeahead<E>(
+          config.getName(),
+          elementStore,
+          connectionsStore,
+          selectorFactory,
+          bloomFilter,
+          scoreStore,
+          filterStore,
+          config.getMaxKeyLength());
+    }
+    
+    // load elementStore in memory
+    if(elementStoreCached) {
+      elementStore = new MemoryArrayStoreElement<E>(elementStore);
+    }
+    
     // Create GenericTypeahead
     return new GenericTypeahead<E>(
           config.getName(),
@@ -101,7 +140,8 @@ public class GenericTypeaheadInitializer<E extends Element> implements Typeahead
           selectorFactory,
           bloomFilter,
           scoreScanner,
-          config.getMaxKeyLength());
+          config.getMaxKeyLength(),
+          config.getFilterStoreFile());
   }
   
   @Override
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.tool;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import krati.core.segment.MemorySegmentFactory;
+import krati.core.segment.Segment;
+
+import cleo.search.SimpleElement;
+import cleo.search.SimpleElementSerializer;
+import cleo.search.store.ArrayStoreElement;
+import cleo.search.store.MultiArrayStoreElement;
+import cleo.search.store.StoreFactory;
+
+/**
+ * MultiArrayStoreElementBenchmark - Measures the element access routing of {@link MultiArrayStoreElement}
+ * against a linear scan of subsidiary stores for uniform and non-uniform partitions.
+ * 
+ * <pre>
+ * java cleo.search.tool.MultiArrayStoreElementBenchmark &lt;HomeDir&gt; [NumPartitions] [PartitionCapacity] [NumLookups]
+ * </pre>
+ * 
+ * @since 10/18, 2026
+ */
+public class MultiArrayStoreElementBenchmark {
+  private final static Random rand = new Random();
+  
+  static List<ArrayStoreElement<SimpleElement>> createPartitions(File homeDir, int numPartitions, int partitionCapacity, boolean uniform) throws Exception {
+    List<ArrayStoreElement<SimpleElement>> list = new ArrayList<ArrayStoreElement<SimpleElement>>();
+    
+    int idStart = 0;
+    for(int i = 0; i < numPartitions; i++) {
+      int idCount = uniform ? partitionCapacity : (partitionCapacity / 2 + rand.nextInt(partitionCapacity));
+      File storeHomeDir = new File(homeDir, (uniform ? "u" : "n") + i);
+      list.add(StoreFactory.createElementStorePartition(storeHomeDir, idStart, idCount, new MemorySegmentFactory(), Segment.minSegmentFileSizeMB, new SimpleElementSerializer()));
+      idStart += idCount;
+    }
+    
+    return list;
+  }
+  
+  /**
+   * Reads element bytes by scanning subsidiary stores linearly.
+   */
+  static long scanLinear(List<ArrayStoreElement<SimpleElement>> list, int[] ids) {
+    long cnt = 0;
+    for(int id : ids) {
+      for(ArrayStoreElement<SimpleElement> store : list) {
+        if(store.hasIndex(id)) {
+          if(store.getElementBytes(id) == null) cnt++;
+          break;
+        }
+      }
+    }
+    return cnt;
+  }
+  
+  /**
+   * Reads element bytes through the routing of {@link MultiArrayStoreElement}.
+   */
+  static long scanRouted(ArrayStoreElement<SimpleElement> store, int[] ids) {
+    long cnt = 0;
+    for(int id : ids) {
+      if(store.getElementBytes(id) == null) cnt++;
+    }
+    return cnt;
+  }
+  
+  static void run(File homeDir, int numPartitions, int partitionCapacity, int numLookups, boolean uniform) throws Exception {
+    List<ArrayStoreElement<SimpleElement>> list = createPartitions(homeDir, numPartitions, partitionCapacity, uniform);
+    MultiArrayStoreElement<SimpleElement> store = new MultiArrayStoreElement<SimpleElement>(list);
+    
+    int[] ids = new int[numLookups];
+    for(int i = 0; i < numLookups; i++) {
+      ids[i] = store.getIndexStart() + rand.nextInt(store.length());
+    }
+    
+    // Warm up
+    scanLinear(list, ids);
+    scanRouted(store, ids);
+    
+    long startTime = System.nanoTime();
+    scanLinear(list, ids);
+    long linearTime = System.nanoTime() - startTime;
+    
+    startTime = System.nanoTime();
+    scanRouted(store, ids);
+    long routedTime = System.nanoTime() - startTime;
+    
+    System.out.printf("%s partitions=%d lookups=%d linear=%.1f ns/op routed=%.1f ns/op%n",
+                      (uniform ? "uniform" : "non-uniform"), numPartitions, numLookups,
+                      (double)linearTime / numLookups, (double)routedTime / numLookups);
+    
+    store.close();
+  }
+  
+  public static void main(String[] args) throws Exception {
+    File homeDir = new File(args[0]);
+    int numPartitions = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+    int partitionCapacity = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+    int numLookups = args.length > 3 ? Integer.parseInt(args[3]) : 1000000;
+    
+    run(homeDir, numPartitions, partitionCapacity, numLookups, true);
+    run(homeDir, numPartitions, partitionCapacity, numLookups, false);
+    
+    System.exit(0);
+  }
+}
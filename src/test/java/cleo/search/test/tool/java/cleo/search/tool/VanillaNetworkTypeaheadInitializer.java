@@ -99,7 +99,9 @@ public class VanillaNetworkTypeaheadInitializer<E extends Element> implements Ty
     }
     
     // create NetworkTypeahead
-    return new VanillaNetworkTypeahead<E>(config.getName(), elementStore, connectionsStore, selectorFactory, bloomFilter, connectionFilter);
+    VanillaNetworkTypeahead<E> typeahead = new VanillaNetworkTypeahead<E>(config.getName(), elementStore, connectionsStore, selectorFactory, bloomFilter, connectionFilter, config.getFilterStoreFile(),
+        config.getMaxByteArraySize(), config.getThreadLocalByteArraySize(), config.getBytesPoolRetainedBytes());
+    return typeahead;
   }
   
   public static class Config<E extends Element> extends NetworkTypeaheadConfig<E> {}
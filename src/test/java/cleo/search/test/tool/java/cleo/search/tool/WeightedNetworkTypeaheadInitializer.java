@@ -105,7 +105,9 @@ public class WeightedNetworkTypeaheadInitializer<E extends Element> implements T
     }
     
     // create WeightedNetworkTypeahead
-    return new WeightedNetworkTypeahead<E>(config.getName(), elementStore, weightedConnectionsStore, selectorFactory, bloomFilter, connectionFilter);
+    WeightedNetworkTypeahead<E> typeahead = new WeightedNetworkTypeahead<E>(config.getName(), elementStore, weightedConnectionsStore, selectorFactory, bloomFilter, connectionFilter, null, config.getFilterStoreFile(),
+        config.getMaxByteArraySize(), config.getThreadLocalByteArraySize(), config.getBytesPoolRetainedBytes());
+    return typeahead;
   }
   
   public static class Config<E extends Element> extends NetworkTypeaheadConfig<E> {}
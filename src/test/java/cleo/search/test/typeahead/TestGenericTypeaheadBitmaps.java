@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test.typeahead;
+
+import java.util.List;
+
+import cleo.search.SimpleElement;
+import cleo.search.store.BitmapConnectionsStore;
+import cleo.search.store.ConnectionsStore;
+import cleo.search.store.PostingCursor;
+
+/**
+ * TestGenericTypeaheadBitmaps
+ * 
+ * @since 10/18, 2026
+ */
+public class TestGenericTypeaheadBitmaps extends TestGenericTypeahead {
+  
+  @Override
+  protected ConnectionsStore<String> createConnectionsStore() throws Exception {
+    // Switch any prefix with 1% of the element ID range to a bitmap
+    return new BitmapConnectionsStore<String>(1000, super.createConnectionsStore(), getElementStoreCapacity(), 0.01f);
+  }
+  
+  /**
+   * @return a unique term not longer than the maximum key length.
+   */
+  protected String key(int i) {
+    return "k" + String.format("%04d", i);
+  }
+  
+  public void testDensePrefixes() throws Exception {
+    int uid = 0;
+    List<SimpleElement> results;
+    BitmapConnectionsStore<String> connectionsStore = (BitmapConnectionsStore<String>)typeahead.getConnectionsStore();
+    
+    typeahead.getElementStore().clear();
+    
+    int indexStart = getElementStoreIndexStart();
+    int cnt = getElementStoreCapacity() / 10;
+    for(int i = 0; i < cnt; i++) {
+      SimpleElement elem = new SimpleElement(indexStart + i * 10);
+      elem.setTimestamp(System.currentTimeMillis());
+      if(i % 3 == 0) {
+        elem.setTerms("abc", "xyz", key(i));
+      } else {
+        elem.setTerms("abd", key(i));
+      }
+      typeahead.index(elem);
+    }
+    typeahead.flush();
+    
+    assertNotNull(connectionsStore.getBitmap("a"));
+    assertNotNull(connectionsStore.getBitmap("x"));
+    assertNull(connectionsStore.getBitmap(key(1)));
+    assertEquals(cnt, connectionsStore.getConnectionCount("a"));
+    
+    // Intersect two dense prefixes
+    int expected = (cnt + 2) / 3;
+    results = typeahead.search(uid, new String[] {"a", "x"});
+    assertEquals(expected, results.size());
+    for(SimpleElement e : results) {
+      assertEquals(0, ((e.getElementId() - indexStart) / 10) % 3);
+    }
+    
+    // Check a sparse list against a dense prefix
+    results = typeahead.search(uid, new String[] {key(3), "x"});
+    assertEquals(1, results.size());
+    assertEquals(indexStart + 30, results.get(0).getElementId());
+    
+    results = typeahead.search(uid, new String[] {key(4), "x"});
+    assertEquals(0, results.size());
+  }
+  
+  public void testDensePrefixOrder() throws Exception {
+    BitmapConnectionsStore<String> connectionsStore = (BitmapConnectionsStore<String>)typeahead.getConnectionsStore();
+    
+    typeahead.getElementStore().clear();
+    
+    // Index in descending element ID order
+    int indexStart = getElementStoreIndexStart();
+    int cnt = getElementStoreCapacity() / 10;
+    for(int i = cnt - 1; i >= 0; i--) {
+      SimpleElement elem = new SimpleElement(indexStart + i * 10);
+      elem.setTimestamp(System.currentTimeMillis());
+      elem.setTerms("abc", key(i));
+      typeahead.index(elem);
+    }
+    typeahead.flush();
+    
+    assertNotNull(connectionsStore.getBitmap("a"));
+    
+    // Dense connections keep the stored order, not the element ID order
+    int[] connections = connectionsStore.getConnections("a");
+    assertEquals(cnt, connections.length);
+    assertTrue(connections[0] > connections[1]);
+    
+    PostingCursor cursor = connectionsStore.openCursor("a");
+    assertEquals(connections[0], cursor.next());
+    assertEquals(connections[1], cursor.next());
+  }
+}
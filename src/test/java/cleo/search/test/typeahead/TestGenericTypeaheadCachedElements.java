@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test.typeahead;
+
+import cleo.search.SimpleElement;
+import cleo.search.store.ArrayStoreElement;
+import cleo.search.store.CachedArrayStoreElement;
+
+/**
+ * TestGenericTypeaheadCachedElements
+ * 
+ * @since 10/18, 2026
+ */
+public class TestGenericTypeaheadCachedElements extends TestGenericTypeahead {
+  
+  @Override
+  protected ArrayStoreElement<SimpleElement> createElementStore() throws Exception {
+    return new CachedArrayStoreElement<SimpleElement>(super.createElementStore(), 64 * 1024);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.test.typeahead;
+
+import java.io.File;
+import java.util.List;
+
+import cleo.search.ElementSerializer;
+import cleo.search.SimpleElement;
+import cleo.search.SimpleElementSerializer;
+import cleo.search.filter.FnvBloomFilterLong;
+import cleo.search.store.MappedLongFilterStore;
+import cleo.search.typeahead.GenericTypeahead;
+
+/**
+ * TestGenericTypeaheadFilterStore
+ * 
+ * @since 10/18, 2026
+ */
+public class TestGenericTypeaheadFilterStore extends AbstractTestGenericTypeahead<SimpleElement> {
+  
+  @Override
+  protected ElementSerializer<SimpleElement> createElementSerializer() {
+    return new SimpleElementSerializer();
+  }
+  
+  protected File getFilterStoreFile() {
+    return new File(getHomeDir(), "filter-store.dat");
+  }
+  
+  @Override
+  protected GenericTypeahead<SimpleElement> createTypeahead() throws Exception {
+    return new GenericTypeahead<SimpleElement>("Typeahead",
+                                               createElementStore(),
+                                               createConnectionsStore(),
+                                               createSelectorFactory(),
+                                               createBloomFilter(),
+                                               createScoreScanner(),
+                                               getMaxKeyLength(),
+                                               getFilterStoreFile());
+  }
+  
+  public void testFilterStore() throws Exception {
+    int elemId = getElementStoreIndexStart() + rand.nextInt(getElementStoreCapacity());
+    SimpleElement elem = new SimpleElement(elemId);
+    elem.setTimestamp(System.currentTimeMillis());
+    elem.setTerms("Bloom", "filter");
+    
+    typeahead.index(elem);
+    typeahead.sync();
+    
+    long hwMark = typeahead.getElementStore().getHWMark();
+    long filter = createBloomFilter().computeIndexFilter(elem);
+    
+    // Reopen with the same bloom filter: filters are valid and need no recompute
+    MappedLongFilterStore filterStore = new MappedLongFilterStore(
+        getFilterStoreFile(), getElementStoreIndexStart(), getElementStoreCapacity(), createBloomFilter(), hwMark);
+    assertTrue(filterStore.isValid(hwMark));
+    assertEquals(getFilterStoreFile(), filterStore.getFile());
+    assertFalse(filterStore.isValid(hwMark + 1));
+    assertEquals(filter, filterStore.get(elemId));
+    
+    // Updates through the typeahead are shared with the mapping
+    elem.setTerms("Bloom", "filter", "mapped");
+    elem.setTimestamp(elem.getTimestamp() + 1);
+    typeahead.index(elem);
+    assertEquals(createBloomFilter().computeIndexFilter(elem).longValue(), filterStore.get(elemId));
+    
+    List<SimpleElement> results = typeahead.search(0, new String[] {"filter", "map"});
+    assertEquals(1, results.size());
+    
+    // Filters updated after the last commit are not trusted
+    MappedLongFilterStore reopened = new MappedLongFilterStore(
+        getFilterStoreFile(), getElementStoreIndexStart(), getElementStoreCapacity(), createBloomFilter(), hwMark);
+    assertFalse(reopened.isValid(hwMark));
+    assertFalse(getFilterStoreFile().equals(reopened.getFile()));
+    
+    // Reopen with a different prefix length: the shared file is rebuilt into a new file
+    long liveFilter = filterStore.get(elemId);
+    reopened = new MappedLongFilterStore(
+        getFilterStoreFile(), getElementStoreIndexStart(), getElementStoreCapacity(), new FnvBloomFilterLong(getFilterPrefixLength() + 1), hwMark);
+    assertFalse(reopened.isValid(hwMark));
+    assertEquals(0, reopened.get(elemId));
+    assertEquals(liveFilter, filterStore.get(elemId));
+    
+    // The rebuilt file replaces the shared file upon commit, the live mapping is not affected
+    reopened.set(elemId, 1L);
+    reopened.commit(hwMark);
+    assertEquals(getFilterStoreFile(), reopened.getFile());
+    assertEquals(liveFilter, filterStore.get(elemId));
+    
+    results = typeahead.search(0, new String[] {"filter", "map"});
+    assertEquals(1, results.size());
+  }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test.typeahead;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import cleo.search.ElementSerializer;
+import cleo.search.SimpleElement;
+import cleo.search.SimpleElementSerializer;
+import cleo.search.selector.Selector;
+import cleo.search.selector.SelectorContext;
+import cleo.search.typeahead.QueryStrategy;
+
+/**
+ * TestGenericTypeaheadHotPrefixes
+ * 
+ * @since 10/18, 2026
+ */
+public class TestGenericTypeaheadHotPrefixes extends AbstractTestGenericTypeahead<SimpleElement> {
+  private final static int TOP_K = 10;
+  private final static String[] PREFIXES = { "a", "b", "c", "d", "ab", "ba", "cd", "dd", "ca" };
+  
+  @Override
+  protected ElementSerializer<SimpleElement> createElementSerializer() {
+    return new SimpleElementSerializer();
+  }
+  
+  private String randomTerm() {
+    int len = 1 + rand.nextInt(6);
+    StringBuilder sb = new StringBuilder(len);
+    for(int i = 0; i < len; i++) {
+      sb.append((char)('a' + rand.nextInt(4)));
+    }
+    return sb.toString();
+  }
+  
+  private void index(int elemId, float score, String... terms) throws Exception {
+    SimpleElement elem = new SimpleElement(elemId);
+    elem.setTerms(terms);
+    elem.setScore(score);
+    elem.setTimestamp(System.currentTimeMillis());
+    typeahead.index(elem);
+  }
+  
+  /**
+   * Gets the top element IDs of a prefix by scanning the element store.
+   */
+  private Set<Integer> topK(String prefix, int k) {
+    List<SimpleElement> list = new ArrayList<SimpleElement>();
+    Selector<SimpleElement> selector = createSelectorFactory().createSelector(prefix);
+    SelectorContext ctx = new SelectorContext();
+    for(int i = getElementStoreIndexStart(), end = i + getElementStoreCapacity(); i < end; i++) {
+      SimpleElement elem = typeahead.getElementStore().getElement(i);
+      if(elem != null && selector.select(elem, ctx)) {
+        list.add(elem);
+      }
+      ctx.clear();
+    }
+    
+    float[] scores = new float[list.size()];
+    for(int i = 0; i < scores.length; i++) {
+      scores[i] = list.get(i).getScore();
+    }
+    Arrays.sort(scores);
+    float min = scores.length < k ? Float.NEGATIVE_INFINITY : scores[scores.length - k];
+    
+    Set<Integer> set = new HashSet<Integer>();
+    for(SimpleElement elem : list) {
+      if(elem.getScore() >= min) set.add(elem.getElementId());
+    }
+    return set;
+  }
+  
+  private void checkPrefixes() {
+    for(String prefix : PREFIXES) {
+      List<SimpleElement> results = typeahead.search(0, new String[] {prefix}, TOP_K, Long.MAX_VALUE);
+      Set<Integer> expected = topK(prefix, TOP_K);
+      assertEquals(prefix, expected.size(), results.size());
+      for(SimpleElement elem : results) {
+        assertTrue(prefix, expected.contains(elem.getElementId()));
+      }
+    }
+  }
+  
+  public void testHotPrefixes() throws Exception {
+    typeahead.getElementStore().clear();
+    for(int i = 0; i < 2000; i++) {
+      index(getElementStoreIndexStart() + i, rand.nextFloat() * 1000, randomTerm(), randomTerm());
+    }
+    
+    typeahead.enableHotPrefixes(2, TOP_K);
+    checkPrefixes();
+    assertTrue(typeahead.getQueryStats().getNumQueries(QueryStrategy.TOP_K) >= PREFIXES.length);
+    
+    // Absent prefixes have no results
+    assertEquals(0, typeahead.search(0, new String[] {"x"}, TOP_K, Long.MAX_VALUE).size());
+    
+    // Queries asking for more than K results are not served by hot prefixes
+    long numTopK = typeahead.getQueryStats().getNumQueries(QueryStrategy.TOP_K);
+    assertEquals(topK("ab", Integer.MAX_VALUE).size(), typeahead.search(0, new String[] {"ab"}).size());
+    assertEquals(numTopK, typeahead.getQueryStats().getNumQueries(QueryStrategy.TOP_K));
+    
+    // Move the best elements of "a" away and let prefixes be rebuilt
+    for(int n = 0; n < 3; n++) {
+      for(int elemId : topK("a", TOP_K)) {
+        index(elemId, rand.nextFloat() * 1000, "zz" + randomTerm(), "yy");
+      }
+      checkPrefixes();
+    }
+    
+    // Score changes and random updates
+    for(int i = 0; i < 500; i++) {
+      int elemId = getElementStoreIndexStart() + rand.nextInt(2000);
+      SimpleElement elem = typeahead.getElementStore().getElement(elemId);
+      if(rand.nextBoolean()) {
+        index(elemId, rand.nextFloat() * 2000, elem.getTerms());
+      } else {
+        index(elemId, rand.nextFloat() * 1000, randomTerm(), randomTerm());
+      }
+    }
+    checkPrefixes();
+  }
+  
+  public void testEnableWhileIndexing() throws Exception {
+    typeahead.getElementStore().clear();
+    for(int i = 0; i < 2000; i++) {
+      index(getElementStoreIndexStart() + i, rand.nextFloat() * 1000, randomTerm(), randomTerm());
+    }
+    
+    final Exception[] failure = new Exception[1];
+    Thread indexer = new Thread() {
+      @Override
+      public void run() {
+        try {
+          for(int i = 0; i < 1000; i++) {
+            index(getElementStoreIndexStart() + rand.nextInt(2500), rand.nextFloat() * 2000, randomTerm(), randomTerm());
+          }
+        } catch(Exception e) {
+          failure[0] = e;
+        }
+      }
+    };
+    
+    indexer.start();
+    typeahead.enableHotPrefixes(2, TOP_K);
+    indexer.join();
+    
+    assertNull(failure[0]);
+    assertTrue(typeahead.getHotPrefixTable().isReady());
+    checkPrefixes();
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.test.typeahead;
+
+import java.io.File;
+import java.util.List;
+
+import cleo.search.SimpleElement;
+import cleo.search.store.ConnectionsStore;
+import cleo.search.store.LsmConnectionsStore;
+
+/**
+ * TestGenericTypeaheadLsm
+ * 
+ * @since 10/18, 2026
+ */
+public class TestGenericTypeaheadLsm extends TestGenericTypeahead {
+  
+  @Override
+  protected ConnectionsStore<String> createConnectionsStore() throws Exception {
+    // Freeze a memory segment every 50 updates and merge every 4 disk segments
+    return new LsmConnectionsStore(new File(getHomeDir(), "lsm"), super.createConnectionsStore(), 50, 4);
+  }
+  
+  public void testRealtimeUpdates() throws Exception {
+    int uid = 0;
+    List<SimpleElement> results;
+    LsmConnectionsStore connectionsStore = (LsmConnectionsStore)typeahead.getConnectionsStore();
+    assertNotNull(connectionsStore.getScoreStore());
+    
+    typeahead.getElementStore().clear();
+    
+    int indexStart = getElementStoreIndexStart();
+    for(int i = 0; i < 200; i++) {
+      SimpleElement elem = new SimpleElement(indexStart + i);
+      elem.setTimestamp(System.currentTimeMillis());
+      elem.setTerms("lsm", (i % 2 == 0) ? "even" : "odd");
+      typeahead.index(elem);
+    }
+    
+    results = typeahead.search(uid, new String[] {"ls", "ev"});
+    assertEquals(100, results.size());
+    
+    // Move odd elements to new terms, which leaves tombstones behind
+    for(int i = 1; i < 200; i += 2) {
+      SimpleElement elem = new SimpleElement(indexStart + i);
+      elem.setTimestamp(System.currentTimeMillis());
+      elem.setTerms("lsm", "moved");
+      typeahead.index(elem);
+    }
+    
+    results = typeahead.search(uid, new String[] {"od"});
+    assertEquals(0, results.size());
+    results = typeahead.search(uid, new String[] {"ls", "mo"});
+    assertEquals(100, results.size());
+    
+    connectionsStore.compact();
+    assertEquals(0, connectionsStore.getNumSegments());
+    int[] connections = connectionsStore.getBaseStore().getConnections("od");
+    assertTrue(connections == null || connections.length == 0);
+    assertEquals(200, connectionsStore.getBaseStore().getConnections("lsm").length);
+    
+    results = typeahead.search(uid, new String[] {"ls"});
+    assertEquals(200, results.size());
+  }
+}
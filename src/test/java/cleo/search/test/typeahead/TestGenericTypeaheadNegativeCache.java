@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test.typeahead;
+
+import cleo.search.ElementSerializer;
+import cleo.search.SimpleElement;
+import cleo.search.SimpleElementSerializer;
+import cleo.search.typeahead.NegativeResultCache;
+
+/**
+ * TestGenericTypeaheadNegativeCache
+ * 
+ * @since 10/18, 2026
+ */
+public class TestGenericTypeaheadNegativeCache extends AbstractTestGenericTypeahead<SimpleElement> {
+  
+  @Override
+  protected ElementSerializer<SimpleElement> createElementSerializer() {
+    return new SimpleElementSerializer();
+  }
+  
+  private void index(int elemId, String... terms) throws Exception {
+    SimpleElement elem = new SimpleElement(elemId);
+    elem.setTerms(terms);
+    elem.setTimestamp(System.currentTimeMillis());
+    typeahead.index(elem);
+  }
+  
+  private int search(String... terms) {
+    return typeahead.search(0, terms).size();
+  }
+  
+  public void testNegativeCache() throws Exception {
+    typeahead.getElementStore().clear();
+    index(getElementStoreIndexStart(), "john", "smith");
+    index(getElementStoreIndexStart() + 1, "jane", "smiley");
+    
+    NegativeResultCache cache = typeahead.getNegativeResultCache();
+    
+    assertEquals(0, search("xqzt"));
+    assertEquals(1, cache.size());
+    assertTrue(typeahead.isKnownEmpty(new String[] {"xqztr"}));
+    assertFalse(typeahead.isKnownEmpty(new String[] {"xqz"}));
+    
+    long numHits = cache.getNumHits();
+    assertEquals(0, search("xqztro"));
+    assertEquals(numHits + 1, cache.getNumHits());
+    
+    // Multiple terms
+    assertEquals(0, search("john", "smiley"));
+    assertTrue(typeahead.isKnownEmpty(new String[] {"john", "smileys"}));
+    assertTrue(typeahead.isKnownEmpty(new String[] {"john", "smiley", "x"}));
+    assertFalse(typeahead.isKnownEmpty(new String[] {"jo", "smiley"}));
+    assertFalse(typeahead.isKnownEmpty(new String[] {"john", "smi"}));
+    assertEquals(1, search("john", "smi"));
+    
+    // Indexing invalidates the cache
+    index(getElementStoreIndexStart() + 2, "xqztron");
+    assertFalse(typeahead.isKnownEmpty(new String[] {"xqztr"}));
+    assertEquals(0, cache.size());
+    assertEquals(1, search("xqztr"));
+    assertEquals(1, search("xqztro"));
+  }
+  
+  public void testCapacity() {
+    NegativeResultCache cache = new NegativeResultCache(4);
+    for(int i = 0; i < 100; i++) {
+      cache.addEmpty(new String[] {"q" + i, "x"}, 1);
+    }
+    assertTrue(cache.size() <= 8);
+    
+    // Replaced entries are forgotten, never confused with others
+    int numKnown = 0;
+    for(int i = 0; i < 100; i++) {
+      if(cache.isKnownEmpty(new String[] {"q" + i, "xy"}, 1)) numKnown++;
+      assertFalse(cache.isKnownEmpty(new String[] {"q" + i}, 1));
+      assertFalse(cache.isKnownEmpty(new String[] {"q" + i + "0", "y"}, 1));
+    }
+    assertEquals(cache.size(), numKnown);
+    
+    // Entries of another stamp are not found
+    assertFalse(cache.isKnownEmpty(new String[] {"q99", "x"}, 2));
+    assertEquals(0, cache.size());
+  }
+  
+  public void testConcurrentLookups() throws Exception {
+    final NegativeResultCache cache = new NegativeResultCache();
+    final int numQueries = 1000;
+    for(int i = 0; i < numQueries; i += 2) {
+      cache.addEmpty(new String[] {String.format("a%04d", i)}, 1);
+    }
+    
+    final boolean[] failed = new boolean[1];
+    Thread[] threads = new Thread[4];
+    for(int t = 0; t < threads.length; t++) {
+      threads[t] = new Thread() {
+        @Override
+        public void run() {
+          for(int i = 0; i < numQueries; i++) {
+            if(cache.isKnownEmpty(new String[] {String.format("a%04db", i)}, 1) != (i % 2 == 0)) {
+              failed[0] = true;
+            }
+          }
+        }
+      };
+      threads[t].start();
+    }
+    for(Thread t : threads) {
+      t.join();
+    }
+    
+    assertFalse(failed[0]);
+    assertEquals(numQueries * threads.length, cache.getNumHits() + cache.getNumMisses());
+  }
+}
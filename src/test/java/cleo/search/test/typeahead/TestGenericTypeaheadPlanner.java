@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test.typeahead;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import cleo.search.ElementSerializer;
+import cleo.search.SimpleElement;
+import cleo.search.SimpleElementSerializer;
+import cleo.search.selector.Selector;
+import cleo.search.selector.SelectorContext;
+import cleo.search.typeahead.QueryPlan;
+import cleo.search.typeahead.QueryPlanner;
+import cleo.search.typeahead.QueryStats;
+import cleo.search.typeahead.QueryStrategy;
+
+/**
+ * TestGenericTypeaheadPlanner
+ * 
+ * @since 10/18, 2026
+ */
+public class TestGenericTypeaheadPlanner extends AbstractTestGenericTypeahead<SimpleElement> {
+  
+  @Override
+  protected ElementSerializer<SimpleElement> createElementSerializer() {
+    return new SimpleElementSerializer();
+  }
+  
+  private String randomTerm() {
+    int len = 1 + rand.nextInt(6);
+    StringBuilder sb = new StringBuilder(len);
+    for(int i = 0; i < len; i++) {
+      sb.append((char)('a' + rand.nextInt(4)));
+    }
+    return sb.toString();
+  }
+  
+  private Set<Integer> select(String[] terms) {
+    Set<Integer> set = new HashSet<Integer>();
+    Selector<SimpleElement> selector = createSelectorFactory().createSelector(terms);
+    SelectorContext ctx = new SelectorContext();
+    for(int i = getElementStoreIndexStart(), end = i + getElementStoreCapacity(); i < end; i++) {
+      SimpleElement elem = typeahead.getElementStore().getElement(i);
+      if(elem != null && selector.select(elem, ctx)) {
+        set.add(elem.getElementId());
+      }
+      ctx.clear();
+    }
+    return set;
+  }
+  
+  public void testPlanner() {
+    QueryStats stats = new QueryStats(10000);
+    QueryPlanner planner = new QueryPlanner(stats, 10000, true, true, 16);
+    
+    assertEquals(QueryStrategy.EMPTY, planner.plan(new int[] {}, 0).getStrategy());
+    assertEquals(QueryStrategy.EMPTY, planner.plan(new int[] {0, 10}, 2).getStrategy());
+    
+    // Rare prefix
+    QueryPlan plan = planner.plan(new int[] {50}, 1);
+    assertEquals(QueryStrategy.SMALLEST_LIST, plan.getStrategy());
+    assertTrue(Double.isNaN(plan.getCost(QueryStrategy.INTERSECTION)));
+    
+    // Dense prefix
+    plan = planner.plan(new int[] {8000}, 1);
+    assertEquals(QueryStrategy.FULL_SCAN, plan.getStrategy());
+    assertTrue(plan.getCost(QueryStrategy.FULL_SCAN) < plan.getCost(QueryStrategy.SMALLEST_LIST));
+    
+    // Selective second prefix
+    plan = planner.plan(new int[] {800, 400}, 2);
+    assertEquals(QueryStrategy.INTERSECTION, plan.getStrategy());
+    
+    // Plans are cached by shape
+    long numCacheHits = planner.getNumCacheHits();
+    assertSame(plan, planner.plan(new int[] {410, 790}, 2));
+    assertEquals(numCacheHits + 1, planner.getNumCacheHits());
+    
+    // Low observed pass rates make intersection pointless
+    stats.observe(QueryStrategy.SMALLEST_LIST, 100000, 100);
+    plan = planner.plan(new int[] {800, 400}, 2);
+    assertEquals(QueryStrategy.SMALLEST_LIST, plan.getStrategy());
+    assertTrue(plan.explain().startsWith("SMALLEST_LIST"));
+    
+    // No full scan over score-ordered lists
+    planner = new QueryPlanner(stats, 10000, false, true, 16);
+    assertEquals(QueryStrategy.SMALLEST_LIST, planner.plan(new int[] {8000}, 1).getStrategy());
+  }
+  
+  public void testStrategies() throws Exception {
+    long scn = System.currentTimeMillis();
+    typeahead.getElementStore().clear();
+    
+    for(int i = 0; i < 4000; i++) {
+      SimpleElement elem = new SimpleElement(getElementStoreIndexStart() + i);
+      elem.setTerms(randomTerm(), randomTerm());
+      elem.setTimestamp(scn++);
+      typeahead.index(elem);
+    }
+    assertEquals(4000, typeahead.getQueryStats().getNumElements());
+    
+    String[][] queries = { {"ab", "cd"}, {"ba", "dc"}, {"a"}, {"b"}, {"abc"}, {"d", "ca"}, {"c", "d"}, {"ab", "cd"} };
+    for(String[] terms : queries) {
+      Set<Integer> expected = select(terms);
+      List<SimpleElement> results = typeahead.search(0, terms);
+      assertEquals(expected.size(), results.size());
+      for(SimpleElement elem : results) {
+        assertTrue(expected.contains(elem.getElementId()));
+      }
+    }
+    
+    QueryStats stats = typeahead.getQueryStats();
+    assertTrue(stats.getNumQueries(QueryStrategy.INTERSECTION) > 0);
+    assertEquals(0, stats.getNumQueries(QueryStrategy.FULL_SCAN));
+    assertTrue(stats.getNumQueries(QueryStrategy.SMALLEST_LIST) > 0);
+    
+    // Every planned query is a cache hit or a miss adding one plan
+    QueryPlanner planner = typeahead.getQueryPlanner();
+    assertTrue(planner.getCacheSize() > 0);
+    assertTrue(planner.getCacheSize() <= planner.getNumCacheMisses());
+    assertTrue(planner.getNumCacheHits() + planner.getNumCacheMisses() <= queries.length);
+  }
+  
+  public void testDenseTopK() throws Exception {
+    long scn = System.currentTimeMillis();
+    typeahead.getElementStore().clear();
+    
+    // Higher element IDs have higher scores
+    int numElements = 4000;
+    for(int i = 0; i < numElements; i++) {
+      SimpleElement elem = new SimpleElement(getElementStoreIndexStart() + i);
+      elem.setTerms("a" + randomTerm());
+      elem.setScore(i + 1);
+      elem.setTimestamp(scn++);
+      typeahead.index(elem);
+    }
+    typeahead.refresh();
+    
+    // Prefix "a" connects to most elements
+    List<SimpleElement> results = typeahead.search(0, new String[] {"a"}, 10, 1000);
+    assertEquals(10, results.size());
+    
+    Set<Integer> topIds = new HashSet<Integer>();
+    for(SimpleElement elem : results) {
+      topIds.add(elem.getElementId());
+    }
+    for(int i = numElements - 10; i < numElements; i++) {
+      assertTrue(topIds.contains(getElementStoreIndexStart() + i));
+    }
+  }
+  
+  public void testIntersectionReuse() throws Exception {
+    long scn = System.currentTimeMillis();
+    typeahead.getElementStore().clear();
+    
+    int numElements = 4000;
+    for(int i = 0; i < numElements; i++) {
+      SimpleElement elem = new SimpleElement(getElementStoreIndexStart() + i);
+      elem.setTerms(randomTerm(), randomTerm());
+      elem.setTimestamp(scn++);
+      typeahead.index(elem);
+    }
+    
+    String[] terms = new String[] {"ab", "cd"};
+    QueryStats stats = typeahead.getQueryStats();
+    
+    // Bitmaps built by the first query are reused by the second
+    for(int i = 0; i < 2; i++) {
+      long numIntersections = stats.getNumQueries(QueryStrategy.INTERSECTION);
+      assertEquals(select(terms).size(), typeahead.search(0, terms).size());
+      assertEquals(numIntersections + 1, stats.getNumQueries(QueryStrategy.INTERSECTION));
+    }
+    
+    // Indexing invalidates reused bitmaps
+    SimpleElement elem = new SimpleElement(getElementStoreIndexStart() + numElements);
+    elem.setTerms("abzz", "cdzz");
+    elem.setTimestamp(scn++);
+    typeahead.index(elem);
+    
+    Set<Integer> expected = select(terms);
+    assertTrue(expected.contains(elem.getElementId()));
+    
+    List<SimpleElement> results = typeahead.search(0, terms);
+    assertEquals(expected.size(), results.size());
+    for(SimpleElement e : results) {
+      assertTrue(expected.contains(e.getElementId()));
+    }
+  }
+  
+  public void testConcurrentStats() throws Exception {
+    final QueryStats stats = new QueryStats(10000);
+    final int numObservations = 10000;
+    
+    Thread[] threads = new Thread[4];
+    for(int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread() {
+        @Override
+        public void run() {
+          for(int j = 0; j < numObservations; j++) {
+            stats.observe(QueryStrategy.SMALLEST_LIST, 100, 10);
+          }
+        }
+      };
+      threads[i].start();
+    }
+    for(Thread t : threads) {
+      t.join();
+    }
+    
+    assertEquals(threads.length * numObservations, stats.getNumQueries(QueryStrategy.SMALLEST_LIST));
+    assertEquals(0.1, stats.getPassRate(QueryStrategy.SMALLEST_LIST), 0.01);
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.test.typeahead;
+
+import java.util.List;
+
+import cleo.search.SimpleElement;
+import cleo.search.filter.BloomFilter;
+import cleo.search.filter.PositionalBloomFilter;
+
+/**
+ * TestGenericTypeaheadPositional
+ * 
+ * @since 10/18, 2026
+ */
+public class TestGenericTypeaheadPositional extends TestGenericTypeahead {
+  
+  @Override
+  protected BloomFilter<Long> createBloomFilter() {
+    return new PositionalBloomFilter(getFilterPrefixLength(), 4);
+  }
+  
+  public void testScatteredPrefixes() throws Exception {
+    typeahead.getElementStore().clear();
+    
+    SimpleElement elem = new SimpleElement(getElementStoreIndexStart());
+    elem.setTerms("john", "smith");
+    elem.setTimestamp(System.currentTimeMillis());
+    typeahead.index(elem);
+    
+    List<SimpleElement> results = typeahead.search(0, new String[] {"jo", "sm"});
+    assertEquals(1, results.size());
+    
+    results = typeahead.search(0, new String[] {"smi"});
+    assertEquals(1, results.size());
+    
+    results = typeahead.search(0, new String[] {"jsm"});
+    assertEquals(0, results.size());
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+
+package cleo.search.test.typeahead;
+
+import java.util.Arrays;
+
+import cleo.search.ElementSerializer;
+import cleo.search.SimpleElement;
+import cleo.search.SimpleElementSerializer;
+
+/**
+ * TestGenericTypeaheadRefresh
+ * 
+ * @since 10/18, 2026
+ */
+public class TestGenericTypeaheadRefresh extends AbstractTestGenericTypeahead<SimpleElement> {
+  private final static int NUM_ELEMENTS = 3000;
+  
+  @Override
+  protected ElementSerializer<SimpleElement> createElementSerializer() {
+    return new SimpleElementSerializer();
+  }
+  
+  private void indexElements(int start, int num) throws Exception {
+    for(int i = 0; i < num; i++) {
+      SimpleElement elem = new SimpleElement(start + i);
+      elem.setTerms("t" + rand.nextInt(20), "u" + rand.nextInt(500));
+      elem.setScore(1 + rand.nextInt(50));
+      elem.setTimestamp(System.currentTimeMillis());
+      typeahead.index(elem);
+    }
+  }
+  
+  private void checkOrder(String source) {
+    int[] connections = typeahead.getConnectionsStore().getConnections(source);
+    assertNotNull(source, connections);
+    
+    for(int i = 1; i < connections.length; i++) {
+      float prev = typeahead.getElementStore().getElement(connections[i-1]).getScore();
+      float curr = typeahead.getElementStore().getElement(connections[i]).getScore();
+      assertTrue(source, prev > curr || (prev == curr && connections[i-1] < connections[i]));
+    }
+  }
+  
+  public void testParallelRefresh() throws Exception {
+    int start = getElementStoreIndexStart();
+    typeahead.getElementStore().clear();
+    indexElements(start, NUM_ELEMENTS);
+    
+    typeahead.refresh(4);
+    for(int i = 0; i < 20; i++) {
+      checkOrder("t" + i);
+    }
+    checkOrder("t");
+    checkOrder("u1");
+    
+    // Parallel and sequential refresh agree
+    int[] parallel = typeahead.getConnectionsStore().getConnections("t");
+    typeahead.refresh(1);
+    assertTrue(Arrays.equals(parallel, typeahead.getConnectionsStore().getConnections("t")));
+    
+    // Elements indexed after refresh are sorted into place
+    SimpleElement elem = new SimpleElement(start + NUM_ELEMENTS);
+    elem.setTerms("t0", "top");
+    elem.setScore(1000);
+    elem.setTimestamp(System.currentTimeMillis());
+    typeahead.index(elem);
+    
+    typeahead.refresh(4);
+    assertEquals(start + NUM_ELEMENTS, typeahead.getConnectionsStore().getConnections("t0")[0]);
+    checkOrder("t0");
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.test.typeahead;
+
+import java.io.File;
+import java.util.List;
+
+import cleo.search.ElementSerializer;
+import cleo.search.SimpleElement;
+import cleo.search.SimpleElementSerializer;
+import cleo.search.store.ElementChangeLog;
+import cleo.search.typeahead.GenericTypeaheadReplica;
+import cleo.search.typeahead.GenericTypeaheadReplicator;
+
+/**
+ * TestGenericTypeaheadReplica
+ * 
+ * @since 10/18, 2026
+ */
+public class TestGenericTypeaheadReplica extends AbstractTestGenericTypeahead<SimpleElement> {
+  
+  @Override
+  protected ElementSerializer<SimpleElement> createElementSerializer() {
+    return new SimpleElementSerializer();
+  }
+  
+  private SimpleElement element(int offset, String term, long scn) {
+    SimpleElement elem = new SimpleElement(getElementStoreIndexStart() + offset);
+    elem.setTerms(term);
+    elem.setTimestamp(scn);
+    return elem;
+  }
+  
+  public void testBootstrapAndCatchUp() throws Exception {
+    long scn = System.currentTimeMillis();
+    typeahead.getElementStore().clear();
+    
+    File replicationDir = new File(getHomeDir(), "replication");
+    GenericTypeaheadReplicator<SimpleElement> replicator =
+        new GenericTypeaheadReplicator<SimpleElement>(typeahead, replicationDir, createElementSerializer());
+    
+    for(int i = 0; i < 10; i++) {
+      replicator.index(element(i, "before" + i, scn++));
+    }
+    replicator.flush();
+    long snapshotId = replicator.publishSnapshot();
+    
+    // Changes published after the snapshot
+    replicator.index(element(20, "afterone", scn++));
+    replicator.index(element(21, "aftertwo", scn++));
+    replicator.flush();
+    
+    GenericTypeaheadReplica<SimpleElement> replica = GenericTypeaheadReplica.bootstrap(
+        replicationDir, new File(getHomeDir(), "replica"), "Replica",
+        createElementSerializer(), createSelectorFactory(), createBloomFilter());
+    
+    List<SimpleElement> results = replica.getTypeahead().search(0, new String[] {"before"});
+    assertEquals(10, results.size());
+    assertEquals(0, replica.getTypeahead().search(0, new String[] {"after"}).size());
+    
+    assertEquals(2, replica.catchUp());
+    assertEquals(scn - 1, replica.getSCN());
+    assertEquals(2, replica.getTypeahead().search(0, new String[] {"after"}).size());
+    assertEquals(0, replica.catchUp());
+    
+    // Tail across a change log roll-over
+    replicator.index(element(22, "afterthree", scn++));
+    replicator.flush();
+    replicator.publishSnapshot();
+    replicator.index(element(23, "afterfour", scn++));
+    replicator.flush();
+    
+    assertEquals(2, replica.catchUp());
+    assertEquals(4, replica.getTypeahead().search(0, new String[] {"after"}).size());
+    
+    // Unflushed changes are not visible
+    replicator.index(element(24, "afterfive", scn++));
+    assertEquals(0, replica.catchUp());
+    replicator.flush();
+    assertEquals(1, replica.catchUp());
+    
+    // Pruning keeps the latest snapshot and the change log segments it needs
+    assertEquals(1, replicator.prune(1));
+    assertEquals(1, GenericTypeaheadReplicator.listSnapshots(replicationDir).length);
+    assertFalse(ElementChangeLog.getSegmentFile(replicationDir, snapshotId).exists());
+    
+    replica.close();
+    replicator.close();
+  }
+}
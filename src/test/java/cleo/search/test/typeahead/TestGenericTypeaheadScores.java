@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test.typeahead;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.List;
+
+import cleo.search.ElementSerializer;
+import cleo.search.SimpleElement;
+import cleo.search.SimpleElementSerializer;
+import cleo.search.util.ElementScoreScanner;
+import cleo.search.util.ScoreHandler;
+import cleo.search.util.ScoreScanner;
+
+/**
+ * TestGenericTypeaheadScores
+ * 
+ * @since 10/18, 2026
+ */
+public class TestGenericTypeaheadScores extends AbstractTestGenericTypeahead<SimpleElement> {
+  private final static int NUM_ELEMENTS = 200;
+  
+  @Override
+  protected ElementSerializer<SimpleElement> createElementSerializer() {
+    return new SimpleElementSerializer();
+  }
+  
+  private int first(String prefix) {
+    return typeahead.getConnectionsStore().getConnections(prefix)[0];
+  }
+  
+  private File writeScores(String name, int start, int step) throws Exception {
+    File file = new File(getHomeDir(), name);
+    PrintWriter out = new PrintWriter(file);
+    for(int i = 0; i < NUM_ELEMENTS; i++) {
+      out.println((getElementStoreIndexStart() + i) + " " + (start + i * step));
+    }
+    out.close();
+    return file;
+  }
+  
+  public void testUpdateScores() throws Exception {
+    int start = getElementStoreIndexStart();
+    typeahead.getElementStore().clear();
+    for(int i = 0; i < NUM_ELEMENTS; i++) {
+      SimpleElement elem = new SimpleElement(start + i);
+      elem.setTerms("a" + i, "common");
+      elem.setScore(1 + i);
+      elem.setTimestamp(System.currentTimeMillis());
+      typeahead.index(elem);
+    }
+    
+    typeahead.refresh();
+    assertEquals(start + NUM_ELEMENTS - 1, first("a"));
+    
+    // Live updates
+    assertEquals(1, typeahead.updateScores(new int[] {start + 5, start + 6}, new float[] {5000, 7}, 2));
+    assertEquals(5000f, typeahead.getElementStore().getElement(start + 5).getScore());
+    assertTrue(typeahead.getMaxElementScore() >= 5000);
+    assertTrue(typeahead.getNumDirtySources() > 0);
+    assertEquals(start + NUM_ELEMENTS - 1, first("a"));
+    
+    assertTrue(typeahead.refreshDirty() > 0);
+    assertEquals(0, typeahead.getNumDirtySources());
+    assertEquals(start + 5, first("a"));
+    assertEquals(start + 5, first("comm"));
+    
+    List<SimpleElement> results = typeahead.search(0, new String[] {"co"}, 1, Long.MAX_VALUE);
+    assertEquals(start + 5, results.get(0).getElementId());
+    
+    // Full reloads in reverse order
+    File reversed = writeScores("reversed-score.txt", 10000, -10);
+    assertEquals(NUM_ELEMENTS, typeahead.reloadScores(new ElementScoreScanner(reversed)));
+    typeahead.refreshDirty();
+    assertEquals(start, first("a"));
+    
+    assertEquals(0, typeahead.reloadScores(new ElementScoreScanner(reversed)));
+    assertEquals(0, typeahead.refreshDirty());
+    
+    File ascending = writeScores("ascending-score.txt", 10, 10);
+    assertEquals(NUM_ELEMENTS, typeahead.reloadScores(new ElementScoreScanner(ascending)));
+    typeahead.refreshDirty();
+    assertEquals(start + NUM_ELEMENTS - 1, first("a"));
+    assertEquals(10f * NUM_ELEMENTS, typeahead.getElementStore().getElement(start + NUM_ELEMENTS - 1).getScore());
+  }
+  
+  public void testReloadPartialScores() throws Exception {
+    final int start = getElementStoreIndexStart();
+    typeahead.getElementStore().clear();
+    for(int i = 0; i < NUM_ELEMENTS; i++) {
+      SimpleElement elem = new SimpleElement(start + i);
+      elem.setTerms("a" + i, "common");
+      elem.setScore(1000 + i);
+      elem.setTimestamp(System.currentTimeMillis());
+      typeahead.index(elem);
+    }
+    
+    // Scores of even elements only, while element 2 is updated live
+    ScoreScanner scanner = new ScoreScanner() {
+      @Override
+      public void scan(ScoreHandler handler) {
+        for(int i = 0; i < NUM_ELEMENTS; i += 2) {
+          handler.handle(start + i, 5);
+          if(i == NUM_ELEMENTS / 2) {
+            try {
+              typeahead.updateScores(new int[] {start + 2, start + 3}, new float[] {9000, 8000}, 2);
+            } catch(Exception e) {
+              throw new RuntimeException(e);
+            }
+          }
+        }
+      }
+    };
+    assertEquals(NUM_ELEMENTS / 2 - 1, typeahead.reloadScores(scanner));
+    
+    for(int i = 0; i < NUM_ELEMENTS; i++) {
+      float expected = (i == 2) ? 9000 : (i == 3) ? 8000 : (i % 2 == 0) ? 5 : 1000 + i;
+      assertEquals(expected, typeahead.getElementStore().getElement(start + i).getScore());
+    }
+    
+    typeahead.refreshDirty();
+    assertEquals(start + 2, first("comm"));
+    assertEquals(start + 3, typeahead.getConnectionsStore().getConnections("comm")[1]);
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.test.typeahead;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+
+import cleo.search.ElementSerializer;
+import cleo.search.SimpleElement;
+import cleo.search.SimpleElementSerializer;
+import cleo.search.filter.FnvBloomFilterLong;
+import cleo.search.store.ConnectionsStore;
+import cleo.search.store.PostingCursor;
+import cleo.search.store.SnapshotConnectionsStore;
+import cleo.search.typeahead.GenericTypeahead;
+import cleo.search.typeahead.GenericTypeaheadSnapshot;
+
+/**
+ * TestGenericTypeaheadSnapshot
+ * 
+ * @since 10/18, 2026
+ */
+public class TestGenericTypeaheadSnapshot extends AbstractTestGenericTypeahead<SimpleElement> {
+  
+  @Override
+  protected ElementSerializer<SimpleElement> createElementSerializer() {
+    return new SimpleElementSerializer();
+  }
+  
+  private String randomTerm() {
+    int len = 1 + rand.nextInt(6);
+    StringBuilder sb = new StringBuilder(len);
+    for(int i = 0; i < len; i++) {
+      sb.append((char)('a' + rand.nextInt(5)));
+    }
+    return sb.toString();
+  }
+  
+  public void testWriteAndLoad() throws Exception {
+    long scn = System.currentTimeMillis();
+    typeahead.getElementStore().clear();
+    
+    for(int i = 0; i < 500; i++) {
+      int elemId = getElementStoreIndexStart() + rand.nextInt(getElementStoreCapacity());
+      SimpleElement elem = new SimpleElement(elemId);
+      elem.setTerms(randomTerm(), randomTerm());
+      elem.setScore(rand.nextInt(100));
+      elem.setTimestamp(scn++);
+      typeahead.index(elem);
+    }
+    typeahead.saveHWMark(scn);
+    typeahead.sync();
+    
+    File snapshotDir = new File(getHomeDir(), "snapshot");
+    
+    // A leftover of an earlier failed write is discarded
+    File staleDir = new File(getHomeDir(), "snapshot.tmp");
+    staleDir.mkdirs();
+    new File(staleDir, "stale.dat").createNewFile();
+    
+    assertEquals(scn, GenericTypeaheadSnapshot.write(typeahead, snapshotDir));
+    assertEquals(scn, GenericTypeaheadSnapshot.getSCN(snapshotDir));
+    
+    GenericTypeahead<SimpleElement> loaded = GenericTypeaheadSnapshot.load(
+        snapshotDir, "Snapshot", createElementSerializer(), createSelectorFactory(), createBloomFilter());
+    assertEquals(scn, loaded.getHWMark());
+    assertFalse(new File(snapshotDir, "stale.dat").exists());
+    
+    // A bloom filter configured differently is rejected
+    try {
+      GenericTypeaheadSnapshot.load(snapshotDir, "Snapshot", createElementSerializer(), createSelectorFactory(),
+                                    new FnvBloomFilterLong(getFilterPrefixLength() + 1));
+      fail("Incompatible bloom filter accepted");
+    } catch(IOException e) {}
+    
+    for(int i = getElementStoreIndexStart(), end = i + getElementStoreCapacity(); i < end; i++) {
+      SimpleElement elem = typeahead.getElementStore().getElement(i);
+      SimpleElement snap = loaded.getElementStore().getElement(i);
+      if(elem == null) {
+        assertNull(snap);
+      } else {
+        assertEquals(elem.getElementId(), snap.getElementId());
+        assertEquals(elem.getTimestamp(), snap.getTimestamp());
+      }
+    }
+    
+    ConnectionsStore<String> connectionsStore = loaded.getConnectionsStore();
+    Iterator<String> iter = connectionsStore.sourceIterator();
+    while(iter.hasNext()) {
+      String source = iter.next();
+      int[] connections = connectionsStore.getConnections(source);
+      PostingCursor cursor = connectionsStore.openCursor(source);
+      assertEquals(connections.length, cursor.size());
+      for(int connection : connections) {
+        assertEquals(connection, cursor.next());
+      }
+      assertFalse(cursor.hasNext());
+    }
+    
+    String[][] queries = { {"a"}, {"b", "c"}, {"ab"}, {"cd", "e"}, {"dea"} };
+    for(String[] terms : queries) {
+      List<SimpleElement> expected = typeahead.search(0, terms);
+      List<SimpleElement> actual = loaded.search(0, terms);
+      assertEquals(expected.size(), actual.size());
+    }
+    
+    // Replay a change newer than the snapshot on top of it
+    SimpleElement elem = new SimpleElement(getElementStoreIndexStart());
+    elem.setTerms("snapshot", "replay");
+    elem.setTimestamp(scn + 1);
+    loaded.index(elem);
+    
+    List<SimpleElement> results = loaded.search(0, new String[] {"snap", "rep"});
+    assertEquals(1, results.size());
+    assertEquals(elem.getElementId(), results.get(0).getElementId());
+    assertEquals(scn + 1, loaded.getHWMark());
+    assertTrue(((SnapshotConnectionsStore)loaded.getConnectionsStore()).getOverlaySize() > 0);
+    
+    // The overlay is not persisted
+    loaded.sync();
+    assertEquals(scn, loaded.getElementStore().getLWMark());
+    assertEquals(scn, loaded.getConnectionsStore().getLWMark());
+    
+    // A snapshot is immutable
+    try {
+      GenericTypeaheadSnapshot.write(loaded, snapshotDir);
+      fail("Snapshot overwritten");
+    } catch(Exception e) {}
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.test.typeahead;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import cleo.search.ElementSerializer;
+import cleo.search.SimpleElement;
+import cleo.search.SimpleElementSerializer;
+import cleo.search.typeahead.GenericTypeahead;
+import cleo.search.typeahead.MultiTypeahead;
+import cleo.search.typeahead.Typeahead;
+
+/**
+ * TestMultiTypeaheadSummary
+ * 
+ * @since 10/18, 2026
+ */
+public class TestMultiTypeaheadSummary extends AbstractTestGenericTypeahead<SimpleElement> {
+  
+  @Override
+  protected ElementSerializer<SimpleElement> createElementSerializer() {
+    return new SimpleElementSerializer();
+  }
+  
+  private void index(GenericTypeahead<SimpleElement> ta, int elemId, String... terms) throws Exception {
+    SimpleElement elem = new SimpleElement(elemId);
+    elem.setTerms(terms);
+    elem.setTimestamp(System.currentTimeMillis());
+    ta.index(elem);
+  }
+  
+  public void testSkipSources() throws Exception {
+    File dir = homeDir;
+    homeDir = new File(dir, "people");
+    GenericTypeahead<SimpleElement> people = createTypeahead();
+    homeDir = dir;
+    
+    index(typeahead, 1, "linkedin", "corporation");
+    index(typeahead, 2, "google");
+    index(people, 3, "jingwei", "wu");
+    index(people, 4, "peter", "smith");
+    
+    List<Typeahead<SimpleElement>> list = new ArrayList<Typeahead<SimpleElement>>();
+    list.add(typeahead);
+    list.add(people);
+    MultiTypeahead<SimpleElement> multi = new MultiTypeahead<SimpleElement>("Multi", list);
+    
+    List<SimpleElement> results = multi.search(0, new String[] {"link", "corp"});
+    assertEquals(1, results.size());
+    assertEquals(1, multi.getNumDispatchedSources());
+    assertEquals(1, multi.getNumSkippedSources());
+    
+    results = multi.search(0, new String[] {"smi"});
+    assertEquals(1, results.size());
+    assertEquals(4, results.get(0).getElementId());
+    assertEquals(2, multi.getNumSkippedSources());
+    
+    results = multi.search(0, new String[] {"xyz"});
+    assertEquals(0, results.size());
+    assertEquals(2, multi.getNumDispatchedSources());
+    assertEquals(4, multi.getNumSkippedSources());
+    
+    // Known empty queries are looked up once per dispatched source
+    long numMisses = people.getNegativeResultCache().getNumMisses();
+    results = multi.search(0, new String[] {"jin"});
+    assertEquals(1, results.size());
+    assertEquals(numMisses + 1, people.getNegativeResultCache().getNumMisses());
+    
+    // Updated terms are reflected in the summary
+    index(people, 4, "peter", "jones");
+    results = multi.search(0, new String[] {"jones"});
+    assertEquals(1, results.size());
+    assertFalse(people.getPrefixSummary().mightContain("smit"));
+    
+    // A new typeahead summarizes the existing connections after construction and does not skip until then
+    people.sync();
+    GenericTypeahead<SimpleElement> reopened = new GenericTypeahead<SimpleElement>("Reopened",
+        people.getElementStore(), people.getConnectionsStore(), createSelectorFactory(), createBloomFilter(), null, getMaxKeyLength());
+    assertNull(reopened.getPrefixSummary());
+    reopened.buildPrefixSummary();
+    assertTrue(reopened.getPrefixSummary().mightContainAll("jin", "jon", "pet"));
+    assertFalse(reopened.getPrefixSummary().mightContain("lin"));
+  }
+}
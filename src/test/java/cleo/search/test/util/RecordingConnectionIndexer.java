@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.test.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import cleo.search.connection.Connection;
+import cleo.search.connection.ConnectionFilter;
+import cleo.search.connection.FilteredConnectionIndexer;
+
+/**
+ * RecordingConnectionIndexer - A connection indexer recording the connections its filter accepts.
+ * 
+ * @since 10/18, 2026
+ */
+public class RecordingConnectionIndexer implements FilteredConnectionIndexer {
+  private final ConnectionFilter connFilter;
+  private final List<Connection> connections = new ArrayList<Connection>();
+  
+  public RecordingConnectionIndexer(ConnectionFilter connFilter) {
+    this.connFilter = connFilter;
+  }
+  
+  @Override
+  public ConnectionFilter getConnectionFilter() {
+    return connFilter;
+  }
+  
+  @Override
+  public boolean index(Connection conn) throws Exception {
+    if(!accept(conn)) {
+      return false;
+    }
+    
+    synchronized(connections) {
+      connections.add(conn);
+    }
+    return true;
+  }
+  
+  @Override
+  public void flush() throws IOException {}
+  
+  @Override
+  public boolean accept(Connection conn) {
+    return connFilter.accept(conn);
+  }
+  
+  @Override
+  public boolean accept(int source, int target, boolean active) {
+    return connFilter.accept(source, target, active);
+  }
+  
+  public List<Connection> getConnections() {
+    synchronized(connections) {
+      return new ArrayList<Connection>(connections);
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package cleo.search.test.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import cleo.search.RangeIndexer;
+import cleo.search.SimpleElement;
+import cleo.search.util.Range;
+
+/**
+ * RecordingIndexer - An indexer recording the elements in its range, which can hold them back until released.
+ * 
+ * @since 10/18, 2026
+ */
+public class RecordingIndexer implements RangeIndexer<SimpleElement> {
+  private final Range range;
+  private final List<SimpleElement> elements = new ArrayList<SimpleElement>();
+  private final CountDownLatch entered = new CountDownLatch(1);
+  private final CountDownLatch gate;
+  private volatile int numFlushes = 0;
+  
+  public RecordingIndexer(boolean open) {
+    this(open, null);
+  }
+  
+  /**
+   * @param open  - whether elements are let through right away
+   * @param range - the range of element IDs to index, <code>null</code> to index all elements
+   */
+  public RecordingIndexer(boolean open, Range range) {
+    this.gate = new CountDownLatch(open ? 0 : 1);
+    this.range = range;
+  }
+  
+  @Override
+  public Range getRange() {
+    return range;
+  }
+  
+  @Override
+  public boolean index(SimpleElement element) throws Exception {
+    if(range != null && !range.has(element.getElementId())) {
+      return false;
+    }
+    
+    entered.countDown();
+    gate.await();
+    
+    synchronized(elements) {
+      elements.add(element);
+    }
+    return true;
+  }
+  
+  @Override
+  public void flush() throws IOException {
+    numFlushes++;
+  }
+  
+  /**
+   * Waits until the first element reaches this indexer.
+   */
+  public void awaitEntered() throws InterruptedException {
+    entered.await();
+  }
+  
+  /**
+   * Lets the elements held back through.
+   */
+  public void release() {
+    gate.countDown();
+  }
+  
+  public List<SimpleElement> getElements() {
+    synchronized(elements) {
+      return new ArrayList<SimpleElement>(elements);
+    }
+  }
+  
+  public int getNumFlushes() {
+    return numFlushes;
+  }
+}
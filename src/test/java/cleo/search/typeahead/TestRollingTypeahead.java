@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2011 LinkedIn, Inc
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+
+package cleo.search.typeahead;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import cleo.search.Element;
+import cleo.search.ElementSerializer;
+import cleo.search.IndexRoller;
+import cleo.search.SimpleElement;
+import cleo.search.SimpleElementSerializer;
+import cleo.search.test.typeahead.AbstractTestGenericTypeahead;
+
+/**
+ * TestRollingTypeahead - Checks that pending elements are searchable until they are rolled over.
+ * 
+ * @since 10/18, 2026
+ */
+public class TestRollingTypeahead extends AbstractTestGenericTypeahead<SimpleElement> {
+  
+  @Override
+  protected ElementSerializer<SimpleElement> createElementSerializer() {
+    return new SimpleElementSerializer();
+  }
+  
+  protected SimpleElement createElement(int elemId, String... terms) {
+    SimpleElement elem = new SimpleElement(elemId);
+    elem.setTerms(terms);
+    elem.setScore(elemId);
+    elem.setTimestamp(System.currentTimeMillis());
+    return elem;
+  }
+  
+  public void testDeltaPostings() {
+    RollingDelta<SimpleElement> delta = new RollingDelta<SimpleElement>(getMaxKeyLength());
+    
+    int cnt = 10000;
+    for(int i = 0; i < cnt; i++) {
+      assertTrue(delta.add(createElement(i, "abc" + i, "abd" + i), 0));
+    }
+    assertFalse(delta.add(createElement(0, "xyz"), 0));
+    assertEquals(cnt, delta.size());
+    
+    // Prefixes shared by the terms of an element are posted once, in the order elements are added
+    int[] ids = delta.getPostings("ab");
+    assertEquals(cnt, ids.length);
+    for(int i = 0; i < cnt; i++) {
+      assertEquals(i, ids[i]);
+    }
+    assertTrue(Arrays.equals(new int[] { 7, 70, 71, 72, 73, 74, 75, 76, 77, 78, 79 }, Arrays.copyOf(delta.getPostings("abc7"), 11)));
+    
+    // Prefixes are cut at the maximum key length
+    assertNull(delta.getPostings("abc123"));
+    assertEquals(111, delta.getPostings("abc12").length);
+    
+    assertEquals(111, delta.getMinPostings(new String[] { "ab", "abd70" }).size());
+    assertNull(delta.getMinPostings(new String[] { "ab", "xyz" }));
+  }
+  
+  public void testMaxKeyLength() {
+    RollingTypeahead<SimpleElement> rolling =
+      new RollingTypeahead<SimpleElement>("Rolling", 100, new GenericTypeaheadIndexRoller<SimpleElement>(typeahead),
+                                          typeahead.getElementStore(), createSelectorFactory(), createBloomFilter());
+    assertEquals(typeahead.getMaxKeyLength(), rolling.getMaxKeyLength());
+    rolling.close();
+    
+    rolling = new RollingTypeahead<SimpleElement>("Rolling", 100, new GatedIndexRoller<SimpleElement>(null),
+                                                  typeahead.getElementStore(), createSelectorFactory(), createBloomFilter());
+    assertEquals(Integer.MAX_VALUE, rolling.getMaxKeyLength());
+    rolling.close();
+  }
+  
+  public void testPendingAndRollover() throws Exception {
+    int uid = 0;
+    GatedIndexRoller<SimpleElement> roller =
+      new GatedIndexRoller<SimpleElement>(new GenericTypeaheadIndexRoller<SimpleElement>(typeahead));
+    RollingTypeahead<SimpleElement> rolling =
+      new RollingTypeahead<SimpleElement>("Rolling", 100, typeahead.getMaxKeyLength(), roller,
+                                          typeahead.getElementStore(), createSelectorFactory(), createBloomFilter());
+    
+    try {
+      // The first element is handed to the roller, which blocks
+      assertTrue(rolling.offer(createElement(1, "alpha", "beta")));
+      roller.entered.await();
+      
+      // The second element stays in the active delta
+      assertTrue(rolling.offer(createElement(2, "gamma")));
+      assertFalse(rolling.offer(createElement(1, "alpha")));
+      assertEquals(2, rolling.getNumPending());
+      
+      List<SimpleElement> results = rolling.search(uid, new String[] { "al" });
+      assertEquals(1, results.size());
+      assertEquals(1, results.get(0).getElementId());
+      
+      results = rolling.search(uid, new String[] { "gam" });
+      assertEquals(1, results.size());
+      assertEquals(2, results.get(0).getElementId());
+      
+      assertEquals(0, rolling.search(uid, new String[] { "al", "gam" }).size());
+      
+      // Roll over
+      roller.gate.countDown();
+      long deadline = System.currentTimeMillis() + 10000;
+      while(rolling.getNumPending() > 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(0, rolling.getNumPending());
+      
+      assertTrue(Arrays.equals(new int[] { 1 }, typeahead.getConnectionsStore().getConnections("al")));
+      assertTrue(Arrays.equals(new int[] { 2 }, typeahead.getConnectionsStore().getConnections("gam")));
+      assertEquals(0, rolling.search(uid, new String[] { "al" }).size());
+    } finally {
+      roller.gate.countDown();
+      rolling.close();
+    }
+  }
+}
+
+/**
+ * An index roller which blocks until its gate is opened.
+ */
+class GatedIndexRoller<E extends Element> implements IndexRoller<E> {
+  final CountDownLatch entered = new CountDownLatch(1);
+  final CountDownLatch gate = new CountDownLatch(1);
+  final IndexRoller<E> roller;
+  
+  GatedIndexRoller(IndexRoller<E> roller) {
+    this.roller = roller;
+  }
+  
+  @Override
+  public boolean roll(Collection<E> elements) {
+    entered.countDown();
+    try {
+      gate.await();
+    } catch(InterruptedException e) {
+      return false;
+    }
+    return roller == null || roller.roll(elements);
+  }
+}